@@ -632,10 +632,11 @@ public class AMESFrame  extends JFrame{
         selectCasetDialog.setDialogType( JFileChooser.OPEN_DIALOG );
         selectCasetDialog.setDialogTitle( "Select Batch RandomSeeds Output..." );
 
-        String[] extensions =new String[1];
+        String[] extensions =new String[2];
         extensions[0] = "out";
+        extensions[1] = BinaryOutputWriter.EXTENSION;
         
-        caseFileFilter filter = new caseFileFilter(extensions, "*.out AMES Market Output Files");
+        caseFileFilter filter = new caseFileFilter(extensions, "*.out, *.amesb AMES Market Output Files");
         selectCasetDialog.setFileFilter(filter);
         
         if(bOpen)
@@ -648,7 +649,10 @@ public class AMESFrame  extends JFrame{
         if(returnVal == JFileChooser.APPROVE_OPTION) {
             outputFile = selectCasetDialog.getSelectedFile();
             
-            loadOutputData( );
+            if(outputFile.getName().toLowerCase().endsWith("."+BinaryOutputWriter.EXTENSION))
+                loadBinaryOutputData( );
+            else
+                loadOutputData( );
             
             System.out.println("Load user selected case output data file:"+outputFile.getName());
         }
@@ -1753,6 +1757,14 @@ public class AMESFrame  extends JFrame{
             
           Object [][] lseHybridData=getLSEHybridDemandData();
 
+          if(outputReader!=null){
+              // The histories are views of a binary output file
+              DailyHistory [] histories=new DailyHistory[AMESMarket.DAILY_HISTORY_NAMES.length];
+              for(int i=0; i<histories.length; i++)
+                  histories[i]=new DailyHistory();
+              getAMESMarket().setDailyHistories(histories);
+              closeOutputReader();
+          }
           getAMESMarket().getLMPWithTrueCost().clear();
           getAMESMarket().getGenAgentCommitmentWithTrueCost().clear();
           getAMESMarket().getGenAgentProfitAndNetGainWithTrueCost().clear();
@@ -2769,613 +2781,133 @@ public class AMESFrame  extends JFrame{
      
    }
 
-private void saveOutputData( ) {
-    if(isNewCase())
+     // Loads an output data file of the binary format (see BinaryOutputWriter).
+     //  The daily histories are shown through the reader's views, so each
+     //  view only reads its own datasets from the file, and the reader is
+     //  kept open until another output is loaded or a new run starts.
+     private void loadBinaryOutputData( ) {
+     try {
+          BinaryOutputReader reader = new BinaryOutputReader(outputFile);
+          boolean bLoaded=false;
+          try {
+               if((caseFile==null)||(!reader.getCaseFileName().equalsIgnoreCase(caseFile.getName()))
+                  ||(reader.getNumLSEs()!=iLSEData)||(reader.getNumGens()!=iGenData)
+                  ||(reader.getNumBranches()!=iBranchData)||(reader.getNumNodes()!=iNodeData)){
+                   String ErrorMessage="Please load "+reader.getCaseFileName()+" first!";
+                   JOptionPane.showMessageDialog(this, ErrorMessage, "Load Output Data Verification Message", JOptionPane.ERROR_MESSAGE);
+                   return;
+               }
+
+               if(reader.getNumDays(BinaryOutputWriter.GEN_LEARNING)>0)
+                   genLearningData=reader.readDay(BinaryOutputWriter.GEN_LEARNING, 0);
+
+               double [] controls=reader.readDay(BinaryOutputWriter.SIMULATION_CONTROLS, 0)[0];
+               RandomSeed=reader.getRandomSeed();
+               iMaxDay=(int)controls[BinaryOutputWriter.MAX_DAY];
+               dThresholdProbability=controls[BinaryOutputWriter.THRESHOLD_PROBABILITY];
+               dGenPriceCap=controls[BinaryOutputWriter.GEN_PRICE_CAP];
+               dLSEPriceCap=controls[BinaryOutputWriter.LSE_PRICE_CAP];
+               bMaximumDay=(controls[BinaryOutputWriter.MAXIMUM_DAY_CHECK]==1);
+               bThreshold=(controls[BinaryOutputWriter.THRESHOLD_CHECK]==1);
+               bActionProbabilityCheck=(controls[BinaryOutputWriter.ACTION_PROBABILITY_CHECK]==1);
+               iStartDay=(int)controls[BinaryOutputWriter.ACTION_PROBABILITY_START_DAY];
+               iCheckDayLength=(int)controls[BinaryOutputWriter.ACTION_PROBABILITY_DAY_LENGTH];
+               dActionProbability=controls[BinaryOutputWriter.ACTION_PROBABILITY_DIFFERENCE];
+               bLearningCheck=(controls[BinaryOutputWriter.LEARNING_CHECK]==1);
+               iLearningCheckStartDay=(int)controls[BinaryOutputWriter.LEARNING_CHECK_START_DAY];
+               iLearningCheckDayLength=(int)controls[BinaryOutputWriter.LEARNING_CHECK_DAY_LENGTH];
+               dLearningCheckDifference=controls[BinaryOutputWriter.LEARNING_CHECK_DIFFERENCE];
+               bDailyNetEarningThreshold=(controls[BinaryOutputWriter.NET_EARNING_CHECK]==1);
+               iDailyNetEarningStartDay=(int)controls[BinaryOutputWriter.NET_EARNING_START_DAY];
+               iDailyNetEarningDayLength=(int)controls[BinaryOutputWriter.NET_EARNING_DAY_LENGTH];
+               dDailyNetEarningThreshold=controls[BinaryOutputWriter.NET_EARNING_THRESHOLD];
+
+               ArrayList hasSolutionByDay=reader.readIntDays(BinaryOutputWriter.HAS_SOLUTION);
+               getAMESMarket().getHasSolutionByDay().clear();
+               for(int i=0; i<hasSolutionByDay.size(); i++)
+                   getAMESMarket().addHasSolutionByDay((int [])hasSolutionByDay.get(i));
+
+               DailyHistory [] histories=new DailyHistory[AMESMarket.DAILY_HISTORY_NAMES.length];
+               for(int i=0; i<histories.length; i++){
+                   String name=AMESMarket.DAILY_HISTORY_NAMES[i];
+                   histories[i]=reader.hasSection(name) ? reader.getHistory(name) : new DailyHistory();
+               }
+               getAMESMarket().setDailyHistories(histories);
+               closeOutputReader();
+               outputReader=reader;
+               bLoaded=true;
+          }
+          finally {
+               if(!bLoaded)
+                   reader.close();
+          }
+
+          enableViewMenu();
+     }
+     catch (IOException e)  {
+          JOptionPane.showMessageDialog(this, e.getMessage(), "Load Output Data Verification Message", JOptionPane.ERROR_MESSAGE);
+     }
+     
+   }
+
+// Closes the binary output file shown in the views, if any
+private void closeOutputReader( ) {
+    if(outputReader==null)
         return;
-    
+    try {
+        outputReader.close();
+    }
+    catch(IOException e) {
+        System.out.println("Cannot close "+outputFile.getName()+": "+e.getMessage());
+    }
+    outputReader=null;
+}
+
+// The output data file of the current run
+private File getOutputDataFile( ) {
     String caseFileName=caseFile.getName();
     caseFileName=caseFileName.substring(0, caseFileName.length()-4);
     String outputFileName="";           
 
     if(BatchMode==1){ // for multiple random seeds batch mode
        if(bMultiRandomSeeds)
-            outputFileName=caseFileName+"_"+iCurrentRandomSeedsIndex+".out";
+            outputFileName=caseFileName+"_"+iCurrentRandomSeedsIndex+"."+BinaryOutputWriter.EXTENSION;
        else if(bMultiCases&&(!bMultiRandomSeeds))
-           outputFileName=caseFileName+".out";
+           outputFileName=caseFileName+"."+BinaryOutputWriter.EXTENSION;
     } 
     else
-        outputFileName=caseFileName+"_temp.out";
+        outputFileName=caseFileName+"_temp."+BinaryOutputWriter.EXTENSION;
     
-       File outputFile=new File(caseFile.getParent()+"\\"+outputFileName);
-
-       try {
-            FileWriter       outputFileWriter = new FileWriter(outputFile);
-            BufferedWriter   outputBufferWriter = new BufferedWriter(outputFileWriter);
-
-            String [] nodeName=getNodeNameData( );
-            int iNodeNumber=nodeName.length;
-            
-            ArrayList LMPWithTrueCost=getAMESMarket().getLMPWithTrueCost();
-            int iLMPWithTrueCost=LMPWithTrueCost.size();
-             
-            ArrayList genAgentProfitWithTrueCost=getAMESMarket().getGenAgentProfitAndNetGainWithTrueCost();
-            int igenAgentProfitWithTrueCost=genAgentProfitWithTrueCost.size();
-            
-            ArrayList genAgentCommitmentWithTrueCost=getAMESMarket().getGenAgentCommitmentWithTrueCost();
-            int igenAgentCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.size();
-
-            ArrayList lseAgentPriceSensitiveDemandWithTrueCost=getAMESMarket().getLSEAgentPriceSensitiveDemandWithTrueCost();
-            int ilseAgentPriceSensitiveDemandWithTrueCost=lseAgentPriceSensitiveDemandWithTrueCost.size();
-      
-            ArrayList LSEAgentSurplusWithTrueCost=getAMESMarket().getLSEAgentSurplusWithTrueCost();
-            int iLSEAgentSurplusWithTrueCost=LSEAgentSurplusWithTrueCost.size();
-
-            ArrayList hasSolutionByDay=getAMESMarket().getHasSolutionByDay();
-            int ihasSolutionByDay=hasSolutionByDay.size();
-            
-            ArrayList genAgentSupplyOfferByDay=getAMESMarket().getGenAgentSupplyOfferByDay();
-            int igenAgentSupplyOfferByDay=genAgentSupplyOfferByDay.size();
-      
-            ArrayList genAgentCommitmentByDay=getAMESMarket().getGenAgentCommitmentByDay();
-            int igenAgentCommitmentByDay=genAgentCommitmentByDay.size();
-            
-            ArrayList genAgentProfitAndNetGainByDay=getAMESMarket().getGenAgentProfitAndNetGainByDay();
-            int igenAgentProfitAndNetGainByDay=genAgentProfitAndNetGainByDay.size();
-       
-            ArrayList getGenAgentActionPropensityAndProbilityByDay=getAMESMarket().getGenAgentActionPropensityAndProbilityByDay();
-            int igetGenAgentActionPropensityAndProbilityByDay=getGenAgentActionPropensityAndProbilityByDay.size();
-       
-            ArrayList lseAgentSurplusByDay=getAMESMarket().getLSEAgentSurplusByDay();
-            int ilseAgentSurplusByDay=lseAgentSurplusByDay.size();
-      
-            ArrayList priceSensitiveByDay=getAMESMarket().getLSEAgenPriceSensitiveDemandByDay();
-            int ipriceSensitiveByDay=priceSensitiveByDay.size();
-       
-            ArrayList branchFlowByDay=getAMESMarket().getBranchFlowByDay();
-            int ibranchFlowByDay=branchFlowByDay.size();
-            
-            ArrayList LMPByDay=getAMESMarket().getLMPByDay();
-            int iLMPByDay=LMPByDay.size();
-      
-            ArrayList genAction=getAMESMarket().getGenActions();
-            
-            Object [][] branchData=getBranchData( );
-            int iBranchNumber=branchData.length;
-         
-            Object [][] genData=getGeneratorData( );
-            int iGenNumber=genData.length;
-            
-            Object [][] lseHybridData=getLSEHybridDemandData();
-            int iLSENumber=lseHybridData.length;
-            
-            String strTemp;
-
-            outputBufferWriter.write("// Output Data File:\n");
-            outputBufferWriter.write("//\n");
-            strTemp = "// FILENAME "+outputFile.getName()+"\n";
-            outputBufferWriter.write(strTemp);
-            outputBufferWriter.write("//\n");
-
-            strTemp = "// CASE FILENAME :\n";
-            outputBufferWriter.write(strTemp);
-            strTemp = caseFile.getName()+"\n";
-            outputBufferWriter.write(strTemp);
-            outputBufferWriter.write("\n");
-            
-            strTemp=String.format("//%1$13s\t%2$15s\t%3$15s\t%4$15s\n", "iNodeNumber", "iBranchNumber", "iGenNumber", "iLSENumber");
-            outputBufferWriter.write(strTemp);
-            strTemp=String.format("%1$15d\t%2$15d\t%3$15d\t%4$15d\n", iNodeNumber, iBranchNumber, iGenNumber, iLSENumber);
-            outputBufferWriter.write(strTemp);
-
-            strTemp=String.format("//%1$18s\t%2$25s\t%3$27s\t%4$20s\t%5$20s\t%6$25s\t%7$20s\t%8$20s\t%9$20s\t%10$20s\n", "iLMPWithTrueCost", "iGenCommitWithTrueCost", "iLSEPSDispatchWithTrueCost", "igenAgentSupplyOffer", "igenAgentCommitment", 
-                    "igenAgentProfitAndNetGain", "ilseAgentSurplus", "ipriceSensitive", "ibranchFlow", "iLMP");
-            outputBufferWriter.write(strTemp);
-            strTemp=String.format("%1$20d\t%2$25d\t%3$27d\t%4$20d\t%5$20d\t%6$25d\t%7$20d\t%8$20d\t%9$20d\t%10$20d\n", iLMPWithTrueCost, igenAgentCommitmentWithTrueCost, ilseAgentPriceSensitiveDemandWithTrueCost, igenAgentSupplyOfferByDay, igenAgentCommitmentByDay, 
-                    igenAgentProfitAndNetGainByDay, ilseAgentSurplusByDay, ipriceSensitiveByDay, ibranchFlowByDay, iLMPByDay);
-            outputBufferWriter.write(strTemp);
-          
-            strTemp=String.format("//%1$15s\t%2$20s\t%3$20s\t%4$8s\t%5$8s\t%6$8s\t%7$8s\t%8$20s\t%9$20s\t%10$20s\t%11$20s\t%12$20s\n", "Cooling", "Experimentation", "InitPropensity", "Recency", "M1", "M2", 
-                    "M3", "RI_MAX_Lower", "RI_MAX_Upper", "RI_MIN_C", "SlopeStart", "RewardSelection");
-            outputBufferWriter.write(strTemp);
-            
-            for(int i=0; i<iGenNumber; i++){
-                strTemp=String.format("%1$17f\t%2$20f\t%3$20f\t%4$8f\t%5$8d\t%6$8d\t%7$8d\t%8$20f\t%9$20f\t%10$20f\t%11$20f\t%12$20d\n", 
-                        genLearningData[i][0],
-                        genLearningData[i][1],
-                        genLearningData[i][2],
-                        genLearningData[i][3],
-                        (int)genLearningData[i][4],
-                        (int)genLearningData[i][5],
-                        (int)genLearningData[i][6],
-                        genLearningData[i][7],
-                        genLearningData[i][8],
-                        genLearningData[i][9],
-                        genLearningData[i][10],
-                        (int)genLearningData[i][11]);
-                
-                outputBufferWriter.write(strTemp);
-            }
-          
-            strTemp=String.format("//%1$18s\t%2$8s\t%3$25s\t%4$15s\t%5$15s\t%6$12s\t%7$12s\n", "RandomSeed", "iMaxDay", "dThresholdProbability", "dGenPriceCap", "dLSEPriceCap", 
-                    "bMaximumDay", "bThreshold");
-            outputBufferWriter.write(strTemp);
-           
-            int MaximumDay;
-            if(bMaximumDay)
-                MaximumDay=1;
-            else 
-                MaximumDay=0;
-            
-            int Threshold;
-            if(bThreshold)
-                Threshold=1;
-            else 
-                Threshold=0;
-            
-            strTemp=String.format("%1$20d\t%2$8d\t%3$25f\t%4$15f\t%5$15f\t%6$12d\t%7$12d\n", RandomSeed, iMaxDay, dThresholdProbability, dGenPriceCap, dLSEPriceCap, 
-                    MaximumDay, Threshold);
-            outputBufferWriter.write(strTemp);
-          
-            strTemp=String.format("//%1$13s\t%2$15s\t%3$15s\t%4$15s\t%5$15s\t%6$15s\t%7$15s\t%8$15s\t%9$15s\t%10$15s\t%11$15s\t%12$15s\n", 
-                    "bActionProb", 
-                    "iStartDay", 
-                    "iDayLength", 
-                    "dActionProb", 
-                    "bLearnProb", 
-                    "iLearnStartDay", 
-                    "iLearnDayLength", 
-                    "dLearnProb", 
-                    "bNetEarning", 
-                    "iNEStartDay", 
-                    "iNEDayLength", 
-                    "dNEThreshold");
-            outputBufferWriter.write(strTemp);
-           
-            int bActionProb;
-            if(bActionProbabilityCheck)
-                bActionProb=1;
-            else 
-                bActionProb=0;
-            
-            int bLearnProb;
-            if(bLearningCheck)
-                bLearnProb=1;
-            else 
-                bLearnProb=0;
-            
-            int bNetEarning;
-            if(bDailyNetEarningThreshold)
-                bNetEarning=1;
-            else 
-                bNetEarning=0;
-            
-            strTemp=String.format("%1$15d\t%2$15d\t%3$15d\t%4$15f\t%5$15d\t%6$15d\t%7$15d\t%8$15f\t%9$15d\t%10$15d\t%11$15d\t%12$15f\n", 
-                    bActionProb, 
-                    iStartDay, 
-                    iCheckDayLength, 
-                    dActionProbability, 
-                    bLearnProb, 
-                    iLearningCheckStartDay, 
-                    iLearningCheckDayLength,
-                    dLearningCheckDifference,
-                    bNetEarning,
-                    iDailyNetEarningStartDay,
-                    iDailyNetEarningDayLength,
-                    dDailyNetEarningThreshold);
-            
-            outputBufferWriter.write(strTemp);
-          
-            
-            outputBufferWriter.write("#LMPWithTrueCostDataStart\n");
-            strTemp=String.format("//%1$5s", "Hour");
-            for(int i=0; i<iNodeNumber; i++){
-                String NodeID=nodeName[i];
-                strTemp+=String.format("\t%1$15s", NodeID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<iLMPWithTrueCost; i++){
-                double [][] lmp=(double [][])LMPWithTrueCost.get(i);
+    return new File(caseFile.getParent()+"\\"+outputFileName);
+}
 
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d", h);
-    
-                    for(int j=0; j<iNodeNumber; j++){
-                        strTemp+=String.format("\t%1$15f", lmp[h][j]);
-                    }
-                    
-                    strTemp+="\n";
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#LMPWithTrueCostDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#GeneratorCommitmentWithTrueCostDataStart\n");
-            strTemp=String.format("//%1$5s", "Hour");
-            for(int i=0; i<iGenNumber; i++){
-                String GenID=genData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", GenID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
+// Starts writing the output data file of the run as its days are computed
+private void startOutputData( ) {
+    if(isNewCase()||(amesMarket.getOutputSink()!=null))
+        return;
 
-            for(int i=0; i<igenAgentCommitmentWithTrueCost; i++){
-                double [][] genCommitmentWithTrueCost=(double [][])genAgentCommitmentWithTrueCost.get(i);
+    try {
+         amesMarket.setOutputSink(new StreamingOutputWriter(getOutputDataFile(), caseFile.getName(), amesMarket));
+    }
+    catch (IOException e)  {
+         System.out.println("Cannot write the output data file: "+e.getMessage());
+    }
+}
 
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d", h);
+private void saveOutputData( ) {
+    if(isNewCase())
+        return;
     
-                    for(int j=0; j<iGenNumber; j++){
-                        strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[h][j]);
-                    }
-                    
-                    strTemp+="\n";
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#GeneratorCommitmentWithTrueCostDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#GeneratorProfitWithTrueCostDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$8s\t%3$15s\t%4$15s\t%5$15s", "Hour", "GenID", "Profit", "Net Earnings", "Revenue");
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-            
-            double [][] genCommitmentWithTrueCost=(double [][])genAgentProfitWithTrueCost.get(0);
-            
-            for(int h=0; h<25; h++){
-                for(int i=0; i<iGenNumber; i++){
-                    if(h==0){// total
-                        strTemp=String.format("%1$7s", "Total");
-                    }
-                    else
-                        strTemp=String.format("%1$7d", h);
-                    
-                    String GenID=genData[i][0].toString();
-                    strTemp+=String.format("\t%1$8s", GenID);
-                        
-                    strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[i][h*3]);
-                    strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[i][h*3+1]);
-                    strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[i][h*3+2]);
-                     
-                    strTemp+="\n";
-                    outputBufferWriter.write(strTemp);
-                }
-                
-            }
-            outputBufferWriter.write("#GeneratorProfitWithTrueCostDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#LSEPriceSensitiveDemandWithTrueCostDataStart\n");
-            strTemp=String.format("//%1$5s", "Hour");
-            for(int i=0; i<iLSENumber; i++){
-                String LSEID=lseHybridData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", LSEID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<ilseAgentPriceSensitiveDemandWithTrueCost; i++){
-                double [][] priceSensitive=(double [][])lseAgentPriceSensitiveDemandWithTrueCost.get(i);
-
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d", h);
-                    int psLoadIndex=0;
-                    
-                    for(int j=0; j<iLSENumber; j++){
-                        int hourlyLoadHybridFlagByLSE=Integer.parseInt(lseHybridData[j][h+3].toString());
-                                  
-                        if((hourlyLoadHybridFlagByLSE&2)==2)
-                            strTemp+=String.format("\t%1$15f", priceSensitive[h][psLoadIndex++]);
-                        else
-                            strTemp+=String.format("\t%1$15f", 0.0);
-                    }
-                    
-                    strTemp+="\n";    
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#LSEPriceSensitiveDemandWithTrueCostDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#LSESurplusWithTrueCostDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$8s\t%3$15s", "Hour", "LSEID", "Surplus");
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-            
-            double [][] lseAgentSurplusWithTrueCost=(double [][])LSEAgentSurplusWithTrueCost.get(0);
-            
-            for(int h=0; h<25; h++){
-                for(int i=0; i<iLSENumber; i++){
-                    if(h==0){// total
-                        strTemp=String.format("%1$7s", "Total");
-                    }
-                    else
-                        strTemp=String.format("%1$7d", h);
-                    
-                    String LSEID=lseHybridData[i][0].toString();
-                    strTemp+=String.format("\t%1$8s", LSEID);
-                        
-                    strTemp+=String.format("\t%1$15f", lseAgentSurplusWithTrueCost[i][h]);
-                     
-                    strTemp+="\n";
-                    outputBufferWriter.write(strTemp);
-                }
-                
-            }
-            outputBufferWriter.write("#LSESurplusWithTrueCostDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#HasSolutionDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$4s\t%3$4s\t%4$4s\t%5$4s\t%6$4s\t%7$4s\t%8$4s\t%9$4s\t%10$4s\t%11$4s\t%12$4s\t%13$4s\t%14$4s\t%15$4s\t%16$4s\t%17$4s\t%18$4s\t%19$4s\t%20$4s\t%21$4s\t%22$4s\t%23$4s\t%24$4s\t%25$4s\n", 
-                    "Day", "H-00", "H-01", "H-02", "H-03", "H-04", "H-05", "H-06", "H-07",
-                           "H-08", "H-09", "H-10", "H-11", "H-12", "H-13", "H-14", "H-15",
-                           "H-16", "H-17", "H-18", "H-19", "H-20", "H-21", "H-22", "H-23");
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<ihasSolutionByDay; i++){
-                int [] hasSolution=(int [])hasSolutionByDay.get(i);
-
-                strTemp=String.format("%1$7d\t",i+1);
-                for(int j=0; j<24; j++)
-                    strTemp+=String.format("%1$4d\t",hasSolution[j]);
-
-                strTemp+="\n";
-
-                outputBufferWriter.write(strTemp);
-                
-            }
-            
-            outputBufferWriter.write("#HasSolutionDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#GeneratorSupplyOfferDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\t%4$15s\t%5$15s\t%6$15s\n", "Day", "GenCo Name", "aR ($/MWh)", "bR ($/MW2h)", "CapRL (MW)", "CapRU (MW)");
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<igenAgentSupplyOfferByDay; i++){
-                double [][] genOffer=(double [][])genAgentSupplyOfferByDay.get(i);
-
-                for(int j=0; j<iGenNumber; j++){
-                    strTemp=String.format("%1$5d\t%2$10s\t", i+1, genData[j][0].toString());
-                    strTemp+=String.format("%1$15f\t%2$15f\t%3$15f\t%4$15f\n", genOffer[j][0], genOffer[j][1], genOffer[j][2], genOffer[j][3]);
-
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#GeneratorSupplyOfferDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#GeneratorCommitmentDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
-            for(int i=0; i<iGenNumber; i++){
-                String GenID=genData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", GenID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<igenAgentCommitmentByDay; i++){
-                double [][] genCommitment=(double [][])genAgentCommitmentByDay.get(i);
-
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d\t%2$5d", i+1, h);
-                    
-                    for(int j=0; j<iGenNumber; j++){
-                        strTemp+=String.format("\t%1$15f", genCommitment[h][j]);
-                    }
-                    
-                    strTemp+="\n";    
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#GeneratorCommitmentDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#GeneratorProfitDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\t%4$15s\t%5$14s\n", "Day", "GenCo Name", "Profit($/H)", "Net Earnings($/H)", "Revenues($/H)");
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<igenAgentProfitAndNetGainByDay; i++){
-                double [][] genProfit=(double [][])genAgentProfitAndNetGainByDay.get(i);
-
-                for(int j=0; j<iGenNumber; j++){
-                    strTemp=String.format("%1$5d\t%2$10s\t", i+1, genData[j][0].toString());
-                    strTemp+=String.format("%1$15f\t%2$15f\t%3$15f\n", genProfit[j][0], genProfit[j][1], genProfit[j][2]);
-
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#GeneratorProfitDataEnd\n");
-            outputBufferWriter.write("\n");
-
-            outputBufferWriter.write("#GeneratorPropensityDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\t%4$15s\t%5$14s\n", "Day", "GenCo Name", "ActionID", "Propensity", "Probability");
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<igetGenAgentActionPropensityAndProbilityByDay; i++){
-                double [][] genProp=(double [][])getGenAgentActionPropensityAndProbilityByDay.get(i);
-
-                for(int j=0; j<iGenNumber; j++){
-                    strTemp=String.format("%1$5d\t%2$10s\t", i+1, genData[j][0].toString());
-                    strTemp+=String.format("%1$15f\t%2$15f\t%3$15f\n", genProp[j][0], genProp[j][1], genProp[j][2]);
-
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#GeneratorPropensityDataEnd\n");
-            outputBufferWriter.write("\n");
-
-            outputBufferWriter.write("#LSESurplusDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\n", "Day", "LSE Name", "Surplus($/H)");
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<ilseAgentSurplusByDay; i++){
-                double [][] lseSurplus=(double [][])lseAgentSurplusByDay.get(i);
-
-                for(int j=0; j<iLSENumber; j++){
-                    strTemp=String.format("%1$5d\t%2$10s\t", i+1, lseHybridData[j][0].toString());
-                    strTemp+=String.format("%1$15f\n", lseSurplus[j][0]);
-
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#LSESurplusDataEnd\n");
-            outputBufferWriter.write("\n");
-
-            outputBufferWriter.write("#LSEPriceSensitiveDemandDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
-            for(int i=0; i<iLSENumber; i++){
-                String LSEID=lseHybridData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", LSEID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<ipriceSensitiveByDay; i++){
-                double [][] priceSensitive=(double [][])priceSensitiveByDay.get(i);
-
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d\t%2$5d", i+1, h);
-                    int psLoadIndex=0;
-                    
-                    for(int j=0; j<iLSENumber; j++){
-                        int hourlyLoadHybridFlagByLSE=Integer.parseInt(lseHybridData[j][h+3].toString());
-                                  
-                        if((hourlyLoadHybridFlagByLSE&2)==2)
-                            strTemp+=String.format("\t%1$15f", priceSensitive[h][psLoadIndex++]);
-                        else
-                            strTemp+=String.format("\t%1$15f", 0.0);
-                    }
-                    
-                    strTemp+="\n";    
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#LSEPriceSensitiveDemandDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#BranchPowerFlowDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
-            for(int i=0; i<iBranchNumber; i++){
-                String BranchID=branchData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", BranchID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<ibranchFlowByDay; i++){
-                double [][] branchFlow=(double [][])branchFlowByDay.get(i);
-
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d\t%2$5d", i+1, h);
-                    
-                    for(int j=0; j<iBranchNumber; j++){
-                        strTemp+=String.format("\t%1$15f", branchFlow[h][j]);
-                    }
-                    
-                    strTemp+="\n";    
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#BranchPowerFlowDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#NodeLMPDataStart\n");
-            strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
-            for(int i=0; i<iNodeNumber; i++){
-                String NodeID=nodeName[i];
-                strTemp+=String.format("\t%1$15s", NodeID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int i=0; i<iLMPByDay; i++){
-                double [][] lmp=(double [][])LMPByDay.get(i);
-
-                for(int h=0; h<24; h++){
-                    strTemp=String.format("%1$5d\t%2$5d", i+1, h);
-                    
-                    for(int j=0; j<iNodeNumber; j++){
-                        strTemp+=String.format("\t%1$15f", lmp[h][j]);
-                    }
-                    
-                    strTemp+="\n";    
-                    outputBufferWriter.write(strTemp);
-                }
-            }
-            
-            outputBufferWriter.write("#NodeLMPDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("#GeneratorLastDayActionDataStart\n");
-            strTemp=String.format("//%1$10s", "ActNumber");
-            for(int i=0; i<iGenNumber; i++){
-                String GenID=genData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", GenID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            double [][] Action=(double [][])genAction.get(0);
-
-            strTemp="            ";
-            int iMaxActionNumber=0;
-            for(int i=0; i<iGenNumber; i++){
-                int ActNumber=Action[i].length;
-                if(iMaxActionNumber<ActNumber)
-                    iMaxActionNumber=ActNumber;
-                
-                strTemp+=String.format("\t%1$15d", ActNumber);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-            
-            strTemp=String.format("//%1$8s", "ActID");
-            for(int i=0; i<iGenNumber; i++){
-                String GenID=genData[i][0].toString();
-                strTemp+=String.format("\t%1$15s", GenID);
-            }
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-
-            for(int actID=0; actID<iMaxActionNumber; actID++){
-                strTemp=String.format("%1$10d", actID);
-
-                for(int j=0; j<iGenNumber; j++){
-                    if(actID<Action[j].length)
-                        strTemp+=String.format("\t%1$15f", Action[j][actID]);
-                    else
-                        strTemp+=String.format("\t%1$15f", 0.0);
-                }
+       File outputFile=getOutputDataFile();
 
-                strTemp+="\n";
-                outputBufferWriter.write(strTemp);
+       try {
+            OutputSink outputSink=getAMESMarket().getOutputSink();
+            if(outputSink!=null){
+                getAMESMarket().setOutputSink(null);
+                outputSink.close();
             }
-            
-            outputBufferWriter.write("#GeneratorLastDayActionDataEnd\n");
-            outputBufferWriter.write("\n");
-            
-            outputBufferWriter.write("\n\n\n");
-            strTemp="StopCode=";
-            strTemp+=String.format("\t%1$15d", amesMarket.getStopCode());
-            strTemp+="\n";
-            outputBufferWriter.write(strTemp);
-            outputBufferWriter.write("\n");
-
-            outputBufferWriter.close();
+            else
+                BinaryOutputWriter.write(outputFile, caseFile.getName(), getAMESMarket());
       }
        catch (IOException e)  {
      
@@ -3969,7 +3501,11 @@ public class CheckCalculationEndRunnable implements Runnable {
     }
     
 public void InitializeAMESMarket( ) {
+    if((amesMarket!=null)&&(amesMarket.getOutputSink()!=null))
+        saveOutputData( ); // a run that was stopped before its end
+    
     amesMarket = new AMESMarket();
+    closeOutputReader();
     double [][] bus=new double[1][2];
     bus[0][0]=Double.parseDouble(nodeData[0][0].toString());
     bus[0][1]=Double.parseDouble(nodeData[0][1].toString());
@@ -4032,6 +3568,7 @@ public void InitializeAMESMarket( ) {
 }
 
 private void startItemActionPerformed(java.awt.event.ActionEvent evt) {
+    startOutputData();
     amesMarket.Start();
      
     startButton.setEnabled(false);
@@ -4088,6 +3625,7 @@ private void batchModeStart(){
     }
     
     InitializeAMESMarket( );
+    startOutputData();
     amesMarket.Start();
     
     CheckCalculationEndRunnable checkRunable=new CheckCalculationEndRunnable();
@@ -4097,6 +3635,7 @@ private void batchModeStart(){
 }
 
 private void stepItemActionPerformed(java.awt.event.ActionEvent evt) {
+    startOutputData();
     amesMarket.Step();
     
     startButton.setEnabled(true);
@@ -4470,7 +4009,16 @@ private void aboutItemActionPerformed(java.awt.event.ActionEvent evt) {
           
           return bus;
       }
-      
+
+      // Names (first column) of the rows of a case data table
+      private String [] getNameColumn(Object [][] data) {
+          String [] name=new String[data.length];
+          for(int i=0; i<data.length; i++)
+              name[i]=data[i][0].toString();
+
+          return name;
+      }
+
       public AMESMarket getAMESMarket( ) {
           return amesMarket;
       }
@@ -4541,6 +4089,7 @@ private void aboutItemActionPerformed(java.awt.event.ActionEvent evt) {
   public   SimulationControl simulationControl;
   
   private File outputFile;
+  private BinaryOutputReader outputReader; // binary output file shown in the views (null: none)
   private File batchFile;
   
   private File caseFile; 
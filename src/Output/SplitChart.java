@@ -65,6 +65,7 @@ import org.jfree.chart.labels.XYToolTipGenerator;
 import org.jfree.chart.labels.CustomXYToolTipGenerator;
 
 import AMESGUIFrame.*;
+import amesmarket.DailyHistory;
 
 public class SplitChart  extends JFrame    {
     
@@ -356,7 +357,7 @@ public void drawGeneratorCommitmentWithTrueCostData(String outputTimeTypeSelect,
            };
       chartTitle="GenCo Commitments (Benchmark)";
       
-      ArrayList genAgentCommitmentWithTrueCost=amesFrame.getAMESMarket().getGenAgentCommitmentWithTrueCost();
+      DailyHistory genAgentCommitmentWithTrueCost=amesFrame.getAMESMarket().getGenAgentCommitmentWithTrueCost();
       
       boolean draw3DChart=false;
       dataset=new XYSeriesCollection();
@@ -367,7 +368,7 @@ public void drawGeneratorCommitmentWithTrueCostData(String outputTimeTypeSelect,
       
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
              
-          double [][] genCommitmentWithTrueCost=(double [][])genAgentCommitmentWithTrueCost.get(0);
+          double [][] genCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.getDay(0);
           for(int j=0; j<iGenNumber; j++){
               XYSeries series = new XYSeries((String)genData[j][0]);
 
@@ -382,7 +383,7 @@ public void drawGeneratorCommitmentWithTrueCostData(String outputTimeTypeSelect,
           int iDataNumber=selectIndex.length;
           int iField=names.length;
             
-          double [][] genCommitmentWithTrueCost=(double [][])genAgentCommitmentWithTrueCost.get(0);
+          double [][] genCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.getDay(0);
           for(int j=0; j<iDataNumber; j++){
               XYSeries series = new XYSeries((String)genData[selectIndex[j]-1][0]);
 
@@ -434,7 +435,7 @@ public void drawGeneratorProfitWithTrueCostData(String outputTimeTypeSelect, int
     else
         chartTitle="GenCo Net Earnings (Benchmark)";
      
-      ArrayList genAgentProfitWithTrueCost=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainWithTrueCost();
+      DailyHistory genAgentProfitWithTrueCost=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainWithTrueCost();
       
       boolean draw3DChart=false;
       dataset=new XYSeriesCollection();
@@ -445,7 +446,7 @@ public void drawGeneratorProfitWithTrueCostData(String outputTimeTypeSelect, int
       
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
              
-          double [][] genProfitWithTrueCost=(double [][])genAgentProfitWithTrueCost.get(0);
+          double [][] genProfitWithTrueCost=genAgentProfitWithTrueCost.getDay(0);
           for(int j=0; j<iGenNumber; j++){
               XYSeries series;
 /*              
@@ -510,7 +511,7 @@ public void drawGeneratorProfitWithTrueCostData(String outputTimeTypeSelect, int
       else {
           int iDataNumber=selectIndex.length;
             
-           double [][] genProfitWithTrueCost=(double [][])genAgentProfitWithTrueCost.get(0);
+           double [][] genProfitWithTrueCost=genAgentProfitWithTrueCost.getDay(0);
           for(int j=0; j<iDataNumber; j++){
               XYSeries series;
 /*              
@@ -615,10 +616,10 @@ public void drawPSDemandDispatchWithTrueCostData(String outputTimeTypeSelect, in
       Object [][] lseHybridData=amesFrame.getLSEHybridDemandData();
       int iLSENumber=lsePriceSensitiveData.length;
       
-      ArrayList LMPWithTrueCost=amesFrame.getAMESMarket().getLMPWithTrueCost();
-      double [][] lmp=(double [][])LMPWithTrueCost.get(0);
+      DailyHistory LMPWithTrueCost=amesFrame.getAMESMarket().getLMPWithTrueCost();
+      double [][] lmp=LMPWithTrueCost.getDay(0);
       
-      ArrayList priceSensitiveWithTrueCost=amesFrame.getAMESMarket().getLSEAgentPriceSensitiveDemandWithTrueCost();
+      DailyHistory priceSensitiveWithTrueCost=amesFrame.getAMESMarket().getLSEAgentPriceSensitiveDemandWithTrueCost();
       
       chartTitle="LSE Price-Sensitive Demand Function \nand Cleared Point (Benchmark)";
       String xLabel="Power (MWs)";
@@ -630,7 +631,7 @@ public void drawPSDemandDispatchWithTrueCostData(String outputTimeTypeSelect, in
           return;
       }
       
-      double [][] lsePS=(double [][])priceSensitiveWithTrueCost.get(0);
+      double [][] lsePS=priceSensitiveWithTrueCost.getDay(0);
 
       int lseIndex=selectIndex[0];
       int lseAtBus=Integer.parseInt(lseHybridData[lseIndex][2].toString());
@@ -705,7 +706,7 @@ public void drawPSDemandDispatchWithTrueCostData(String outputTimeTypeSelect, in
 public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iStartTime, int iEndTime, int iDayHour, int [] selectIndex) {
       chartTitle="LSE Net Earnings (Benchmark)";
       
-      ArrayList LSEAgentSurplusWithTrueCost=amesFrame.getAMESMarket().getLSEAgentSurplusWithTrueCost();
+      DailyHistory LSEAgentSurplusWithTrueCost=amesFrame.getAMESMarket().getLSEAgentSurplusWithTrueCost();
       Object [][] lseHybridData=amesFrame.getLSEHybridDemandData();
       int iLSENumber=lseHybridData.length;
       
@@ -715,7 +716,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
              
-         double [][] surplus=(double [][])LSEAgentSurplusWithTrueCost.get(0);
+         double [][] surplus=LSEAgentSurplusWithTrueCost.getDay(0);
          for(int j=0; j<iLSENumber; j++){
               XYSeries series = new XYSeries((String)lseHybridData[j][0]);
 
@@ -739,7 +740,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       else {
           int iDataNumber=selectIndex.length;
             
-         double [][] surplus=(double [][])LSEAgentSurplusWithTrueCost.get(0);
+         double [][] surplus=LSEAgentSurplusWithTrueCost.getDay(0);
           for(int j=0; j<iDataNumber; j++){
               XYSeries series = new XYSeries((String)lseHybridData[selectIndex[j]-1][0]);
 
@@ -801,7 +802,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
            };
       chartTitle="Locational Marginal Prices (Benchmark)";
       
-      ArrayList LMPWithTrueCost=amesFrame.getAMESMarket().getLMPWithTrueCost();
+      DailyHistory LMPWithTrueCost=amesFrame.getAMESMarket().getLMPWithTrueCost();
       
       String [] nodeName=amesFrame.getNodeNameData( );
       int iNodeNumber=nodeName.length;
@@ -812,7 +813,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
                
-          double [][] lmp=(double [][])LMPWithTrueCost.get(0);
+          double [][] lmp=LMPWithTrueCost.getDay(0);
           for(int j=0; j<iNodeNumber; j++){
               XYSeries series = new XYSeries(nodeName[j]);
 
@@ -828,7 +829,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           int iDataNumber=selectIndex.length;
           int iField=names.length;
             
-          double [][] lmp=(double [][])LMPWithTrueCost.get(0);
+          double [][] lmp=LMPWithTrueCost.getDay(0);
             for(int j=0; j<iDataNumber; j++){
               XYSeries series = new XYSeries(nodeName[selectIndex[j]-1]);
 
@@ -876,7 +877,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
 
      public void drawAggreagtedSupplyAndDemandWithTrueCostData(String outputTimeTypeSelect, int iStartTime, int iEndTime, int iDayHour, int [] selectIndex) {
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -1252,8 +1253,8 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
  }
 
      public void drawAggreagtedSupplyAndDemandData(String outputTimeTypeSelect, int iStartTime, int iEndTime, int iDayHour, int [] selectIndex) {
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
-      double [][] genOffer=(double [][])genAgentSupplyOfferByDay.get(iStartTime-2);
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      double [][] genOffer=genAgentSupplyOfferByDay.getDay(iStartTime-2);
 
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -1645,7 +1646,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                  "GenCo Name", "Day Index", "aR ($/MWh)", "bR ($/MW2h)", "CapRL (MW)", "CapRU (MW)",
            };
       
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -1659,7 +1660,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           return;
       }
       
-      double [][] genOffer=(double [][])genAgentSupplyOfferByDay.get(iStartTime-1);
+      double [][] genOffer=genAgentSupplyOfferByDay.getDay(iStartTime-1);
 
       int genIndex=selectIndex[0];
 
@@ -1728,7 +1729,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList genAgentCommitmentByDay=amesFrame.getAMESMarket().getGenAgentCommitmentByDay();
+      DailyHistory genAgentCommitmentByDay=amesFrame.getAMESMarket().getGenAgentCommitmentByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
                  
       int[] hasSolutions;
@@ -1741,7 +1742,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
               int iDayNumber=genAgentCommitmentByDay.size();
-              double [][] genCommitment;
+              double [][] genCommitment=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
               xLabel="Day";            
@@ -1755,7 +1756,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                  
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
                       
                      series.add(iDay+2, (double)(Math.round(genCommitment[iDayHour][j]*1000))/1000.0);
                     
@@ -1773,7 +1774,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genCommitment;
+              double [][] genCommitment=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
               xLabel="Day";            
@@ -1787,7 +1788,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                  
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
                      
                      series.add(iDay+2, (double)(Math.round(genCommitment[iDayHour][j]*1000))/1000.0);
                      
@@ -1805,7 +1806,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
               int iDayNumber=genAgentCommitmentByDay.size();
-              double [][] genCommitment;
+              double [][] genCommitment=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run";
               xLabel="Day";            
@@ -1819,7 +1820,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                  
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
                      
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(genCommitment[i][j]*1000))/1000.0);
@@ -1839,7 +1840,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genCommitment;
+              double [][] genCommitment=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
               xLabel="Day";            
@@ -1852,7 +1853,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   XYSeries series = new XYSeries((String)genData[j][0]);
                  
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
                      
                      for(int i=0; i<24; i++) {
@@ -1878,7 +1879,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
             
               if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
                   int iDayNumber=genAgentCommitmentByDay.size();
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
                   xLabel="Day";            
 
@@ -1891,7 +1892,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                            genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
 
                             series.add(iDay+1, (double)(Math.round(genCommitment[iDayHour][selectIndex[j]-1]*1000))/1000.0);
                             
@@ -1909,7 +1910,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
               else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
                   xLabel="Day";            
 
@@ -1922,7 +1923,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                            genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
 
                             series.add(iDay+2, (double)(Math.round(genCommitment[iDayHour][selectIndex[j]-1]*1000))/1000.0);
                             
@@ -1940,7 +1941,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
                   int iDayNumber=genAgentCommitmentByDay.size();
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run";
                   xLabel="Day";            
 
@@ -1953,7 +1954,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                         genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genCommitment[i][selectIndex[j]-1]*1000))/1000.0);
@@ -1973,7 +1974,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
                   xLabel="Day";            
 
@@ -1986,7 +1987,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
+                         genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genCommitment[i][selectIndex[j]-1]*1000))/1000.0);
@@ -2048,7 +2049,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
 
-      ArrayList genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmissionByDay();
+      DailyHistory genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmissionByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
 
       int[] hasSolutions;
@@ -2061,7 +2062,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
               int iDayNumber=genAgentEmissionByDay.size();
-              double [][] genEmission;
+              double [][] genEmission=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
               xLabel="Day";
@@ -2075,7 +2076,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                      series.add(iDay+2, (double)(Math.round(genEmission[iDayHour][j]*1000))/1000.0);
 
@@ -2093,7 +2094,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genEmission;
+              double [][] genEmission=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
               xLabel="Day";
@@ -2107,7 +2108,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                      series.add(iDay+2, (double)(Math.round(genEmission[iDayHour][j]*1000))/1000.0);
 
@@ -2125,7 +2126,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
               int iDayNumber=genAgentEmissionByDay.size();
-              double [][] genEmission;
+              double [][] genEmission=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run";
               xLabel="Day";
@@ -2139,7 +2140,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(genEmission[i][j]*1000))/1000.0);
@@ -2159,7 +2160,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genEmission;
+              double [][] genEmission=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
               xLabel="Day";
@@ -2172,7 +2173,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   XYSeries series = new XYSeries((String)genData[j][0]);
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
 
                      for(int i=0; i<24; i++) {
@@ -2198,7 +2199,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
               if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
                   int iDayNumber=genAgentEmissionByDay.size();
-                  double [][] genEmission;
+                  double [][] genEmission=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
                   xLabel="Day";
 
@@ -2211,7 +2212,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                            genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                             series.add(iDay+1, (double)(Math.round(genEmission[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -2229,7 +2230,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
               else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genEmission;
+                  double [][] genEmission=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
                   xLabel="Day";
 
@@ -2242,7 +2243,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                            genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                             series.add(iDay+2, (double)(Math.round(genEmission[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -2260,7 +2261,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
                   int iDayNumber=genAgentEmissionByDay.size();
-                  double [][] genEmission;
+                  double [][] genEmission=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run";
                   xLabel="Day";
 
@@ -2273,7 +2274,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                         genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genEmission[i][selectIndex[j]-1]*1000))/1000.0);
@@ -2293,7 +2294,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genEmission;
+                  double [][] genEmission=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
                   xLabel="Day";
 
@@ -2306,7 +2307,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genEmission=(double [][])genAgentEmissionByDay.get(iDay);
+                         genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genEmission[i][selectIndex[j]-1]*1000))/1000.0);
@@ -2369,7 +2370,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
 
-      ArrayList genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmTradeByDay();
+      DailyHistory genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmTradeByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
 
       int[] hasSolutions;
@@ -2382,7 +2383,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
               int iDayNumber=genAgentEmissionByDay.size();
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
               xLabel="Day";
@@ -2396,7 +2397,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                      series.add(iDay+2, (double)(Math.round(genEmTrade[iDayHour][j]*1000))/1000.0);
 
@@ -2414,7 +2415,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
               xLabel="Day";
@@ -2428,7 +2429,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                      series.add(iDay+2, (double)(Math.round(genEmTrade[iDayHour][j]*1000))/1000.0);
 
@@ -2446,7 +2447,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
               int iDayNumber=genAgentEmissionByDay.size();
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run";
               xLabel="Day";
@@ -2460,7 +2461,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(genEmTrade[i][j]*1000))/1000.0);
@@ -2480,7 +2481,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
               xLabel="Day";
@@ -2493,7 +2494,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   XYSeries series = new XYSeries((String)genData[j][0]);
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
 
                      for(int i=0; i<24; i++) {
@@ -2519,7 +2520,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
               if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
                   int iDayNumber=genAgentEmissionByDay.size();
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
                   xLabel="Day";
 
@@ -2532,7 +2533,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                            genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                             series.add(iDay+1, (double)(Math.round(genEmTrade[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -2550,7 +2551,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
               else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
                   xLabel="Day";
 
@@ -2563,7 +2564,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                            genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                             series.add(iDay+2, (double)(Math.round(genEmTrade[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -2581,7 +2582,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
                   int iDayNumber=genAgentEmissionByDay.size();
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run";
                   xLabel="Day";
 
@@ -2594,7 +2595,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                         genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genEmTrade[i][selectIndex[j]-1]*1000))/1000.0);
@@ -2614,7 +2615,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
                   xLabel="Day";
 
@@ -2627,7 +2628,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genEmTrade=(double [][])genAgentEmissionByDay.get(iDay);
+                         genEmTrade=genAgentEmissionByDay.getDay(iDay, genEmTrade);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genEmTrade[i][selectIndex[j]-1]*1000))/1000.0);
@@ -2689,7 +2690,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
 
-      ArrayList genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmTradePriceByDay();
+      DailyHistory genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmTradePriceByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
 
       int[] hasSolutions;
@@ -2702,7 +2703,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
               int iDayNumber=genAgentEmissionByDay.size();
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
               xLabel="Day";
@@ -2716,7 +2717,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                      series.add(iDay+2, (double)(Math.round(genEmTradePrice[iDayHour][j]*1000))/1000.0);
 
@@ -2734,7 +2735,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
               xLabel="Day";
@@ -2748,7 +2749,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                      series.add(iDay+2, (double)(Math.round(genEmTradePrice[iDayHour][j]*1000))/1000.0);
 
@@ -2766,7 +2767,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
               int iDayNumber=genAgentEmissionByDay.size();
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               chartTitle=chartTitle+"\n "+"for Entire Run";
               xLabel="Day";
@@ -2780,7 +2781,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(genEmTradePrice[i][j]*1000))/1000.0);
@@ -2800,7 +2801,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
               xLabel="Day";
@@ -2813,7 +2814,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   XYSeries series = new XYSeries((String)genData[j][0]);
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                     genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
 
                      for(int i=0; i<24; i++) {
@@ -2839,7 +2840,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
               if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (Selected Hour)")) {
                   int iDayNumber=genAgentEmissionByDay.size();
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run (At Hour "+iDayHour+":00)";
                   xLabel="Day";
 
@@ -2852,7 +2853,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                            genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                             series.add(iDay+1, (double)(Math.round(genEmTradePrice[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -2870,7 +2871,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
               else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (Selected Hour)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (At Hour "+iDayHour+":00)";
                   xLabel="Day";
 
@@ -2883,7 +2884,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                            genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                             series.add(iDay+2, (double)(Math.round(genEmTradePrice[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -2901,7 +2902,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run (All Hours)")) {
                   int iDayNumber=genAgentEmissionByDay.size();
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
                   chartTitle=chartTitle+"\n "+"for Entire Run";
                   xLabel="Day";
 
@@ -2914,7 +2915,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                         genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genEmTradePrice[i][selectIndex[j]-1]*1000))/1000.0);
@@ -2934,7 +2935,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
                else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day (All Hours)")) {
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
                   chartTitle=chartTitle+"\n "+"From Day "+(iStartTime+1)+" to Day "+(iEndTime+1) +" (All Hours)";
                   xLabel="Day";
 
@@ -2947,7 +2948,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                          hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                         genEmTradePrice=(double [][])genAgentEmissionByDay.get(iDay);
+                         genEmTradePrice=genAgentEmissionByDay.getDay(iDay, genEmTradePrice);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(genEmTradePrice[i][selectIndex[j]-1]*1000))/1000.0);
@@ -3006,7 +3007,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       else
         chartTitle="GenCo Daily Net Earnings";
           
-      ArrayList genAgentProfitAndNetGainByDay=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainByDay();
+      DailyHistory genAgentProfitAndNetGainByDay=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainByDay();
       
       boolean draw3DChart=false;
       dataset=new XYSeriesCollection();
@@ -3018,7 +3019,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
          if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run")){
               int iDayNumber=genAgentProfitAndNetGainByDay.size();
-              double [][] genProfit;
+              double [][] genProfit=null;
  
               chartTitle=chartTitle+"\n "+"for Entire Run";
              
@@ -3030,7 +3031,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                 series1= new XYSeries(genName);
                
                 for(int iDay=0; iDay<iDayNumber; iDay++) {
-                      genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                      genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
                  
                       if(bProfit)
                           series1.add(iDay+1, (double)(Math.round(genProfit[i][0]*1000))/1000.0);
@@ -3043,7 +3044,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day")){
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] genProfit;
+              double [][] genProfit=null;
  
               chartTitle=chartTitle+"\n "+"From Day "+iStartTime+" to Day "+iEndTime;
              
@@ -3055,7 +3056,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                 series1= new XYSeries(genName);
 
                 for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                      genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                      genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
                  
                       if(bProfit)
                           series1.add(iDay+1, (double)(Math.round(genProfit[i][0]*1000))/1000.0);
@@ -3072,7 +3073,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
             
           if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run")){
                   int iDayNumber=genAgentProfitAndNetGainByDay.size();
-                  double [][] genProfit;
+                  double [][] genProfit=null;
 
                   chartTitle=chartTitle+"\n "+"for Entire Run";
 
@@ -3084,7 +3085,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                         series1= new XYSeries(genName);
                          
                           for(int iDay=0; iDay<iDayNumber; iDay++) {
-                                genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                                genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
 
                                  if(bProfit)
                                     series1.add(iDay+1, (double)(Math.round(genProfit[selectIndex[i]-1][0]*1000))/1000.0);
@@ -3097,7 +3098,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day")){
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] genProfit;
+                  double [][] genProfit=null;
 
                   chartTitle=chartTitle+"\n "+"From Day "+iStartTime+" to Day "+iEndTime;
 
@@ -3109,7 +3110,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                           series1= new XYSeries(genName);
                          
                           for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                                genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                                genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
 
                                 if(bProfit)
                                     series1.add(iDay+1, (double)(Math.round(genProfit[selectIndex[i]-1][0]*1000))/1000.0);
@@ -3185,7 +3186,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
            };
       
       chartTitle="LSE Daily Net Earnings";
-      ArrayList lseAgentSurplusByDay=amesFrame.getAMESMarket().getLSEAgentSurplusByDay();
+      DailyHistory lseAgentSurplusByDay=amesFrame.getAMESMarket().getLSEAgentSurplusByDay();
       
       boolean draw3DChart=false;
       dataset=new XYSeriesCollection();
@@ -3197,7 +3198,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
          if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run")){
               int iDayNumber=lseAgentSurplusByDay.size();
-              double [][] lseSurplus;
+              double [][] lseSurplus=null;
  
               chartTitle=chartTitle+"\n "+"for Entire Run";
              
@@ -3207,7 +3208,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                 XYSeries series1 = new XYSeries(lseName+" Surplus");
                
                 for(int iDay=0; iDay<iDayNumber; iDay++) {
-                      lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                      lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
                  
                       series1.add(iDay+1, (double)(Math.round(lseSurplus[i][0]*1000))/1000.0);
                       }
@@ -3217,7 +3218,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day")){
               int iDayNumber=iEndTime-iStartTime+1;
-              double [][] lseSurplus;
+              double [][] lseSurplus=null;
  
               chartTitle=chartTitle+"\n "+"From Day "+iStartTime+" to Day "+iEndTime;
              
@@ -3227,7 +3228,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                 XYSeries series1 = new XYSeries(lseName+" Surplus");
                
                 for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                      lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                      lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
                  
                       series1.add(iDay+1, (double)(Math.round(lseSurplus[i][0]*1000))/1000.0);
                       }
@@ -3242,7 +3243,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
             
           if(outputTimeTypeSelect.equalsIgnoreCase("Entire Run")){
                   int iDayNumber=lseAgentSurplusByDay.size();
-                  double [][] lseSurplus;
+                  double [][] lseSurplus=null;
 
                   chartTitle=chartTitle+"\n "+"for Entire Run";
 
@@ -3252,7 +3253,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                          XYSeries series1 = new XYSeries(lseName+" Surplus");
                          
                           for(int iDay=0; iDay<iDayNumber; iDay++) {
-                                lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                                lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
 
                               series1.add(iDay+1, (double)(Math.round(lseSurplus[selectIndex[i]-1][0]*1000))/1000.0);
                               }
@@ -3262,7 +3263,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               }
           else if(outputTimeTypeSelect.equalsIgnoreCase("Start to End Day")){
                   int iDayNumber=iEndTime-iStartTime+1;
-                  double [][] lseSurplus;
+                  double [][] lseSurplus=null;
 
                   chartTitle=chartTitle+"\n "+"From Day "+iStartTime+" to Day "+iEndTime;
 
@@ -3272,7 +3273,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                          XYSeries series1 = new XYSeries(lseName+" Surplus");
                          
                           for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                                lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                                lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
 
                               series1.add(iDay+1, (double)(Math.round(lseSurplus[selectIndex[i]-1][0]*1000))/1000.0);
                               }
@@ -3349,9 +3350,9 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       Object [][] lseHybridData=amesFrame.getLSEHybridDemandData();
       int iLSENumber=lsePriceSensitiveData.length;
       
-      ArrayList LMPByDay=amesFrame.getAMESMarket().getLMPByDay();
+      DailyHistory LMPByDay=amesFrame.getAMESMarket().getLMPByDay();
       
-      ArrayList priceSensitiveByDay=amesFrame.getAMESMarket().getLSEAgenPriceSensitiveDemandByDay();
+      DailyHistory priceSensitiveByDay=amesFrame.getAMESMarket().getLSEAgenPriceSensitiveDemandByDay();
       
       chartTitle="LSE Price-Sensitive Demand Function and Cleared Point";
       String xLabel="Power (MWs)";
@@ -3363,8 +3364,8 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
           return;
       }
       
-      double [][] lsePS=(double [][])priceSensitiveByDay.get(iStartTime-2);
-      double [][] lmp=(double [][])LMPByDay.get(iStartTime-2);
+      double [][] lsePS=priceSensitiveByDay.getDay(iStartTime-2);
+      double [][] lmp=LMPByDay.getDay(iStartTime-2);
 
       int lseIndex=selectIndex[0];
       int lseAtBus=Integer.parseInt(lseHybridData[lseIndex][2].toString());
@@ -3448,7 +3449,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList branchFlowByDay=amesFrame.getAMESMarket().getBranchFlowByDay();
+      DailyHistory branchFlowByDay=amesFrame.getAMESMarket().getBranchFlowByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
                  
       int[] hasSolutions;
@@ -3471,13 +3472,13 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               
               int iDayNumber=branchFlowByDay.size();
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
                for(int j=0; j<iBranchNumber; j++) {
                   XYSeries series = new XYSeries((String)branchData[j][0]);
                   
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
                      
                      series.add(iDay+2, (double)(Math.round(branchFlow[iDayHour][j]*1000))/1000.0);
@@ -3501,13 +3502,13 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
                for(int j=0; j<iBranchNumber; j++) {
                   XYSeries series = new XYSeries((String)branchData[j][0]);
                  
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
                      
                      series.add(iDay+2, (double)(Math.round(branchFlow[iDayHour][j]*1000))/1000.0);
@@ -3533,14 +3534,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
               for(int j=0; j<iBranchNumber; j++) {
                   XYSeries series = new XYSeries((String)branchData[j][0]);
                 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      
                      for(int i=0; i<24; i++) {
                          series.add(iDay+1+i/24.0, (double)(Math.round(branchFlow[i][j]*1000))/1000.0);
@@ -3566,14 +3567,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               XYSeries noSolutionSeries = new XYSeries("No solution");
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
               for(int j=0; j<iBranchNumber; j++) {
                   XYSeries series = new XYSeries((String)branchData[j][0]);
                  
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(branchFlow[i][j]*1000))/1000.0);
@@ -3608,14 +3609,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   boolean bNoSolution=false;
                   int iDayNumber=branchFlowByDay.size();
 
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
                   for(int j=0; j<iDataNumber; j++) {
                       XYSeries series = new XYSeries((String)branchData[selectIndex[j]-1][0]);
                       subtitles+=branchData[selectIndex[j]-1][0]+" Thermal Limit: "+branchData[selectIndex[j]-1][3].toString()+"\n";                 
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            branchFlow=(double [][])branchFlowByDay.get(iDay);
+                            branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
 
                             series.add(iDay+2, (double)(Math.round(branchFlow[iDayHour][selectIndex[j]-1]*1000))/1000.0);
                              
@@ -3640,14 +3641,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   boolean bNoSolution=false;
                   int iDayNumber=iEndTime-iStartTime+1;
 
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
                   for(int j=0; j<iDataNumber; j++) {
                       XYSeries series = new XYSeries((String)branchData[selectIndex[j]-1][0]);
                       subtitles+=branchData[selectIndex[j]-1][0]+" Thermal Limit: "+branchData[selectIndex[j]-1][3].toString()+"\n";                 
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                             hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                            branchFlow=(double [][])branchFlowByDay.get(iDay);
+                            branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
 
                             series.add(iDay+2, (double)(Math.round(branchFlow[iDayHour][selectIndex[j]-1]*1000))/1000.0);
                              
@@ -3672,7 +3673,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   boolean bNoSolution=false;
                   int iDayNumber=branchFlowByDay.size();
  
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
 
                    for(int j=0; j<iDataNumber; j++) {
                       XYSeries series = new XYSeries((String)branchData[selectIndex[j]-1][0]);
@@ -3680,7 +3681,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                           hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                          branchFlow=(double [][])branchFlowByDay.get(iDay);
+                          branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(branchFlow[i][selectIndex[j]-1]*1000))/1000.0);
@@ -3707,7 +3708,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   boolean bNoSolution=false;
                   int iDayNumber=iEndTime-iStartTime+1;
  
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
 
                    for(int j=0; j<iDataNumber; j++) {
                       XYSeries series = new XYSeries((String)branchData[selectIndex[j]-1][0]);
@@ -3715,7 +3716,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                           hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                          branchFlow=(double [][])branchFlowByDay.get(iDay);
+                          branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(branchFlow[i][selectIndex[j]-1]*1000))/1000.0);
@@ -3788,7 +3789,7 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList LMPByDay=amesFrame.getAMESMarket().getLMPByDay();
+      DailyHistory LMPByDay=amesFrame.getAMESMarket().getLMPByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
                  
       int[] hasSolutions;
@@ -3809,14 +3810,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
               
-              double [][] lmp;
+              double [][] lmp=null;
               
                for(int j=0; j<iNodeNumber; j++) {
                  XYSeries series = new XYSeries(nodeName[j]);
                  
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                         hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                        lmp=(double [][])LMPByDay.get(iDay);
+                        lmp=LMPByDay.getDay(iDay, lmp);
                      
                         series.add(iDay+2, (double)(Math.round(lmp[iDayHour][j]*1000))/1000.0);
                         
@@ -3840,14 +3841,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
               
-              double [][] lmp;
+              double [][] lmp=null;
               
                for(int j=0; j<iNodeNumber; j++) {
                  XYSeries series = new XYSeries(nodeName[j]);
                  
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                         hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                        lmp=(double [][])LMPByDay.get(iDay);
+                        lmp=LMPByDay.getDay(iDay, lmp);
                      
                         series.add(iDay+2, (double)(Math.round(lmp[iDayHour][j]*1000))/1000.0);
                         
@@ -3872,14 +3873,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
               
-              double [][] lmp;
+              double [][] lmp=null;
               
               for(int j=0; j<iNodeNumber; j++) {
                  XYSeries series = new XYSeries(nodeName[j]);
                  
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                     hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                    lmp=(double [][])LMPByDay.get(iDay);
+                    lmp=LMPByDay.getDay(iDay, lmp);
                      
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(lmp[i][j]*1000))/1000.0);
@@ -3905,14 +3906,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
               dataset.addSeries(noSolutionSeries);
               boolean bNoSolution=false;
               
-              double [][] lmp;
+              double [][] lmp=null;
               
               for(int j=0; j<iNodeNumber; j++) {
                  XYSeries series = new XYSeries(nodeName[j]);
                  
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                     hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                    lmp=(double [][])LMPByDay.get(iDay);
+                    lmp=LMPByDay.getDay(iDay, lmp);
                      
                      for(int i=0; i<24; i++) {
                         series.add(iDay+1+i/24.0, (double)(Math.round(lmp[i][j]*1000))/1000.0);
@@ -3943,14 +3944,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   dataset.addSeries(noSolutionSeries);
                   boolean bNoSolution=false;
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                   for(int j=0; j<iDataNumber; j++) {
                        XYSeries series = new XYSeries(nodeName[selectIndex[j]-1]);
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                           hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                          lmp=(double [][])LMPByDay.get(iDay);
+                          lmp=LMPByDay.getDay(iDay, lmp);
 
                           series.add(iDay+2, (double)(Math.round(lmp[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -3975,14 +3976,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   dataset.addSeries(noSolutionSeries);
                   boolean bNoSolution=false;
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                   for(int j=0; j<iDataNumber; j++) {
                        XYSeries series = new XYSeries(nodeName[selectIndex[j]-1]);
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                           hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                          lmp=(double [][])LMPByDay.get(iDay);
+                          lmp=LMPByDay.getDay(iDay, lmp);
 
                           series.add(iDay+2, (double)(Math.round(lmp[iDayHour][selectIndex[j]-1]*1000))/1000.0);
 
@@ -4008,14 +4009,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   dataset.addSeries(noSolutionSeries);
                   boolean bNoSolution=false;
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                    for(int j=0; j<iDataNumber; j++) {
                        XYSeries series = new XYSeries(nodeName[selectIndex[j]-1]);
 
                       for(int iDay=0; iDay<iDayNumber; iDay++) {
                           hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                          lmp=(double [][])LMPByDay.get(iDay);
+                          lmp=LMPByDay.getDay(iDay, lmp);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(lmp[i][selectIndex[j]-1]*1000))/1000.0);
@@ -4042,14 +4043,14 @@ public void drawLSESurplusWithTrueCostData(String outputTimeTypeSelect, int iSta
                   dataset.addSeries(noSolutionSeries);
                   boolean bNoSolution=false;
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                    for(int j=0; j<iDataNumber; j++) {
                        XYSeries series = new XYSeries(nodeName[selectIndex[j]-1]);
 
                       for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                           hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                          lmp=(double [][])LMPByDay.get(iDay);
+                          lmp=LMPByDay.getDay(iDay, lmp);
 
                          for(int i=0; i<24; i++) {
                             series.add(iDay+1+i/24.0, (double)(Math.round(lmp[i][selectIndex[j]-1]*1000))/1000.0);
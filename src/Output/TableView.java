@@ -43,6 +43,7 @@ import java.util.ArrayList;
 import java.lang.Math;
 
 import AMESGUIFrame.*;
+import amesmarket.DailyHistory;
 import java.awt.Component;
 
 
@@ -458,7 +459,7 @@ public TableView(AMESFrame frame) {
                  " GenCo Name", "  Hour",  "Profit ($/H)", "Net Earnings ($/H)", "Revenues ($/H)"};
       int [] iColumnWidth={90, 90, 120, 120, 120};
       
-      ArrayList genAgentProfitWithTrueCost=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainWithTrueCost();
+      DailyHistory genAgentProfitWithTrueCost=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainWithTrueCost();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -468,7 +469,7 @@ public TableView(AMESFrame frame) {
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           displayData=new Object [iGenNumber*(24+1)][5];
 
-          double [][] genProfittWithTrueCost=(double [][])genAgentProfitWithTrueCost.get(0);
+          double [][] genProfittWithTrueCost=genAgentProfitWithTrueCost.getDay(0);
           for(int i=0; i<24+1; i++) {
               for(int j=0; j<iGenNumber; j++){
                   int iStartIndex=i*iGenNumber;
@@ -498,7 +499,7 @@ public TableView(AMESFrame frame) {
             
           displayData=new Object [iDataNumber*(24+1)][5];
 
-          double [][] genProfittWithTrueCost=(double [][])genAgentProfitWithTrueCost.get(0);
+          double [][] genProfittWithTrueCost=genAgentProfitWithTrueCost.getDay(0);
           for(int i=0; i<24+1; i++) {
               for(int j=0; j<iDataNumber; j++){
                   int iStartIndex=i*iDataNumber;
@@ -551,7 +552,7 @@ public TableView(AMESFrame frame) {
            };
       int [] iColumnWidth={90, 90, 90, 90, 90};
       
-      ArrayList genAgentCommitmentWithTrueCost=amesFrame.getAMESMarket().getGenAgentCommitmentWithTrueCost();
+      DailyHistory genAgentCommitmentWithTrueCost=amesFrame.getAMESMarket().getGenAgentCommitmentWithTrueCost();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -561,7 +562,7 @@ public TableView(AMESFrame frame) {
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           displayData=new Object [iGenNumber*24][5];
 
-          double [][] genCommitmentWithTrueCost=(double [][])genAgentCommitmentWithTrueCost.get(0);
+          double [][] genCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.getDay(0);
           for(int i=0; i<24; i++) {
               for(int j=0; j<iGenNumber; j++){
                   int iStartIndex=i*iGenNumber;
@@ -580,7 +581,7 @@ public TableView(AMESFrame frame) {
             
           displayData=new Object [iDataNumber*24][5];
 
-          double [][] genCommitmentWithTrueCost=(double [][])genAgentCommitmentWithTrueCost.get(0);
+          double [][] genCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.getDay(0);
           for(int i=0; i<24; i++) {
               for(int j=0; j<iDataNumber; j++){
                   int iStartIndex=i*iDataNumber;
@@ -630,7 +631,7 @@ public TableView(AMESFrame frame) {
            };
       int [] iColumnWidth={90, 90, 90, 90, 90, 200};
       
-      ArrayList LSEAgentPriceSensitiveDemandWithTrueCost=amesFrame.getAMESMarket().getLSEAgentPriceSensitiveDemandWithTrueCost();
+      DailyHistory LSEAgentPriceSensitiveDemandWithTrueCost=amesFrame.getAMESMarket().getLSEAgentPriceSensitiveDemandWithTrueCost();
       Object [][][] lsePriceSensitiveData=amesFrame.getLSEPriceSensitiveDemandData();
       Object [][] lseHybridData=amesFrame.getLSEHybridDemandData();
       int iLSENumber=lseHybridData.length;
@@ -640,7 +641,7 @@ public TableView(AMESFrame frame) {
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           displayData=new Object [iLSENumber*24][6];
 
-          double [][] priceSensitive=(double [][])LSEAgentPriceSensitiveDemandWithTrueCost.get(0);
+          double [][] priceSensitive=LSEAgentPriceSensitiveDemandWithTrueCost.getDay(0);
           
           for(int i=0; i<24; i++) {
               int iStartIndex=i*iLSENumber;
@@ -668,7 +669,7 @@ public TableView(AMESFrame frame) {
             
           displayData=new Object [iDataNumber*24][6];
 
-          double [][] priceSensitive=(double [][])LSEAgentPriceSensitiveDemandWithTrueCost.get(0);
+          double [][] priceSensitive=LSEAgentPriceSensitiveDemandWithTrueCost.getDay(0);
           for(int i=0; i<24; i++) {
               for(int j=0; j<iDataNumber; j++){
                   int psLoadIndex=0;
@@ -725,7 +726,7 @@ public TableView(AMESFrame frame) {
            };
       int [] iColumnWidth={90, 150, 150};
       
-      ArrayList LSEAgentSurplusWithTrueCost=amesFrame.getAMESMarket().getLSEAgentSurplusWithTrueCost();
+      DailyHistory LSEAgentSurplusWithTrueCost=amesFrame.getAMESMarket().getLSEAgentSurplusWithTrueCost();
       Object [][] lseHybridData=amesFrame.getLSEHybridDemandData();
       int iLSENumber=lseHybridData.length;
       
@@ -734,7 +735,7 @@ public TableView(AMESFrame frame) {
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           displayData=new Object [iLSENumber*(24+1)][3];
 
-          double [][] surplus=(double [][])LSEAgentSurplusWithTrueCost.get(0);
+          double [][] surplus=LSEAgentSurplusWithTrueCost.getDay(0);
           
           for(int i=0; i<24+1; i++) {
               
@@ -761,7 +762,7 @@ public TableView(AMESFrame frame) {
             
           displayData=new Object [iDataNumber*(24+1)][3];
 
-          double [][] surplus=(double [][])LSEAgentSurplusWithTrueCost.get(0);
+          double [][] surplus=LSEAgentSurplusWithTrueCost.getDay(0);
           for(int i=0; i<24+1; i++) {
               for(int j=0; j<iDataNumber; j++){
                   int iStartIndex=i*iDataNumber;
@@ -808,7 +809,7 @@ public TableView(AMESFrame frame) {
            };
        int [] iColumnWidth={90, 90, 90};
      
-      ArrayList LMPWithTrueCost=amesFrame.getAMESMarket().getLMPWithTrueCost();
+      DailyHistory LMPWithTrueCost=amesFrame.getAMESMarket().getLMPWithTrueCost();
       
       String [] nodeName=amesFrame.getNodeNameData( );
       int iNodeNumber=nodeName.length;
@@ -818,7 +819,7 @@ public TableView(AMESFrame frame) {
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
           displayData=new Object [iNodeNumber*24][3];
 
-          double [][] lmp=(double [][])LMPWithTrueCost.get(0);
+          double [][] lmp=LMPWithTrueCost.getDay(0);
           for(int i=0; i<24; i++) {
               for(int j=0; j<iNodeNumber; j++){
                   int iStartIndex=i*iNodeNumber;
@@ -835,7 +836,7 @@ public TableView(AMESFrame frame) {
             
           displayData=new Object [iDataNumber*24][3];
 
-          double [][] lmp=(double [][])LMPWithTrueCost.get(0);
+          double [][] lmp=LMPWithTrueCost.getDay(0);
           for(int i=0; i<24; i++) {
               for(int j=0; j<iDataNumber; j++){
                   int iStartIndex=i*iDataNumber;
@@ -873,7 +874,7 @@ public TableView(AMESFrame frame) {
                  "GenCo Name", "Day Index", "aR ($/MWh)", "bR ($/MW2h)", "CapRL (MW)", "CapRU (MW)",
            };
       
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -885,10 +886,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentSupplyOfferByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][6];
               
-              double [][] genOffer;
+              double [][] genOffer=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=iDay*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -908,10 +909,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][6];
               
-              double [][] genOffer;
+              double [][] genOffer=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -931,10 +932,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentSupplyOfferByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][6];
               
-              double [][] genOffer;
+              double [][] genOffer=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=iDay*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -954,10 +955,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][6];
               
-              double [][] genOffer;
+              double [][] genOffer=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -982,10 +983,10 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentSupplyOfferByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][6];
 
-                  double [][] genOffer;
+                  double [][] genOffer=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1005,10 +1006,10 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][6];
 
-                  double [][] genOffer;
+                  double [][] genOffer=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1077,15 +1078,15 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList genAgentCommitmentByDay=amesFrame.getAMESMarket().getGenAgentCommitmentByDay();
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentCommitmentByDay=amesFrame.getAMESMarket().getGenAgentCommitmentByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
       
       Object [][] displayData;
-      double [][] genOffer;
+      double [][] genOffer=null;
       int [] hasSolutions;
       
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
@@ -1093,13 +1094,13 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentCommitmentByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][8];
               
-              double [][] genCommitment;
+              double [][] genCommitment=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
                  
-                 genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=iDay*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -1128,12 +1129,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][8];
               
-              double [][] genCommitment;
+              double [][] genCommitment=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -1158,12 +1159,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentCommitmentByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
               
-              double [][] genCommitment;
+              double [][] genCommitment=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=iDay*iGenNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -1192,12 +1193,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
               
-              double [][] genCommitment;
+              double [][] genCommitment=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iGenNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -1231,12 +1232,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentCommitmentByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1261,12 +1262,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1291,12 +1292,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -1325,12 +1326,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentCommitmentByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genCommitment;
+                  double [][] genCommitment=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genCommitment=(double [][])genAgentCommitmentByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genCommitment=genAgentCommitmentByDay.getDay(iDay, genCommitment);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -1440,7 +1441,7 @@ public TableView(AMESFrame frame) {
       
       int [] iColumnWidth={90, 90, 90, 120, 120};
 
-      ArrayList genAgentProfitAndNetGainByDay=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainByDay();
+      DailyHistory genAgentProfitAndNetGainByDay=amesFrame.getAMESMarket().getGenAgentProfitAndNetGainByDay();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
@@ -1452,10 +1453,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentProfitAndNetGainByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][5];
               
-              double [][] genProfit;
+              double [][] genProfit=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
-                 genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                 genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
                  int iStartIndex=iDay*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -1474,10 +1475,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][5];
               
-              double [][] genProfit;
+              double [][] genProfit=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                 genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                 genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -1501,10 +1502,10 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentProfitAndNetGainByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][5];
 
-                  double [][] genProfit;
+                  double [][] genProfit=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
-                     genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                     genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1523,10 +1524,10 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][5];
 
-                  double [][] genProfit;
+                  double [][] genProfit=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     genProfit=(double [][])genAgentProfitAndNetGainByDay.get(iDay);
+                     genProfit=genAgentProfitAndNetGainByDay.getDay(iDay, genProfit);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1567,7 +1568,7 @@ public TableView(AMESFrame frame) {
       
       int [] iColumnWidth={70, 90, 120};
 
-      ArrayList lseAgentSurplusByDay=amesFrame.getAMESMarket().getLSEAgentSurplusByDay();
+      DailyHistory lseAgentSurplusByDay=amesFrame.getAMESMarket().getLSEAgentSurplusByDay();
       
       Object [][] lseHybridData=amesFrame.getLSEHybridDemandData();
       int iLSENumber=lseHybridData.length;
@@ -1579,10 +1580,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=lseAgentSurplusByDay.size();
                 displayData=new Object [iLSENumber*iDayNumber][3];
               
-              double [][] lseSurplus;
+              double [][] lseSurplus=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
-                 lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                 lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
                  int iStartIndex=iDay*iLSENumber;
                  
                   for(int i=0; i<iLSENumber; i++) {
@@ -1599,10 +1600,10 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iLSENumber*iDayNumber][3];
               
-              double [][] lseSurplus;
+              double [][] lseSurplus=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                 lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                 lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
                  int iStartIndex=(iDay-(iStartTime-1))*iLSENumber;
                  
                   for(int i=0; i<iLSENumber; i++) {
@@ -1624,10 +1625,10 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=lseAgentSurplusByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][4];
 
-                  double [][] lseSurplus;
+                  double [][] lseSurplus=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
-                     lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                     lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1644,10 +1645,10 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][4];
 
-                  double [][] lseSurplus;
+                  double [][] lseSurplus=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
-                     lseSurplus=(double [][])lseAgentSurplusByDay.get(iDay);
+                     lseSurplus=lseAgentSurplusByDay.getDay(iDay, lseSurplus);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1693,7 +1694,7 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList priceSensitiveByDay=amesFrame.getAMESMarket().getLSEAgenPriceSensitiveDemandByDay();
+      DailyHistory priceSensitiveByDay=amesFrame.getAMESMarket().getLSEAgenPriceSensitiveDemandByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
                  
       int[] hasSolutions;
@@ -1705,11 +1706,11 @@ public TableView(AMESFrame frame) {
               int iDayNumber=priceSensitiveByDay.size();
               displayData=new Object [iLSENumber*iDayNumber][7];
               
-              double [][] priceSensitive;
+              double [][] priceSensitive=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                 priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                  int iStartIndex=iDay*iLSENumber;
                  int psLoadIndex=0;
                  
@@ -1742,11 +1743,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iLSENumber*iDayNumber][7];
               
-              double [][] priceSensitive;
+              double [][] priceSensitive=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                 priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                  int iStartIndex=(iDay-(iStartTime-1))*iLSENumber;
                  int psLoadIndex=0;
                  
@@ -1778,11 +1779,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=priceSensitiveByDay.size();
                 displayData=new Object [iLSENumber*iDayNumber*24][7];
               
-              double [][] priceSensitive;
+              double [][] priceSensitive=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                 priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                  int iDayStartIndex=iDay*iLSENumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -1817,11 +1818,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iLSENumber*iDayNumber*24][7];
               
-              double [][] priceSensitive;
+              double [][] priceSensitive=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                 priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iLSENumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -1861,11 +1862,11 @@ public TableView(AMESFrame frame) {
                   int iDayNumber=priceSensitiveByDay.size();
                   displayData=new Object [iDataNumber*iDayNumber][7];
 
-                  double [][] priceSensitive;
+                  double [][] priceSensitive=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                     priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1903,11 +1904,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][7];
 
-                  double [][] priceSensitive;
+                  double [][] priceSensitive=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                     priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -1944,11 +1945,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=priceSensitiveByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][7];
 
-                  double [][] priceSensitive;
+                  double [][] priceSensitive=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                     priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -1990,11 +1991,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][7];
 
-                  double [][] priceSensitive;
+                  double [][] priceSensitive=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     priceSensitive=(double [][])priceSensitiveByDay.get(iDay);
+                     priceSensitive=priceSensitiveByDay.getDay(iDay, priceSensitive);
                      int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2064,7 +2065,7 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList branchFlowByDay=amesFrame.getAMESMarket().getBranchFlowByDay();
+      DailyHistory branchFlowByDay=amesFrame.getAMESMarket().getBranchFlowByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
                  
       int[] hasSolutions;
@@ -2079,11 +2080,11 @@ public TableView(AMESFrame frame) {
               int iDayNumber=branchFlowByDay.size();
               displayData=new Object [iBranchNumber*iDayNumber][5];
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 branchFlow=(double [][])branchFlowByDay.get(iDay);
+                 branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                  int iStartIndex=iDay*iBranchNumber;
                  
                   for(int i=0; i<iBranchNumber; i++) {
@@ -2107,11 +2108,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iBranchNumber*iDayNumber][5];
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 branchFlow=(double [][])branchFlowByDay.get(iDay);
+                 branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                  int iStartIndex=(iDay-(iStartTime-1))*iBranchNumber;
                  
                   for(int i=0; i<iBranchNumber; i++) {
@@ -2135,11 +2136,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=branchFlowByDay.size();
                 displayData=new Object [iBranchNumber*iDayNumber*24][5];
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 branchFlow=(double [][])branchFlowByDay.get(iDay);
+                 branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                  int iDayStartIndex=iDay*iBranchNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -2167,11 +2168,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iBranchNumber*iDayNumber*24][5];
               
-              double [][] branchFlow;
+              double [][] branchFlow=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 branchFlow=(double [][])branchFlowByDay.get(iDay);
+                 branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iBranchNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -2204,11 +2205,11 @@ public TableView(AMESFrame frame) {
                   int iDayNumber=branchFlowByDay.size();
                   displayData=new Object [iDataNumber*iDayNumber][5];
 
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -2232,11 +2233,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][5];
 
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -2260,11 +2261,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=branchFlowByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][5];
 
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2292,11 +2293,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][5];
 
-                  double [][] branchFlow;
+                  double [][] branchFlow=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     branchFlow=(double [][])branchFlowByDay.get(iDay);
+                     branchFlow=branchFlowByDay.getDay(iDay, branchFlow);
                      int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2348,7 +2349,7 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList LMPByDay=amesFrame.getAMESMarket().getLMPByDay();
+      DailyHistory LMPByDay=amesFrame.getAMESMarket().getLMPByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
                  
       int[] hasSolutions;
@@ -2363,11 +2364,11 @@ public TableView(AMESFrame frame) {
               int iDayNumber=LMPByDay.size();
               displayData=new Object [iNodeNumber*iDayNumber][4];
               
-              double [][] lmp;
+              double [][] lmp=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 lmp=(double [][])LMPByDay.get(iDay);
+                 lmp=LMPByDay.getDay(iDay, lmp);
                  int iStartIndex=iDay*iNodeNumber;
                  
                   for(int i=0; i<iNodeNumber; i++) {
@@ -2389,11 +2390,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iNodeNumber*iDayNumber][4];
               
-              double [][] lmp;
+              double [][] lmp=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 lmp=(double [][])LMPByDay.get(iDay);
+                 lmp=LMPByDay.getDay(iDay, lmp);
                  int iStartIndex=(iDay-(iStartTime-1))*iNodeNumber;
                  
                   for(int i=0; i<iNodeNumber; i++) {
@@ -2415,11 +2416,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iNodeNumber*iDayNumber*24][4];
               
-              double [][] lmp;
+              double [][] lmp=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 lmp=(double [][])LMPByDay.get(iDay);
+                 lmp=LMPByDay.getDay(iDay, lmp);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iNodeNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -2445,11 +2446,11 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=LMPByDay.size();
                 displayData=new Object [iNodeNumber*iDayNumber*24][4];
               
-              double [][] lmp;
+              double [][] lmp=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 lmp=(double [][])LMPByDay.get(iDay);
+                 lmp=LMPByDay.getDay(iDay, lmp);
                  int iDayStartIndex=iDay*iNodeNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -2480,11 +2481,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=LMPByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][4];
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     lmp=(double [][])LMPByDay.get(iDay);
+                     lmp=LMPByDay.getDay(iDay, lmp);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -2506,11 +2507,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][4];
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     lmp=(double [][])LMPByDay.get(iDay);
+                     lmp=LMPByDay.getDay(iDay, lmp);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -2532,11 +2533,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=LMPByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][4];
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     lmp=(double [][])LMPByDay.get(iDay);
+                     lmp=LMPByDay.getDay(iDay, lmp);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2562,11 +2563,11 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][4];
 
-                  double [][] lmp;
+                  double [][] lmp=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                       hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                      lmp=(double [][])LMPByDay.get(iDay);
+                      lmp=LMPByDay.getDay(iDay, lmp);
                       int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2616,15 +2617,15 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
       
-      ArrayList genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmissionByDay();
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentEmissionByDay=amesFrame.getAMESMarket().getGenAgentEmissionByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
       
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
       
       Object [][] displayData;
-      double [][] genOffer;
+      double [][] genOffer=null;
       int [] hasSolutions;
       
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
@@ -2632,13 +2633,13 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentEmissionByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][8];
               
-              double [][] genEmission;
+              double [][] genEmission=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
                  
-                 genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=iDay*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -2667,12 +2668,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][8];
               
-              double [][] genEmission;
+              double [][] genEmission=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
                  
                   for(int i=0; i<iGenNumber; i++) {
@@ -2697,12 +2698,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentEmissionByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
               
-              double [][] genEmission;
+              double [][] genEmission=null;
               
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=iDay*iGenNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -2731,12 +2732,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
               
-              double [][] genEmission;
+              double [][] genEmission=null;
               
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iGenNumber*24;
                  
                   for(int i=0; i<24; i++) {
@@ -2770,12 +2771,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentEmissionByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genEmission;
+                  double [][] genEmission=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -2800,12 +2801,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genEmission;
+                  double [][] genEmission=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -2830,12 +2831,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genEmission;
+                  double [][] genEmission=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2864,12 +2865,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentEmissionByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genEmission;
+                  double [][] genEmission=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmissionByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmission=genAgentEmissionByDay.getDay(iDay, genEmission);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -2931,15 +2932,15 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
 
-      ArrayList genAgentEmTradeByDay=amesFrame.getAMESMarket().getGenAgentEmTradeByDay();
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentEmTradeByDay=amesFrame.getAMESMarket().getGenAgentEmTradeByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
 
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
 
       Object [][] displayData;
-      double [][] genOffer;
+      double [][] genOffer=null;
       int [] hasSolutions;
 
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
@@ -2947,13 +2948,13 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentEmTradeByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][8];
 
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
 
-                 genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=iDay*iGenNumber;
 
                   for(int i=0; i<iGenNumber; i++) {
@@ -2982,12 +2983,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][8];
 
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
 
                   for(int i=0; i<iGenNumber; i++) {
@@ -3012,12 +3013,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentEmTradeByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
 
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=iDay*iGenNumber*24;
 
                   for(int i=0; i<24; i++) {
@@ -3046,12 +3047,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
 
-              double [][] genEmTrade;
+              double [][] genEmTrade=null;
 
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iGenNumber*24;
 
                   for(int i=0; i<24; i++) {
@@ -3085,12 +3086,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentEmTradeByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -3115,12 +3116,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -3145,12 +3146,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genEmission;
+                  double [][] genEmission=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmTradeByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmission=genAgentEmTradeByDay.getDay(iDay, genEmission);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -3179,12 +3180,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentEmTradeByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genEmTrade;
+                  double [][] genEmTrade=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTrade=(double [][])genAgentEmTradeByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmTrade=genAgentEmTradeByDay.getDay(iDay, genEmTrade);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -3247,15 +3248,15 @@ public TableView(AMESFrame frame) {
       iStartTime=iStartTime-1;
       iEndTime=iEndTime-1;
 
-      ArrayList genAgentEmTradePriceByDay=amesFrame.getAMESMarket().getGenAgentEmTradePriceByDay();
-      ArrayList genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
+      DailyHistory genAgentEmTradePriceByDay=amesFrame.getAMESMarket().getGenAgentEmTradePriceByDay();
+      DailyHistory genAgentSupplyOfferByDay=amesFrame.getAMESMarket().getGenAgentSupplyOfferByDay();
       ArrayList hasSolutionByDay=amesFrame.getAMESMarket().getHasSolutionByDay();
 
       Object [][] genData=amesFrame.getGeneratorData( );
       int iGenNumber=genData.length;
 
       Object [][] displayData;
-      double [][] genOffer;
+      double [][] genOffer=null;
       int [] hasSolutions;
 
       if((selectIndex.length<1)||(selectIndex[0]==0)) {
@@ -3263,13 +3264,13 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentEmTradePriceByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber][8];
 
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
 
-                 genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=iDay*iGenNumber;
 
                   for(int i=0; i<iGenNumber; i++) {
@@ -3298,12 +3299,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber][8];
 
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iStartIndex=(iDay-(iStartTime-1))*iGenNumber;
 
                   for(int i=0; i<iGenNumber; i++) {
@@ -3328,12 +3329,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=genAgentEmTradePriceByDay.size();
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
 
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               for(int iDay=0; iDay<iDayNumber; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=iDay*iGenNumber*24;
 
                   for(int i=0; i<24; i++) {
@@ -3362,12 +3363,12 @@ public TableView(AMESFrame frame) {
                 int iDayNumber=iEndTime-iStartTime+1;
                 displayData=new Object [iGenNumber*iDayNumber*24][8];
 
-              double [][] genEmTradePrice;
+              double [][] genEmTradePrice=null;
 
               for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                  hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                 genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                 genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                 genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                 genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                  int iDayStartIndex=(iDay-(iStartTime-1))*iGenNumber*24;
 
                   for(int i=0; i<24; i++) {
@@ -3401,12 +3402,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentEmTradePriceByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=iDay*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -3431,12 +3432,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber][8];
 
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iStartIndex=(iDay-(iStartTime-1))*iDataNumber;
 
                       for(int i=0; i<iDataNumber; i++) {
@@ -3461,12 +3462,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=iEndTime-iStartTime+1;
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genEmission;
+                  double [][] genEmission=null;
 
                   for(int iDay=iStartTime-1; iDay<iEndTime; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmission=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmission=genAgentEmTradePriceByDay.getDay(iDay, genEmission);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=(iDay-(iStartTime-1))*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
@@ -3495,12 +3496,12 @@ public TableView(AMESFrame frame) {
                     int iDayNumber=genAgentEmTradePriceByDay.size();
                     displayData=new Object [iDataNumber*iDayNumber*24][8];
 
-                  double [][] genEmTradePrice;
+                  double [][] genEmTradePrice=null;
 
                   for(int iDay=0; iDay<iDayNumber; iDay++) {
                      hasSolutions=(int[])hasSolutionByDay.get(iDay);
-                     genEmTradePrice=(double [][])genAgentEmTradePriceByDay.get(iDay);
-                     genOffer=(double [][])genAgentSupplyOfferByDay.get(iDay);
+                     genEmTradePrice=genAgentEmTradePriceByDay.getDay(iDay, genEmTradePrice);
+                     genOffer=genAgentSupplyOfferByDay.getDay(iDay, genOffer);
                      int iDayStartIndex=iDay*iDataNumber*24;
 
                       for(int i=0; i<24; i++) {
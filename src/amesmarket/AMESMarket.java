@@ -43,6 +43,8 @@ import edu.iastate.jrelm.gui.BasicSettingsEditor;
 // Java
 import java.util.ArrayList;
 import java.util.*;
+import java.io.File;
+import java.io.IOException;
 
 
 
@@ -75,6 +77,7 @@ public class AMESMarket extends SimModelImpl{
   public boolean bThreshold;
   
   public int RANDOM_SEED;  
+  private long lRandomSeed; // user-specified seed, RANDOM_SEED = (int) lRandomSeed
   
   public int stopCode; // foe stop number
   
@@ -94,6 +97,10 @@ public class AMESMarket extends SimModelImpl{
   private double baseS;
   private double baseV;
   private INIT init;
+  private MarketContext context; // fixed data of the current run, from buildModel()
+  private File resultsDirectory; // memory-mapped daily result files (null: results on the heap)
+  private OutputSink outputSink; // receives the daily results as they are produced (null: none)
+  private boolean bKeepResults = true;
 
 // Model time
   private int hour;
@@ -118,6 +125,11 @@ public class AMESMarket extends SimModelImpl{
   private boolean bDailyNetEarningThreshold;
   private int iDailyNetEarningStartDay;
   private int iDailyNetEarningDayLength;
+  private int numOPFThreads = 1; // >1: solve the 24 hourly DC-OPF problems in parallel
+  private int numAgentThreads = 1; // >1: update the agents of DAMarket.post() in parallel
+  private boolean bWarmStartOPF = false; // true: warm-start each DC-OPF from an earlier active set
+  private int qpSolver = QPSolver.QUADPROGJ; // solver of the DC-OPF problems
+  private MetricsRegistry metrics = new MetricsRegistry(); // hot-path metrics of the run
 
 /// Repast required variables
   private Schedule schedule;
@@ -131,6 +143,7 @@ public class AMESMarket extends SimModelImpl{
 
 //  Learning variables
   private ActionDomain ad;
+  private RothErevEngine learningEngine; // learners of all the GenAgents
   int numLowerRIs;
   int numUpperRIs;
   int numUpperCaps;
@@ -146,29 +159,35 @@ public class AMESMarket extends SimModelImpl{
   private double[] recencyOfGen;
   private int[] learningRandomSeedsOfGen;
 
-  private ArrayList genAgentSupplyOfferByDay;
+  // Names of the daily result histories (used for the result files)
+  public static final String [] DAILY_HISTORY_NAMES={"genAgentSupplyOfferByDay", "lseAgentPriceSensitiveDemandByDay", "lseAgentPriceSensitiveDemandWithTrueCost", "lseAgentSurplusByDay", "lseAgentSurplusWithTrueCost", "genAgentProfitAndNetGainByDay", "genAgentActionPropensityAndProbilityByDay", "genAgentProfitAndNetGainWithTrueCost", "genAgentCommitmentWithTrueCost", "genAgentCommitmentByDay", "genAgentEmissionByDay", "genAgentEmTradeByDay", "genAgentEmTradePriceByDay", "branchFlowByDay", "LMPByDay", "LMPWithTrueCost"};
+
+  private DailyHistory genAgentSupplyOfferByDay;
   private ArrayList hasSolutionByDay;
-  private ArrayList lseAgentPriceSensitiveDemandByDay;
-  private ArrayList lseAgentSurplusByDay;
-  private ArrayList lseAgentSurplusWithTrueCost;
-  private ArrayList lseAgentPriceSensitiveDemandWithTrueCost;
-  private ArrayList genAgentProfitAndNetGainByDay;
-  private ArrayList genAgentEmissionByDay;
-  private ArrayList genAgentEmTradeByDay;
-  private ArrayList genAgentEmTradePriceByDay;
-  private ArrayList genAgentActionPropensityAndProbilityByDay;
-  private ArrayList genAgentProfitAndNetGainWithTrueCost;
-  private ArrayList genAgentCommitmentWithTrueCost;
-  private ArrayList genAgentCommitmentByDay;
-
-  private ArrayList branchFlowByDay;
-  private ArrayList LMPByDay;
-  private ArrayList LMPWithTrueCost;
+  private DailyHistory lseAgentPriceSensitiveDemandByDay;
+  private DailyHistory lseAgentSurplusByDay;
+  private DailyHistory lseAgentSurplusWithTrueCost;
+  private DailyHistory lseAgentPriceSensitiveDemandWithTrueCost;
+  private DailyHistory genAgentProfitAndNetGainByDay;
+  private DailyHistory genAgentEmissionByDay;
+  private DailyHistory genAgentEmTradeByDay;
+  private DailyHistory genAgentEmTradePriceByDay;
+  private DailyHistory genAgentActionPropensityAndProbilityByDay;
+  private DailyHistory genAgentProfitAndNetGainWithTrueCost;
+  private DailyHistory genAgentCommitmentWithTrueCost;
+  private DailyHistory genAgentCommitmentByDay;
+
+  private DailyHistory branchFlowByDay;
+  private DailyHistory LMPByDay;
+  private DailyHistory LMPWithTrueCost;
   
   private ArrayList lastDayGenActions;
   
   private static Controller ModelController=null;
   private boolean bCalculationEnd=false;
+  // true: set up by setupWithoutController(), so Repast's static random
+  //  generator (shared by all instances of the JVM) is left alone
+  private boolean bWithoutController=false;
 
 
 // RePast required methods
@@ -187,6 +206,8 @@ public class AMESMarket extends SimModelImpl{
     //System.out.println("Running setup");
 
     // Tear down any objects created over the course of the run to null.
+    shutdown();
+    bWithoutController = false;
     transGrid = null;
     iso = null;
     genAgentList = new ArrayList();
@@ -256,17 +277,24 @@ public class AMESMarket extends SimModelImpl{
     printStructuralParameters();
     
 
-    setRngSeed(RANDOM_SEED);
+    // Only the Repast controller needs its generator seeded; the model
+    //  draws from the RandomStreams of the run alone
+    if(!bWithoutController)
+      setRngSeed(RANDOM_SEED);
 
     hour  = 0;
     day   = 1;
     isConverged = false;
     dayMax = DAY_MAX;
 
-    transGrid = new TransGrid(nodeData, branchData, gridXSize,gridYSize);
+    context = new MarketContext(this);
+    transGrid = new TransGrid(context, gridXSize, gridYSize);
 
-    java.util.Random randomSeed = new java.util.Random((int)this.getRngSeed());
-    addGenAgents(randomSeed);
+    // The GenAgent learning seeds derive from the random seed of the run
+    // (one stream per GenAgent, see RandomStreams) rather than from
+    // getRngSeed(), which reads Repast's static generator state and so is
+    // shared by all AMESMarket instances of the JVM
+    addGenAgents(context.getRandomStreams().child(RandomStreams.GEN_AGENTS));
     addLSEAgents();
     iso = new ISO(this);
 
@@ -469,22 +497,47 @@ public class AMESMarket extends SimModelImpl{
   }
 
 
-  private void addGenAgents(java.util.Random rn){
+  private void addGenAgents(RandomStreams genStreams){
+
+    int numActions = 0;
+    for(int i=0; i<numGenAgents; i++){
+      numActions += (int)genLearningParameters[i][4]*(int)genLearningParameters[i][5]
+          *(int)genLearningParameters[i][6];
+    }
+    learningEngine = new RothErevEngine(numGenAgents, numActions);
 
+    // GenAgents with the same action domain parameters share the (read-only)
+    // action domain
+    ArrayList actionDomains = new ArrayList();
     for(int i=0; i<numGenAgents; i++){
-      int randomNumber = rn.nextInt();
+      int randomNumber = genStreams.child(i).getIntSeed();
       learningRandomSeedsOfGen[i] = randomNumber;    
       VREParameters learningParams = new VREParameters(genLearningParameters[i][1],
           genLearningParameters[i][3], genLearningParameters[i][0], genLearningParameters[i][2], randomNumber);
       
-      ad = new ActionDomain((int)genLearningParameters[i][4], 
+      ad = null;
+      for(int k=0; k<actionDomains.size() && ad==null; k++){
+        ActionDomain shared = (ActionDomain) actionDomains.get(k);
+        if(shared.hasParameters((int)genLearningParameters[i][4],
+              (int)genLearningParameters[i][5],
+              (int)genLearningParameters[i][6],
+              genLearningParameters[i][7],
+              genLearningParameters[i][8],
+              genLearningParameters[i][9])){
+          ad = shared;
+        }
+      }
+      if(ad == null){
+        ad = new ActionDomain((int)genLearningParameters[i][4], 
               (int)genLearningParameters[i][5],
               (int)genLearningParameters[i][6],
               genLearningParameters[i][7],
               genLearningParameters[i][8],
               genLearningParameters[i][9]);
+        actionDomains.add(ad);
+      }
               
-      GenAgent gen = new GenAgent(genData[i], learningParams, ad.getActionDomain(),
+      GenAgent gen = new GenAgent(genData[i], learningParams, learningEngine, ad,
                                   genLearningParameters[i][10], dGenPriceCap, randomNumber, iStartDay, iCheckDayLength, dActionProbability, bActionProbabilityCheck,
                                   iLearningCheckStartDay, iLearningCheckDayLength, dLearningCheckDifference, bLearningCheck, dDailyNetEarningThreshold, 
                                   bDailyNetEarningThreshold, iDailyNetEarningStartDay, iDailyNetEarningDayLength, (int)genLearningParameters[i][11]);
@@ -508,101 +561,145 @@ public class AMESMarket extends SimModelImpl{
 
     class WPMarket extends BasicAction{
       public void execute(){
-        iso.wholesalePowerMarketOperation(hour, day);
-        stopCode=0;
-        
-        if(bMaximumDay){
-            if(bThreshold){ // Both dayMax has been reached and all GenCos are selecting a single action with probability
-                if(isConverged == true) {// Only all GenCos are selecting a single action with probability
-                  stop();
-                  stopCode=stopCode|0x10; // second bit
-                }
-            }
+        runMarketHour();
+        if(bCalculationEnd){
+          stop();
+        }
+      }
+    }
+    schedule.scheduleActionBeginning(0,new WPMarket());
+  }
 
-            if((hour==23)&&(day==dayMax)){// Only dayMax has been reached
-              stop();
-              stopCode=stopCode|0x1;   // first bit
+  // Runs the market for the current hour, checks the stopping rules and
+  //  advances the model time by one hour.  Sets bCalculationEnd (see
+  //  IfCalculationEnd()) once a stopping rule is met.
+  public void runMarketHour(){
+    iso.wholesalePowerMarketOperation(hour, day);
+    stopCode=0;
+    
+    if(bMaximumDay){
+        if(bThreshold){ // Both dayMax has been reached and all GenCos are selecting a single action with probability
+            if(isConverged == true) {// Only all GenCos are selecting a single action with probability
+              stopCode=stopCode|0x10; // second bit
             }
         }
-       
-        if(bActionProbabilityCheck){
-            if(isGenActionProbabilityConverged){
-                  stop();
-                  stopCode=stopCode|0x100;   // third bit
-            }
+
+        if((hour==23)&&(day==dayMax)){// Only dayMax has been reached
+          stopCode=stopCode|0x1;   // first bit
         }
-            
-        if(bLearningCheck){
-            if(isGenLearningResultConverged){
-                  stop();
-                  stopCode=stopCode|0x1000;   // fotrh bit;
-            }
+    }
+   
+    if(bActionProbabilityCheck){
+        if(isGenActionProbabilityConverged){
+              stopCode=stopCode|0x100;   // third bit
         }
-            
-        if(bDailyNetEarningThreshold){
-            if(isGenDailyNetEarningConverged){
-                  stop();
-                  stopCode=stopCode|0x10000;   // fifth bit;
-            }
+    }
+        
+    if(bLearningCheck){
+        if(isGenLearningResultConverged){
+              stopCode=stopCode|0x1000;   // fotrh bit;
         }
-            
-        if(stopCode>0){
-                  
-              bCalculationEnd=true;
-              iso.DayAheadMarketCheckLastDayAction();
-
-             Date sysDate = new Date();
-             System.out.println("Simulation End time: "+sysDate.toString()+"\n");
-             
-             String stopStr="";
-             int iStopNumber=0;
-             int iFirstIndex=-1;
-             int iLastIndex=0;
-             int iTemp=stopCode;
-             for(int i=0; i<5; i++){
-                 if((stopCode&0x1)==0x1){
-                     if(iFirstIndex==-1)
-                         iFirstIndex=i;
-                     
-                     iStopNumber++;
-                     iLastIndex=i;
-                 }
+    }
+        
+    if(bDailyNetEarningThreshold){
+        if(isGenDailyNetEarningConverged){
+              stopCode=stopCode|0x10000;   // fifth bit;
+        }
+    }
+        
+    if(stopCode>0){
+              
+          bCalculationEnd=true;
+          iso.DayAheadMarketCheckLastDayAction();
+          shutdown();
+
+         Date sysDate = new Date();
+         System.out.println("Simulation End time: "+sysDate.toString()+"\n");
+         
+         String stopStr="";
+         int iStopNumber=0;
+         int iFirstIndex=-1;
+         int iLastIndex=0;
+         int iTemp=stopCode;
+         for(int i=0; i<5; i++){
+             if((stopCode&0x1)==0x1){
+                 if(iFirstIndex==-1)
+                     iFirstIndex=i;
                  
-                 stopCode/=16;
+                 iStopNumber++;
+                 iLastIndex=i;
              }
              
-             stopCode=iTemp;
-             for(int i=0; i<5; i++){
-                 if((stopCode&0x1)==0x1){
-                     
-                     if(iFirstIndex==i)
-                        stopStr+=(i+1);
-                     else if((iLastIndex==i)&&(iLastIndex!=iFirstIndex))
-                         stopStr+=", and "+(i+1);
-                     else
-                        stopStr+=", "+(i+1);
-                 }
+             stopCode/=16;
+         }
+         
+         stopCode=iTemp;
+         for(int i=0; i<5; i++){
+             if((stopCode&0x1)==0x1){
                  
-                 stopCode/=16;
+                 if(iFirstIndex==i)
+                    stopStr+=(i+1);
+                 else if((iLastIndex==i)&&(iLastIndex!=iFirstIndex))
+                     stopStr+=", and "+(i+1);
+                 else
+                    stopStr+=", "+(i+1);
              }
              
-             
-             System.out.println("\n\nThe current simulation run concluded on day "+day+ " in response to the activation of the following \nstopping rule:("+stopStr+")\n\n");
-             
-             System.out.println("Customizable table and chart output displays for the competitive (no learning) benchmark pre-run and the actual \nmarket simulation run can be accessed through the \"View\" screen on the menu bar.\n");
-        }
-     
+             stopCode/=16;
+         }
+         
+         
+         System.out.println("\n\nThe current simulation run concluded on day "+day+ " in response to the activation of the following \nstopping rule:("+stopStr+")\n\n");
+         
+         System.out.println("Customizable table and chart output displays for the competitive (no learning) benchmark pre-run and the actual \nmarket simulation run can be accessed through the \"View\" screen on the menu bar.\n");
+    }
+ 
 
 
-      // Updating world time by one hour for each "tick count" in RePast
-        hour++;
-        if(hour==24){
-          hour = 0;
-          day++;
-        }
+  // Updating world time by one hour for each "tick count" in RePast
+    hour++;
+    if(hour==24){
+      hour = 0;
+      day++;
+      metrics.counter(MetricsRegistry.MARKET_DAYS).increment();
+    }
+  }
+
+  // Runs the whole simulation in the calling thread, without the Repast
+  //  controller (and so without any GUI): setup, model build, then one
+  //  runMarketHour() per hour until a stopping rule is met.
+  //
+  // NOTE: this only returns if at least one stopping rule is active
+  //       (e.g. bMaximumDay), as for a run started from the GUI.
+  public void runWithoutController(){
+    setupWithoutController();
+    try {
+      while(!bCalculationEnd){
+        runMarketHour();
       }
     }
-    schedule.scheduleActionBeginning(0,new WPMarket());
+    finally {
+      shutdown();
+    }
+  }
+
+  // Stops the thread pools of the run (DC-OPF and agent updates), which
+  //  are only created again if the market is run further.  Called when the
+  //  run ends or is stopped, and by setup().
+  public void shutdown(){
+    if(iso != null)
+      iso.shutdown();
+  }
+
+  // Sets up the model for runMarketHour() calls without the Repast
+  //  controller, as runWithoutController() does before the first hour; the
+  //  caller then runs the hours itself (e.g. a fixed number of days).
+  public void setupWithoutController(){
+    setup();
+    bWithoutController = true;
+    buildModel();
+    stopCode=-1;
+    bCalculationEnd=false;
   }
 
   public void buildDisplay(){
@@ -620,6 +717,10 @@ public class AMESMarket extends SimModelImpl{
     return lseAgentList;
   }
 
+  public MarketContext getMarketContext(){
+    return context;
+  }
+
   public TransGrid getTransGrid(){
     return transGrid;
   }
@@ -730,6 +831,7 @@ public class AMESMarket extends SimModelImpl{
 
   public void Stop(){
      ModelController.stopSim();
+     shutdown();
   }
 
   public void Pause(){
@@ -791,11 +893,43 @@ public class AMESMarket extends SimModelImpl{
         dLSEPriceCap=dLseCap;
       
         RANDOM_SEED=(int)lRandom;
+        lRandomSeed=lRandom;
  }
 
  public void SetRandomSeed(long lSeed){
       RANDOM_SEED=(int)lSeed;
-  }
+      lRandomSeed=lSeed;
+  }
+
+  // Simulation controls set by InitSimulationParameters()
+  public long getRandomSeed(){return lRandomSeed;}
+  public int getMaxDay(){return DAY_MAX;}
+  public double getGenPriceCap(){return dGenPriceCap;}
+  public double getLSEPriceCap(){return dLSEPriceCap;}
+  public boolean getActionProbabilityCheck(){return bActionProbabilityCheck;}
+  public int getActionProbabilityStartDay(){return iStartDay;}
+  public int getActionProbabilityDayLength(){return iCheckDayLength;}
+  public double getActionProbabilityDifference(){return dActionProbability;}
+  public boolean getLearningCheck(){return bLearningCheck;}
+  public int getLearningCheckStartDay(){return iLearningCheckStartDay;}
+  public int getLearningCheckDayLength(){return iLearningCheckDayLength;}
+  public double getLearningCheckDifference(){return dLearningCheckDifference;}
+  public boolean getDailyNetEarningCheck(){return bDailyNetEarningThreshold;}
+  public int getDailyNetEarningStartDay(){return iDailyNetEarningStartDay;}
+  public int getDailyNetEarningDayLength(){return iDailyNetEarningDayLength;}
+  public double getDailyNetEarningThreshold(){return dDailyNetEarningThreshold;}
+
+  public int getNumOPFThreads(){return numOPFThreads;}
+  public void setNumOPFThreads(int n){numOPFThreads = Math.max(1, n);}
+  public int getNumAgentThreads(){return numAgentThreads;}
+  public void setNumAgentThreads(int n){numAgentThreads = Math.max(1, n);}
+  public boolean getWarmStartOPF(){return bWarmStartOPF;}
+  public void setWarmStartOPF(boolean ws){bWarmStartOPF = ws;}
+  public int getQPSolver(){return qpSolver;}
+  public void setQPSolver(int qp){qpSolver = qp;} // QPSolver.QUADPROGJ or QPSolver.INTERIOR_POINT
+  public MetricsRegistry getMetrics(){return metrics;}
+  public RothErevEngine getLearningEngine(){return learningEngine;}
+  public void setMetrics(MetricsRegistry mr){metrics = mr;} // e.g. one registry for several runs
   
 
 public void addHasSolutionByDay(int[] hasSolution){
@@ -804,7 +938,14 @@ public void addHasSolutionByDay(int[] hasSolution){
       for(int i=0; i<iRow; i++)
            newObject[i]=hasSolution[i];
       
-      hasSolutionByDay.add(newObject);
+      if(bKeepResults)
+          hasSolutionByDay.add(newObject);
+      if(outputSink!=null){
+          double [][] flags=new double[1][iRow];
+          for(int i=0; i<iRow; i++)
+              flags[0][i]=hasSolution[i];
+          outputSink.addDay(BinaryOutputWriter.HAS_SOLUTION, flags);
+      }
   }
   
   public ArrayList getHasSolutionByDay() {
@@ -812,249 +953,131 @@ public void addHasSolutionByDay(int[] hasSolution){
   }
   
 public void addGenAgentSupplyOfferByDay(double[][] supplyOffer){
-      int iRow=supplyOffer.length;
-      int iCol=supplyOffer[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=supplyOffer[i][j];
-      
-      genAgentSupplyOfferByDay.add(newObject);
+      addDay(genAgentSupplyOfferByDay, "genAgentSupplyOfferByDay", supplyOffer);
   }
   
-  public ArrayList getGenAgentSupplyOfferByDay() {
+  public DailyHistory getGenAgentSupplyOfferByDay() {
       return genAgentSupplyOfferByDay;
   }
   
    public void addLSEAgenPriceSensitiveDemandByDay(double[][] LSEPDemand){
-      int iRow=LSEPDemand.length;
-      int iCol=LSEPDemand[0].length;
-      for(int i=0; i<iRow; i++){
-          if(iCol>LSEPDemand[i].length)
-              iCol=LSEPDemand[i].length;
-      }
-              
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++){
-              newObject[i][j]=LSEPDemand[i][j];
-          }
-      
-      lseAgentPriceSensitiveDemandByDay.add(newObject);
+      addDay(lseAgentPriceSensitiveDemandByDay, "lseAgentPriceSensitiveDemandByDay", LSEPDemand);
   }
   
-  public ArrayList getLSEAgenPriceSensitiveDemandByDay() {
+  public DailyHistory getLSEAgenPriceSensitiveDemandByDay() {
       return lseAgentPriceSensitiveDemandByDay;
   }
   
   
  public void addLSEAgentSurplusByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      lseAgentSurplusByDay.add(newObject);
+      addDay(lseAgentSurplusByDay, "lseAgentSurplusByDay", object);
   }
   
-  public ArrayList getLSEAgentSurplusByDay() {
+  public DailyHistory getLSEAgentSurplusByDay() {
       return lseAgentSurplusByDay;
   }
   
  public void addGenAgentProfitAndNetGainByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentProfitAndNetGainByDay.add(newObject);
+      addDay(genAgentProfitAndNetGainByDay, "genAgentProfitAndNetGainByDay", object);
   }
   
-  public ArrayList getGenAgentProfitAndNetGainByDay() {
+  public DailyHistory getGenAgentProfitAndNetGainByDay() {
       return genAgentProfitAndNetGainByDay;
   }
   
  public void addGenAgentActionPropensityAndProbilityByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentActionPropensityAndProbilityByDay.add(newObject);
+      addDay(genAgentActionPropensityAndProbilityByDay, "genAgentActionPropensityAndProbilityByDay", object);
   }
   
-  public ArrayList getGenAgentActionPropensityAndProbilityByDay() {
+  public DailyHistory getGenAgentActionPropensityAndProbilityByDay() {
       return genAgentActionPropensityAndProbilityByDay;
   }
   
   public void addLSEAgentPriceSensitiveDemandWithTrueCost(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      lseAgentPriceSensitiveDemandWithTrueCost.add(newObject);
+      addDay(lseAgentPriceSensitiveDemandWithTrueCost, "lseAgentPriceSensitiveDemandWithTrueCost", object);
   }
   
-  public ArrayList getLSEAgentPriceSensitiveDemandWithTrueCost() {
+  public DailyHistory getLSEAgentPriceSensitiveDemandWithTrueCost() {
       return lseAgentPriceSensitiveDemandWithTrueCost;
   }
   
   public void addGenAgentCommitmentWithTrueCost(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentCommitmentWithTrueCost.add(newObject);
+      addDay(genAgentCommitmentWithTrueCost, "genAgentCommitmentWithTrueCost", object);
   }
   
-  public ArrayList getGenAgentCommitmentWithTrueCost() {
+  public DailyHistory getGenAgentCommitmentWithTrueCost() {
       return genAgentCommitmentWithTrueCost;
   }
   
   public void addGenAgentProfitAndNetGainWithTrueCost(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentProfitAndNetGainWithTrueCost.add(newObject);
+      addDay(genAgentProfitAndNetGainWithTrueCost, "genAgentProfitAndNetGainWithTrueCost", object);
   }
   
-  public ArrayList getGenAgentProfitAndNetGainWithTrueCost() {
+  public DailyHistory getGenAgentProfitAndNetGainWithTrueCost() {
       return genAgentProfitAndNetGainWithTrueCost;
   }
   
   public void addLSEAgentSurplusWithTrueCost(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      lseAgentSurplusWithTrueCost.add(newObject);
+      addDay(lseAgentSurplusWithTrueCost, "lseAgentSurplusWithTrueCost", object);
   }
   
-  public ArrayList getLSEAgentSurplusWithTrueCost() {
+  public DailyHistory getLSEAgentSurplusWithTrueCost() {
       return lseAgentSurplusWithTrueCost;
   }
   
   public void addGenAgentCommitmentByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentCommitmentByDay.add(newObject);
+      addDay(genAgentCommitmentByDay, "genAgentCommitmentByDay", object);
   }
   
-  public ArrayList getGenAgentCommitmentByDay() {
+  public DailyHistory getGenAgentCommitmentByDay() {
       return genAgentCommitmentByDay;
   }
 
     public void addGenAgentEmissionByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentEmissionByDay.add(newObject);
+      addDay(genAgentEmissionByDay, "genAgentEmissionByDay", object);
   }
   
-  public ArrayList getGenAgentEmissionByDay() {
+  public DailyHistory getGenAgentEmissionByDay() {
       return genAgentEmissionByDay;
   }
 
     public void addGenAgentEmTradeByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentEmTradeByDay.add(newObject);
+      addDay(genAgentEmTradeByDay, "genAgentEmTradeByDay", object);
   }
   
-  public ArrayList getGenAgentEmTradeByDay() {
+  public DailyHistory getGenAgentEmTradeByDay() {
       return genAgentEmTradeByDay;
   }
 
 public void addGenAgentEmTradePriceByDay(double[][] object){
-      int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      genAgentEmTradePriceByDay.add(newObject);
+      addDay(genAgentEmTradePriceByDay, "genAgentEmTradePriceByDay", object);
   }
 
-  public ArrayList getGenAgentEmTradePriceByDay() {
+  public DailyHistory getGenAgentEmTradePriceByDay() {
       return genAgentEmTradePriceByDay;
   }
   
   public void addBranchFlowByDay(double[][] object){
-       int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      branchFlowByDay.add(newObject);
+      addDay(branchFlowByDay, "branchFlowByDay", object);
   }
   
-  public ArrayList getBranchFlowByDay() {
+  public DailyHistory getBranchFlowByDay() {
       return branchFlowByDay;
   }
   
   public void addLMPByDay(double[][] object){
-       int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      LMPByDay.add(newObject);
+      addDay(LMPByDay, "LMPByDay", object);
   }
   
-  public ArrayList getLMPByDay() {
+  public DailyHistory getLMPByDay() {
       return LMPByDay;
   }
   
   public void addLMPWithTrueCost(double[][] object){
-       int iRow=object.length;
-      int iCol=object[0].length;
-      double [][] newObject=new double[iRow][iCol];
-      for(int i=0; i<iRow; i++)
-          for(int j=0; j<iCol; j++)
-              newObject[i][j]=object[i][j];
-
-      LMPWithTrueCost.add(newObject);
+      addDay(LMPWithTrueCost, "LMPWithTrueCost", object);
   }
   
-  public ArrayList getLMPWithTrueCost() {
+  public DailyHistory getLMPWithTrueCost() {
       return LMPWithTrueCost;
   }
   
@@ -1072,13 +1095,46 @@ public void addGenAgentEmTradePriceByDay(double[][] object){
           newObject[i]=newCol;
       }
 
-      lastDayGenActions.add(newObject);
+      if(bKeepResults)
+          lastDayGenActions.add(newObject);
+      if(outputSink!=null)
+          outputSink.addDay(BinaryOutputWriter.GEN_ACTIONS, newObject);
   }
   
   public ArrayList getGenActions() {
       return lastDayGenActions;
   }
   
+  // Stores the table of the day in the history (unless the results are not
+  //  kept) and passes it on to the output sink, if any
+  private void addDay(DailyHistory history, String name, double[][] table){
+      if(bKeepResults)
+          history.addDay(table);
+      if(outputSink!=null)
+          outputSink.addDay(name, table);
+  }
+
+  // Sink to which the results of each day are passed as they are produced
+  //  (null: none), e.g. a StreamingOutputWriter
+  public void setOutputSink(OutputSink sink){
+      outputSink = sink;
+  }
+
+  public OutputSink getOutputSink(){
+      return outputSink;
+  }
+
+  // Whether the daily results are kept in the histories of the AMESMarket
+  //  (default true); a run whose results only go to the output sink can
+  //  turn it off, so that its memory does not grow with the days
+  public void setKeepResults(boolean b){
+      bKeepResults = b;
+  }
+
+  public boolean getKeepResults(){
+      return bKeepResults;
+  }
+
   public boolean IfCalculationEnd(){
       return bCalculationEnd;
   }
@@ -1088,24 +1144,104 @@ public void addGenAgentEmTradePriceByDay(double[][] object){
   }
           
   
+  // Keeps the daily result histories in memory-mapped files (one per
+  //  history) in the directory dir, instead of on the heap (dir = null).
+  //  Any results already stored are dropped, so call it before the run.
+  public void setResultsDirectory(File dir) throws IOException {
+      closeResults();
+      resultsDirectory = dir;
+      genAgentSupplyOfferByDay=newDailyHistory("genAgentSupplyOfferByDay");
+      lseAgentPriceSensitiveDemandByDay=newDailyHistory("lseAgentPriceSensitiveDemandByDay");
+      lseAgentPriceSensitiveDemandWithTrueCost=newDailyHistory("lseAgentPriceSensitiveDemandWithTrueCost");
+      lseAgentSurplusByDay=newDailyHistory("lseAgentSurplusByDay");
+      lseAgentSurplusWithTrueCost=newDailyHistory("lseAgentSurplusWithTrueCost");
+      genAgentProfitAndNetGainByDay=newDailyHistory("genAgentProfitAndNetGainByDay");
+      genAgentActionPropensityAndProbilityByDay=newDailyHistory("genAgentActionPropensityAndProbilityByDay");
+      genAgentProfitAndNetGainWithTrueCost=newDailyHistory("genAgentProfitAndNetGainWithTrueCost");
+      genAgentCommitmentWithTrueCost=newDailyHistory("genAgentCommitmentWithTrueCost");
+      genAgentCommitmentByDay=newDailyHistory("genAgentCommitmentByDay");
+      genAgentEmissionByDay=newDailyHistory("genAgentEmissionByDay");
+      genAgentEmTradeByDay=newDailyHistory("genAgentEmTradeByDay");
+      genAgentEmTradePriceByDay=newDailyHistory("genAgentEmTradePriceByDay");
+      branchFlowByDay=newDailyHistory("branchFlowByDay");
+      LMPByDay=newDailyHistory("LMPByDay");
+      LMPWithTrueCost=newDailyHistory("LMPWithTrueCost");
+  }
+
+  public File getResultsDirectory(){
+      return resultsDirectory;
+  }
+
+  private DailyHistory newDailyHistory(String name) throws IOException {
+      if(resultsDirectory==null)
+          return new DailyHistory();
+      return new MappedDailyHistory(new File(resultsDirectory, name+".hist"));
+  }
+
+  // Writes out and closes the memory-mapped result files, if any
+  public void closeResults() throws IOException {
+      DailyHistory [] histories=getDailyHistories();
+      for(int i=0; i<histories.length; i++){
+          if(histories[i] instanceof MappedDailyHistory)
+              ((MappedDailyHistory)histories[i]).close();
+      }
+  }
+
+  // The daily result histories, in the order of DAILY_HISTORY_NAMES
+  public DailyHistory [] getDailyHistories(){
+      DailyHistory [] histories={genAgentSupplyOfferByDay, lseAgentPriceSensitiveDemandByDay, lseAgentPriceSensitiveDemandWithTrueCost, lseAgentSurplusByDay, lseAgentSurplusWithTrueCost, genAgentProfitAndNetGainByDay, genAgentActionPropensityAndProbilityByDay, genAgentProfitAndNetGainWithTrueCost, genAgentCommitmentWithTrueCost, genAgentCommitmentByDay, genAgentEmissionByDay, genAgentEmTradeByDay, genAgentEmTradePriceByDay, branchFlowByDay, LMPByDay, LMPWithTrueCost};
+      return histories;
+  }
+
+  // Replaces the daily result histories (in the order of DAILY_HISTORY_NAMES),
+  //  e.g. by the views of a BinaryOutputReader to show a saved run
+  public void setDailyHistories(DailyHistory [] histories){
+      genAgentSupplyOfferByDay=histories[0];
+      lseAgentPriceSensitiveDemandByDay=histories[1];
+      lseAgentPriceSensitiveDemandWithTrueCost=histories[2];
+      lseAgentSurplusByDay=histories[3];
+      lseAgentSurplusWithTrueCost=histories[4];
+      genAgentProfitAndNetGainByDay=histories[5];
+      genAgentActionPropensityAndProbilityByDay=histories[6];
+      genAgentProfitAndNetGainWithTrueCost=histories[7];
+      genAgentCommitmentWithTrueCost=histories[8];
+      genAgentCommitmentByDay=histories[9];
+      genAgentEmissionByDay=histories[10];
+      genAgentEmTradeByDay=histories[11];
+      genAgentEmTradePriceByDay=histories[12];
+      branchFlowByDay=histories[13];
+      LMPByDay=histories[14];
+      LMPWithTrueCost=histories[15];
+  }
+
+  // The daily result history of the given name (one of DAILY_HISTORY_NAMES),
+  //  or null
+  public DailyHistory getDailyHistory(String name){
+      for(int i=0; i<DAILY_HISTORY_NAMES.length; i++){
+          if(DAILY_HISTORY_NAMES[i].equals(name))
+              return getDailyHistories()[i];
+      }
+      return null;
+  }
+
   //constructor
   public AMESMarket() {
-      genAgentSupplyOfferByDay=new ArrayList();
-      lseAgentPriceSensitiveDemandByDay=new ArrayList();
-      lseAgentPriceSensitiveDemandWithTrueCost=new ArrayList();
-      lseAgentSurplusByDay=new ArrayList();
-      lseAgentSurplusWithTrueCost=new ArrayList();
-      genAgentProfitAndNetGainByDay=new ArrayList();
-      genAgentActionPropensityAndProbilityByDay=new ArrayList();
-      genAgentProfitAndNetGainWithTrueCost=new ArrayList();
-      genAgentCommitmentWithTrueCost=new ArrayList();
-      genAgentCommitmentByDay=new ArrayList();
-      genAgentEmissionByDay=new ArrayList();
-      genAgentEmTradeByDay=new ArrayList();
-      genAgentEmTradePriceByDay=new ArrayList();
-      branchFlowByDay=new ArrayList();
-      LMPByDay=new ArrayList();
-      LMPWithTrueCost=new ArrayList();
+      genAgentSupplyOfferByDay=new DailyHistory();
+      lseAgentPriceSensitiveDemandByDay=new DailyHistory();
+      lseAgentPriceSensitiveDemandWithTrueCost=new DailyHistory();
+      lseAgentSurplusByDay=new DailyHistory();
+      lseAgentSurplusWithTrueCost=new DailyHistory();
+      genAgentProfitAndNetGainByDay=new DailyHistory();
+      genAgentActionPropensityAndProbilityByDay=new DailyHistory();
+      genAgentProfitAndNetGainWithTrueCost=new DailyHistory();
+      genAgentCommitmentWithTrueCost=new DailyHistory();
+      genAgentCommitmentByDay=new DailyHistory();
+      genAgentEmissionByDay=new DailyHistory();
+      genAgentEmTradeByDay=new DailyHistory();
+      genAgentEmTradePriceByDay=new DailyHistory();
+      branchFlowByDay=new DailyHistory();
+      LMPByDay=new DailyHistory();
+      LMPWithTrueCost=new DailyHistory();
       
       lastDayGenActions=new ArrayList();
       hasSolutionByDay=new ArrayList();
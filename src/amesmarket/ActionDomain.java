@@ -21,7 +21,7 @@
 package amesmarket;
 // Action domain used in constructing action domain for agent learning
 
-/** Action Domain Implementation (as an ArrayList)
+/** Action Domain Implementation (as arrays)
  * Initialize the action domain for the generators (GenAgents)
  * Every element of AD consists of a triplet (lowerRI, upperRI, upperRCap)
  * where lowerRI   = lower Range Index, [0,RIMaxL]
@@ -31,6 +31,10 @@ package amesmarket;
  * AD = {triplet_1, triplet_2, ..., triplet_M}
  * The cardinality of AD is M1 * M2 * M3 = M
  *
+ * The triplets are stored column-wise, one array per component, and an
+ * ActionDomain is never changed once built, so GenAgents with the same
+ * action domain parameters share one instance (see hasParameters).
+ *
  * Reference: DynTestAMES Working Paper Appendix A.3 Action Domain Construction
  * Available online at http://www.econ.iastate.edu/tesfatsi/DynTestAMES.JSLT.pdf
  */
@@ -40,16 +44,31 @@ import java.util.ArrayList;
 public class ActionDomain {
 
 
-  private ArrayList actionDomain;
+  private int M1, M2, M3;
+  private double RIMaxL, RIMaxU, RIMinC;
+
+  private int size;
+  private double[] lowerRI;   // alpha's as in Eq(36) of DynTestAMES working paper
+  private double[] upperRI;
+  private double[] upperRCap;
   public static final int ADC = 3; // Action domain column = 3 for (lowerRI, upperRI, RCap)
-  private double[] triplet;  // alpha's as in Eq(36) of DynTestAMES working paper
   public static final double SOME_LARGE_NUMBER = 10.0;
 
   // constructor
   public ActionDomain(int M1, int M2, int M3, 
       double RIMaxL, double RIMaxU, double RIMinC) {
 
-    actionDomain = new ArrayList();
+    this.M1 = M1;
+    this.M2 = M2;
+    this.M3 = M3;
+    this.RIMaxL = RIMaxL;
+    this.RIMaxU = RIMaxU;
+    this.RIMinC = RIMinC;
+
+    size = 0;
+    lowerRI = new double[0];
+    upperRI = new double[0];
+    upperRCap = new double[0];
     
     if (M1>=1 && M2>=1 && M3>=1 && RIMaxL<1 && RIMaxL>=0 
         && RIMaxU<1 && RIMaxU>=0 && RIMinC<=1 && RIMinC>0){
@@ -80,26 +99,58 @@ public class ActionDomain {
       else{
         inc3 = (1-RIMinC)/(M3-1); // incremental step for upper Cap
       }
+
+      // The rounding of the increments may add one step to a loop
+      int capacity = (M1+1)*(M2+1)*(M3+1);
+      lowerRI = new double[capacity];
+      upperRI = new double[capacity];
+      upperRCap = new double[capacity];
       
       for(double i=0; i<=RIMaxL; i=i+inc1){
         for(double j=0; j<=RIMaxU; j=j+inc2){
           for(double k=1-RIMinC; k>=0; k=k-inc3){
-            triplet = new double[ADC]; // initialize triplet to zeros (IMPORTANT!)
-            triplet[0] = i; 
-            triplet[1] = j; 
-            triplet[2] = k + RIMinC; 
-            actionDomain.add(triplet); // NOTE: triplet is passed by reference
+            lowerRI[size] = i; 
+            upperRI[size] = j; 
+            upperRCap[size] = k + RIMinC; 
+            size++;
           }
         }
       }
       //NOTE: the above loop takes care of the case where M1, M2,or M3 are set to 1.
+
+      lowerRI = java.util.Arrays.copyOf(lowerRI, size);
+      upperRI = java.util.Arrays.copyOf(upperRI, size);
+      upperRCap = java.util.Arrays.copyOf(upperRCap, size);
     }
     else{
       System.out.println("INCORRECT PARAMETER RANGES: M1, M2, M3, RIMaxL, RIMaxU, RIMinC.");
     }
   }
 
+  // True if this action domain was built from the given parameters
+  public boolean hasParameters(int M1, int M2, int M3,
+      double RIMaxL, double RIMaxU, double RIMinC){
+    return this.M1==M1 && this.M2==M2 && this.M3==M3 && this.RIMaxL==RIMaxL
+        && this.RIMaxU==RIMaxU && this.RIMinC==RIMinC;
+  }
+
+  public int size(){return size;}
+
+  // The component arrays are shared; callers must not modify them
+  public double[] getLowerRI(){return lowerRI;}
+  public double[] getUpperRI(){return upperRI;}
+  public double[] getUpperRCap(){return upperRCap;}
+
+  // The action domain as a list of new triplets (lowerRI, upperRI, upperRCap)
   public ArrayList getActionDomain(){
+    ArrayList actionDomain = new ArrayList();
+    for(int m=0; m<size; m++){
+      double[] triplet = new double[ADC];
+      triplet[0] = lowerRI[m];
+      triplet[1] = upperRI[m];
+      triplet[2] = upperRCap[m];
+      actionDomain.add(triplet);
+    }
     return actionDomain;
   }
 
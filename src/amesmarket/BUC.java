@@ -23,6 +23,7 @@
 package amesmarket;
 
 import java.util.ArrayList;
+import java.util.concurrent.*;
 
 public class BUC {
 
@@ -49,6 +50,7 @@ public class BUC {
 
   private AMESMarket ames;
   private ISO iso;
+  private MarketContext context; // base values and OPF parameters of the run
   private DCOPFJ opf;
   
   private double[] ineqMultiplier;
@@ -78,10 +80,44 @@ public class BUC {
         
   double[][] dailySLoad = new double[H][J]; // in price-sensitive demand case only
 
+  // Thread pool for solving the 24 hourly DC-OPF problems in parallel
+  private ExecutorService opfExecutor;
+  private int opfExecutorThreads;
+
+  // Active sets of the DC-OPF solves of the previous day, by hour, for
+  // warm-starting QuadProgJ
+  private int[][] opfActiveSetByHour;
+
+  // QuadProgJ storage reused by all hourly DC-OPF problems solved on a thread
+  private ThreadLocal opfWorkspace = new ThreadLocal(){
+    protected Object initialValue(){
+      return new QuadProgJWorkspace();
+    }
+  };
+
+  // Optional listener attached to the QuadProgJ workspaces (null: none)
+  private volatile QuadProgJListener opfListener;
+
+  // Counters over all days: hours skipped by the GenCo capacity checks, and
+  //  the QuadProgJ iterations and active set changes of the DC-OPF solves
+  private int numMinCapacityWarnings;
+  private int numMaxCapacityWarnings;
+  private long numOPFIterations;
+  private long numOPFConstraintsAdded;
+  private long numOPFConstraintsDropped;
+
+  // DC-OPF structure (DCOPFJModel) of the last problem solved on a thread,
+  //  updated in place by the next problem if the structure is the same
+  private ThreadLocal opfModel = new ThreadLocal();
+
+  // Hourly DC-OPF problems of the last solveOPF() (null for skipped hours)
+  private DCOPFJ[] lastHourlyOPF;
+
   // constructor
   public BUC(ISO independentSystemOperator, AMESMarket model){
     ames = model;
     iso = independentSystemOperator;
+    context = iso.getMarketContext();
 
     K = ames.getNumNodes();
     N = ames.getNumBranches();
@@ -106,6 +142,8 @@ public class BUC {
    * Solve OPF DC approximation problem by invoking DCOPFJ
    */
   public void solveOPF(){
+    long lDayStart = System.nanoTime();
+    MetricsRegistry metrics = context.getMetrics();
 
     supplyOfferByGen = iso.getSupplyOfferByGen();
     supplyTrueOfferByGen=iso.getTrueSupplyOfferByGen();
@@ -131,16 +169,16 @@ public class BUC {
       //System.out.println("\n supplyOfferByGen-> dMaxGenCapacity "+supplyOfferByGen[i][CAP_MAX]+" for GenCo :"+i);
 
       // Convert A from SI to PU-adjusted
-      supplyOfferByGen[i][A_INDEX] = supplyOfferByGen[i][A_INDEX]*INIT.getBaseS();
+      supplyOfferByGen[i][A_INDEX] = supplyOfferByGen[i][A_INDEX]*context.getBaseS();
 
       // Convert B from SI to PU-adjusted
-      supplyOfferByGen[i][B_INDEX] = supplyOfferByGen[i][B_INDEX]*INIT.getBaseS()*INIT.getBaseS();
+      supplyOfferByGen[i][B_INDEX] = supplyOfferByGen[i][B_INDEX]*context.getBaseS()*context.getBaseS();
 
       // Convert CapMin from SI to PU
-      supplyOfferByGen[i][CAP_MIN] = supplyOfferByGen[i][CAP_MIN]/INIT.getBaseS();
+      supplyOfferByGen[i][CAP_MIN] = supplyOfferByGen[i][CAP_MIN]/context.getBaseS();
 
       // Convert CapMax from SI to PU
-      supplyOfferByGen[i][CAP_MAX] = supplyOfferByGen[i][CAP_MAX]/INIT.getBaseS();
+      supplyOfferByGen[i][CAP_MAX] = supplyOfferByGen[i][CAP_MAX]/context.getBaseS();
 
 
       //supplyOfferByGen[i][A0_INDEX]=supplyTrueOfferByGen[i][A_INDEX];
@@ -169,8 +207,8 @@ public class BUC {
 
       supplyOfferByGen[i][E_INDEX]=supplyOfferByGen[i][E_INDEX]*(Cpmax-Cpmin)/(CapU-CapL);
 
-      supplyOfferByGen[i][PB_INDEX] = supplyOfferByGen[i][PB_INDEX]*INIT.getBaseS();
-      supplyOfferByGen[i][PS_INDEX] = supplyOfferByGen[i][PS_INDEX]*INIT.getBaseS();
+      supplyOfferByGen[i][PB_INDEX] = supplyOfferByGen[i][PB_INDEX]*context.getBaseS();
+      supplyOfferByGen[i][PS_INDEX] = supplyOfferByGen[i][PS_INDEX]*context.getBaseS();
 
       supplyOfferByGen[i][EA_INDEX]=(EAnew+supplyOfferByGen[i][E_INDEX]*CapL);
 
@@ -210,20 +248,24 @@ public class BUC {
     //psDemandBidByLSE = Support.correctRoundingError(psDemandBidByLSE);
     
     double [] dLoad=new double[24]; // Total Demand
+    double[][] hourlyLoadProfileByLSE = new double[H][];
+    int[][] hourlyLoadHybridFlagByLSE = new int[H][];
+    double[][][] hourlyPSDemandBidByLSE = new double[H][][];
+    boolean[] bCheckMinMaxGenCapacityOK = new boolean[H];
     for (int h=0; h<H; h++){
       //NOTE: phaseAngle is assumed to be zero at first bus, i.e. phaseAngle[0]=0
 
-      double[] hourlyLoadProfileByLSE = new double[J];
-      int[] hourlyLoadHybridFlagByLSE = new int[J];
+      hourlyLoadProfileByLSE[h] = new double[J];
+      hourlyLoadHybridFlagByLSE[h] = new int[J];
       
       dLoad[h] = 0.0;
       for(int j=0; j<J; j++){
-        hourlyLoadProfileByLSE[j] = iso.getLoadProfileByLSE()[j][h];
+        hourlyLoadProfileByLSE[h][j] = iso.getLoadProfileByLSE()[j][h];
         // Calculate total demand
-        hourlyLoadHybridFlagByLSE[j] = iso.getDemandHybridByLSE()[j][h];
+        hourlyLoadHybridFlagByLSE[h][j] = iso.getDemandHybridByLSE()[j][h];
         
-        if((hourlyLoadHybridFlagByLSE[j]&1)==1){
-            dLoad[h] += hourlyLoadProfileByLSE[j];
+        if((hourlyLoadHybridFlagByLSE[h][j]&1)==1){
+            dLoad[h] += hourlyLoadProfileByLSE[h][j];
         }
         
       }
@@ -236,38 +278,110 @@ public class BUC {
         // SI to PU conversion for price sensitive demand
         for(int i=0; i<psDemandBidByLSE.length; i++){
               // Convert C from SI to PU-adjusted
-              psDemandBidByLSE[i][C_INDEX] = psDemandBidByLSE[i][C_INDEX]*INIT.getBaseS();
+              psDemandBidByLSE[i][C_INDEX] = psDemandBidByLSE[i][C_INDEX]*context.getBaseS();
 
               // Convert D from SI to PU-adjusted
-              psDemandBidByLSE[i][D_INDEX] = psDemandBidByLSE[i][D_INDEX]*INIT.getBaseS()*INIT.getBaseS();
+              psDemandBidByLSE[i][D_INDEX] = psDemandBidByLSE[i][D_INDEX]*context.getBaseS()*context.getBaseS();
 
               // Convert DemandMax from SI to PU
-              psDemandBidByLSE[i][DEMAND_MAX] = psDemandBidByLSE[i][DEMAND_MAX]/INIT.getBaseS();
+              psDemandBidByLSE[i][DEMAND_MAX] = psDemandBidByLSE[i][DEMAND_MAX]/context.getBaseS();
         }
+        hourlyPSDemandBidByLSE[h] = psDemandBidByLSE;
         
-      boolean bCheckMinMaxGenCapacityOK=true;
+      bCheckMinMaxGenCapacityOK[h]=true;
+        // GenCo total reported lower required operating capacity is greater
+        //  than total fixed demand at hour h
         if(dMinGenCapacity>dLoad[h]){
-            System.out.println("GenCo total reported lower required operating capacity is greater than total fixed demand at hour "+h+" \n");
-            bCheckMinMaxGenCapacityOK=false;
+            numMinCapacityWarnings++;
+            bCheckMinMaxGenCapacityOK[h]=false;
         }
         
+        // GenCo total reported upper operating capacity under supply-offer
+        //  price cap is less than total fixed demand at hour h
         if(dMaxGenCapacity<dLoad[h]){
-            System.out.println("GenCo total reported upper operating capacity under supply-offer price cap is less than total fixed demand at hour "+h+"\n");
-            bCheckMinMaxGenCapacityOK=false;
+            numMaxCapacityWarnings++;
+            bCheckMinMaxGenCapacityOK[h]=false;
         }
 
-      if(bCheckMinMaxGenCapacityOK){
+      if(bCheckMinMaxGenCapacityOK[h]){
           for(int j=0; j<J; j++){
             // Convert hourly LP from SI to PU
-            hourlyLoadProfileByLSE[j] = hourlyLoadProfileByLSE[j]/INIT.getBaseS();
+            hourlyLoadProfileByLSE[h][j] = hourlyLoadProfileByLSE[h][j]/context.getBaseS();
           }
 
-          hourlyLoadProfileByLSE = Support.correctRoundingError(hourlyLoadProfileByLSE);
+          hourlyLoadProfileByLSE[h] = Support.correctRoundingError(hourlyLoadProfileByLSE[h]);
+      }
+    }
+
+    // Solve the hourly DC-OPF problems. Each hour only reads the (already
+    // converted) supply offers and its own load data, so the 24 problems can
+    // be handed to the OPF thread pool; the results are collected in hour order.
+    // With warm start, each hour starts from the active set of the same hour
+    // of the previous day, so both modes give the same results.
+    DCOPFJ[] hourlyOPF = new DCOPFJ[H];
+    boolean bWarmStart = context.getWarmStartOPF();
+    if((opfActiveSetByHour==null)||(opfActiveSetByHour.length!=H))
+      opfActiveSetByHour = new int[H][];
+    // The random numbers of hour h (if any) are drawn from the stream of
+    // (day, h), the same in both modes; see RandomStreams.
+    RandomStreams dayStreams = context.getRandomStreams().child(RandomStreams.OPF).child(ames.getDay());
+    if(context.getNumOPFThreads()>1){
+      ArrayList futures = new ArrayList();
+      for (int h=0; h<H; h++){
+        if(bCheckMinMaxGenCapacityOK[h]){
+          futures.add(getOPFExecutor().submit(new HourlyOPFTask(hourlyPSDemandBidByLSE[h],
+                  hourlyLoadProfileByLSE[h], hourlyLoadHybridFlagByLSE[h], atNodeByGen, atNodeByLSE,
+                  bWarmStart ? opfActiveSetByHour[h] : null, dayStreams.child(h).getSeed())));
+        }
+        else{
+          futures.add(null);
+        }
+      }
+      for (int h=0; h<H; h++){
+        Future future = (Future) futures.get(h);
+        if(future!=null){
+          try{
+            hourlyOPF[h] = (DCOPFJ) future.get();
+          }
+          catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("DC-OPF for hour "+h+" was interrupted", e);
+          }
+          catch(ExecutionException e){
+            throw new RuntimeException("DC-OPF for hour "+h+" failed", e.getCause());
+          }
+        }
+      }
+    }
+    else{
+      for (int h=0; h<H; h++){
+        if(bCheckMinMaxGenCapacityOK[h]){
+          QuadProgJWorkspace ws = getOPFWorkspace();
+          ws.setRandomSeed(dayStreams.child(h).getSeed());
+          hourlyOPF[h] = new DCOPFJ(supplyOfferByGen, hourlyPSDemandBidByLSE[h], hourlyLoadProfileByLSE[h],
+                    hourlyLoadHybridFlagByLSE[h], atNodeByGen, atNodeByLSE, ames.getTransGrid(),supplyTrueOfferByGen,
+                    ws, bWarmStart ? opfActiveSetByHour[h] : null,
+                    (DCOPFJModel)opfModel.get(), context.getQPSolver());
+          opfModel.set(hourlyOPF[h].getModel());
+        }
+      }
+    }
 
-          opf = new DCOPFJ(supplyOfferByGen, psDemandBidByLSE, hourlyLoadProfileByLSE, hourlyLoadHybridFlagByLSE,
-                    atNodeByGen, atNodeByLSE, ames.getTransGrid(),supplyTrueOfferByGen);
+    lastHourlyOPF = hourlyOPF;
+    for (int h=0; h<H; h++){
+      if(hourlyOPF[h]!=null){
+          opf = hourlyOPF[h];
+          opfActiveSetByHour[h] = opf.getActiveSet();
 
           bDCOPFHasSolution[h] = opf.getIsSolutionFeasibleAndOptimal();
+          numOPFIterations += opf.getNumIterations();
+          numOPFConstraintsAdded += opf.getNumConstraintsAdded();
+          numOPFConstraintsDropped += opf.getNumConstraintsDropped();
+          metrics.histogram(MetricsRegistry.OPF_BUILD_TIME).record(opf.getBuildTime());
+          metrics.histogram(MetricsRegistry.OPF_SOLVE_TIME).record(opf.getSolveTime());
+          metrics.histogram(MetricsRegistry.OPF_ITERATIONS).record(opf.getNumIterations());
+          metrics.histogram(MetricsRegistry.OPF_CONSTRAINTS_ADDED).record(opf.getNumConstraintsAdded());
+          metrics.histogram(MetricsRegistry.OPF_CONSTRAINTS_DROPPED).record(opf.getNumConstraintsDropped());
           dailyCommitment[h] = opf.getCommitment();
           dailyEmission[h]  = opf.getEmission();
           dailyEmTrade[h]  =opf.getEmissionTrade();
@@ -306,10 +420,13 @@ public class BUC {
       }
     }
     
+    // Hours without a solution are counted here and reported by getHasSolution()
     for (int h=0; h<H; h++){
-        if(!bDCOPFHasSolution[h])
-            System.out.println("  At hour "+h+" DCOPF has no solution!");
+        if(!bDCOPFHasSolution[h]){
+            metrics.counter(MetricsRegistry.OPF_INFEASIBLE_HOURS).increment();
+        }
     }
+    metrics.counter(MetricsRegistry.OPF_HOURS).add(H);
 
  /*Temperory remove output ---------------------------------------    
     System.out.println("  Daily (24 Hour) branch flow for each branch");
@@ -471,9 +588,77 @@ public class BUC {
     System.out.println();
  //------------------------------------------------------*/
     
-    System.gc();
+    metrics.histogram(MetricsRegistry.OPF_DAY_TIME).record(System.nanoTime()-lDayStart);
 }
 
+  // Create (or resize) the thread pool used for the hourly DC-OPF problems.
+  // The worker threads are daemons so that they never keep the JVM alive.
+  private ExecutorService getOPFExecutor(){
+    int iThreads=context.getNumOPFThreads();
+    if((opfExecutor==null)||(opfExecutorThreads!=iThreads)){
+      if(opfExecutor!=null)
+        opfExecutor.shutdown();
+
+      opfExecutor=Executors.newFixedThreadPool(iThreads, new ThreadFactory(){
+        public Thread newThread(Runnable r){
+          Thread t=new Thread(r, "BUC-OPF");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+      opfExecutorThreads=iThreads;
+    }
+    return opfExecutor;
+  }
+
+  // Stops the threads of the DC-OPF thread pool, if any; a later solveOPF()
+  //  creates a new pool.
+  public void shutdown(){
+    if(opfExecutor!=null){
+      opfExecutor.shutdown();
+      opfExecutor=null;
+    }
+  }
+
+  // QuadProgJ workspace of the current thread, with the current listener
+  private QuadProgJWorkspace getOPFWorkspace(){
+    QuadProgJWorkspace ws = (QuadProgJWorkspace)opfWorkspace.get();
+    ws.setListener(opfListener);
+    return ws;
+  }
+
+  // One hourly DC-OPF problem; all inputs are either hour-local or read only
+  private class HourlyOPFTask implements Callable {
+    private double[][] psDemandBid;
+    private double[] loadProfile;
+    private int[] loadHybridFlag;
+    private int[] atNodeByGen;
+    private int[] atNodeByLSE;
+    private int[] warmActiveSet;
+    private long randomSeed;
+
+    HourlyOPFTask(double[][] db, double[] lp, int[] hf, int[] ng, int[] nl, int[] as, long seed){
+      psDemandBid = db;
+      loadProfile = lp;
+      loadHybridFlag = hf;
+      atNodeByGen = ng;
+      atNodeByLSE = nl;
+      warmActiveSet = as;
+      randomSeed = seed;
+    }
+
+    public Object call(){
+      QuadProgJWorkspace ws = getOPFWorkspace();
+      ws.setRandomSeed(randomSeed);
+      DCOPFJ opf = new DCOPFJ(supplyOfferByGen, psDemandBid, loadProfile, loadHybridFlag,
+                    atNodeByGen, atNodeByLSE, ames.getTransGrid(), supplyTrueOfferByGen,
+                    ws, warmActiveSet,
+                    (DCOPFJModel)opfModel.get(), context.getQPSolver());
+      opfModel.set(opf.getModel());
+      return opf;
+    }
+  }
+
   // dailyCommitment: Hour-by-Node
   public double[][] getDailyBranchFlow(){
     return dailyBranchFlow;
@@ -504,6 +689,40 @@ public class BUC {
     return dailyLMP;
   }
   
+  /**
+   * Sets a listener for the QuadProgJ solves of the DC-OPF problems
+   * (null, the default, for none)
+   */
+  public void setQuadProgJListener(QuadProgJListener l){
+    opfListener = l;
+  }
+
+  // Number of hours skipped because the total lower operating capacity of
+  //  the GenCos exceeds the fixed demand
+  public int getNumMinCapacityWarnings(){
+    return numMinCapacityWarnings;
+  }
+  // Number of hours skipped because the total upper operating capacity of
+  //  the GenCos is less than the fixed demand
+  public int getNumMaxCapacityWarnings(){
+    return numMaxCapacityWarnings;
+  }
+  public long getNumOPFIterations(){
+    return numOPFIterations;
+  }
+  public long getNumOPFConstraintsAdded(){
+    return numOPFConstraintsAdded;
+  }
+  public long getNumOPFConstraintsDropped(){
+    return numOPFConstraintsDropped;
+  }
+
+  // The hourly DC-OPF problems of the last day solved, e.g. for solving
+  //  them again in Benchmark; hours without a DC-OPF are null
+  DCOPFJ[] getHourlyOPF(){
+    return lastHourlyOPF;
+  }
+
   public int [] getHasSolution(){
       int [] hasSolution=new int[H];
       
@@ -0,0 +1,389 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// BatchRunner.java
+// Runs cases and batch files from the command line, without the GUI
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import javax.management.JMException;
+
+/**
+ * Command-line runner of AMES cases, for batch runs on machines without a
+ * display.  It reads the case data files (*.dat) with CaseData and the batch
+ * files (*.bth) as the GUI does, runs each case and random seed through
+ * AMESMarket.runWithoutController(), and saves the output data files with
+ * OutputDataWriter under the names the GUI batch mode uses.
+ *
+ * Usage: java amesmarket.BatchRunner [options] case.dat|batch.bth ...
+ *   -o dir          directory of the output data files (default: that of the case)
+ *   -maxday N       maximum day (default 2000, as in the GUI)
+ *   -seed S         random seed of cases without a batch file (default 695672061)
+ *   -opfthreads N   threads of the DC-OPF of each market hour (default 1)
+ *   -agentthreads N threads of the daily agent updates (default 1)
+ *   -qp ipm|quadprogj  QP solver of the DC-OPF (default quadprogj)
+ *   -warmstart      warm-start the DC-OPF from earlier active sets
+ *   -threads N      number of scenarios run in parallel (default 1)
+ *   -resultsdir dir keep the daily results of each scenario in memory-mapped
+ *                   files in dir/<output file name> instead of on the heap
+ *   -binary         save the output data in the binary format of
+ *                   BinaryOutputWriter (case.amesb) instead of as text
+ *   -stream         write the binary output data during the run with a
+ *                   StreamingOutputWriter, without keeping the daily
+ *                   results in memory
+ *   -casecache dir  keep the parsed cases in a CaseCache in dir, so that
+ *                   later runs of the same cases do not parse them again
+ *   -metrics file   write a snapshot of the MetricsRegistry of all the
+ *                   scenarios to file (.json: JSON, else CSV) during the
+ *                   runs and at their end
+ *   -metricsperiod S  seconds between the snapshots (default 10)
+ *   -jmx            register the MetricsRegistry as a JMX MBean
+ * The seeds of a batch file are run with each case given with it, and with
+ * the cases of its #MultiCasesData section.  Each case and seed is one
+ * scenario of a ScenarioExecutor, so with -threads they run in parallel.
+ */
+public class BatchRunner {
+
+  // Default simulation controls, as in the GUI
+  public static final int DEFAULT_MAX_DAY = 2000;
+  public static final long DEFAULT_RANDOM_SEED = 695672061;
+  public static final int DEFAULT_METRICS_PERIOD = 10;  // seconds
+
+  private File outputDirectory;
+  private int iMaxDay = DEFAULT_MAX_DAY;
+  private int numOPFThreads = 1;
+  private int numAgentThreads = 1;
+  private int qpSolver = QPSolver.QUADPROGJ;
+  private boolean bWarmStartOPF = false;
+  private File resultsDirectory;  // null: daily results on the heap
+  private boolean bBinaryOutput = false;
+  private boolean bStreamOutput = false;
+  private CaseCache caseCache;    // null: the cases are always parsed
+  private MetricsRegistry metrics; // null: a registry for each market
+
+  public void setOutputDirectory(File dir){outputDirectory = dir;}
+  public void setMaxDay(int iMax){iMaxDay = iMax;}
+  public void setNumOPFThreads(int n){numOPFThreads = n;}
+  public void setNumAgentThreads(int n){numAgentThreads = n;}
+  public void setQPSolver(int qp){qpSolver = qp;}
+  public void setWarmStartOPF(boolean ws){bWarmStartOPF = ws;}
+  public void setResultsDirectory(File dir){resultsDirectory = dir;}
+  public void setBinaryOutput(boolean b){bBinaryOutput = b;}
+  public void setStreamOutput(boolean b){bStreamOutput = b;}  // implies the binary format
+  public void setCaseCache(CaseCache cache){caseCache = cache;}
+  public void setMetrics(MetricsRegistry mr){metrics = mr;}  // shared by all markets
+  public MetricsRegistry getMetrics(){return metrics;}
+
+  // Reads a case data file, through the case cache if there is one
+  public CaseData loadCase(File caseFile) throws IOException {
+    if(caseCache != null)
+      return caseCache.load(caseFile);
+    return CaseData.load(caseFile);
+  }
+
+  /**
+   * Creates an AMESMarket for the case and random seed, with the GUI default
+   * simulation controls and the options of this runner
+   */
+  public AMESMarket createAMESMarket(CaseData caseData, long randomSeed){
+    AMESMarket ames = new AMESMarket();
+    caseData.initAMESMarket(ames);
+    ames.InitSimulationParameters(iMaxDay, true, 0.999, true, 10.0, false, 1, 5,
+                                  1, 5, 0.001, false, 1, 5, 0.001, false,
+                                  1000.0, 0.0, randomSeed);
+    ames.setNumOPFThreads(numOPFThreads);
+    ames.setNumAgentThreads(numAgentThreads);
+    ames.setQPSolver(qpSolver);
+    ames.setWarmStartOPF(bWarmStartOPF);
+    if(metrics != null)
+      ames.setMetrics(metrics);
+    return ames;
+  }
+
+  /**
+   * Runs the case with the random seed and saves its output data file
+   * @return the AMESMarket after the run
+   */
+  public AMESMarket run(CaseData caseData, File caseFile, long randomSeed, String outputFileName) throws IOException {
+    AMESMarket ames = createAMESMarket(caseData, randomSeed);
+    if(resultsDirectory != null){
+      int iDot = outputFileName.lastIndexOf('.');
+      String name = (iDot > 0) ? outputFileName.substring(0, iDot) : outputFileName;
+      File dir = new File(resultsDirectory, name);
+      dir.mkdirs();
+      ames.setResultsDirectory(dir);
+    }
+    File outputFile = getOutputFile(caseFile, outputFileName);
+    StreamingOutputWriter stream = null;
+    if(bStreamOutput){
+      stream = new StreamingOutputWriter(outputFile, caseFile.getName(), ames);
+      ames.setOutputSink(stream);
+      ames.setKeepResults(false);
+    }
+    try {
+      ames.runWithoutController();
+    }
+    finally {
+      if(stream != null){
+        ames.setOutputSink(null);
+        stream.close();
+      }
+    }
+
+    if(stream == null){
+      if(outputFileName.endsWith("."+BinaryOutputWriter.EXTENSION))
+        BinaryOutputWriter.write(outputFile, caseFile.getName(), ames);
+      else
+        OutputDataWriter.write(outputFile, caseFile.getName(), ames, caseData.getBranchNames(),
+                               caseData.getGenNames(), caseData.getLSENames());
+    }
+    System.out.println("Save case output data file:"+outputFile.getName());
+    ames.closeResults();
+    return ames;
+  }
+
+  // The output data file of the case with the given name
+  public File getOutputFile(File caseFile, String outputFileName){
+    File dir = (outputDirectory != null) ? outputDirectory : caseFile.getAbsoluteFile().getParentFile();
+    return new File(dir, outputFileName);
+  }
+
+  /**
+   * Adds to the executor one scenario of the case for each random seed; the
+   * output data files are named as in the GUI batch mode: case_i.out for
+   * several seeds, else case.out (.amesb with setBinaryOutput)
+   */
+  public void addScenarios(ScenarioExecutor executor, File caseFile, long [] randomSeeds) throws IOException {
+    CaseData caseData = loadCase(caseFile);
+    System.out.println("Load case data file:"+caseFile.getName());
+
+    String caseName = caseFile.getName();
+    int iDot = caseName.lastIndexOf('.');
+    if(iDot > 0)
+      caseName = caseName.substring(0, iDot);
+
+    String extension = (bBinaryOutput || bStreamOutput) ? "."+BinaryOutputWriter.EXTENSION : ".out";
+    for(int i=0; i<randomSeeds.length; i++){
+      String outputFileName = (randomSeeds.length > 1) ? caseName+"_"+i+extension : caseName+extension;
+      executor.addScenario(caseData, caseFile, randomSeeds[i], outputFileName);
+    }
+  }
+
+  /**
+   * Runs the case once for each random seed, one after the other
+   */
+  public void run(File caseFile, long [] randomSeeds) throws IOException {
+    ScenarioExecutor executor = new ScenarioExecutor(this, 1);
+    addScenarios(executor, caseFile, randomSeeds);
+    executor.runAll();
+  }
+
+  /**
+   * Reads a batch file: its random seeds (#RandomSeedsData) and, if
+   * cases is not null, adds to it the case files of #MultiCasesData,
+   * relative to the batch file
+   * @return the random seeds, or null if the batch file has none
+   */
+  public static long [] loadBatchFile(File batchFile, ArrayList cases) throws IOException {
+    ArrayList seedList = new ArrayList();
+    boolean bRandomSeedsData = false;
+    boolean bMultiCasesData = false;
+
+    BufferedReader reader = new BufferedReader(new FileReader(batchFile));
+    try {
+      String strTemp;
+      while((strTemp = reader.readLine()) != null){
+        strTemp = strTemp.trim();
+        if(strTemp.length()==0 || strTemp.startsWith("//"))
+          continue;
+
+        if(strTemp.startsWith("#RandomSeedsDataStart")){ bRandomSeedsData = true; continue; }
+        if(strTemp.startsWith("#RandomSeedsDataEnd")){ bRandomSeedsData = false; continue; }
+        if(strTemp.startsWith("#MultiCasesDataStart")){ bMultiCasesData = true; continue; }
+        if(strTemp.startsWith("#MultiCasesDataEnd")){ bMultiCasesData = false; continue; }
+
+        if(bRandomSeedsData)
+          seedList.add(Long.valueOf(strTemp));
+        else if(bMultiCasesData && cases != null)
+          cases.add(new File(batchFile.getAbsoluteFile().getParentFile(), strTemp));
+      }
+    }
+    finally {
+      reader.close();
+    }
+
+    if(seedList.isEmpty())
+      return null;
+    long [] seeds = new long[seedList.size()];
+    for(int i=0; i<seeds.length; i++){
+      seeds[i] = ((Long)seedList.get(i)).longValue();
+    }
+    return seeds;
+  }
+
+  private static void usage(){
+    System.err.println("Usage: java amesmarket.BatchRunner [options] case.dat|batch.bth ...");
+    System.err.println("  -o dir             directory of the output data files");
+    System.err.println("  -maxday N          maximum day (default "+DEFAULT_MAX_DAY+")");
+    System.err.println("  -seed S            random seed without a batch file (default "+DEFAULT_RANDOM_SEED+")");
+    System.err.println("  -opfthreads N      DC-OPF threads of each market hour");
+    System.err.println("  -agentthreads N    threads of the daily agent updates");
+    System.err.println("  -qp ipm|quadprogj  QP solver of the DC-OPF");
+    System.err.println("  -warmstart         warm-start the DC-OPF");
+    System.err.println("  -threads N         scenarios run in parallel");
+    System.err.println("  -resultsdir dir    daily results in memory-mapped files in dir");
+    System.err.println("  -binary            binary output data files (.amesb)");
+    System.err.println("  -stream            write binary output data files during the runs");
+    System.err.println("  -casecache dir     cache of the parsed cases in dir");
+    System.err.println("  -metrics file      snapshots of the metrics in file (.json or .csv)");
+    System.err.println("  -metricsperiod S   seconds between the metrics snapshots (default "+DEFAULT_METRICS_PERIOD+")");
+    System.err.println("  -jmx               metrics as a JMX MBean");
+    System.exit(1);
+  }
+
+  public static void main(String [] args){
+    System.setProperty("java.awt.headless", "true");
+
+    BatchRunner runner = new BatchRunner();
+    long [] randomSeeds = new long[] {DEFAULT_RANDOM_SEED};
+    ArrayList cases = new ArrayList();
+    int numThreads = 1;
+    File metricsFile = null;
+    int metricsPeriod = DEFAULT_METRICS_PERIOD;
+    boolean bJMX = false;
+
+    try {
+      for(int i=0; i<args.length; i++){
+        String arg = args[i];
+        if(arg.equals("-o") && i+1<args.length){
+          runner.setOutputDirectory(new File(args[++i]));
+        }
+        else if(arg.equals("-maxday") && i+1<args.length){
+          runner.setMaxDay(Integer.parseInt(args[++i]));
+        }
+        else if(arg.equals("-seed") && i+1<args.length){
+          randomSeeds = new long[] {Long.parseLong(args[++i])};
+        }
+        else if(arg.equals("-opfthreads") && i+1<args.length){
+          runner.setNumOPFThreads(Integer.parseInt(args[++i]));
+        }
+        else if(arg.equals("-agentthreads") && i+1<args.length){
+          runner.setNumAgentThreads(Integer.parseInt(args[++i]));
+        }
+        else if(arg.equals("-qp") && i+1<args.length){
+          String qp = args[++i];
+          if(qp.equalsIgnoreCase("ipm"))
+            runner.setQPSolver(QPSolver.INTERIOR_POINT);
+          else if(qp.equalsIgnoreCase("quadprogj"))
+            runner.setQPSolver(QPSolver.QUADPROGJ);
+          else
+            usage();
+        }
+        else if(arg.equals("-warmstart")){
+          runner.setWarmStartOPF(true);
+        }
+        else if(arg.equals("-threads") && i+1<args.length){
+          numThreads = Integer.parseInt(args[++i]);
+        }
+        else if(arg.equals("-resultsdir") && i+1<args.length){
+          runner.setResultsDirectory(new File(args[++i]));
+        }
+        else if(arg.equals("-binary")){
+          runner.setBinaryOutput(true);
+        }
+        else if(arg.equals("-stream")){
+          runner.setStreamOutput(true);
+        }
+        else if(arg.equals("-casecache") && i+1<args.length){
+          runner.setCaseCache(new CaseCache(new File(args[++i])));
+        }
+        else if(arg.equals("-metrics") && i+1<args.length){
+          metricsFile = new File(args[++i]);
+        }
+        else if(arg.equals("-metricsperiod") && i+1<args.length){
+          metricsPeriod = Integer.parseInt(args[++i]);
+        }
+        else if(arg.equals("-jmx")){
+          bJMX = true;
+        }
+        else if(arg.startsWith("-")){
+          usage();
+        }
+        else if(arg.toLowerCase().endsWith(".bth")){
+          long [] seeds = loadBatchFile(new File(arg), cases);
+          if(seeds != null)
+            randomSeeds = seeds;
+        }
+        else{
+          cases.add(new File(arg));
+        }
+      }
+      if(cases.isEmpty())
+        usage();
+
+      if(runner.outputDirectory != null)
+        runner.outputDirectory.mkdirs();
+
+      if(metricsFile != null || bJMX){
+        MetricsRegistry metrics = new MetricsRegistry();
+        runner.setMetrics(metrics);
+        if(metricsFile != null)
+          metrics.startReporting(metricsFile, 1000L*Math.max(1, metricsPeriod));
+        if(bJMX)
+          metrics.registerMBean("BatchRunner");
+      }
+
+      ScenarioExecutor executor = new ScenarioExecutor(runner, numThreads);
+      for(int i=0; i<cases.size(); i++){
+        runner.addScenarios(executor, (File)cases.get(i), randomSeeds);
+      }
+
+      ScenarioExecutor.Result[] results = executor.runAll();
+      if(runner.metrics != null)
+        runner.metrics.stopReporting();
+      int iFailed = 0;
+      for(int i=0; i<results.length; i++){
+        if(!results[i].isSuccessful()){
+          iFailed++;
+          System.err.println("Scenario "+i+" ("+results[i].getCaseFile().getName()+", seed "
+                             +results[i].getRandomSeed()+") failed: "+results[i].getException());
+        }
+      }
+      if(iFailed > 0)
+        System.exit(1);
+    }
+    catch(NumberFormatException e){
+      System.err.println("Invalid number: "+e.getMessage());
+      System.exit(1);
+    }
+    catch(IOException e){
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+    catch(JMException e){
+      System.err.println("Cannot register the metrics MBean: "+e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,347 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// BinaryOutputReader.java
+// Reads the binary output files written by BinaryOutputWriter
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reader of a binary output file ("*.amesb", see BinaryOutputWriter for the
+ * layout).  Opening the file reads the header and the section table only;
+ * a dataset is memory-mapped when it is first read, so a view that needs,
+ * e.g., the LMPs only reads the LMP block of the file.
+ *
+ * Datasets are read by name, either as a whole (readHistory, readIntDays),
+ * one day at a time (readDay), or through a read-only DailyHistory view
+ * (getHistory) that maps the dataset when the view is first read.  The
+ * reader keeps the file open until close(), and the views need it open.
+ */
+public class BinaryOutputReader {
+
+  private RandomAccessFile file;
+  private FileChannel channel;
+
+  private String caseFileName;
+  private int numNodes;
+  private int numBranches;
+  private int numGens;
+  private int numLSEs;
+  private long randomSeed;
+  private int stopCode;
+
+  private String [] names;
+  private int [] types;
+  private int [] numDays;
+  private int [] numRows;
+  private int [] numCols;
+  private long [] lengthsOffset;
+  private long [] dataOffset;
+
+  private MappedByteBuffer [] lengthsBlock;  // mapped on first use
+  private MappedByteBuffer [] dataBlock;
+
+  public BinaryOutputReader(File inputFile) throws IOException {
+    file = new RandomAccessFile(inputFile, "r");
+    try {
+      channel = file.getChannel();
+      if(channel.size() < BinaryOutputWriter.HEADER_SIZE)
+        throw new IOException(inputFile.getName()+" is not an AMES binary output file");
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryOutputWriter.HEADER_SIZE);
+      header.order(ByteOrder.LITTLE_ENDIAN);
+      byte [] magic = new byte[BinaryOutputWriter.MAGIC.length];
+      header.get(magic);
+      if(!Arrays.equals(magic, BinaryOutputWriter.MAGIC))
+        throw new IOException(inputFile.getName()+" is not an AMES binary output file");
+      int iVersion = header.getInt();
+      if(iVersion != BinaryOutputWriter.VERSION)
+        throw new IOException(inputFile.getName()+": unsupported version "+iVersion);
+      int iSections = header.getInt();
+      numNodes = header.getInt();
+      numBranches = header.getInt();
+      numGens = header.getInt();
+      numLSEs = header.getInt();
+      randomSeed = header.getLong();
+      stopCode = header.getInt();
+      int iNameLength = header.getInt();
+      long tableOffset = header.getLong();
+
+      MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, BinaryOutputWriter.HEADER_SIZE,
+          tableOffset-BinaryOutputWriter.HEADER_SIZE+(long)iSections*BinaryOutputWriter.SECTION_ENTRY_SIZE);
+      table.order(ByteOrder.LITTLE_ENDIAN);
+      byte [] caseName = new byte[iNameLength];
+      table.get(caseName);
+      caseFileName = new String(caseName, "UTF-8");
+
+      names = new String[iSections];
+      types = new int[iSections];
+      numDays = new int[iSections];
+      numRows = new int[iSections];
+      numCols = new int[iSections];
+      lengthsOffset = new long[iSections];
+      dataOffset = new long[iSections];
+      lengthsBlock = new MappedByteBuffer[iSections];
+      dataBlock = new MappedByteBuffer[iSections];
+      for(int s=0; s<iSections; s++){
+        int iEntry = (int)(tableOffset-BinaryOutputWriter.HEADER_SIZE)+s*BinaryOutputWriter.SECTION_ENTRY_SIZE;
+        byte [] name = new byte[BinaryOutputWriter.SECTION_NAME_SIZE];
+        table.position(iEntry);
+        table.get(name);
+        int iLength = 0;
+        while(iLength < name.length && name[iLength] != 0)
+          iLength++;
+        names[s] = new String(name, 0, iLength, "US-ASCII");
+        types[s] = table.getInt();
+        numDays[s] = table.getInt();
+        numRows[s] = table.getInt();
+        numCols[s] = table.getInt();
+        lengthsOffset[s] = table.getLong();
+        dataOffset[s] = table.getLong();
+      }
+    }
+    catch(IOException e){
+      file.close();
+      throw e;
+    }
+  }
+
+  public String getCaseFileName(){return caseFileName;}
+  public int getNumNodes(){return numNodes;}
+  public int getNumBranches(){return numBranches;}
+  public int getNumGens(){return numGens;}
+  public int getNumLSEs(){return numLSEs;}
+  public long getRandomSeed(){return randomSeed;}
+  public int getStopCode(){return stopCode;}
+
+  public String [] getSectionNames(){
+    return (String []) names.clone();
+  }
+
+  public boolean hasSection(String name){
+    return indexOf(name) >= 0;
+  }
+
+  public int getNumDays(String name){
+    return numDays[section(name)];
+  }
+
+  // The table of one day of a dataset
+  public double [][] readDay(String name, int day) throws IOException {
+    int s = section(name);
+    if(day < 0 || day >= numDays[s])
+      throw new IndexOutOfBoundsException("Day index: "+day+", days: "+numDays[s]);
+    double [][] table = new double[numRows[s]][];
+    readDay(s, day, table);
+    return table;
+  }
+
+  // The whole dataset, as a new (heap) DailyHistory
+  public DailyHistory readHistory(String name) throws IOException {
+    DailyHistory history = new DailyHistory();
+    readHistory(name, history);
+    return history;
+  }
+
+  // Read-only view of a dataset, which maps the block of the dataset when a
+  //  value is first read; a view that is cleared forgets the file and can
+  //  take new days like any DailyHistory
+  public DailyHistory getHistory(String name){
+    return new SectionHistory(section(name));
+  }
+
+  // Replaces the days of history by those of the dataset
+  public void readHistory(String name, DailyHistory history) throws IOException {
+    int s = section(name);
+    history.clear();
+    double [][] table = new double[numRows[s]][];
+    for(int d=0; d<numDays[s]; d++){
+      readDay(s, d, table);
+      history.addDay(table);
+    }
+  }
+
+  // The days of an int dataset (e.g. BinaryOutputWriter.HAS_SOLUTION), each
+  //  as an int[] of its rows one after the other
+  public ArrayList readIntDays(String name) throws IOException {
+    int s = section(name);
+    if(types[s] != BinaryOutputWriter.TYPE_INT)
+      throw new IOException(name+" is not an int dataset");
+    ArrayList days = new ArrayList();
+    int iDayValues = numRows[s]*numCols[s];
+    if(iDayValues == 0)
+      return days;
+    IntBuffer values = dataBlock(s).asIntBuffer();
+    for(int d=0; d<numDays[s]; d++){
+      int [] day = new int[iDayValues];
+      values.position(d*iDayValues);
+      values.get(day);
+      days.add(day);
+    }
+    return days;
+  }
+
+  public void close() throws IOException {
+    lengthsBlock = null;
+    dataBlock = null;
+    file.close();
+  }
+
+  private void readDay(int s, int day, double [][] table) throws IOException {
+    int iRows = numRows[s];
+    int iCols = numCols[s];
+    IntBuffer lengths = (lengthsOffset[s] != 0 ? lengthsBlock(s).asIntBuffer() : null);
+    DoubleBuffer doubles = null;
+    IntBuffer ints = null;
+    if(iCols > 0){
+      if(types[s] == BinaryOutputWriter.TYPE_INT)
+        ints = dataBlock(s).asIntBuffer();
+      else
+        doubles = dataBlock(s).asDoubleBuffer();
+    }
+    for(int r=0; r<iRows; r++){
+      int k = day*iRows+r;
+      int iLength = (lengths != null ? lengths.get(k) : iCols);
+      if(table[r] == null || table[r].length != iLength)
+        table[r] = new double[iLength];
+      if(doubles != null){
+        doubles.position(k*iCols);
+        doubles.get(table[r], 0, iLength);
+      }
+      else if(ints != null){
+        for(int c=0; c<iLength; c++)
+          table[r][c] = ints.get(k*iCols+c);
+      }
+    }
+  }
+
+  private MappedByteBuffer lengthsBlock(int s) throws IOException {
+    if(lengthsBlock[s] == null)
+      lengthsBlock[s] = map(lengthsOffset[s], 4L*numDays[s]*numRows[s]);
+    return lengthsBlock[s];
+  }
+
+  private MappedByteBuffer dataBlock(int s) throws IOException {
+    if(dataBlock[s] == null)
+      dataBlock[s] = map(dataOffset[s], (long)BinaryOutputWriter.valueSize(types[s])*numDays[s]*numRows[s]*numCols[s]);
+    return dataBlock[s];
+  }
+
+  private MappedByteBuffer map(long offset, long size) throws IOException {
+    if(size > Integer.MAX_VALUE)
+      throw new IOException("Dataset of "+size+" bytes is too large to map");
+    MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+    block.order(ByteOrder.LITTLE_ENDIAN);
+    return block;
+  }
+
+  private int indexOf(String name){
+    for(int s=0; s<names.length; s++){
+      if(names[s].equals(name))
+        return s;
+    }
+    return -1;
+  }
+
+  private int section(String name){
+    int s = indexOf(name);
+    if(s < 0)
+      throw new IllegalArgumentException("No dataset "+name);
+    return s;
+  }
+
+  private class SectionHistory extends DailyHistory {
+
+    private int s = -1;  // the dataset, -1 once cleared
+
+    SectionHistory(int section){
+      s = section;
+    }
+
+    public void addDay(double[][] table){
+      if(s >= 0)
+        throw new UnsupportedOperationException(names[s]+" is read from "+caseFileName+" output");
+      super.addDay(table);
+    }
+
+    public int getNumDays(){return (s >= 0) ? numDays[s] : super.getNumDays();}
+    public int getNumRows(){return (s >= 0) ? numRows[s] : super.getNumRows();}
+    public int getNumCols(){return (s >= 0) ? numCols[s] : super.getNumCols();}
+
+    public double get(int day, int row, int col){
+      if(s < 0)
+        return super.get(day, row, col);
+      int k = (day*numRows[s]+row)*numCols[s]+col;
+      if(types[s] == BinaryOutputWriter.TYPE_INT)
+        return block().getInt(4*k);
+      return block().getDouble(8*k);
+    }
+
+    public int getRowLength(int day, int row){
+      if(s < 0)
+        return super.getRowLength(day, row);
+      if(lengthsOffset[s] == 0)
+        return numCols[s];
+      try {
+        return lengthsBlock(s).getInt(4*(day*numRows[s]+row));
+      }
+      catch(IOException e){
+        throw new RuntimeException("Cannot read "+names[s], e);
+      }
+    }
+
+    public void copyRow(int day, int row, double[] dest){
+      if(s < 0){
+        super.copyRow(day, row, dest);
+        return;
+      }
+      int iLength = getRowLength(day, row);
+      for(int c=0; c<iLength; c++)
+        dest[c] = get(day, row, c);
+    }
+
+    public int size(){
+      return getNumDays();
+    }
+
+    public void clear(){
+      s = -1;
+      super.clear();
+    }
+
+    private MappedByteBuffer block(){
+      try {
+        return dataBlock(s);
+      }
+      catch(IOException e){
+        throw new RuntimeException("Cannot read "+names[s], e);
+      }
+    }
+  }
+}
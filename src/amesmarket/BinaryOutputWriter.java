@@ -0,0 +1,334 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// BinaryOutputWriter.java
+// Writes the results of a finished simulation run in the binary output format
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * Writes the results of a finished AMESMarket run in the binary columnar
+ * output format ("*.amesb"), the compact counterpart of the text output data
+ * file of OutputDataWriter.  BinaryOutputReader reads it back.
+ *
+ * All numbers are little-endian.  The file starts with a header of
+ * HEADER_SIZE bytes:
+ *
+ *     0  MAGIC (8 bytes)         32  long randomSeed
+ *     8  int VERSION             40  int stopCode
+ *    12  int numSections         44  int length of the case file name
+ *    16  int numNodes            48  long offset of the section table
+ *    20  int numBranches         56  long reserved (0)
+ *    24  int numGens
+ *    28  int numLSEs
+ *
+ * followed by the case file name (UTF-8) and the section table, with one
+ * entry of SECTION_ENTRY_SIZE bytes per dataset:
+ *
+ *     0  name (ASCII, zero padded to SECTION_NAME_SIZE bytes)
+ *    48  int type (TYPE_DOUBLE or TYPE_INT)
+ *    52  int numDays
+ *    56  int numRows
+ *    60  int numCols
+ *    64  long offset of the row lengths (0 if all rows have numCols values)
+ *    72  long offset of the values
+ *
+ * The values of a dataset are one block of numDays*numRows*numCols numbers,
+ * day by day and row by row as in DailyHistory; short rows are padded with
+ * zeros, and their lengths are then in a block of numDays*numRows ints.
+ * Every block starts at a multiple of 8 bytes, so a reader can map just the
+ * datasets it needs.
+ *
+ * The datasets are the daily result histories (AMESMarket.DAILY_HISTORY_NAMES),
+ * the hourly solution flags, the action domains of the last day, the
+ * learning parameters of the GenCos and the simulation controls.  Unlike the
+ * text format, the values are not rounded.
+ */
+public class BinaryOutputWriter {
+
+  public static final String EXTENSION = "amesb";
+
+  public static final byte[] MAGIC = {'A', 'M', 'E', 'S', 'B', 'O', 'U', 'T'};
+  public static final int VERSION = 1;
+
+  public static final int HEADER_SIZE = 64;
+  public static final int SECTION_NAME_SIZE = 48;
+  public static final int SECTION_ENTRY_SIZE = 80;
+
+  public static final int TYPE_DOUBLE = 1;
+  public static final int TYPE_INT = 2;
+
+  // Datasets besides the daily result histories
+  public static final String HAS_SOLUTION = "hasSolutionByDay";          // int, 1 x 24 per day
+  public static final String GEN_ACTIONS = "lastDayGenActions";          // GenCo x action
+  public static final String GEN_LEARNING = "genLearningParameters";     // GenCo x 12
+  public static final String SIMULATION_CONTROLS = "simulationControls"; // 1 x NUM_SIMULATION_CONTROLS
+
+  // Values of the SIMULATION_CONTROLS row (flags are 0 or 1)
+  public static final int MAX_DAY = 0;
+  public static final int THRESHOLD_PROBABILITY = 1;
+  public static final int GEN_PRICE_CAP = 2;
+  public static final int LSE_PRICE_CAP = 3;
+  public static final int MAXIMUM_DAY_CHECK = 4;
+  public static final int THRESHOLD_CHECK = 5;
+  public static final int ACTION_PROBABILITY_CHECK = 6;
+  public static final int ACTION_PROBABILITY_START_DAY = 7;
+  public static final int ACTION_PROBABILITY_DAY_LENGTH = 8;
+  public static final int ACTION_PROBABILITY_DIFFERENCE = 9;
+  public static final int LEARNING_CHECK = 10;
+  public static final int LEARNING_CHECK_START_DAY = 11;
+  public static final int LEARNING_CHECK_DAY_LENGTH = 12;
+  public static final int LEARNING_CHECK_DIFFERENCE = 13;
+  public static final int NET_EARNING_CHECK = 14;
+  public static final int NET_EARNING_START_DAY = 15;
+  public static final int NET_EARNING_DAY_LENGTH = 16;
+  public static final int NET_EARNING_THRESHOLD = 17;
+  public static final int NUM_SIMULATION_CONTROLS = 18;
+
+  public static void write(File outputFile, String caseFileName, AMESMarket ames) throws IOException {
+    ArrayList names = new ArrayList();
+    ArrayList histories = new ArrayList();
+    DailyHistory [] dailyHistories = ames.getDailyHistories();
+    for(int i=0; i<dailyHistories.length; i++){
+      names.add(AMESMarket.DAILY_HISTORY_NAMES[i]);
+      histories.add(dailyHistories[i]);
+    }
+
+    // The other datasets, as histories of their own
+    DailyHistory hasSolution = new DailyHistory();
+    ArrayList hasSolutionByDay = ames.getHasSolutionByDay();
+    for(int d=0; d<hasSolutionByDay.size(); d++){
+      int [] flags = (int []) hasSolutionByDay.get(d);
+      double [][] table = new double[1][flags.length];
+      for(int h=0; h<flags.length; h++)
+        table[0][h] = flags[h];
+      hasSolution.addDay(table);
+    }
+    names.add(HAS_SOLUTION);
+    histories.add(hasSolution);
+
+    DailyHistory genActions = new DailyHistory();
+    ArrayList lastDayGenActions = ames.getGenActions();
+    for(int d=0; d<lastDayGenActions.size(); d++)
+      genActions.addDay((double [][]) lastDayGenActions.get(d));
+    names.add(GEN_ACTIONS);
+    histories.add(genActions);
+
+    write(outputFile, caseFileName, ames, names, histories);
+  }
+
+  // Writes the datasets of the given names and histories, and those of the
+  //  learning parameters and simulation controls of ames
+  static void write(File outputFile, String caseFileName, AMESMarket ames,
+      ArrayList names, ArrayList histories) throws IOException {
+    long lStart = System.nanoTime();
+    names = new ArrayList(names);
+    histories = new ArrayList(histories);
+
+    DailyHistory genLearning = new DailyHistory();
+    if(ames.genLearningParameters != null && ames.genLearningParameters.length > 0)
+      genLearning.addDay(ames.genLearningParameters);
+    names.add(GEN_LEARNING);
+    histories.add(genLearning);
+
+    DailyHistory controls = new DailyHistory();
+    controls.addDay(new double[][] {getSimulationControls(ames)});
+    names.add(SIMULATION_CONTROLS);
+    histories.add(controls);
+
+    int iSections = names.size();
+    byte [] caseName = caseFileName.getBytes("UTF-8");
+
+    // Layout: header, case file name, section table, then the blocks
+    int iTableOffset = (int) align(HEADER_SIZE+caseName.length);
+    long offset = iTableOffset+(long)iSections*SECTION_ENTRY_SIZE;
+    int [] type = new int[iSections];
+    long [] lengthsOffset = new long[iSections];
+    long [] dataOffset = new long[iSections];
+    for(int s=0; s<iSections; s++){
+      DailyHistory h = (DailyHistory) histories.get(s);
+      type[s] = (names.get(s).equals(HAS_SOLUTION) ? TYPE_INT : TYPE_DOUBLE);
+      if(isRagged(h)){
+        lengthsOffset[s] = offset;
+        offset = align(offset+4L*h.getNumDays()*h.getNumRows());
+      }
+      dataOffset[s] = offset;
+      offset = align(offset+(long)valueSize(type[s])*h.getNumDays()*h.getNumRows()*h.getNumCols());
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(iTableOffset+iSections*SECTION_ENTRY_SIZE);
+    header.order(ByteOrder.LITTLE_ENDIAN);
+    header.put(MAGIC);
+    header.putInt(VERSION);
+    header.putInt(iSections);
+    header.putInt(ames.getNumNodes());
+    header.putInt(ames.getNumBranches());
+    header.putInt(ames.getNumGenAgents());
+    header.putInt(ames.getNumLSEAgents());
+    header.putLong(ames.getRandomSeed());
+    header.putInt(ames.getStopCode());
+    header.putInt(caseName.length);
+    header.putLong(iTableOffset);
+    header.putLong(0);
+    header.put(caseName);
+    for(int s=0; s<iSections; s++){
+      DailyHistory h = (DailyHistory) histories.get(s);
+      byte [] name = ((String) names.get(s)).getBytes("US-ASCII");
+      int iEntry = iTableOffset+s*SECTION_ENTRY_SIZE;
+      header.position(iEntry);
+      header.put(name, 0, Math.min(name.length, SECTION_NAME_SIZE-1));
+      header.position(iEntry+SECTION_NAME_SIZE);
+      header.putInt(type[s]);
+      header.putInt(h.getNumDays());
+      header.putInt(h.getNumRows());
+      header.putInt(h.getNumCols());
+      header.putLong(lengthsOffset[s]);
+      header.putLong(dataOffset[s]);
+    }
+    header.clear();
+
+    RandomAccessFile file = new RandomAccessFile(outputFile, "rw");
+    try {
+      file.setLength(offset);
+      FileChannel channel = file.getChannel();
+      writeFully(channel, header, 0);
+      for(int s=0; s<iSections; s++)
+        writeSection(channel, (DailyHistory) histories.get(s), type[s], lengthsOffset[s], dataOffset[s]);
+    }
+    finally {
+      file.close();
+    }
+    ames.getMetrics().histogram(MetricsRegistry.OUTPUT_WRITE_TIME).record(System.nanoTime()-lStart);
+  }
+
+  // Size of the buffer of writeSection()
+  private static final int WRITE_BUFFER_SIZE = 1<<22;
+
+  // Writes the row lengths (if any) and the values of a dataset, as many
+  //  days at a time as fit in WRITE_BUFFER_SIZE bytes
+  private static void writeSection(FileChannel channel, DailyHistory h, int type,
+      long lengthsOffset, long dataOffset) throws IOException {
+    int iDays = h.getNumDays();
+    int iRows = h.getNumRows();
+    int iCols = h.getNumCols();
+    if(iDays == 0 || iRows == 0)
+      return;
+
+    int iDayBytes = valueSize(type)*iRows*iCols;
+    int iWindow = Math.min(iDays, Math.max(1, WRITE_BUFFER_SIZE/Math.max(iDayBytes, 4*iRows)));
+    if(lengthsOffset != 0){
+      ByteBuffer buffer = ByteBuffer.allocateDirect(4*iWindow*iRows).order(ByteOrder.LITTLE_ENDIAN);
+      for(int d0=0; d0<iDays; d0+=iWindow){
+        int iWindowDays = Math.min(iWindow, iDays-d0);
+        buffer.clear();
+        IntBuffer lengths = buffer.asIntBuffer();
+        for(int d=d0; d<d0+iWindowDays; d++){
+          for(int r=0; r<iRows; r++)
+            lengths.put(h.getRowLength(d, r));
+        }
+        buffer.limit(4*iWindowDays*iRows);
+        writeFully(channel, buffer, lengthsOffset+4L*d0*iRows);
+      }
+    }
+
+    if(iCols == 0)
+      return;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(iWindow*iDayBytes).order(ByteOrder.LITTLE_ENDIAN);
+    double [] row = new double[iCols];
+    for(int d0=0; d0<iDays; d0+=iWindow){
+      int iWindowDays = Math.min(iWindow, iDays-d0);
+      buffer.clear();
+      DoubleBuffer doubles = (type == TYPE_DOUBLE ? buffer.asDoubleBuffer() : null);
+      IntBuffer ints = (type == TYPE_INT ? buffer.asIntBuffer() : null);
+      for(int d=d0; d<d0+iWindowDays; d++){
+        for(int r=0; r<iRows; r++){
+          int iLength = h.getRowLength(d, r);
+          h.copyRow(d, r, row);
+          for(int c=iLength; c<iCols; c++)
+            row[c] = 0;
+          if(doubles != null){
+            doubles.put(row);
+          }
+          else {
+            for(int c=0; c<iCols; c++)
+              ints.put((int) row[c]);
+          }
+        }
+      }
+      buffer.limit(iWindowDays*iDayBytes);
+      writeFully(channel, buffer, dataOffset+(long)d0*iDayBytes);
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while(buffer.hasRemaining())
+      position += channel.write(buffer, position);
+  }
+
+  private static boolean isRagged(DailyHistory h){
+    for(int d=0; d<h.getNumDays(); d++){
+      for(int r=0; r<h.getNumRows(); r++){
+        if(h.getRowLength(d, r) != h.getNumCols())
+          return true;
+      }
+    }
+    return false;
+  }
+
+  static int valueSize(int type){
+    return (type == TYPE_INT ? 4 : 8);
+  }
+
+  static long align(long offset){
+    return (offset+7) & ~7L;
+  }
+
+  private static double [] getSimulationControls(AMESMarket ames){
+    double [] controls = new double[NUM_SIMULATION_CONTROLS];
+    controls[MAX_DAY] = ames.getMaxDay();
+    controls[THRESHOLD_PROBABILITY] = ames.getThresholdProbability();
+    controls[GEN_PRICE_CAP] = ames.getGenPriceCap();
+    controls[LSE_PRICE_CAP] = ames.getLSEPriceCap();
+    controls[MAXIMUM_DAY_CHECK] = (ames.bMaximumDay ? 1 : 0);
+    controls[THRESHOLD_CHECK] = (ames.bThreshold ? 1 : 0);
+    controls[ACTION_PROBABILITY_CHECK] = (ames.getActionProbabilityCheck() ? 1 : 0);
+    controls[ACTION_PROBABILITY_START_DAY] = ames.getActionProbabilityStartDay();
+    controls[ACTION_PROBABILITY_DAY_LENGTH] = ames.getActionProbabilityDayLength();
+    controls[ACTION_PROBABILITY_DIFFERENCE] = ames.getActionProbabilityDifference();
+    controls[LEARNING_CHECK] = (ames.getLearningCheck() ? 1 : 0);
+    controls[LEARNING_CHECK_START_DAY] = ames.getLearningCheckStartDay();
+    controls[LEARNING_CHECK_DAY_LENGTH] = ames.getLearningCheckDayLength();
+    controls[LEARNING_CHECK_DIFFERENCE] = ames.getLearningCheckDifference();
+    controls[NET_EARNING_CHECK] = (ames.getDailyNetEarningCheck() ? 1 : 0);
+    controls[NET_EARNING_START_DAY] = ames.getDailyNetEarningStartDay();
+    controls[NET_EARNING_DAY_LENGTH] = ames.getDailyNetEarningDayLength();
+    controls[NET_EARNING_THRESHOLD] = ames.getDailyNetEarningThreshold();
+    return controls;
+  }
+}
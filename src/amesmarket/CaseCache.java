@@ -0,0 +1,131 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// CaseCache.java
+// Cache of parsed case data files, keyed by the hash of their content
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Cache of parsed case data files in a directory, so that batch runs that
+ * read the same (large) cases again and again parse each text only once.
+ *
+ * A case is looked up by the SHA-1 hash of its file content: the entry
+ * "<hash>.casecache" holds the CaseData in binary form (see CaseData.write).
+ * A changed case file thus gets a new entry, and entries of identical files
+ * are shared whatever their names.  Damaged or outdated entries are parsed
+ * again and overwritten.  Several threads and processes may share the
+ * directory: entries are written to a temporary file and then renamed.
+ */
+public class CaseCache {
+
+  public static final String EXTENSION = "casecache";
+
+  private static final int MAGIC = 0x414d4543;  // "AMEC"
+  private static final int VERSION = 1;
+
+  private File directory;
+
+  public CaseCache(File directory){
+    this.directory = directory;
+  }
+
+  public File getDirectory(){return directory;}
+
+  /**
+   * Reads the case from the cache, or parses it and adds it to the cache
+   */
+  public CaseData load(File caseFile) throws IOException {
+    byte[] content = CaseData.readFile(caseFile);
+    String hash = hash(content);
+    File entry = new File(directory, hash+"."+EXTENSION);
+
+    if(entry.isFile()){
+      try {
+        return read(entry, hash, caseFile.getName());
+      }
+      catch(IOException e){
+        // Damaged or of an older version: parse the case again
+      }
+    }
+
+    CaseData data = CaseData.parse(caseFile.getName(), content);
+    write(entry, hash, data);
+    return data;
+  }
+
+  private static CaseData read(File entry, String hash, String caseFileName) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)));
+    try {
+      if(in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(hash))
+        throw new IOException(entry.getName()+" is not a case cache entry of this version");
+      return CaseData.read(in, caseFileName);
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  private void write(File entry, String hash, CaseData data) throws IOException {
+    if(!directory.isDirectory() && !directory.mkdirs())
+      throw new IOException("Cannot create "+directory);
+    File temp = File.createTempFile(hash, ".tmp", directory);
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeUTF(hash);
+      data.write(out);
+    }
+    finally {
+      out.close();
+    }
+    entry.delete();
+    if(!temp.renameTo(entry)){
+      temp.delete();  // another thread or process has written it meanwhile
+    }
+  }
+
+  // Hexadecimal SHA-1 of the content
+  static String hash(byte[] content){
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+      StringBuffer hex = new StringBuffer();
+      for(int i=0; i<digest.length; i++){
+        hex.append(Character.forDigit((digest[i] >> 4) & 0xf, 16));
+        hex.append(Character.forDigit(digest[i] & 0xf, 16));
+      }
+      return hex.toString();
+    }
+    catch(NoSuchAlgorithmException e){
+      throw new RuntimeException("SHA-1 is not available", e);
+    }
+  }
+}
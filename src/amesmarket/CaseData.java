@@ -0,0 +1,536 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// CaseData.java
+// Case data file (.dat) reader that does not need the GUI
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The data of a case data file (Case Data File Format 2.0, "*.dat") in the
+ * form AMESMarket.InitDataFromGUI() and InitLearningParameters() take it,
+ * together with the branch, GenCo and LSE names for the output data file.
+ *
+ * The file is read as AMESFrame reads it: the same sections, the same
+ * defaults for cases without #GenLearningData, and the branch, GenCo and
+ * fixed demand LSE values rounded to 4 decimals as in the GUI tables, so a
+ * case run by the BatchRunner gives the same results as from the GUI.
+ */
+public class CaseData {
+
+  // Default learning parameters (as in AMESFrame), used when the case has
+  //  no #GenLearningData section
+  public static final double[] DEFAULT_LEARNING_PARAMETERS = {
+    6000.0,  // InitPropensity
+    1000.0,  // Cooling
+    0.04,    // Recency
+    0.96,    // Experimentation
+    10,      // M1
+    10,      // M2
+    1,       // M3
+    0.75,    // RI_MAX_Lower
+    0.75,    // RI_MAX_Upper
+    1.0,     // RI_MIN_C
+    0.001,   // SlopeStart
+    1        // RewardSelection
+  };
+
+  private String caseFileName;
+  private double baseS = INIT.BASE_S;
+  private double baseV = INIT.BASE_V;
+  private double[][] nodeData;               // 1x2: NN, PenaltyWeight
+  private String[] branchNames;
+  private double[][] branchData;             // From, To, MaxCap, Reactance
+  private String[] genNames;
+  private double[][] genData;                // ID, atBus, a, b, capL, capU, FCost, emcoe, EA, pb, ps, InitMoney
+  private String[] lseNames;
+  private double[][] lseData;                // ID, atBus, H-00, ..., H-23
+  private double[][][] lsePriceSensitiveDemand; // by LSE and hour: ID, atBus, hourIndex, c, d, SLMax
+  private int[][] lseHybridDemand;           // ID, atBus, H-00, ..., H-23
+  private double[][] genLearningData;        // see DEFAULT_LEARNING_PARAMETERS
+
+  private CaseData(){
+  }
+
+  /**
+   * Reads a case data file
+   * @throws IOException if the file cannot be read or a section is malformed
+   */
+  public static CaseData load(File caseFile) throws IOException {
+    return parse(caseFile.getName(), readFile(caseFile));
+  }
+
+  // The content of a file
+  static byte[] readFile(File file) throws IOException {
+    return Files.readAllBytes(file.toPath());
+  }
+
+  /**
+   * Parses the content of a case data file, in one pass over the text: each
+   * data line is split into its fields and converted when it is met, and
+   * the sections are assembled from the converted rows at the end.
+   */
+  static CaseData parse(String caseFileName, byte[] content) throws IOException {
+    CaseData data = new CaseData();
+    data.caseFileName = caseFileName;
+
+    ArrayList branchList = new ArrayList();
+    ArrayList genList = new ArrayList();
+    ArrayList lseList = new ArrayList();
+    ArrayList lsePriceList = new ArrayList();
+    ArrayList lseHybridList = new ArrayList();
+    ArrayList learningList = null;
+    ArrayList nodeList = new ArrayList();
+    ArrayList section = null;
+    int iSectionFields = 0;     // values at the end of each line of the section
+
+    CharBuffer text = Charset.defaultCharset().decode(ByteBuffer.wrap(content));
+    Tokenizer line = new Tokenizer(text.array(), text.arrayOffset(), text.arrayOffset()+text.limit());
+    while(line.next()){
+      if(line.isEmpty() || line.startsWith("//"))
+        continue;
+
+      if(line.startsWith("BASE_S")){
+        data.baseS = line.number(line.getNumTokens()-1);
+        continue;
+      }
+      if(line.startsWith("BASE_V")){
+        data.baseV = line.number(line.getNumTokens()-1);
+        continue;
+      }
+
+      if(line.startsWith("#")){
+        String marker = line.toString();
+        if(marker.startsWith("#NodeDataStart")){ section = nodeList; iSectionFields = 2; continue; }
+        if(marker.startsWith("#BranchDataStart")){ section = branchList; iSectionFields = INIT.NUM_BRANCH_PARAMS; continue; }
+        if(marker.startsWith("#GenDataStart")){ section = genList; iSectionFields = INIT.NUM_GEN_PARAMS; continue; }
+        if(marker.startsWith("#LSEDataFixedDemandStart")){ section = lseList; iSectionFields = INIT.NUM_LSE_3SEC_PARAMS; continue; }
+        if(marker.startsWith("#LSEDataPriceSensitiveDemandStart")){ section = lsePriceList; iSectionFields = INIT.NUM_LSE_PARAMS_SLOAD; continue; }
+        if(marker.startsWith("#LSEDataHybridDemandStart")){ section = lseHybridList; iSectionFields = INIT.NUM_LSE_3SEC_PARAMS; continue; }
+        if(marker.startsWith("#GenLearningDataStart")){
+          learningList = new ArrayList();
+          section = learningList;
+          iSectionFields = DEFAULT_LEARNING_PARAMETERS.length;
+          continue;
+        }
+        if(marker.endsWith("End")){
+          section = null;
+          continue;
+        }
+      }
+
+      if(section != null)
+        section.add(line.row(iSectionFields));
+    }
+
+    if(nodeList.isEmpty())
+      throw new IOException(data.caseFileName+": no #NodeData section");
+    Row node = (Row) nodeList.get(nodeList.size()-1);
+    data.nodeData = new double[1][2];
+    data.nodeData[0][0] = node.values[0];
+    data.nodeData[0][1] = node.values[1];
+
+    // Branches: Name, From, To, MaxCap, Reactance
+    int iBranch = branchList.size();
+    data.branchNames = new String[iBranch];
+    data.branchData = new double[iBranch][INIT.NUM_BRANCH_PARAMS];
+    for(int i=0; i<iBranch; i++){
+      Row row = (Row) branchList.get(i);
+      data.branchNames[i] = row.name;
+      for(int j=0; j<INIT.NUM_BRANCH_PARAMS; j++){
+        data.branchData[i][j] = (j>1) ? roundToTableValue(row.values[j]) : (int)row.values[j];
+      }
+    }
+
+    // GenCos: Name, ID, atBus, a, ..., InitMoney
+    int iGen = genList.size();
+    data.genNames = new String[iGen];
+    data.genData = new double[iGen][INIT.NUM_GEN_PARAMS];
+    for(int i=0; i<iGen; i++){
+      Row row = (Row) genList.get(i);
+      data.genNames[i] = row.name;
+      for(int j=0; j<INIT.NUM_GEN_PARAMS; j++){
+        data.genData[i][j] = (j>1) ? roundToTableValue(row.values[j]) : (int)row.values[j];
+      }
+    }
+
+    // Fixed demand: three blocks of 8 hours, each with all LSEs
+    int iLSE = lseList.size()/3;
+    data.lseNames = new String[iLSE];
+    data.lseData = new double[iLSE][INIT.NUM_LSE_PARAMS];
+    for(int i=0; i<3*iLSE; i++){
+      Row row = (Row) lseList.get(i);
+      int j = i%iLSE;
+      int block = i/iLSE;
+      if(block==0){
+        data.lseNames[j] = row.name;
+        data.lseData[j][0] = (int)row.values[0];
+        data.lseData[j][1] = (int)row.values[1];
+      }
+      for(int h=0; h<8; h++){
+        data.lseData[j][2+8*block+h] = roundToTableValue(row.values[2+h]);
+      }
+    }
+
+    // Price-sensitive demand: 24 hours of each LSE
+    int iPriceLSE = lsePriceList.size()/24;
+    data.lsePriceSensitiveDemand = new double[iPriceLSE][24][INIT.NUM_LSE_PARAMS_SLOAD];
+    for(int i=0; i<iPriceLSE; i++){
+      for(int h=0; h<24; h++){
+        Row row = (Row) lsePriceList.get(i*24+h);
+        for(int j=0; j<INIT.NUM_LSE_PARAMS_SLOAD; j++){
+          data.lsePriceSensitiveDemand[i][h][j] = (j>2) ? row.values[j] : (int)row.values[j];
+        }
+      }
+    }
+
+    // Hybrid demand flags: three blocks of 8 hours, as the fixed demand
+    int iHybridLSE = lseHybridList.size()/3;
+    data.lseHybridDemand = new int[iHybridLSE][INIT.NUM_LSE_PARAMS_HYBRID_LOAD];
+    for(int i=0; i<3*iHybridLSE; i++){
+      Row row = (Row) lseHybridList.get(i);
+      int j = i%iHybridLSE;
+      int block = i/iHybridLSE;
+      if(block==0){
+        data.lseHybridDemand[j][0] = (int)row.values[0];
+        data.lseHybridDemand[j][1] = (int)row.values[1];
+      }
+      for(int h=0; h<8; h++){
+        data.lseHybridDemand[j][2+8*block+h] = (int)row.values[2+h];
+      }
+    }
+
+    // Learning parameters: Name followed by 12 values
+    if(learningList != null){
+      int iLearning = learningList.size();
+      data.genLearningData = new double[iLearning][];
+      for(int i=0; i<iLearning; i++){
+        data.genLearningData[i] = ((Row) learningList.get(i)).values;
+      }
+    }
+    else{
+      data.genLearningData = new double[iGen][];
+      for(int i=0; i<iGen; i++){
+        data.genLearningData[i] = (double[]) DEFAULT_LEARNING_PARAMETERS.clone();
+      }
+    }
+
+    return data;
+  }
+
+  // A data line: the leading name ("" if there is none) and the values
+  private static class Row {
+    String name;
+    double[] values;
+  }
+
+  /**
+   * Splits a text into lines and the lines into their whitespace-separated
+   * tokens, keeping only the token bounds, so that a line is read once and
+   * its numbers are converted without intermediate strings.
+   */
+  private static class Tokenizer {
+
+    // Powers of ten that are exact doubles
+    private static final double[] POW10 = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private char[] text;
+    private int end;          // end of the text
+    private int next;         // start of the next line
+    private int lineStart;    // bounds of the current line, trimmed
+    private int lineEnd;
+    private int numTokens;
+    private int[] tokenStart = new int[32];
+    private int[] tokenEnd = new int[32];
+
+    Tokenizer(char[] text, int start, int end){
+      this.text = text;
+      this.next = start;
+      this.end = end;
+    }
+
+    // Moves to the next line; false at the end of the text
+    boolean next(){
+      if(next >= end)
+        return false;
+      int i = next;
+      while(i < end && text[i] != '\n' && text[i] != '\r')
+        i++;
+      lineStart = next;
+      lineEnd = i;
+      if(i < end && text[i] == '\r' && i+1 < end && text[i+1] == '\n')
+        i++;
+      next = i+1;
+
+      while(lineStart < lineEnd && text[lineStart] <= ' ')
+        lineStart++;
+      while(lineEnd > lineStart && text[lineEnd-1] <= ' ')
+        lineEnd--;
+
+      numTokens = 0;
+      int k = lineStart;
+      while(k < lineEnd){
+        while(k < lineEnd && text[k] <= ' ')
+          k++;
+        if(k == lineEnd)
+          break;
+        if(numTokens == tokenStart.length){
+          tokenStart = Arrays.copyOf(tokenStart, 2*numTokens);
+          tokenEnd = Arrays.copyOf(tokenEnd, 2*numTokens);
+        }
+        tokenStart[numTokens] = k;
+        while(k < lineEnd && text[k] > ' ')
+          k++;
+        tokenEnd[numTokens++] = k;
+      }
+      return true;
+    }
+
+    boolean isEmpty(){
+      return lineStart == lineEnd;
+    }
+
+    boolean startsWith(String prefix){
+      int n = prefix.length();
+      if(lineEnd-lineStart < n)
+        return false;
+      for(int i=0; i<n; i++){
+        if(text[lineStart+i] != prefix.charAt(i))
+          return false;
+      }
+      return true;
+    }
+
+    int getNumTokens(){
+      return numTokens;
+    }
+
+    // The line split into its last n values and the leading name
+    Row row(int n) throws IOException {
+      if(numTokens < n)
+        throw new IOException("expected "+n+" values in line: "+toString());
+      Row row = new Row();
+      int iNameTokens = numTokens-n;
+      if(iNameTokens == 0){
+        row.name = "";
+      }
+      else if(iNameTokens == 1){
+        row.name = new String(text, tokenStart[0], tokenEnd[0]-tokenStart[0]);
+      }
+      else{
+        StringBuffer name = new StringBuffer();
+        for(int i=0; i<iNameTokens; i++){
+          if(i>0) name.append(' ');
+          name.append(text, tokenStart[i], tokenEnd[i]-tokenStart[i]);
+        }
+        row.name = name.toString();
+      }
+      row.values = new double[n];
+      for(int j=0; j<n; j++){
+        row.values[j] = number(iNameTokens+j);
+      }
+      return row;
+    }
+
+    // The value of token i, as Double.parseDouble() gives it.  Plain
+    //  decimals of up to 15 digits are converted directly: the digits and
+    //  the power of ten are then exact doubles, and their quotient is
+    //  correctly rounded.  Other numbers go through Double.parseDouble().
+    double number(int i) throws IOException {
+      int k = tokenStart[i];
+      int e = tokenEnd[i];
+      boolean bNegative = false;
+      if(k < e && (text[k] == '-' || text[k] == '+')){
+        bNegative = (text[k] == '-');
+        k++;
+      }
+      int iStart = k;
+      long mantissa = 0;
+      int iDigits = 0;          // significant digits
+      int iDecimals = -1;       // digits after the decimal point (-1: no point)
+      for(; k < e; k++){
+        char c = text[k];
+        if(c >= '0' && c <= '9'){
+          mantissa = 10*mantissa+(c-'0');
+          if(mantissa != 0)
+            iDigits++;
+          if(iDecimals >= 0)
+            iDecimals++;
+        }
+        else if(c == '.' && iDecimals < 0){
+          iDecimals = 0;
+        }
+        else{
+          break;
+        }
+      }
+      boolean bPlain = (k == e) && (k-iStart > (iDecimals == 0 ? 1 : 0))
+                       && iDigits <= 15 && iDecimals < POW10.length;
+      if(bPlain){
+        double value = (iDecimals > 0) ? mantissa/POW10[iDecimals] : (double)mantissa;
+        return bNegative ? -value : value;
+      }
+      String token = new String(text, tokenStart[i], e-tokenStart[i]);
+      try {
+        return Double.parseDouble(token);
+      }
+      catch(NumberFormatException ex){
+        throw new IOException("invalid number "+token+" in line: "+toString());
+      }
+    }
+
+    public String toString(){
+      return new String(text, lineStart, lineEnd-lineStart);
+    }
+  }
+
+  // The value shown in the GUI tables (formatted with "%15.4f").  Values
+  //  that already have at most 4 decimals (value*10^4 rounds to an integer
+  //  n, far from any rounding tie) are n/10^4 without going through
+  //  BigDecimal.
+  private static double roundToTableValue(double value){
+    if(value == 0)
+      return 0.0;
+    double scaled = value*10000;
+    if(Math.abs(scaled) < 1e15 && scaled == Math.rint(scaled))
+      return scaled/10000;
+    return new BigDecimal(value).setScale(4, BigDecimal.ROUND_HALF_UP).doubleValue();
+  }
+
+  // Writes the parsed data (not the case file name) for CaseCache
+  void write(DataOutputStream out) throws IOException {
+    out.writeDouble(baseS);
+    out.writeDouble(baseV);
+    writeMatrix(out, nodeData);
+    writeNames(out, branchNames);
+    writeMatrix(out, branchData);
+    writeNames(out, genNames);
+    writeMatrix(out, genData);
+    writeNames(out, lseNames);
+    writeMatrix(out, lseData);
+    out.writeInt(lsePriceSensitiveDemand.length);
+    for(int i=0; i<lsePriceSensitiveDemand.length; i++)
+      writeMatrix(out, lsePriceSensitiveDemand[i]);
+    out.writeInt(lseHybridDemand.length);
+    for(int i=0; i<lseHybridDemand.length; i++){
+      out.writeInt(lseHybridDemand[i].length);
+      for(int j=0; j<lseHybridDemand[i].length; j++)
+        out.writeInt(lseHybridDemand[i][j]);
+    }
+    writeMatrix(out, genLearningData);
+  }
+
+  // Reads the data written by write()
+  static CaseData read(DataInputStream in, String caseFileName) throws IOException {
+    CaseData data = new CaseData();
+    data.caseFileName = caseFileName;
+    data.baseS = in.readDouble();
+    data.baseV = in.readDouble();
+    data.nodeData = readMatrix(in);
+    data.branchNames = readNames(in);
+    data.branchData = readMatrix(in);
+    data.genNames = readNames(in);
+    data.genData = readMatrix(in);
+    data.lseNames = readNames(in);
+    data.lseData = readMatrix(in);
+    data.lsePriceSensitiveDemand = new double[in.readInt()][][];
+    for(int i=0; i<data.lsePriceSensitiveDemand.length; i++)
+      data.lsePriceSensitiveDemand[i] = readMatrix(in);
+    data.lseHybridDemand = new int[in.readInt()][];
+    for(int i=0; i<data.lseHybridDemand.length; i++){
+      data.lseHybridDemand[i] = new int[in.readInt()];
+      for(int j=0; j<data.lseHybridDemand[i].length; j++)
+        data.lseHybridDemand[i][j] = in.readInt();
+    }
+    data.genLearningData = readMatrix(in);
+    return data;
+  }
+
+  private static void writeMatrix(DataOutputStream out, double[][] m) throws IOException {
+    out.writeInt(m.length);
+    for(int i=0; i<m.length; i++){
+      out.writeInt(m[i].length);
+      for(int j=0; j<m[i].length; j++)
+        out.writeDouble(m[i][j]);
+    }
+  }
+
+  private static double[][] readMatrix(DataInputStream in) throws IOException {
+    double[][] m = new double[in.readInt()][];
+    for(int i=0; i<m.length; i++){
+      m[i] = new double[in.readInt()];
+      for(int j=0; j<m[i].length; j++)
+        m[i][j] = in.readDouble();
+    }
+    return m;
+  }
+
+  private static void writeNames(DataOutputStream out, String[] names) throws IOException {
+    out.writeInt(names.length);
+    for(int i=0; i<names.length; i++)
+      out.writeUTF(names[i]);
+  }
+
+  private static String[] readNames(DataInputStream in) throws IOException {
+    String[] names = new String[in.readInt()];
+    for(int i=0; i<names.length; i++)
+      names[i] = in.readUTF();
+    return names;
+  }
+
+  /**
+   * Gives this case and its learning parameters to ames, as the GUI does
+   * before AMESMarketSetupFromGUI(); the simulation controls are set apart
+   * with ames.InitSimulationParameters()
+   */
+  public void initAMESMarket(AMESMarket ames){
+    ames.InitLearningParameters(genLearningData);
+    ames.InitDataFromGUI(baseS, baseV, nodeData, branchData, genData, lseData,
+                         lsePriceSensitiveDemand, lseHybridDemand);
+  }
+
+  public String getCaseFileName(){ return caseFileName; }
+  public double getBaseS(){ return baseS; }
+  public double getBaseV(){ return baseV; }
+  public double[][] getNodeData(){ return nodeData; }
+  public String[] getBranchNames(){ return branchNames; }
+  public double[][] getBranchData(){ return branchData; }
+  public String[] getGenNames(){ return genNames; }
+  public double[][] getGenData(){ return genData; }
+  public String[] getLSENames(){ return lseNames; }
+  public double[][] getLSEData(){ return lseData; }
+  public double[][][] getLSEPriceSensitiveDemand(){ return lsePriceSensitiveDemand; }
+  public int[][] getLSEHybridDemand(){ return lseHybridDemand; }
+  public double[][] getGenLearningData(){ return genLearningData; }
+}
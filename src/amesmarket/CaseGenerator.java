@@ -0,0 +1,423 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// CaseGenerator.java
+// Generates synthetic case data files of any size for scaling tests
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Generator of synthetic cases in Case Data File Format 2.0 (as saved by
+ * the GUI), for measuring how clearing time and memory scale with the grid
+ * size.  A case has:
+ *
+ *   - numBuses buses on a ring of branches, so that the grid is connected,
+ *     meshed by extra branches mostly to nearby buses, up to an average
+ *     degree (branches per bus) of meshDegree;
+ *   - GenCos and LSEs spread evenly over the buses, gensPerBus and
+ *     lsesPerBus of them per bus on average (e.g. 0.5: every other bus);
+ *   - LSE fixed demand with the daily shape of the 5-bus cases, and GenCo
+ *     capacities of capacityReserve times the peak demand in all;
+ *   - price-sensitive demand bids for all LSEs, used as set by the demand
+ *     type: fixed demand only, price-sensitive demand only, both (hybrid),
+ *     or each LSE drawn from these three (mixed);
+ *   - branch thermal limits drawn between the given limits, by default
+ *     1.5 to 3 times the mean peak demand of a bus.
+ *
+ * Costs, capacities, reactances and limits are drawn from a Random with the
+ * given seed, so the same settings always give the same case.
+ *
+ * Usage: java amesmarket.CaseGenerator [options] -buses N case.dat
+ *   -gens X         GenCos per bus (default 1)
+ *   -lses X         LSEs per bus (default 1)
+ *   -degree X       average branches per bus, at least 2 (default 3)
+ *   -limits L,U     branch thermal limits in MW (default from the demand)
+ *   -demand fixed|sensitive|hybrid|mixed  LSE demand type (default fixed)
+ *   -share X        price-sensitive share of the demand of hybrid LSEs (default 0.1)
+ *   -reserve X      GenCo capacity over the peak demand (default 2)
+ *   -seed S         random seed (default 1)
+ */
+public class CaseGenerator {
+
+  // LSE demand types; the first three are the hybrid demand flags of the
+  //  case data files
+  public static final int DEMAND_FIXED = 1;
+  public static final int DEMAND_PRICE_SENSITIVE = 2;
+  public static final int DEMAND_HYBRID = 3;
+  public static final int DEMAND_MIXED = 0;
+
+  public static final double DEFAULT_MESH_DEGREE = 3.0;
+  public static final double DEFAULT_PRICE_SENSITIVE_SHARE = 0.1;
+  public static final double DEFAULT_CAPACITY_RESERVE = 2.0;
+  public static final long DEFAULT_RANDOM_SEED = 1;
+
+  // Hourly shape of the fixed demand (LSE1 of the 5-bus cases, over its peak)
+  private static final double[] LOAD_SHAPE = {
+    0.7802, 0.7198, 0.6800, 0.6598, 0.6401, 0.6500, 0.6598, 0.7001,
+    0.7999, 0.8800, 0.9001, 0.9100, 0.9001, 0.8800, 0.8702, 0.8702,
+    0.9100, 1.0000, 0.9601, 0.9499, 0.9400, 0.9199, 0.8702, 0.8102};
+
+  // Range of the peak fixed demand of an LSE (MW)
+  private static final double MIN_LSE_PEAK = 100.0;
+  private static final double MAX_LSE_PEAK = 300.0;
+
+  private int numBuses;
+  private double gensPerBus = 1.0;
+  private double lsesPerBus = 1.0;
+  private double meshDegree = DEFAULT_MESH_DEGREE;
+  private double minLineLimit;   // <= 0: from the demand
+  private double maxLineLimit;
+  private int demandType = DEMAND_FIXED;
+  private double priceSensitiveShare = DEFAULT_PRICE_SENSITIVE_SHARE;
+  private double capacityReserve = DEFAULT_CAPACITY_RESERVE;
+  private long randomSeed = DEFAULT_RANDOM_SEED;
+
+  public CaseGenerator(int numBuses){
+    if(numBuses < 3)
+      throw new IllegalArgumentException("A generated case needs at least 3 buses: "+numBuses);
+    this.numBuses = numBuses;
+  }
+
+  public int getNumBuses(){return numBuses;}
+  public void setGensPerBus(double x){gensPerBus = x;}
+  public void setLSEsPerBus(double x){lsesPerBus = x;}
+  public void setMeshDegree(double x){meshDegree = Math.max(2.0, x);}
+  public void setLineLimits(double min, double max){minLineLimit = min; maxLineLimit = max;}
+  public void setDemandType(int type){demandType = type;}
+  public void setPriceSensitiveShare(double x){priceSensitiveShare = x;}
+  public void setCapacityReserve(double x){capacityReserve = x;}
+  public void setRandomSeed(long seed){randomSeed = seed;}
+
+  // Number of the agents at bus k (1..numBuses) with perBus of them per bus
+  private static int agentsAtBus(int k, double perBus){
+    return (int)Math.floor(k*perBus+1e-9) - (int)Math.floor((k-1)*perBus+1e-9);
+  }
+
+  /**
+   * Writes the case to out, in the layout of the case files saved by the GUI
+   */
+  public void write(Writer out, String caseFileName) throws IOException {
+    Random rn = new Random(randomSeed);
+
+    int[] lseBus = new int[(int)Math.floor(numBuses*lsesPerBus+1e-9)];
+    int[] genBus = new int[(int)Math.floor(numBuses*gensPerBus+1e-9)];
+    if(lseBus.length == 0 || genBus.length == 0)
+      throw new IllegalArgumentException("A generated case needs at least one GenCo and one LSE");
+    for(int k=1, i=0, j=0; k<=numBuses; k++){
+      for(int n=agentsAtBus(k, lsesPerBus); n>0; n--)
+        lseBus[i++] = k;
+      for(int n=agentsAtBus(k, gensPerBus); n>0; n--)
+        genBus[j++] = k;
+    }
+
+    // LSE peak demand and demand type
+    double[] lsePeak = new double[lseBus.length];
+    int[] lseType = new int[lseBus.length];
+    double dTotalPeak = 0.0;
+    for(int j=0; j<lseBus.length; j++){
+      lsePeak[j] = MIN_LSE_PEAK + (MAX_LSE_PEAK-MIN_LSE_PEAK)*rn.nextDouble();
+      lseType[j] = (demandType == DEMAND_MIXED) ? 1+rn.nextInt(3) : demandType;
+      dTotalPeak += lsePeak[j];
+    }
+
+    // Branches: the ring, then extra branches up to the mesh degree
+    double dLower = minLineLimit, dUpper = maxLineLimit;
+    if(dLower <= 0.0 || dUpper < dLower){
+      dLower = 1.5*dTotalPeak/numBuses;
+      dUpper = 3.0*dTotalPeak/numBuses;
+    }
+    int iBranches = Math.max(numBuses, (int)Math.round(meshDegree*numBuses/2.0));
+    iBranches = (int)Math.min((long)iBranches, (long)numBuses*(numBuses-1)/2);
+    int[][] branch = new int[iBranches][2];
+    HashSet<Long> branchSet = new HashSet<Long>();
+    for(int k=1; k<=numBuses; k++){
+      int to = (k%numBuses)+1;
+      branch[k-1][0] = Math.min(k, to);
+      branch[k-1][1] = Math.max(k, to);
+      branchSet.add(Long.valueOf((long)branch[k-1][0]*numBuses+branch[k-1][1]));
+    }
+    int iReach = Math.max(2, (int)Math.sqrt(numBuses));
+    for(int n=numBuses; n<iBranches; ){
+      int from = 1+rn.nextInt(numBuses);
+      // Mostly nearby buses; one extra branch in ten goes anywhere
+      int offset = (rn.nextInt(10) == 0) ? 1+rn.nextInt(numBuses-1) : 1+rn.nextInt(iReach);
+      int to = ((from-1+offset)%numBuses)+1;
+      Long key = Long.valueOf((long)Math.min(from, to)*numBuses+Math.max(from, to));
+      if(from != to && branchSet.add(key)){
+        branch[n][0] = Math.min(from, to);
+        branch[n][1] = Math.max(from, to);
+        n++;
+      }
+    }
+
+    out.write("// FILENAME "+caseFileName+"\n");
+    out.write("//\n");
+    out.write("// UNIT\tSI\n");
+    out.write("// SI (International System of Units) such as MW\n");
+    out.write("//\n");
+    out.write("// Case Data File Format 2.0\n");
+    out.write("//\n");
+    out.write("// Synthetic case of CaseGenerator: "+numBuses+" buses, "+iBranches+" branches, "
+              +genBus.length+" GenCos, "+lseBus.length+" LSEs, seed "+randomSeed+"\n");
+    out.write("//\n");
+    out.write("// NN: Number of Buses\n");
+    out.write("//\n");
+    out.write("// PenaltyWeight: Penalty weight for DC-OPF objective function\n");
+    out.write("//\n");
+    out.write("// MaxCap: Thermal limits\n");
+    out.write("//\n");
+    out.write("// X: Reactance\n");
+    out.write("//\n");
+    out.write("// FCost,a,b: GenCo's cost attributes\n");
+    out.write("//\n");
+    out.write("// capL,capU: GenCo's operating capacity limits\n");
+    out.write("//\n");
+    out.write("\n");
+
+    out.write("// UNIT\tSI\n");
+    out.write("BASE_S\t"+(int)INIT.BASE_S+"\n");
+    out.write("BASE_V\t"+(int)INIT.BASE_V+"\n\n");
+
+    out.write("#NodeDataStart\n");
+    out.write(String.format("//%1$8s\t%2$15s\n", "NN", "PenaltyWeight"));
+    out.write(String.format("%1$10d\t%2$15.4f\n", numBuses, 0.05));
+    out.write("#NodeDataEnd\n\n");
+
+    out.write("#BranchDataStart\n");
+    out.write(String.format("//%1$8s\t%2$10s\t%3$10s\t%4$15s\t%5$15s\n", "Name", "From", "To", "MaxCap", "Reactance"));
+    for(int n=0; n<iBranches; n++){
+      double dLimit = dLower + (dUpper-dLower)*rn.nextDouble();
+      double dReactance = 0.005 + 0.035*rn.nextDouble();
+      out.write(String.format("%1$10s\t%2$10d\t%3$10d\t%4$15.4f\t%5$15.4f\n",
+                              "Branch"+(n+1), branch[n][0], branch[n][1], dLimit, dReactance));
+    }
+    out.write("#BranchDataEnd\n\n");
+
+    // GenCo capacities: shares of capacityReserve times the total peak demand
+    double[] genWeight = new double[genBus.length];
+    double dTotalWeight = 0.0;
+    for(int i=0; i<genBus.length; i++){
+      genWeight[i] = 0.5 + rn.nextDouble();
+      dTotalWeight += genWeight[i];
+    }
+    out.write("#GenDataStart\n");
+    out.write(String.format("//%1$8s\t%2$10s\t%3$10s\t%4$15s\t%5$15s\t%6$15s\t%7$15s\t%8$15s\t%9$15s\t%10$15s\t%11$15s\t%12$15s\t%13$15s\n",
+                            "Name", "ID", "atBus", "a", "b", "capL", "capU", "FCost", "emcoe", "EA", "pb", "ps", "InitMoney"));
+    for(int i=0; i<genBus.length; i++){
+      double a = 10.0 + 20.0*rn.nextDouble();
+      double b = 0.002 + 0.010*rn.nextDouble();
+      double capU = capacityReserve*dTotalPeak*genWeight[i]/dTotalWeight;
+      double emcoe = 0.01 + 0.05*rn.nextDouble();
+      double pb = 1100.0 + 400.0*rn.nextDouble();
+      double ps = -15.0 - 2.0*rn.nextDouble();
+      out.write(String.format("%1$10s\t%2$10d\t%3$10d\t%4$15.4f\t%5$15.4f\t%6$15.4f\t%7$15.4f\t%8$15.4f\t%9$15.4f\t%10$15.4f\t%11$15.4f\t%12$15.4f\t%13$15.4f\n",
+                              "GenCo"+(i+1), i+1, genBus[i], a, b, 0.0, capU, 0.0, emcoe, 1000.0, pb, ps, 1000000.0));
+    }
+    out.write("#GenDataEnd\n\n");
+
+    out.write("#LSEDataFixedDemandStart\n");
+    for(int block=0; block<3; block++){
+      out.write(String.format("//%1$8s\t%2$10s\t%3$10s", "Name", "ID", "atBus"));
+      for(int h=8*block; h<8*block+8; h++)
+        out.write(String.format("\t%1$15s", String.format("H-%1$02d", h)));
+      out.write("\n");
+      for(int j=0; j<lseBus.length; j++){
+        out.write(String.format("%1$10s\t%2$10d\t%3$10d", "LSE"+(j+1), j+1, lseBus[j]));
+        for(int h=8*block; h<8*block+8; h++)
+          out.write(String.format("\t%1$15.4f", lsePeak[j]*LOAD_SHAPE[h]));
+        out.write("\n");
+      }
+    }
+    out.write("#LSEDataFixedDemandEnd\n\n");
+
+    // Price-sensitive demand: the whole demand of LSEs with only
+    //  price-sensitive demand, else priceSensitiveShare of it
+    out.write("\n#LSEDataPriceSensitiveDemandStart\n");
+    out.write(String.format("//%1$8s\t%2$10s\t%3$10s\t%4$10s\t%5$15s\t%6$15s\t%7$15s\n",
+                            "Name", "ID", "atBus", "hourIndex", "c", "d", "SLMax"));
+    for(int j=0; j<lseBus.length; j++){
+      double c = 30.0 + 10.0*rn.nextDouble();
+      double share = (lseType[j] == DEMAND_PRICE_SENSITIVE) ? 1.0 : priceSensitiveShare;
+      for(int h=0; h<24; h++){
+        out.write(String.format("%1$10s\t%2$10d\t%3$10d\t%4$10d\t%5$15.4f\t%6$15.4f\t%7$15.4f\n",
+                                "LSE"+(j+1), j+1, lseBus[j], h, c*(0.8+0.2*LOAD_SHAPE[h]), 0.04,
+                                share*lsePeak[j]*LOAD_SHAPE[h]));
+      }
+    }
+    out.write("#LSEDataPriceSensitiveDemandEnd\n\n");
+
+    out.write("\n//LSE Data Hybrid Demand Flags: 1-> only fixed demand; 2-> only p-s demand; 3-> both\n");
+    out.write("#LSEDataHybridDemandStart\n");
+    for(int block=0; block<3; block++){
+      out.write(String.format("//%1$8s\t%2$5s\t%3$5s", "Name", "ID", "atBus"));
+      for(int h=8*block; h<8*block+8; h++)
+        out.write(String.format("\t%1$5s", String.format("H-%1$02d", h)));
+      out.write("\n");
+      for(int j=0; j<lseBus.length; j++){
+        out.write(String.format("%1$10s\t%2$5d\t%3$5d", "LSE"+(j+1), j+1, lseBus[j]));
+        for(int h=0; h<8; h++)
+          out.write(String.format("\t%1$5d", lseType[j]));
+        out.write("\n");
+      }
+    }
+    out.write("#LSEDataHybridDemandEnd\n\n");
+
+    out.write("//Reward Selection Flag: 0-> profits; 1-> net earnings\n");
+    out.write("#GenLearningDataStart\n");
+    out.write(String.format("//%1$8s\t%2$15s\t%3$15s\t%4$15s\t%5$15s\t%6$15s\t%7$15s\t%8$15s\t%9$15s\t%10$15s\t%11$15s\t%12$15s\t%13$15s\n",
+                            "Name", "InitPropensity", "Cooling", "Recency", "Experimentation", "M1", "M2", "M3",
+                            "RI_MAX_Lower", "RI_MAX_Upper", "RI_MIN_C", "SlopeStart", "RewardSelection"));
+    for(int i=0; i<genBus.length; i++){
+      out.write(String.format("%1$10s", "GenCo"+(i+1)));
+      for(int p=0; p<CaseData.DEFAULT_LEARNING_PARAMETERS.length; p++)
+        out.write(String.format("\t%1$15.4f", CaseData.DEFAULT_LEARNING_PARAMETERS[p]));
+      out.write("\n");
+    }
+    out.write("#GenLearningDataEnd\n");
+  }
+
+  // Writes the case to the case data file
+  public void write(File caseFile) throws IOException {
+    BufferedWriter out = new BufferedWriter(new FileWriter(caseFile));
+    try {
+      write(out, caseFile.getName());
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  // The case as CaseData, without any file
+  public CaseData createCaseData(String caseFileName) throws IOException {
+    StringWriter out = new StringWriter();
+    write(out, caseFileName);
+    return CaseData.parse(caseFileName, out.toString().getBytes());
+  }
+
+  private static void usage(){
+    System.err.println("Usage: java amesmarket.CaseGenerator [options] -buses N case.dat");
+    System.err.println("  -gens X            GenCos per bus (default 1)");
+    System.err.println("  -lses X            LSEs per bus (default 1)");
+    System.err.println("  -degree X          average branches per bus (default "+DEFAULT_MESH_DEGREE+")");
+    System.err.println("  -limits L,U        branch thermal limits in MW (default from the demand)");
+    System.err.println("  -demand fixed|sensitive|hybrid|mixed  LSE demand type (default fixed)");
+    System.err.println("  -share X           price-sensitive share of hybrid demand (default "+DEFAULT_PRICE_SENSITIVE_SHARE+")");
+    System.err.println("  -reserve X         GenCo capacity over the peak demand (default "+DEFAULT_CAPACITY_RESERVE+")");
+    System.err.println("  -seed S            random seed (default "+DEFAULT_RANDOM_SEED+")");
+    System.exit(1);
+  }
+
+  public static void main(String [] args){
+    int numBuses = 0;
+    File caseFile = null;
+    double gens = 1.0, lses = 1.0, degree = DEFAULT_MESH_DEGREE;
+    double dLower = 0.0, dUpper = 0.0;
+    int demand = DEMAND_FIXED;
+    double share = DEFAULT_PRICE_SENSITIVE_SHARE, reserve = DEFAULT_CAPACITY_RESERVE;
+    long seed = DEFAULT_RANDOM_SEED;
+
+    try {
+      for(int i=0; i<args.length; i++){
+        String arg = args[i];
+        if(!arg.startsWith("-")){
+          caseFile = new File(arg);
+          continue;
+        }
+        if(i+1 >= args.length)
+          usage();
+        String value = args[++i];
+        if(arg.equals("-buses")){
+          numBuses = Integer.parseInt(value);
+        }
+        else if(arg.equals("-gens")){
+          gens = Double.parseDouble(value);
+        }
+        else if(arg.equals("-lses")){
+          lses = Double.parseDouble(value);
+        }
+        else if(arg.equals("-degree")){
+          degree = Double.parseDouble(value);
+        }
+        else if(arg.equals("-limits")){
+          String[] limits = value.split(",");
+          dLower = Double.parseDouble(limits[0].trim());
+          dUpper = (limits.length > 1) ? Double.parseDouble(limits[1].trim()) : dLower;
+        }
+        else if(arg.equals("-demand")){
+          if(value.equalsIgnoreCase("fixed"))
+            demand = DEMAND_FIXED;
+          else if(value.equalsIgnoreCase("sensitive"))
+            demand = DEMAND_PRICE_SENSITIVE;
+          else if(value.equalsIgnoreCase("hybrid"))
+            demand = DEMAND_HYBRID;
+          else if(value.equalsIgnoreCase("mixed"))
+            demand = DEMAND_MIXED;
+          else
+            usage();
+        }
+        else if(arg.equals("-share")){
+          share = Double.parseDouble(value);
+        }
+        else if(arg.equals("-reserve")){
+          reserve = Double.parseDouble(value);
+        }
+        else if(arg.equals("-seed")){
+          seed = Long.parseLong(value);
+        }
+        else{
+          usage();
+        }
+      }
+      if(numBuses == 0 || caseFile == null)
+        usage();
+
+      CaseGenerator generator = new CaseGenerator(numBuses);
+      generator.setGensPerBus(gens);
+      generator.setLSEsPerBus(lses);
+      generator.setMeshDegree(degree);
+      generator.setLineLimits(dLower, dUpper);
+      generator.setDemandType(demand);
+      generator.setPriceSensitiveShare(share);
+      generator.setCapacityReserve(reserve);
+      generator.setRandomSeed(seed);
+      generator.write(caseFile);
+      System.out.println("Save case data file:"+caseFile.getName());
+    }
+    catch(NumberFormatException e){
+      usage();
+    }
+    catch(IllegalArgumentException e){
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+    catch(IOException e){
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+}
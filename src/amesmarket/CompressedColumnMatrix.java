@@ -0,0 +1,171 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// CompressedColumnMatrix.java
+// Compressed-column copy of a (sparse) constraint matrix for QuadProgJ
+
+import cern.colt.list.DoubleArrayList;
+import cern.colt.list.IntArrayList;
+import cern.colt.matrix.DoubleMatrix2D;
+
+/**
+ * Read-only compressed-column (CSC) copy of an nxm matrix.
+ *
+ * QuadProgJ only needs single columns of the inequality constraint matrix and
+ * the product Ciq'*x, so keeping the non-zero entries column by column avoids
+ * holding the dense nxm matrix for large grids.
+ *
+ * NOTE: columnDotProduct() adds the products in the same order (and with the
+ *       same grouping of four) as Colt's DenseDoubleMatrix2D.zMult(), so the
+ *       results are exactly the same as the dense Ciq.viewDice().zMult(x).
+ */
+class CompressedColumnMatrix {
+
+  private int rows;
+  private int columns;
+  private int[] columnStart; // columnStart[j]..columnStart[j+1]-1 hold column j
+  private int[] rowIndex;    // row index of each non-zero, ascending per column
+  private double[] value;    // value of each non-zero
+
+  CompressedColumnMatrix(DoubleMatrix2D matrix){
+    rows = matrix.rows();
+    columns = matrix.columns();
+
+    IntArrayList rowList = new IntArrayList();
+    IntArrayList columnList = new IntArrayList();
+    DoubleArrayList valueList = new DoubleArrayList();
+    matrix.getNonZeros(rowList, columnList, valueList);
+    int nnz = rowList.size();
+
+    // Counting sort of the non-zeros by column
+    columnStart = new int[columns+1];
+    for(int e=0; e<nnz; e++){
+      columnStart[columnList.getQuick(e)+1]++;
+    }
+    for(int j=0; j<columns; j++){
+      columnStart[j+1] += columnStart[j];
+    }
+    int[] next = new int[columns];
+    System.arraycopy(columnStart, 0, next, 0, columns);
+    rowIndex = new int[nnz];
+    value = new double[nnz];
+    for(int e=0; e<nnz; e++){
+      int pos = next[columnList.getQuick(e)]++;
+      rowIndex[pos] = rowList.getQuick(e);
+      value[pos] = valueList.getQuick(e);
+    }
+
+    // Sort the rows within each column (columns are short, insertion sort)
+    for(int j=0; j<columns; j++){
+      for(int e=columnStart[j]+1; e<columnStart[j+1]; e++){
+        int r = rowIndex[e];
+        double v = value[e];
+        int f = e-1;
+        while(f>=columnStart[j] && rowIndex[f]>r){
+          rowIndex[f+1] = rowIndex[f];
+          value[f+1] = value[f];
+          f--;
+        }
+        rowIndex[f+1] = r;
+        value[f+1] = v;
+      }
+    }
+  }
+
+  int rows(){
+    return rows;
+  }
+
+  int columns(){
+    return columns;
+  }
+
+  int cardinality(){
+    return rowIndex.length;
+  }
+
+  // The non-zeros of column j are the entries e = columnStart(j), ...,
+  //  columnStart(j+1)-1, at row rowIndex(e) with value value(e)
+  int columnStart(int j){
+    return columnStart[j];
+  }
+
+  int rowIndex(int e){
+    return rowIndex[e];
+  }
+
+  double value(int e){
+    return value[e];
+  }
+
+  // z <- C * y (z: nx1, y: mx1)
+  void zMult(double[] y, double[] z){
+    java.util.Arrays.fill(z, 0, rows, 0);
+    for(int j=0; j<columns; j++){
+      double yj = y[j];
+      if(yj == 0) continue;
+      for(int e=columnStart[j]; e<columnStart[j+1]; e++){
+        z[rowIndex[e]] += value[e]*yj;
+      }
+    }
+  }
+
+  // Returns column j' * x
+  double columnDotProduct(int j, double[] x){
+    int e = columnStart[j];
+    int end = columnStart[j+1];
+    int rem = rows % 4;
+    double sum = 0;
+
+    // Leading (rows % 4) elements are added one by one ...
+    while(e<end && rowIndex[e]<rem){
+      sum += value[e]*x[rowIndex[e]];
+      e++;
+    }
+    // ... the rest in groups of four, as in Colt's unrolled loop
+    while(e<end){
+      int groupEnd = rem + ((rowIndex[e]-rem)/4+1)*4;
+      double group = value[e]*x[rowIndex[e]];
+      e++;
+      while(e<end && rowIndex[e]<groupEnd){
+        group += value[e]*x[rowIndex[e]];
+        e++;
+      }
+      sum += group;
+    }
+    return sum;
+  }
+
+  // z <- C' * x (z: mx1)
+  void zMultTranspose(double[] x, double[] z){
+    for(int j=0; j<columns; j++){
+      z[j] = columnDotProduct(j, x);
+    }
+  }
+
+  // column <- j-th column of C (column: nx1)
+  void getColumn(int j, double[] column){
+    java.util.Arrays.fill(column, 0, rows, 0);
+    for(int e=columnStart[j]; e<columnStart[j+1]; e++){
+      column[rowIndex[e]] = value[e];
+    }
+  }
+}
@@ -23,6 +23,13 @@
 package amesmarket;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import cern.colt.matrix.*;
 import cern.colt.matrix.impl.*;
 
@@ -32,6 +39,7 @@ public class DAMarket {
 
   // Day-ahead market's data
   private AMESMarket ames;
+  private MarketContext context;
   private ArrayList genAgentList;
   private ArrayList lseAgentList;
   private double[] supplyOffer;
@@ -47,6 +55,12 @@ public class DAMarket {
   private double[][] trueSupplyOfferByGen;
   private double[][][] trueDemandBidByLSE;
   private double[] choiceProbability; // store each gen's learning choice probability
+  private double[] genReward;  // each gen's reward, by index in the learning engine
+  private boolean[] bGenReward;
+
+  // Thread pool for updating the agents of post() in parallel
+  private ExecutorService agentExecutor;
+  private int agentExecutorThreads;
 
   private int numGenAgents;
   private int numLSEAgents;
@@ -57,6 +71,7 @@ public class DAMarket {
   // constructor
   public DAMarket(AMESMarket model){
     ames = model;
+    context = ames.getMarketContext();
     CONVERGED_PROBABILITY=ames.getThresholdProbability();
     genAgentList = ames.getGenAgentList();
     lseAgentList = ames.getLSEAgentList();
@@ -305,26 +320,53 @@ public class DAMarket {
     double [][] lseSurplus=new double[numLSEAgents][1];
 
     // Set daily commitment and LMPs for each genAgent i, and genAgent i
-    // updates its supply offers according to its profit (learning)
-    for(int i=0; i<numGenAgents; i++){
-      GenAgent gen = (GenAgent) genAgentList.get(i);
-      gen.setCommitment(dailyCommitment.viewColumn(i).toArray());
-      gen.setEmTrade(DailyEmissionTradeAmount.viewColumn(i).toArray());
-      int k = gen.getAtNode()-1;
-      gen.setDayAheadLMP(dayAheadLMP.viewColumn(k).toArray());
+    // updates its supply offers according to its profit (learning).
+    //
+    // The agents are independent of each other here: each one only changes
+    // its own state (and its own row of the learning engine), and writes its
+    // results to its own row of genProfitAndRevenue, genPropAndProb and
+    // lseSurplus.  The day thus comes out the same whether the agents are
+    // updated serially or in parallel blocks, whatever the thread scheduling.
+    // (No random numbers are drawn here: each GenAgent draws its next action
+    // from the stream of its own learner in dayAheadOperation.)
+    long lLearningStart = System.nanoTime();
+    int numThreads = context.getNumAgentThreads();
+    if(numThreads>1){
+      ArrayList tasks = new ArrayList();
+      int blockSize = (numGenAgents+numThreads-1)/numThreads;
+      for(int from=0; from<numGenAgents; from+=blockSize){
+        tasks.add(new GenAgentPostTask(from, Math.min(from+blockSize, numGenAgents), flag,
+                dailyCommitment, DailyEmissionTradeAmount, dayAheadLMP,
+                genProfitAndRevenue, genPropAndProb));
+      }
+      runAgentTasks(tasks);
+    }
+    else{
+      // The learners of all the genAgents are updated at once in the
+      // learning engine
+      RothErevEngine learningEngine = ames.getLearningEngine();
+      int numLearners = learningEngine.getNumLearners();
+      if(genReward==null || genReward.length!=numLearners){
+        genReward = new double[numLearners];
+        bGenReward = new boolean[numLearners];
+      }
+      for(int i=0; i<numGenAgents; i++){
+        GenAgent gen = setGenAgentDay(i, dailyCommitment, DailyEmissionTradeAmount, dayAheadLMP);
 
-      gen.updateSupplyOffer(flag); // If flag = 1, it's the CE case (no learning)
-        
-      genProfitAndRevenue[i][0]=gen.getProfit();
-      genProfitAndRevenue[i][1]=gen.getNetEarning();
-      genProfitAndRevenue[i][2]=gen.getDailyRevenue();
-      
-      genPropAndProb[i][0]=gen.getChoiceID();
-      genPropAndProb[i][1]=gen.getChoicePropensity();
-      genPropAndProb[i][2]=gen.getChoiceProbability();
-      
-      choiceProbability[i] = gen.getChoiceProbability();
+        gen.updateEarnings(flag); // If flag = 1, it's the CE case (no learning)
+        int a = gen.getLearner().getIndex();
+        genReward[a] = gen.getReward();
+        bGenReward[a] = gen.hasReward();
+      }
+      learningEngine.update(genReward, bGenReward);
+      for(int i=0; i<numGenAgents; i++){
+        GenAgent gen = (GenAgent) genAgentList.get(i);
+        gen.endLearning();
+
+        getGenAgentDay(i, genProfitAndRevenue, genPropAndProb);
+      }
     }
+    ames.getMetrics().histogram(MetricsRegistry.LEARNING_DAY_TIME).record(System.nanoTime()-lLearningStart);
     // Set daily price-sensitive demand dispatch for each LSEAgent i, 
     // and LSEAgent updates its profit
     double [][] lseDailyPSDispatch=new double[numLSEAgents][24];
@@ -341,16 +383,19 @@ public class DAMarket {
         }
     }
     
-    for(int i=0; i<numLSEAgents; i++){
-      LSEAgent lse = (LSEAgent) lseAgentList.get(i);
-      lse.setPSDispatch(lseDailyPSDispatch[i]);
- 
-      int k = lse.getAtNode()-1;
-      lse.setDayAheadLMP(dayAheadLMP.viewColumn(k).toArray());
-
-      lse.updateSurplus();
-        
-      lseSurplus[i][0]=lse.getSurplus();
+    if(numThreads>1){
+      ArrayList tasks = new ArrayList();
+      int blockSize = (numLSEAgents+numThreads-1)/numThreads;
+      for(int from=0; from<numLSEAgents; from+=blockSize){
+        tasks.add(new LSEAgentPostTask(from, Math.min(from+blockSize, numLSEAgents),
+                lseDailyPSDispatch, dayAheadLMP, lseSurplus));
+      }
+      runAgentTasks(tasks);
+    }
+    else{
+      for(int i=0; i<numLSEAgents; i++){
+        updateLSEAgentDay(i, lseDailyPSDispatch, dayAheadLMP, lseSurplus);
+      }
     }
    
     ames.addGenAgentProfitAndNetGainByDay(genProfitAndRevenue);
@@ -362,6 +407,147 @@ public class DAMarket {
     checkGenLearningResultConvergence();
   }
 
+  // Sets the daily commitment, emission trade and LMPs of genAgent i
+  private GenAgent setGenAgentDay(int i, DoubleMatrix2D dailyCommitment,
+      DoubleMatrix2D dailyEmTrade, DoubleMatrix2D dayAheadLMP){
+    GenAgent gen = (GenAgent) genAgentList.get(i);
+    gen.setCommitment(dailyCommitment.viewColumn(i).toArray());
+    gen.setEmTrade(dailyEmTrade.viewColumn(i).toArray());
+    int k = gen.getAtNode()-1;
+    gen.setDayAheadLMP(dayAheadLMP.viewColumn(k).toArray());
+    return gen;
+  }
+
+  // Copies the daily results of genAgent i into row i
+  private void getGenAgentDay(int i, double[][] genProfitAndRevenue, double[][] genPropAndProb){
+    GenAgent gen = (GenAgent) genAgentList.get(i);
+    genProfitAndRevenue[i][0]=gen.getProfit();
+    genProfitAndRevenue[i][1]=gen.getNetEarning();
+    genProfitAndRevenue[i][2]=gen.getDailyRevenue();
+      
+    genPropAndProb[i][0]=gen.getChoiceID();
+    genPropAndProb[i][1]=gen.getChoicePropensity();
+    genPropAndProb[i][2]=gen.getChoiceProbability();
+      
+    choiceProbability[i] = gen.getChoiceProbability();
+  }
+
+  // Sets the daily dispatch and LMPs of LSEAgent i, which updates its
+  //  surplus into row i
+  private void updateLSEAgentDay(int i, double[][] lseDailyPSDispatch,
+      DoubleMatrix2D dayAheadLMP, double[][] lseSurplus){
+    LSEAgent lse = (LSEAgent) lseAgentList.get(i);
+    lse.setPSDispatch(lseDailyPSDispatch[i]);
+ 
+    int k = lse.getAtNode()-1;
+    lse.setDayAheadLMP(dayAheadLMP.viewColumn(k).toArray());
+
+    lse.updateSurplus();
+        
+    lseSurplus[i][0]=lse.getSurplus();
+  }
+
+  // Runs the tasks on the agent thread pool and waits for all of them
+  private void runAgentTasks(ArrayList tasks){
+    try{
+      List futures = getAgentExecutor().invokeAll(tasks);
+      for(int t=0; t<futures.size(); t++){
+        ((Future) futures.get(t)).get();
+      }
+    }
+    catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Agent update was interrupted", e);
+    }
+    catch(ExecutionException e){
+      throw new RuntimeException("Agent update failed", e.getCause());
+    }
+  }
+
+  // Create (or resize) the thread pool used for the agent updates.
+  // The worker threads are daemons so that they never keep the JVM alive.
+  private ExecutorService getAgentExecutor(){
+    int iThreads=context.getNumAgentThreads();
+    if((agentExecutor==null)||(agentExecutorThreads!=iThreads)){
+      if(agentExecutor!=null)
+        agentExecutor.shutdown();
+
+      agentExecutor=Executors.newFixedThreadPool(iThreads, new ThreadFactory(){
+        public Thread newThread(Runnable r){
+          Thread t=new Thread(r, "DAM-Agents");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+      agentExecutorThreads=iThreads;
+    }
+    return agentExecutor;
+  }
+
+  // Stops the threads of the agent thread pool, if any; a later post()
+  //  creates a new pool.
+  public void shutdown(){
+    if(agentExecutor!=null){
+      agentExecutor.shutdown();
+      agentExecutor=null;
+    }
+  }
+
+  // Daily update of genAgents from,...,to-1, learning included
+  private class GenAgentPostTask implements Callable {
+    private int from, to;
+    private int flag;
+    private DoubleMatrix2D dailyCommitment;
+    private DoubleMatrix2D dailyEmTrade;
+    private DoubleMatrix2D dayAheadLMP;
+    private double[][] genProfitAndRevenue;
+    private double[][] genPropAndProb;
+
+    GenAgentPostTask(int f, int t, int fl, DoubleMatrix2D dc, DoubleMatrix2D de,
+        DoubleMatrix2D dl, double[][] gpr, double[][] gpp){
+      from = f;
+      to = t;
+      flag = fl;
+      dailyCommitment = dc;
+      dailyEmTrade = de;
+      dayAheadLMP = dl;
+      genProfitAndRevenue = gpr;
+      genPropAndProb = gpp;
+    }
+
+    public Object call(){
+      for(int i=from; i<to; i++){
+        GenAgent gen = setGenAgentDay(i, dailyCommitment, dailyEmTrade, dayAheadLMP);
+        gen.updateSupplyOffer(flag); // If flag = 1, it's the CE case (no learning)
+        getGenAgentDay(i, genProfitAndRevenue, genPropAndProb);
+      }
+      return null;
+    }
+  }
+
+  // Daily update of LSEAgents from,...,to-1
+  private class LSEAgentPostTask implements Callable {
+    private int from, to;
+    private double[][] lseDailyPSDispatch;
+    private DoubleMatrix2D dayAheadLMP;
+    private double[][] lseSurplus;
+
+    LSEAgentPostTask(int f, int t, double[][] pd, DoubleMatrix2D dl, double[][] ls){
+      from = f;
+      to = t;
+      lseDailyPSDispatch = pd;
+      dayAheadLMP = dl;
+      lseSurplus = ls;
+    }
+
+    public Object call(){
+      for(int i=from; i<to; i++){
+        updateLSEAgentDay(i, lseDailyPSDispatch, dayAheadLMP, lseSurplus);
+      }
+      return null;
+    }
+  }
+
   public void checkModelConvergence(double[] choiceProbability){
     boolean isConverged = true;
     for(int i=0; i<numGenAgents; i++){
@@ -66,13 +66,13 @@ import cern.colt.matrix.impl.*;
  * ------------------------------
  * B:       supplyOffer[][1]; cost coefficient b; as appeared in matrix U
  * A:       supplyOffer[][0]; cost coefficient a
- * Wrr:     grid.getReducedVADWeight() 
+ * Wrr:     grid.getReducedVADWeight(), cached in grid.getGridOperators()
  * II:      someFunction(atNodeByGen)
- * rBusAdm: grid.getReducedBusAdmittance()
+ * rBusAdm: grid.getReducedBusAdmittance(), cached in grid.getGridOperators()
  * FDemand: someFunction(atNodeByLSE, loadProfile[]) ~ Section 4.3 in DC-OPF paper
  * Oni:     NxI zero matrix
  * Z:       grid.getDiagonalAdmittance() 
- * rAdj:    grid.getReducedAdjacency() 
+ * rAdj:    grid.getReducedAdjacency(); Z*rAdj cached in grid.getGridOperators()
  * Iii:     IxI identity matrix
  * Oik:     Ix(K-1) zero matrix
  * EMii:    IxI Diagnol matrix
@@ -95,15 +95,15 @@ import cern.colt.matrix.impl.*;
  * D:       psDemandBid[][1]; demand coefficient d; as appeared in matrix U
  * A:       supplyOffer[][0]; cost coefficient a
  * C:       psDemandBid[][0]; demand coefficient c
- * Wrr:     grid.getReducedVADWeight() 
+ * Wrr:     grid.getReducedVADWeight(), cached in grid.getGridOperators()
  * II:      someFunction(atNodeByGen)
  * JJ:      someFunction(atNodeByLSE)
- * rBusAdm: grid.getReducedBusAdmittance()
+ * rBusAdm: grid.getReducedBusAdmittance(), cached in grid.getGridOperators()
  * FDemand: someFunction(atNodeByLSE, loadProfile[]) ~ Section 4.3 in DC-OPF paper
  * Oni:     NxI zero matrix
  * Onj:     NxJ zero matrix
  * Z:       grid.getDiagonalAdmittance() 
- * rAdj:    grid.getReducedAdjacency() 
+ * rAdj:    grid.getReducedAdjacency(); Z*rAdj cached in grid.getGridOperators()
  * Iii:     IxI identity matrix
  * Oij:     IxJ zero matrix
  * Oik:     Ix(K-1) zero matrix
@@ -154,6 +154,8 @@ public class DCOPFJ {
   private int[] atNodeByGen;
   private int[] atNodeByLSE;
   private TransGrid grid;
+  private double baseS;      // per-unit base power of the grid's market context
+  private DCOPFJModel model; // structure of (G,a,Ceq,beq,Ciq,biq), updated in place
 
   // Intermediate input to form (G,a,Ceq,beq,Ciq,biq)
   private int K;               // numNodes
@@ -161,38 +163,18 @@ public class DCOPFJ {
   private int I;               // numGenAgents
   private int J;               // numLSEAgents
   private DoubleMatrix1D B;    // Ix1
-  private DoubleMatrix2D U;    // Ix1
   private DoubleMatrix1D E;    // Ix1
-  private DoubleMatrix2D Wrr;  // (K-1)x(K-1)
   private DoubleMatrix1D A;    // Ix1
   private DoubleMatrix1D A0;    // Ix1
   private DoubleMatrix1D B0;    // Ix1
   //private DoubleMatrix1D E0;    // Ix1
-  private DoubleMatrix1D Ok;    // Kx1
-  private DoubleMatrix2D Oi;    // ix1
-  private DoubleMatrix2D Oj;
-  private DoubleMatrix2D Ok1;
   private DoubleMatrix1D emcoe;
   private DoubleMatrix1D PB;    // Ix1
   private DoubleMatrix1D PS;    // Ix1
   private DoubleMatrix2D Oib;   // (i+k-1)x1
-  private DoubleMatrix2D Ii;   // Ix1
   private DoubleMatrix2D IiS;
-  private DoubleMatrix2D II;  // KxI
-  private DoubleMatrix2D rBusAdm;   // (K-1)xK
   private DoubleMatrix1D O;   // 1x1
   private DoubleMatrix1D FDemand;  // Kx1
-  private DoubleMatrix2D Oni;   // NxI
-  private DoubleMatrix2D Z;    // NxN
-  private DoubleMatrix2D rAdj; // Nx(K-1)
-  private DoubleMatrix2D Iii;   // IxI
-  private DoubleMatrix2D IiiS;   // IxI
-  private DoubleMatrix2D Oii;   // IxI
-  private DoubleMatrix2D Oik;   // Ix(K-1)
-  private DoubleMatrix2D Oki;   // Ix(K-1)
-  private DoubleMatrix1D O2i;   // O2ix1
-  private DoubleMatrix2D EMii;  // IxI
-  private DoubleMatrix1D pU;   // Nx1
   private DoubleMatrix1D capL;  // Ix1
   private DoubleMatrix1D capU;  // Ix1
   private DoubleMatrix1D FCOST;
@@ -200,12 +182,6 @@ public class DCOPFJ {
   //Below are the additional variables for the price-sensitive demand case
   private DoubleMatrix1D D; // Jx1
   private DoubleMatrix1D C; // Jx1
-  private DoubleMatrix2D JJ; // KxJ
-  private DoubleMatrix2D Onj; // NxJ
-  private DoubleMatrix2D Oij; // IxJ
-  private DoubleMatrix2D Oji; // JxI
-  private DoubleMatrix2D Ijj; // JxJ
-  private DoubleMatrix2D Ojk; // JxK
   //private DoubleMatrix2D Oiijk;
   private DoubleMatrix1D sLoadL; // Jx1
   private DoubleMatrix1D sLoadU; // Jx1
@@ -213,14 +189,19 @@ public class DCOPFJ {
   // Input for QuadProgJ
   private DoubleMatrix2D G;
   //private DoubleMatrix2D G0;
-  private DoubleMatrix2D Ii2; //1x2*I
   private DoubleMatrix1D a;
-  private DoubleMatrix2D Ceq;
+  private DoubleMatrix2D Ceq; // sparse
   private DoubleMatrix1D beq;
-  private DoubleMatrix2D Ciq;
+  private DoubleMatrix2D Ciq; // sparse
   private DoubleMatrix1D biq;
 
-  private QuadProgJ qpj;
+  private QPSolver qpj;
+  private int qpSolver; // QPSolver.QUADPROGJ or QPSolver.INTERIOR_POINT
+  private QuadProgJWorkspace workspace; // QuadProgJ storage, may be shared by consecutive solves
+  private int[] warmActiveSet; // active set to warm-start QuadProgJ from (null: cold start)
+  private long startTime;  // System.nanoTime() at the start of the constructor
+  private long buildTime;  // ns forming the QP problem (before the solver)
+  private long solveTime;  // ns in the QP solver
 
   // Solution from QuadProgJ
   private double[] commitment; // power production quantity
@@ -245,6 +226,35 @@ public class DCOPFJ {
   // Constructor for hybrid demand
   public DCOPFJ(double[][] so, double[][] db, double[] lp, int [] hf, int[] ng, int[] nl, 
       TransGrid tg,double[][] tso){
+    this(so, db, lp, hf, ng, nl, tg, tso, new QuadProgJWorkspace(), null);
+  }
+
+  // Constructor for hybrid demand, reusing the QuadProgJ storage of earlier
+  //  solves and (if as != null) warm-starting QuadProgJ from the active set
+  //  of an earlier solve
+  public DCOPFJ(double[][] so, double[][] db, double[] lp, int [] hf, int[] ng, int[] nl, 
+      TransGrid tg,double[][] tso, QuadProgJWorkspace ws, int[] as){
+    this(so, db, lp, hf, ng, nl, tg, tso, ws, as, null);
+  }
+
+  // Constructor for hybrid demand as above, which only updates the offer,
+  //  bid and load dependent parts of an earlier problem (md) if md fits this
+  //  problem (see DCOPFJModel.fits()); otherwise a new model is formed.
+  //  getModel() returns the model used, for the next solve.
+  public DCOPFJ(double[][] so, double[][] db, double[] lp, int [] hf, int[] ng, int[] nl, 
+      TransGrid tg,double[][] tso, QuadProgJWorkspace ws, int[] as, DCOPFJModel md){
+    this(so, db, lp, hf, ng, nl, tg, tso, ws, as, md, QPSolver.QUADPROGJ);
+  }
+
+  // Constructor for hybrid demand as above, solving the QP problem with the
+  //  solver qp (QPSolver.QUADPROGJ or QPSolver.INTERIOR_POINT); ws and as
+  //  are only used by QuadProgJ
+  public DCOPFJ(double[][] so, double[][] db, double[] lp, int [] hf, int[] ng, int[] nl, 
+      TransGrid tg,double[][] tso, QuadProgJWorkspace ws, int[] as, DCOPFJModel md, int qp){
+    startTime = System.nanoTime();
+    qpSolver = qp;
+    workspace = ws;
+    warmActiveSet = as;
     supplyOffer = new DenseDoubleMatrix2D(so);// Ix4; supply offer
     TrueSupplyOffer=new DenseDoubleMatrix2D(tso);
     psDemandBid = new DenseDoubleMatrix2D(db);// Jx4; price-sensitive demand bid
@@ -254,6 +264,15 @@ public class DCOPFJ {
     atNodeByGen = ng;  // Ix1; GenCo location on the grid
     atNodeByLSE = nl;  // Jx1; LSE location on the grid
     grid        = tg;  // Grid data
+    baseS       = tg.getMarketContext().getBaseS();
+
+    double[] em = supplyOffer.viewColumn(E_INDEX).toArray();
+    emcoe = new DenseDoubleMatrix1D(em);
+    if(md == null || !md.fits(hf, ng, nl, tg, em)){
+      md = new DCOPFJModel(hf, ng, nl, tg, em);
+    }
+    model = md;
+    model.countUpdate();
 
     K = grid.getNumNodes();
     N = grid.getNumBranches();
@@ -276,12 +295,10 @@ public class DCOPFJ {
   
   
   private void solveDCOPF(){
-    formG();
-    forma();
-    formCeq();
-    formbeq();
-    formCiq();
-    formbiq();
+    formQP();
+    Ceq = model.Ceq;
+    Ciq = model.Ciq;
+    ineqMultiplierName = model.ineqMultiplierName;
     
     /*System.out.println("G: " + G);
     System.out.println("a: " + a);
@@ -291,7 +308,17 @@ public class DCOPFJ {
     System.out.println("biq: " + biq);*/ 
 
     FCOST= new DenseDoubleMatrix1D(I).assign(supplyOffer.viewColumn(FCOST_INDEX).toArray());
-    qpj = new QuadProgJ(G,a,Ceq,beq,Ciq,biq);
+    long lSolveStart = System.nanoTime();
+    buildTime = lSolveStart - startTime;
+    if(qpSolver == QPSolver.INTERIOR_POINT){
+      qpj = new InteriorPointQP(G,a,Ceq,model.ceqColumns,beq,Ciq,model.ciqColumns,biq,
+                                model.getInteriorPointWorkspace());
+    }
+    else{
+      qpj = new QuadProgJ(G,a,Ceq,model.ceqColumns,beq,Ciq,model.ciqColumns,biq,
+                          workspace,warmActiveSet);
+    }
+    solveTime = System.nanoTime() - lSolveStart;
     boolean bHaveSolution=qpj.getIsFeasibleAndOptimal();
     
     commitment = new double[I];// in MWs
@@ -320,24 +347,28 @@ public class DCOPFJ {
     sLoad = new double[iPriceSensitiveDemand];
     
     if(bHaveSolution) { // QuadProgJ has a solution
+        double[] minX = qpj.getMinX();
+        double[] eqMultipliers = qpj.getEqMultipliers();
+        double[] ineqMultipliers = qpj.getIneqMultipiers();
+
         // DC-OPF solution for (p_{G1},...,p_{GI}) in SI
         for(int i=0; i<I; i++){
-          commitment[i] = qpj.getMinX()[i]*INIT.getBaseS();
+          commitment[i] = minX[i]*baseS;
         }
 
           // DC-OPF solution for (p_{L1}^S,...,p_{LJ}^S) in SI
           for(int j=I; j<I+iPriceSensitiveDemand; j++){
-            sLoad[j-I] = qpj.getMinX()[j]*INIT.getBaseS();
+            sLoad[j-I] = minX[j]*baseS;
           }
           // DC-OPF solution for (delta_2,...,delta_K)
           for(int k=I+iPriceSensitiveDemand; k<I+iPriceSensitiveDemand+K-1; k++){
-            voltAngle[k-I-iPriceSensitiveDemand] = qpj.getMinX()[k];  // voltAngle in radians
+            voltAngle[k-I-iPriceSensitiveDemand] = minX[k];  // voltAngle in radians
           }
           for(int i2=I+iPriceSensitiveDemand+K-1; i2<2*I+iPriceSensitiveDemand+K-1; i2++){
-      embuy[i2-(K+I+iPriceSensitiveDemand-1)] = qpj.getMinX()[i2]*INIT.getBaseS();
+      embuy[i2-(K+I+iPriceSensitiveDemand-1)] = minX[i2]*baseS;
           }
           for(int i3=2*I+iPriceSensitiveDemand+K-1; i3<3*I+iPriceSensitiveDemand+K-1; i3++){
-      emsell[i3-(2*I+iPriceSensitiveDemand+K-1)] = (qpj.getMinX()[i3]*INIT.getBaseS());
+      emsell[i3-(2*I+iPriceSensitiveDemand+K-1)] = (minX[i3]*baseS);
           }
 
 
@@ -349,16 +380,16 @@ public class DCOPFJ {
 
         // lmp: locational marginal prices in SI
         for(int k=0; k<K; k++){
-          lmp[k] = qpj.getEqMultipliers()[k]/INIT.getBaseS();
+          lmp[k] = eqMultipliers[k]/baseS;
         }
 
         for(int j=0; j<2*N+5*I; j++){
-          ineqMultiplier[j] = qpj.getIneqMultipiers()[j]/INIT.getBaseS();
+          ineqMultiplier[j] = ineqMultipliers[j]/baseS;
         }
         for(int i=0; i<I; i++){
-          minTVC = minTVC + (A.get(i)/INIT.getBaseS())*commitment[i]
-          +(B.get(i)/(INIT.getBaseS()*INIT.getBaseS()))*commitment[i]*commitment[i]
-          +PB.get(i)/INIT.getBaseS()*embuy[i]-PS.get(i)/INIT.getBaseS()*emsell[i];
+          minTVC = minTVC + (A.get(i)/baseS)*commitment[i]
+          +(B.get(i)/(baseS*baseS))*commitment[i]*commitment[i]
+          +PB.get(i)/baseS*embuy[i]-PS.get(i)/baseS*emsell[i];
         }
         for(int i=0; i<I; i++){
           double Cmin=0;
@@ -370,15 +401,15 @@ public class DCOPFJ {
           Cmin= A0.get(i)*capL.get(i)+B0.get(i)*capL.get(i)*capL.get(i);
           Cmax= A0.get(i)*capU.get(i)+B0.get(i)*capU.get(i)*capU.get(i);
           E0=(capU.get(i)-capL.get(i))/(Cmax-Cmin)*emcoe.get(i);
-          //emission [i]=emcoe.get(i)*commitment[i]/INIT.getBaseS();
+          //emission [i]=emcoe.get(i)*commitment[i]/baseS;
           emTrade[i]=embuy[i]-emsell[i];
           
           //System.out.println(emsell[i]);
-          emTradePrice[i]=(PB.get(i)/INIT.getBaseS()*embuy[i])-(PS.get(i)/INIT.getBaseS()*emsell[i]);
+          emTradePrice[i]=(PB.get(i)/baseS*embuy[i])-(PS.get(i)/baseS*emsell[i]);
           //System.out.println(A0.get(i));
           //System.out.println(B0.get(i));
           //System.out.println(E0);
-          emission[i]=E0*(A0.get(i)/INIT.getBaseS()*commitment[i]+B0.get(i)/(INIT.getBaseS()*INIT.getBaseS())*commitment[i]*commitment[i]+FCOST.get(i))-emTrade[i];
+          emission[i]=E0*(A0.get(i)/baseS*commitment[i]+B0.get(i)/(baseS*baseS)*commitment[i]*commitment[i]+FCOST.get(i))-emTrade[i];
 
         }
 
@@ -395,7 +426,7 @@ public class DCOPFJ {
           //System.out.println("delta_k: " + fullVoltAngle[(int)bi[n][0]-1]);
           //System.out.println("delta_m: " + fullVoltAngle[(int)bi[n][1]-1]);
           branchFlow[n] = (1/grid.getReactance()[n])*(fullVoltAngle[(int)bi[n][0]-1]
-                          - fullVoltAngle[(int)bi[n][1]-1])*INIT.getBaseS();
+                          - fullVoltAngle[(int)bi[n][1]-1])*baseS;
 
           sumSquaredAngleDifference = sumSquaredAngleDifference
               + Math.pow((fullVoltAngle[(int)bi[n][0]-1]
@@ -404,14 +435,26 @@ public class DCOPFJ {
     }
   }
 
-  // G = blockDiag(U,Wr), where U = diag(2B) or U = diag(2B, 2D)
+  // Forms G, a, beq and biq of this problem in the model.
+  //  NOTE: they are the model's storage, which later problems of the same
+  //        model (e.g., the next hours solved on the thread) overwrite.
+  void formQP(){
+    formG();
+    forma();
+    formbeq();
+    formbiq();
+  }
+
+  // G = blockDiag(U,Wrr,0.0001*Ii2), where U = diag(2B) or U = diag(2B, 2D);
+  //  only the diagonal U is updated, the other blocks are set in the model
   private void formG(){
     B = new DenseDoubleMatrix1D(supplyOffer.viewColumn(B_INDEX).toArray());
-     Ii2 = new DenseDoubleMatrix2D(2*I,2*I);
-    Ii2.assign(fac2d.identity(2*I));
+    G = model.G;
     if (iPriceSensitiveDemand<1){
-      U = new DenseDoubleMatrix2D(fac2d.diagonal(B.assign(F.mult(2))).toArray());
-      G = new DenseDoubleMatrix2D(3*I+K-1,3*I+K-1);
+      B.assign(F.mult(2));
+      for(int i=0; i<I; i++){
+        G.setQuick(i, i, B.getQuick(i));
+      }
     }
     else {
       double [] dSensitiveDemand = new double [iPriceSensitiveDemand];  
@@ -422,28 +465,22 @@ public class DCOPFJ {
       }  
       
       D = new DenseDoubleMatrix1D(dSensitiveDemand);
-      U = new DenseDoubleMatrix2D
-         (fac2d.diagonal(fac1d.append(B,D).assign(F.mult(2 ))).toArray());
-      G = new DenseDoubleMatrix2D(3*I+iPriceSensitiveDemand+K-1,3*I+iPriceSensitiveDemand+K-1);
+      for(int i=0; i<I; i++){
+        G.setQuick(i, i, B.getQuick(i)*2);
+      }
+      for(int j=0; j<iPriceSensitiveDemand; j++){
+        G.setQuick(I+j, I+j, D.getQuick(j)*2);
+      }
     }
-
-    Wrr = new DenseDoubleMatrix2D(grid.getReducedVADWeight());
-    G.assign(fac2d.composeDiagonal(U,Wrr,Ii2.copy().assign(F.mult(0.0001))));
   }
 
-  // a = (A, 0...0) or a = (A,-C,0...0)
+  // a = (A, 0...0, PB, PS) or a = (A,-C,0...0, PB, -PS), updated in place
   private void forma(){
     A = new DenseDoubleMatrix1D(supplyOffer.viewColumn(A_INDEX).toArray());
     PB = new DenseDoubleMatrix1D(supplyOffer.viewColumn(PB_INDEX).toArray());
     PS = new DenseDoubleMatrix1D(supplyOffer.viewColumn(PS_INDEX).toArray());
-    Ok = new DenseDoubleMatrix1D(K-1);
-    if (iPriceSensitiveDemand<1){
-           DoubleMatrix1D[] parts = {A,Ok,PB,PS};
-      a = new DenseDoubleMatrix1D(3*I+K-1);
-      a.assign(fac1d.make(parts));
-
-    }
-    else{
+    a = model.a;
+    if (iPriceSensitiveDemand>0){
       double [] dSensitiveDemand = new double [iPriceSensitiveDemand];  
       int iIndex=0;
       for(int i=0; i<J; i++){
@@ -452,179 +489,54 @@ public class DCOPFJ {
       }  
       
       C = new DenseDoubleMatrix1D(dSensitiveDemand);
-      a = new DenseDoubleMatrix1D(3*I+iPriceSensitiveDemand+K-1);
-DoubleMatrix1D[] parts = {A,C,Ok,PB,PS.assign(F.neg)};
-      a.assign(fac1d.make(parts));
-    }
-  }
-  
-  // CeqTranspose = (II, -Br'); Ceq = CeqTranspose'; where Br' is rBusAdm here
-  private void formCeq(){
-    II = new DenseDoubleMatrix2D(K,I);
-    Oki= new DenseDoubleMatrix2D(K,I);
-    Oi= new DenseDoubleMatrix2D(1,I);
-    Ok1=new DenseDoubleMatrix2D(1,K-1);
-    //Ii = new DenseDoubleMatrix2D(1,I).assign(fac2d.make(1,I,1));
-    //IiS= new DenseDoubleMatrix2D(1,I).assign(Ii.copy().assign(F.mult(INIT.getBaseS()*INIT.getBaseS())));
-
-    Oj = new DenseDoubleMatrix2D (1,J);
-    for(int k=0; k<K; k++){
-      for(int i=0; i<I; i++){
-        if(atNodeByGen[i]==k+1){
-          II.set(k,i,1);  // change set to setQuick() later
-        }
+      PS.assign(F.neg);
+      for(int j=0; j<iPriceSensitiveDemand; j++){
+        a.setQuick(I+j, C.getQuick(j));
       }
     }
-    rBusAdm = new DenseDoubleMatrix2D(grid.getReducedBusAdmittance());
-    
-    if (iPriceSensitiveDemand<1){
-      DoubleMatrix2D[][] parts = {{ II,  rBusAdm.viewDice().assign(F.neg), Oki, Oki}};
-      DoubleMatrix2D CeqTranspose = new DenseDoubleMatrix2D(K,3*I+K-1);
-      CeqTranspose.assign(fac2d.compose(parts));
-      Ceq = new DenseDoubleMatrix2D(3*I+K-1,K);
-      Ceq.assign(CeqTranspose.viewDice());
-    }
-    else{
-      JJ = new DenseDoubleMatrix2D(K,iPriceSensitiveDemand);
-      int iCount=0;
-      for(int k=0; k<K; k++){
-        for(int j=0; j<J; j++){
-          if((atNodeByLSE[j]==k+1)&&((loadHybridFlag[j]&2)==2)) {
-            JJ.set(k,iCount,1);  // change set to setQuick() later
-            iCount++;
-          }
-        }
-      }
-      DoubleMatrix2D[][] parts = {{ II, JJ.assign(F.neg),rBusAdm.viewDice().assign(F.neg), Oki, Oki}};
-     DoubleMatrix2D CeqTranspose = new DenseDoubleMatrix2D(K,3*I+iPriceSensitiveDemand+K-1);
-     CeqTranspose.assign(fac2d.compose(parts));
-     Ceq = new DenseDoubleMatrix2D(3*I+iPriceSensitiveDemand+K-1,K);
-     Ceq.assign(CeqTranspose.viewDice());          
+    int iOffsetEM = model.iOffsetEM;  // the delta part stays 0
+    for(int i=0; i<I; i++){
+      a.setQuick(i, A.getQuick(i));
+      a.setQuick(iOffsetEM+i, PB.getQuick(i));
+      a.setQuick(iOffsetEM+I+i, PS.getQuick(i));
     }
   }
+
   // FDemand = someFunction(atNodeByLSE, loadProfile); beq = FDemand
   private void formbeq(){
-    if (iPriceSensitiveDemand<1){
-        FDemand = new DenseDoubleMatrix1D(K);
-        for(int k=0; k<K; k++){
-          double lp=0;
-          for(int j=0; j<J; j++){
-            if(atNodeByLSE[j]==k+1){
-              lp = lp + loadProfile[j];
-            }
-          }
-          FDemand.set(k,lp);
-        }
-    beq = new DenseDoubleMatrix1D(K);
-    beq.assign(FDemand);    }
-    else{
-        FDemand = new DenseDoubleMatrix1D(K);
-        for(int k=0; k<K; k++){
-          double lp=0;
-          for(int j=0; j<J; j++){
-            if((atNodeByLSE[j]==k+1)&&((loadHybridFlag[j]&1)==1)){
-              lp = lp + loadProfile[j];
-            }
-          }
-          FDemand.set(k,lp);
+    FDemand = new DenseDoubleMatrix1D(K);
+    for(int k=0; k<K; k++){
+      double lp=0;
+      for(int j=0; j<J; j++){
+        if((atNodeByLSE[j]==k+1)
+           &&((iPriceSensitiveDemand<1)||((loadHybridFlag[j]&1)==1))){
+          lp = lp + loadProfile[j];
         }
-    beq = new DenseDoubleMatrix1D(K);
-    beq.assign(FDemand);
-    }
-  }
-  
-  // Ciq matrix formulation
-  //
-  // (1) FIXED DEMAND CASE:
-  // CiqTranspose = {{Oni, Z*rAdj},{Oni, -Z*rAdj},{Iii, Oik},{-Iii, Oik}};
-  // Ciq = CiqTranspose'
-  //
-  // (2) PRICE-SENSITIVE DEMAND CASE:
-  // CiqTranspose = {{MatrixT}, {MatrixG}, {MatrixL}};
-  // MatrixT = {{Oni, Onj, Z*rAdj}, {Oni, Onj, -Z*rAdj}};
-  // MatrixG = {{Iii, Oij, Oik},{-Iii, Oij, Oik}};
-  // MatrixL = {{Oji, Ijj, Ojk},{Oji, -Ijj, Ojk}};
-  private void formCiq(){
-    emcoe = new DenseDoubleMatrix1D(supplyOffer.viewColumn(E_INDEX).toArray());
-    Oni   = new DenseDoubleMatrix2D(N,I);
-    Z    = new DenseDoubleMatrix2D(grid.getDiagonalAdmittance());
-    rAdj = new DenseDoubleMatrix2D(grid.getReducedAdjacency());
-    Iii = new DenseDoubleMatrix2D(I,I).assign(fac2d.identity(I));
-    IiiS= new DenseDoubleMatrix2D(I,I).assign(Iii.copy().assign(F.mult(INIT.getBaseS())));
-    Oik = new DenseDoubleMatrix2D(I,K-1);
-    EMii= new DenseDoubleMatrix2D(I,I).assign(fac2d.diagonal(emcoe));
-
-    Ii = new DenseDoubleMatrix2D(1,I).assign(fac2d.make(1,I,1));
-    Oii= new DenseDoubleMatrix2D(I,I);
-    
-    if (iPriceSensitiveDemand<1){
-            Oki= new DenseDoubleMatrix2D(K,I);
-      DoubleMatrix2D[][] parts = {
-      { Oni,                      Z.zMult(rAdj,null),                     Oni ,Oni},
-      { Oni,                      Z.copy().assign(F.neg).zMult(rAdj,null),Oni ,Oni},
-      { Iii,                      Oik,                                    Oii ,Oii},
-      { Iii.copy().assign(F.neg), Oik,                                    Oii ,Oii},
-      {EMii.copy().assign(F.neg), Oik,                                   IiiS,IiiS},
-      {Oii,                       Oik,                                    IiiS,Oii},
-      {Oii,                       Oik,               Oii,IiiS.copy().assign(F.neg)}};
-      DoubleMatrix2D CiqTranspose = new DenseDoubleMatrix2D(2*N+5*I,3*I+K-1);
-      CiqTranspose.assign(fac2d.compose(parts));
-      Ciq = new DenseDoubleMatrix2D(3*I+K-1,2*N+5*I);
-      Ciq.assign(CiqTranspose.viewDice());
-    }
-    else {
-      Onj = new DenseDoubleMatrix2D(N,iPriceSensitiveDemand);
-      Oij = new DenseDoubleMatrix2D(I,iPriceSensitiveDemand);
-      Oji = new DenseDoubleMatrix2D(iPriceSensitiveDemand,I);
-      Ijj = new DenseDoubleMatrix2D(iPriceSensitiveDemand,iPriceSensitiveDemand).assign(fac2d.identity(iPriceSensitiveDemand));
-      Ojk = new DenseDoubleMatrix2D(iPriceSensitiveDemand,K-1);
-          Oik= new DenseDoubleMatrix2D(I,K-1);
-      DoubleMatrix2D[][] parts = {
-        { Oni,                      Onj, Z.zMult(rAdj,null),                     Oni ,Oni},
-        { Oni,                      Onj, Z.copy().assign(F.neg).zMult(rAdj,null),Oni ,Oni},
-        { Iii,                      Oij, Oik,                                    Oii ,Oii},
-        { Iii.copy().assign(F.neg), Oij, Oik,                                    Oii ,Oii},
-        { Oji,                      Ijj, Ojk,                                    Oji ,Oji},
-        { Oji,                      Ijj.copy().assign(F.neg), Ojk,               Oji ,Oji},
-        {EMii.copy().assign(F.neg), Oij, Oik,                                   IiiS,IiiS.assign(F.neg)},
-        {Oii,                       Oij,Oik,                                     IiiS,Oii},
-        {Oii,                       Oij,Oik,                                     Oii,IiiS}};
-      DoubleMatrix2D CiqTranspose = new DenseDoubleMatrix2D(2*N+5*I+2*iPriceSensitiveDemand,3*I+iPriceSensitiveDemand+K-1);
-      CiqTranspose.assign(fac2d.compose(parts));
-      Ciq = new DenseDoubleMatrix2D(3*I+iPriceSensitiveDemand+K-1,2*N+5*I+2*iPriceSensitiveDemand);
-      Ciq.assign(CiqTranspose.viewDice());       
+      }
+      FDemand.set(k,lp);
     }
+    beq = model.beq;
+    beq.assign(FDemand);
   }
-  
-  // biq = (-pU, -pU, capL, -capU) or biq = (-pU, -pU, capL, -capU, sLoadL, -sLoadU)
+
+  // biq = (-pU, -pU, capL, -capU, -EA, 0) or
+  //  biq = (-pU, -pU, capL, -capU, sLoadL, -sLoadU, -EA, 0);
+  //  -pU and the zeros are set in the model, the rest is updated in place
   private void formbiq(){
-    pU = new DenseDoubleMatrix1D(grid.getLineCap());
     capL = new DenseDoubleMatrix1D(supplyOffer.viewColumn(CAP_LOWER).toArray());
     capU = new DenseDoubleMatrix1D(supplyOffer.viewColumn(CAP_UPPER).toArray());
     EAnew = new DenseDoubleMatrix1D(supplyOffer.viewColumn(EA_INDEX).toArray());
-    O2i   = new DenseDoubleMatrix1D(2*I);
-
-
-    if (iPriceSensitiveDemand<1){
-      DoubleMatrix1D[] parts = {pU.copy().assign(F.neg),
-                pU.copy().assign(F.neg), capL, capU.copy().assign(F.neg),EAnew.copy().assign(F.neg),O2i};
-      biq = new DenseDoubleMatrix1D(2*N+5*I);
-      biq.assign(fac1d.make(parts));
-      
-      ineqMultiplierName=new String[2*N+5*I];
-      for(int i=0; i<N; i++){
-          ineqMultiplierName[i]="-BFlow "+(i+1);
-          ineqMultiplierName[N+i]="+BFlow "+(i+1);
-      }
-      for(int i=0; i<I; i++){
-          ineqMultiplierName[2*N+i]="capL "+(i+1);
-          ineqMultiplierName[2*N+I+i]="capU "+(i+1);
-          ineqMultiplierName[2*N+2*I+i]="EA "+(i+1);
-          ineqMultiplierName[2*N+3*I+i]="EMb "+(i+1);
-          ineqMultiplierName[2*N+4*I+i]="EMs "+(i+1);
-      }
+    biq = model.biq;
+
+    int iOffsetG  = 2*N;                                // first GenCo capacity constraint
+    int iOffsetEM = 2*N+2*I+2*iPriceSensitiveDemand;    // first emission constraint
+    for(int i=0; i<I; i++){
+      biq.setQuick(iOffsetG+i,   capL.getQuick(i));
+      biq.setQuick(iOffsetG+I+i, -capU.getQuick(i));
+      biq.setQuick(iOffsetEM+i,  -EAnew.getQuick(i));
     }
-    else {
+
+    if (iPriceSensitiveDemand>0){
       double [] dSensitiveDemandL = new double [iPriceSensitiveDemand];  
       double [] dSensitiveDemandU = new double [iPriceSensitiveDemand];  
       int iIndex=0;
@@ -637,35 +549,11 @@ DoubleMatrix1D[] parts = {A,C,Ok,PB,PS.assign(F.neg)};
       
       sLoadL = new DenseDoubleMatrix1D(dSensitiveDemandL);
       sLoadU = new DenseDoubleMatrix1D(dSensitiveDemandU);
-    DoubleMatrix1D[] parts =
-        {pU.copy().assign(F.neg), pU.copy().assign(F.neg),
-         capL,                    capU.copy().assign(F.neg),
-         sLoadL,                  sLoadU.copy().assign(F.neg),
-         EAnew.copy().assign(F.neg),O2i};
-      biq = new DenseDoubleMatrix1D(2*N+5*I+2*iPriceSensitiveDemand);
-      biq.assign(fac1d.make(parts));
-      
-      ineqMultiplierName=new String[2*N+5*I+2*iPriceSensitiveDemand];
-      for(int i=0; i<N; i++){
-          ineqMultiplierName[i]="-BFlow "+(i+1);
-          ineqMultiplierName[N+i]="+BFlow "+(i+1);
-      }
-      for(int i=0; i<I; i++){
-          ineqMultiplierName[2*N+i]="capL "+(i+1);
-          ineqMultiplierName[2*N+I+i]="capU "+(i+1);
+      for(int j=0; j<iPriceSensitiveDemand; j++){
+        biq.setQuick(iOffsetG+2*I+j, sLoadL.getQuick(j));
+        biq.setQuick(iOffsetG+2*I+iPriceSensitiveDemand+j, -sLoadU.getQuick(j));
       }
-      for(int i=0; i<iPriceSensitiveDemand; i++){
-          ineqMultiplierName[2*N+2*I+i]="-PS "+(i+1);
-          ineqMultiplierName[2*N+2*I+iPriceSensitiveDemand+i]="+PS "+(i+1);
-      }
-      for(int i=0; i<I; i++){
-          ineqMultiplierName[2*N+2*I+i+2*iPriceSensitiveDemand]="EA "+(i+1);
-          ineqMultiplierName[2*N+3*I+i+2*iPriceSensitiveDemand]="pb "+(i+1);
-          ineqMultiplierName[2*N+4*I+2*iPriceSensitiveDemand+i]="ps "+(i+1);
-      }
-      
     }
-      
   }
 
   public double[] getCommitment(){
@@ -711,12 +599,58 @@ DoubleMatrix1D[] parts = {A,C,Ok,PB,PS.assign(F.neg)};
   public int getNumBindingConstraints(){
     return qpj.getNumBC();
   }
+  public int getNumIterations(){
+    return qpj.getNumIterations();
+  }
+  // Active set changes (0 for the interior point solver)
+  public int getNumConstraintsAdded(){
+    return (qpj instanceof QuadProgJ) ? ((QuadProgJ)qpj).getNumConstraintsAdded() : 0;
+  }
+  public int getNumConstraintsDropped(){
+    return (qpj instanceof QuadProgJ) ? ((QuadProgJ)qpj).getNumConstraintsDropped() : 0;
+  }
   public int[] getActiveSet(){
     return qpj.getActiveSet();
   }
+  public boolean getIsWarmStarted(){
+    return (qpj instanceof QuadProgJ) && ((QuadProgJ)qpj).getIsWarmStarted();
+  }
+  public int getQPSolver(){
+    return qpSolver;
+  }
+  // Time (ns) spent forming the QP problem, and in the QP solver
+  public long getBuildTime(){
+    return buildTime;
+  }
+  public long getSolveTime(){
+    return solveTime;
+  }
+  public DCOPFJModel getModel(){
+    return model;
+  }
   public boolean getIsSolutionFeasibleAndOptimal(){
     return qpj.getIsFeasibleAndOptimal();
   }
+  // Minimum of the QP problem, as found by the solver
+  public double getMinF(){
+    return qpj.getMinF();
+  }
+
+  // Solves the QP problem of this DC-OPF again with a cold-started QuadProgJ
+  //  using the storage of ws, e.g. to time the solver apart from the model.
+  //  The problem is the one in the model, so formQP() must be called first
+  //  if another problem of the model has been formed since this one.
+  QuadProgJ solveQuadProgJ(QuadProgJWorkspace ws){
+    return new QuadProgJ(G,a,Ceq,model.ceqColumns,beq,Ciq,model.ciqColumns,biq,ws,null);
+  }
+
+  // A new DC-OPF with the offers, bids, loads and grid of this one, formed
+  //  from scratch (new DCOPFJModel) and solved with the solver qp
+  DCOPFJ formAgain(int qp){
+    return new DCOPFJ(supplyOffer.toArray(), psDemandBid.toArray(), loadProfile, loadHybridFlag,
+                      atNodeByGen, atNodeByLSE, grid, TrueSupplyOffer.toArray(),
+                      new QuadProgJWorkspace(), null, null, qp);
+  }
 
 
 
@@ -0,0 +1,283 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// DCOPFJModel.java
+// Structure of the DC-OPF problem for DCOPFJ, formed once and updated in place
+
+import cern.colt.matrix.*;
+import cern.colt.matrix.impl.*;
+
+/**
+ * The part of the DC-OPF problem (G,a,Ceq,beq,Ciq,biq) that does not change
+ * from one hourly solve to the next (see DCOPFJ.java for the notation):
+ *
+ *   Ceq:  II, JJ, -rBusAdm'
+ *   Ciq:  Z*rAdj, -Z*rAdj, Iii, -Iii, Ijj, -Ijj and the emission rows
+ *   G:    the Wrr and 0.0001*Ii2 blocks
+ *   biq:  the -pU, -pU and zero parts
+ *
+ * together with storage for the parts that do change (the diagonal U of G,
+ * a, beq and the offer/bid parts of biq).  DCOPFJ only patches the latter
+ * in place before each solve, so Ceq and Ciq (and their compressed-column
+ * copies used by QuadProgJ) are formed once.
+ *
+ * A model fits all OPF problems with the same grid topology, GenCo/LSE
+ * locations, LSE demand types (loadHybridFlag) and emission coefficients;
+ * see fits().
+ *
+ * NOTE: the vectors and G are overwritten by each DCOPFJ using the model, so
+ *       a model must not be shared by two solves running at the same time
+ *       (BUC keeps one model per solver thread, as for QuadProgJWorkspace).
+ */
+public class DCOPFJModel {
+
+  // Key: what the structure depends on
+  private TransGrid grid;
+  private long topologyVersion;
+  private int[] loadHybridFlag;
+  private int[] atNodeByGen;
+  private int[] atNodeByLSE;
+  private double[] emcoe;
+
+  int K;                      // numNodes
+  int N;                      // numBranches
+  int I;                      // numGenAgents
+  int J;                      // numLSEAgents
+  int iPriceSensitiveDemand;  // # of LSEs with price-sensitive demand
+  int n;                      // # of variables, 3*I+iPriceSensitiveDemand+K-1
+  int iOffsetDelta;           // first delta variable
+  int iOffsetEM;              // first emission variable
+
+  DoubleMatrix2D G;    // nxn, U is updated
+  DoubleMatrix1D a;    // nx1, updated
+  DoubleMatrix2D Ceq;  // sparse, nxK
+  DoubleMatrix1D beq;  // Kx1, updated
+  DoubleMatrix2D Ciq;  // sparse, nx(2N+5I+2*iPriceSensitiveDemand)
+  DoubleMatrix1D biq;  // updated except -pU
+  CompressedColumnMatrix ceqColumns; // Ceq in compressed-column form
+  CompressedColumnMatrix ciqColumns; // Ciq in compressed-column form
+  String[] ineqMultiplierName;
+
+  private int numUpdates = 0;
+  private InteriorPointWorkspace ipWorkspace; // created on first use
+
+  public DCOPFJModel(int[] hf, int[] ng, int[] nl, TransGrid tg, double[] em){
+    grid = tg;
+    topologyVersion = grid.getTopologyVersion();
+    loadHybridFlag = (int[]) hf.clone();
+    atNodeByGen = (int[]) ng.clone();
+    atNodeByLSE = (int[]) nl.clone();
+    emcoe = (double[]) em.clone();
+
+    GridOperators gridOps = grid.getGridOperators();
+    K = gridOps.getNumNodes();
+    N = gridOps.getNumBranches();
+    I = atNodeByGen.length;
+    J = atNodeByLSE.length;
+    iPriceSensitiveDemand=0;
+    for(int j=0; j<J; j++){
+      if((loadHybridFlag[j]&2)==2)
+        iPriceSensitiveDemand++;
+    }
+    n = 3*I+iPriceSensitiveDemand+K-1;
+    iOffsetDelta = I+iPriceSensitiveDemand;
+    iOffsetEM    = iOffsetDelta+K-1;
+
+    // G = blockDiag(U,Wrr,0.0001*Ii2); U is set by DCOPFJ
+    G = new DenseDoubleMatrix2D(n,n);
+    gridOps.assignReducedVADWeight(G, iOffsetDelta);
+    for(int i=0; i<2*I; i++){
+      G.setQuick(iOffsetEM+i, iOffsetEM+i, 0.0001);
+    }
+
+    a   = new DenseDoubleMatrix1D(n);
+    beq = new DenseDoubleMatrix1D(K);
+
+    formCeq(gridOps);
+    formCiq(gridOps);
+    formbiq();
+
+    ceqColumns = new CompressedColumnMatrix(Ceq);
+    ciqColumns = new CompressedColumnMatrix(Ciq);
+  }
+
+  /**
+   * Returns true if this model has the structure of the OPF problem with the
+   * given demand types, locations, grid and emission coefficients
+   * @return boolean
+   */
+  public boolean fits(int[] hf, int[] ng, int[] nl, TransGrid tg, double[] em){
+    return tg == grid && tg.getTopologyVersion() == topologyVersion
+        && java.util.Arrays.equals(hf, loadHybridFlag)
+        && java.util.Arrays.equals(ng, atNodeByGen)
+        && java.util.Arrays.equals(nl, atNodeByLSE)
+        && java.util.Arrays.equals(em, emcoe);
+  }
+
+  /**
+   * Returns how many solves have been set up by updating this model
+   * @return int
+   */
+  public int getNumUpdates(){
+    return numUpdates;
+  }
+
+  void countUpdate(){
+    numUpdates++;
+  }
+
+  // KKT analysis and storage of the interior point solves of this model
+  InteriorPointWorkspace getInteriorPointWorkspace(){
+    if(ipWorkspace == null){
+      ipWorkspace = new InteriorPointWorkspace();
+    }
+    return ipWorkspace;
+  }
+
+  // CeqTranspose = (II, -Br'); Ceq = CeqTranspose'; where Br' is rBusAdm here
+  //
+  // Ceq is assembled directly as a sparse (variable x node) matrix, i.e. the
+  // transpose is never formed and none of the zero blocks are stored.
+  private void formCeq(GridOperators gridOps){
+    Ceq = new SparseDoubleMatrix2D(n, K);
+    for(int k=0; k<K; k++){
+      for(int i=0; i<I; i++){
+        if(atNodeByGen[i]==k+1){
+          Ceq.setQuick(i,k,1);  // II
+        }
+      }
+    }
+    if (iPriceSensitiveDemand>0){
+      int iCount=0;
+      for(int k=0; k<K; k++){
+        for(int j=0; j<J; j++){
+          if((atNodeByLSE[j]==k+1)&&((loadHybridFlag[j]&2)==2)) {
+            Ceq.setQuick(I+iCount,k,-1);  // -JJ
+            iCount++;
+          }
+        }
+      }
+    }
+    gridOps.assignNegReducedBusAdmittance(Ceq, iOffsetDelta);  // -rBusAdm'
+  }
+
+  // Ciq matrix formulation
+  //
+  // (1) FIXED DEMAND CASE:
+  // CiqTranspose = {{Oni, Z*rAdj},{Oni, -Z*rAdj},{Iii, Oik},{-Iii, Oik}};
+  // Ciq = CiqTranspose'
+  //
+  // (2) PRICE-SENSITIVE DEMAND CASE:
+  // CiqTranspose = {{MatrixT}, {MatrixG}, {MatrixL}};
+  // MatrixT = {{Oni, Onj, Z*rAdj}, {Oni, Onj, -Z*rAdj}};
+  // MatrixG = {{Iii, Oij, Oik},{-Iii, Oij, Oik}};
+  // MatrixL = {{Oji, Ijj, Ojk},{Oji, -Ijj, Ojk}};
+  //
+  // The emission rows follow the two cases as well: {-EMii, IiiS, IiiS},
+  // {IiiS, Oii} and {Oii, -IiiS} for fixed demand, while in the price-sensitive
+  // case all three IiiS blocks enter as -IiiS.
+  //
+  // Ciq is assembled directly as a sparse (variable x constraint) matrix, so
+  // only the non-zero entries of the blocks above are ever stored.
+  private void formCiq(GridOperators gridOps){
+    int iOffsetEMb   = iOffsetDelta+K-1;         // first emission-buy variable
+    int iOffsetEMs   = iOffsetEMb+I;             // first emission-sell variable
+    int iOffsetG     = 2*N;                      // first GenCo capacity constraint
+    int iOffsetEMc   = 2*N+2*I+2*iPriceSensitiveDemand; // first emission constraint
+    double dBaseS    = grid.getMarketContext().getBaseS();
+    double dEMSign   = (iPriceSensitiveDemand<1) ? 1 : -1;
+
+    Ciq = new SparseDoubleMatrix2D(n, 2*N+5*I+2*iPriceSensitiveDemand,
+                                   2*gridOps.getNumBranchFlowNonZeros()+8*I+2*iPriceSensitiveDemand,
+                                   0.2, 0.5);
+
+    // Branch flow constraints: Z*rAdj and -Z*rAdj from the grid cache
+    gridOps.assignBranchFlows(Ciq, iOffsetDelta);
+
+    // GenCo capacity constraints: Iii and -Iii
+    for(int i=0; i<I; i++){
+      Ciq.setQuick(i, iOffsetG+i,   1);
+      Ciq.setQuick(i, iOffsetG+I+i, -1);
+    }
+
+    // Price-sensitive demand constraints: Ijj and -Ijj
+    for(int j=0; j<iPriceSensitiveDemand; j++){
+      Ciq.setQuick(I+j, iOffsetG+2*I+j, 1);
+      Ciq.setQuick(I+j, iOffsetG+2*I+iPriceSensitiveDemand+j, -1);
+    }
+
+    // Emission allowance and emission trading constraints
+    for(int i=0; i<I; i++){
+      Ciq.setQuick(i,            iOffsetEMc+i,     -emcoe[i]);
+      Ciq.setQuick(iOffsetEMb+i, iOffsetEMc+i,     dEMSign*dBaseS);
+      Ciq.setQuick(iOffsetEMs+i, iOffsetEMc+i,     dEMSign*dBaseS);
+      Ciq.setQuick(iOffsetEMb+i, iOffsetEMc+I+i,   dEMSign*dBaseS);
+      Ciq.setQuick(iOffsetEMs+i, iOffsetEMc+2*I+i, -dBaseS);
+    }
+  }
+
+  // biq = (-pU, -pU, capL, -capU, -EA, 0) or
+  //  biq = (-pU, -pU, capL, -capU, sLoadL, -sLoadU, -EA, 0); only -pU and the
+  //  zeros are set here
+  private void formbiq(){
+    double[] pU = grid.getLineCap();
+    biq = new DenseDoubleMatrix1D(2*N+5*I+2*iPriceSensitiveDemand);
+    for(int l=0; l<N; l++){
+      biq.setQuick(l,   -pU[l]);
+      biq.setQuick(N+l, -pU[l]);
+    }
+
+    if (iPriceSensitiveDemand<1){
+      ineqMultiplierName=new String[2*N+5*I];
+      for(int i=0; i<N; i++){
+          ineqMultiplierName[i]="-BFlow "+(i+1);
+          ineqMultiplierName[N+i]="+BFlow "+(i+1);
+      }
+      for(int i=0; i<I; i++){
+          ineqMultiplierName[2*N+i]="capL "+(i+1);
+          ineqMultiplierName[2*N+I+i]="capU "+(i+1);
+          ineqMultiplierName[2*N+2*I+i]="EA "+(i+1);
+          ineqMultiplierName[2*N+3*I+i]="EMb "+(i+1);
+          ineqMultiplierName[2*N+4*I+i]="EMs "+(i+1);
+      }
+    }
+    else {
+      ineqMultiplierName=new String[2*N+5*I+2*iPriceSensitiveDemand];
+      for(int i=0; i<N; i++){
+          ineqMultiplierName[i]="-BFlow "+(i+1);
+          ineqMultiplierName[N+i]="+BFlow "+(i+1);
+      }
+      for(int i=0; i<I; i++){
+          ineqMultiplierName[2*N+i]="capL "+(i+1);
+          ineqMultiplierName[2*N+I+i]="capU "+(i+1);
+      }
+      for(int i=0; i<iPriceSensitiveDemand; i++){
+          ineqMultiplierName[2*N+2*I+i]="-PS "+(i+1);
+          ineqMultiplierName[2*N+2*I+iPriceSensitiveDemand+i]="+PS "+(i+1);
+      }
+      for(int i=0; i<I; i++){
+          ineqMultiplierName[2*N+2*I+i+2*iPriceSensitiveDemand]="EA "+(i+1);
+          ineqMultiplierName[2*N+3*I+i+2*iPriceSensitiveDemand]="pb "+(i+1);
+          ineqMultiplierName[2*N+4*I+2*iPriceSensitiveDemand+i]="ps "+(i+1);
+      }
+    }
+  }
+}
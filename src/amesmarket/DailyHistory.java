@@ -0,0 +1,196 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// DailyHistory.java
+// Columnar store of one daily result, e.g. the hourly LMPs by bus, by day
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * History of a daily result table (row x column, e.g. hour x bus for the
+ * LMPs) over the days of a run, stored in primitive double[] chunks of
+ * DAYS_PER_CHUNK days instead of one double[][] per day.  Value (day, row,
+ * col) is at chunk[day/DAYS_PER_CHUNK][((day%DAYS_PER_CHUNK)*rows+row)*cols+col],
+ * so a day, or a row of a day, lies in one contiguous block.
+ *
+ * The number of rows and columns is set by the first day added.  Rows may be
+ * shorter than the others (e.g. the price-sensitive demands of an hour have
+ * one value per price-sensitive LSE of that hour); their lengths are then
+ * kept as well, and getRowLength() gives them.
+ *
+ * For the code that reads the histories as lists of double[][], the class is
+ * also a read-only List: get(day) returns a copy of the day's table.
+ *
+ * The days are kept on the heap; MappedDailyHistory keeps them in a
+ * memory-mapped file instead, with the same read methods.
+ */
+public class DailyHistory extends AbstractList {
+
+  public static final int DAYS_PER_CHUNK = 64;
+
+  private int rows;              // rows per day, set by the first addDay()
+  private int cols;              // widest row so far
+  private int numDays;
+  private ArrayList chunks;      // double[DAYS_PER_CHUNK*rows*cols]
+  private ArrayList rowLengths;  // int[DAYS_PER_CHUNK*rows], null while all rows have cols values
+
+  public DailyHistory(){
+    chunks = new ArrayList();
+  }
+
+  /**
+   * Appends the table of the next day (copied)
+   */
+  public void addDay(double[][] table){
+    if(numDays == 0){
+      rows = table.length;
+      cols = 0;
+    }
+    else if(table.length != rows){
+      throw new IllegalArgumentException("DailyHistory: "+table.length+" rows, expected "+rows);
+    }
+
+    int iWidest = 0;
+    boolean bRagged = false;
+    for(int r=0; r<rows; r++){
+      iWidest = Math.max(iWidest, table[r].length);
+    }
+    if(iWidest > cols){
+      widen(iWidest);
+    }
+    for(int r=0; r<rows; r++){
+      if(table[r].length != cols)
+        bRagged = true;
+    }
+    if(bRagged && rowLengths == null){
+      startRowLengths();
+    }
+
+    int iChunk = numDays/DAYS_PER_CHUNK;
+    if(iChunk == chunks.size()){
+      chunks.add(new double[DAYS_PER_CHUNK*rows*cols]);
+      if(rowLengths != null)
+        rowLengths.add(new int[DAYS_PER_CHUNK*rows]);
+    }
+    double[] chunk = (double[]) chunks.get(iChunk);
+    int iDayOffset = (numDays%DAYS_PER_CHUNK)*rows;
+    for(int r=0; r<rows; r++){
+      System.arraycopy(table[r], 0, chunk, (iDayOffset+r)*cols, table[r].length);
+    }
+    if(rowLengths != null){
+      int[] lengths = (int[]) rowLengths.get(iChunk);
+      for(int r=0; r<rows; r++){
+        lengths[iDayOffset+r] = table[r].length;
+      }
+    }
+    numDays++;
+  }
+
+  // Re-lays out the stored days with wider rows
+  private void widen(int newCols){
+    if(numDays > 0 && rowLengths == null && cols > 0){
+      startRowLengths();  // the stored rows are now shorter than the new width
+    }
+    for(int c=0; c<chunks.size(); c++){
+      double[] oldChunk = (double[]) chunks.get(c);
+      double[] newChunk = new double[DAYS_PER_CHUNK*rows*newCols];
+      for(int k=0; k<DAYS_PER_CHUNK*rows; k++){
+        System.arraycopy(oldChunk, k*cols, newChunk, k*newCols, cols);
+      }
+      chunks.set(c, newChunk);
+    }
+    cols = newCols;
+  }
+
+  // Starts keeping row lengths; the days stored so far have full rows
+  private void startRowLengths(){
+    rowLengths = new ArrayList();
+    for(int c=0; c<chunks.size(); c++){
+      int[] lengths = new int[DAYS_PER_CHUNK*rows];
+      Arrays.fill(lengths, cols);
+      rowLengths.add(lengths);
+    }
+  }
+
+  public int getNumDays(){return numDays;}
+  public int getNumRows(){return rows;}
+  public int getNumCols(){return cols;}
+
+  // Value (row, col) of the day (day = 0 for the first day added)
+  public double get(int day, int row, int col){
+    return ((double[]) chunks.get(day/DAYS_PER_CHUNK))[((day%DAYS_PER_CHUNK)*rows+row)*cols+col];
+  }
+
+  // Number of values in the row of the day
+  public int getRowLength(int day, int row){
+    if(rowLengths == null)
+      return cols;
+    return ((int[]) rowLengths.get(day/DAYS_PER_CHUNK))[(day%DAYS_PER_CHUNK)*rows+row];
+  }
+
+  // Copies the row of the day into dest (at least getRowLength() long)
+  public void copyRow(int day, int row, double[] dest){
+    System.arraycopy((double[]) chunks.get(day/DAYS_PER_CHUNK), ((day%DAYS_PER_CHUNK)*rows+row)*cols,
+                     dest, 0, getRowLength(day, row));
+  }
+
+  // Copy of the table of the day
+  public double[][] getDay(int day){
+    return getDay(day, null);
+  }
+
+  // Copies the table of the day into table, reusing its rows when they have
+  //  the right lengths (a new table is returned if table is null or has not
+  //  the right number of rows), e.g. to scan days without allocating
+  public double[][] getDay(int day, double[][] table){
+    int iRows = getNumRows();
+    if(table == null || table.length != iRows)
+      table = new double[iRows][];
+    for(int r=0; r<iRows; r++){
+      int iLength = getRowLength(day, r);
+      if(table[r] == null || table[r].length != iLength)
+        table[r] = new double[iLength];
+      copyRow(day, r, table[r]);
+    }
+    return table;
+  }
+
+  // List view: the day's table (a copy)
+  public Object get(int day){
+    if(day < 0 || day >= size())
+      throw new IndexOutOfBoundsException("Day index: "+day+", days: "+size());
+    return getDay(day);
+  }
+
+  public int size(){
+    return numDays;
+  }
+
+  public void clear(){
+    chunks.clear();
+    rowLengths = null;
+    numDays = 0;
+    rows = 0;
+    cols = 0;
+  }
+}
@@ -28,12 +28,7 @@ import uchicago.src.sim.gui.*;
 import java.util.ArrayList;
 import java.math.*;
 import uchicago.src.sim.util.SimUtilities;
-import edu.iastate.jrelm.core.JReLMAgent;
-import edu.iastate.jrelm.core.SimpleAction;
-import edu.iastate.jrelm.rl.ReinforcementLearner;
-import edu.iastate.jrelm.rl.SimpleStatelessLearner;
 import edu.iastate.jrelm.rl.rotherev.variant.VREParameters;
-import edu.iastate.jrelm.rl.rotherev.REPolicy;;
 
 
 
@@ -45,7 +40,7 @@ GenData
 
  */
 
-public class GenAgent implements Drawable, JReLMAgent{
+public class GenAgent implements Drawable{
 
   private static final int ID         = 0;
   private static final int AT_NODE    = 1;
@@ -134,8 +129,8 @@ public class GenAgent implements Drawable, JReLMAgent{
   private ArrayList dayAheadLMPByDay;
   private ArrayList realTimeLMPByDay;
 
-  // JReLM component
-  private SimpleStatelessLearner learner;
+  // Learning component
+  private RothErevLearner learner;
   private int randomSeed;
 
   // Learning variables
@@ -179,12 +174,16 @@ public class GenAgent implements Drawable, JReLMAgent{
   private int iDailyNetEarningDayLength;
   private double [] oldDailyNetEarningResult;
   
+  // Action domain checked against the price cap, as reported offer values
+  //  (aReported, bReported, capMaxReported) by action
   private int iActinDomain;
-  ArrayList newActionDomain;
+  private double[] aReportedByAction;
+  private double[] bReportedByAction;
+  private double[] capMaxReportedByAction;
 
   // Constructor
-  public GenAgent(double[] genData, VREParameters learningParams,
-                  ArrayList actionDomain, double ss, double dCap, int random, int iStart, int iLength, double dCheck, boolean bCheck,
+  public GenAgent(double[] genData, VREParameters learningParams, RothErevEngine learningEngine,
+                  ActionDomain actionDomain, double ss, double dCap, int random, int iStart, int iLength, double dCheck, boolean bCheck,
                   int iLearnStart, int iLearnLength, double dLearnCheck, boolean bLearnCheck, double dEarningThreshold, boolean bEarningThresh, 
                   int iEarningStart, int iEarningLength, int iReward){
 
@@ -282,28 +281,47 @@ public class GenAgent implements Drawable, JReLMAgent{
     
     iRewardSelection=iReward;
     
-    newActionDomain = checkActionDomain(actionDomain);
-    //System.out.println("\nActionDomain Size "+newActionDomain.size()+" for GenCo :"+id);
-    learner = new SimpleStatelessLearner(learningParams, newActionDomain);
+    iActinDomain = checkActionDomain(actionDomain);
+    //System.out.println("\nActionDomain Size "+iActinDomain+" for GenCo :"+id);
+    if(learningEngine != null)
+      learner = new RothErevLearner(learningEngine, learningParams, iActinDomain);
+    else
+      learner = new RothErevLearner(learningParams, iActinDomain);
     
-    iActinDomain=newActionDomain.size();
     oldActionProbability=new double[iActinDomain];
     newActionProbability=new double[iActinDomain];
     
     //System.out.println("GenCo ID="+id+" maxmum profit="+getMaxPotentialProfit());
   }
 
-  public ArrayList checkActionDomain(ArrayList actionList){
-    ArrayList newActionList=new ArrayList();
-    for(int i=0; i<actionList.size(); i++){
-        double [] action=(double [])actionList.get(i);
-        double [] newAction=action.clone();
+  // Converts the actions of the domain that are not over the price cap into
+  //  reported offer values, and returns their number
+  public int checkActionDomain(ActionDomain actionDomain){
+    int size=actionDomain.size();
+    double [] lowerRI=actionDomain.getLowerRI();
+    double [] upperRI=actionDomain.getUpperRI();
+    double [] upperRCap=actionDomain.getUpperRCap();
+
+    aReportedByAction=new double[size];
+    bReportedByAction=new double[size];
+    capMaxReportedByAction=new double[size];
+
+    int iAction=0;
+    double [] newAction=new double[ActionDomain.ADC];
+    for(int i=0; i<size; i++){
+        newAction[0]=lowerRI[i];
+        newAction[1]=upperRI[i];
+        newAction[2]=upperRCap[i];
         
-        if(!checkOverPriceCap(newAction))
-            newActionList.add(newAction);
+        if(!checkOverPriceCap(newAction)){
+            aReportedByAction[iAction]=newAction[0];
+            bReportedByAction[iAction]=newAction[1];
+            capMaxReportedByAction[iAction]=newAction[2];
+            iAction++;
+        }
     }
     
-    return newActionList;
+    return iAction;
   }
   
   public boolean checkOverPriceCap(double [] action){
@@ -358,12 +376,10 @@ public class GenAgent implements Drawable, JReLMAgent{
     double CapMax=0.0;
     double dMaxProfit=0.0;
     
-    for(int i=0; i<newActionDomain.size(); i++){
-        double [] action=(double [])newActionDomain.get(i);
-    
-        double aR=action[0];
-        double bR=action[1];
-        double capMaxCalculated=action[2];
+    for(int i=0; i<iActinDomain; i++){
+        double aR=aReportedByAction[i];
+        double bR=bReportedByAction[i];
+        double capMaxCalculated=capMaxReportedByAction[i];
         // calculate max price
         double maxPrice=aR+2*bR*capMaxCalculated;
         if(maxPrice>CapPriceMax){
@@ -381,11 +397,10 @@ public class GenAgent implements Drawable, JReLMAgent{
   }
 
   public void chooseNextAction(){
-    // Use chooseActionRaw to get the unwrapped supply offer values
-    double[] actionTriplet = (double[]) learner.chooseActionRaw();
-    aReported   = actionTriplet[0];
-    bReported   = actionTriplet[1];
-    capMaxReported = actionTriplet[2];
+    int iAction = learner.chooseAction();
+    aReported   = aReportedByAction[iAction];
+    bReported   = bReportedByAction[iAction];
+    capMaxReported = capMaxReportedByAction[iAction];
   }
 
   public double[] submitSupplyOffer(){
@@ -473,14 +488,31 @@ public class GenAgent implements Drawable, JReLMAgent{
 
 
   public void updateSupplyOffer(int flag){
+    updateEarnings(flag);
+
+    learn();
+    
+    updateLearningChecks();
+  }
+
+  // updateSupplyOffer in two parts, for markets that update the learners of
+  //  all the GenAgents at once in their RothErevEngine: updateEarnings, then
+  //  the engine update with getReward() (if hasReward()), then endLearning.
+  public void updateEarnings(int flag){
     updateProfit();
 
     if(flag != 1){
       updateMoney();
     }
+  }
 
-    learn();
-    
+  public void endLearning(){
+    recordChoice();
+
+    updateLearningChecks();
+  }
+
+  private void updateLearningChecks(){
     iDayCount++;
     if(bActionProbabilityCheck&&(iDayCount>=iStartDay)){
         updateActionProbabilities();
@@ -498,13 +530,10 @@ public class GenAgent implements Drawable, JReLMAgent{
   }
 
   private void updateActionProbabilities(){
-      REPolicy policy = (REPolicy)learner.getPolicy();
-      double [] dProbability=policy.getProbabilities();
-      
       boolean bConverged=true;
       for(int i=0; i<iActinDomain; i++){
           oldActionProbability[i]=newActionProbability[i];
-          newActionProbability[i]=dProbability[i];
+          newActionProbability[i]=learner.getProbability(i);
           if((bConverged)&&(Math.abs(newActionProbability[i]-oldActionProbability[i])>dActionProbability)){
               bConverged=false;
               iCheckDayLengthCount=0;
@@ -637,10 +666,6 @@ public class GenAgent implements Drawable, JReLMAgent{
   // genAgent learning (updating propensity based on current period dailyProfit)
   private void learn(){
     //System.out.println("Learning Report for GenCo: " + getID() );
-    SimpleAction lastAction = (SimpleAction) learner.getPolicy().getLastAction();
-    choiceID = lastAction.getID();
-    double[] act = (double[]) lastAction.getAct();
-    REPolicy policy = (REPolicy)learner.getPolicy();
 /*
     System.out.printf("\tLast action chosen:  id= " + id +
                        ";\t(lowerRI, upperRI, upperRCap)=(%1$6.4f, %2$6.4f, %3$6.4f)\n",
@@ -656,11 +681,8 @@ public class GenAgent implements Drawable, JReLMAgent{
         System.out.printf("\tBefore updating with daily profit: probability=%1$6.4f\tpropensity=%2$f\n",
                          policy.getProbability(id),policy.getPropensity(id));
  */
-    if(iRewardSelection==0)// profit
-        learner.update(new Double(dailyProfit));
-
-    if(iRewardSelection==1)// net earnings
-        learner.update(new Double(dailyNetEarnings));
+    if(hasReward())
+        learner.update(getReward());
 /*
     if(Double.isNaN(policy.getProbability(id))){
         System.out.printf("\tAfter update --> the policy.getProbability return value is not a number!!!\n");
@@ -673,9 +695,25 @@ public class GenAgent implements Drawable, JReLMAgent{
                          policy.getProbability(id),policy.getPropensity(id));
     
 */
-    choiceProbability = policy.getProbability(choiceID);
-    choicePropensity=policy.getPropensity(choiceID);
+    recordChoice();
+  }
 
+  private void recordChoice(){
+    choiceID = learner.getLastAction();
+    choiceProbability = learner.getProbability(choiceID);
+    choicePropensity=learner.getPropensity(choiceID);
+  }
+
+  // The reward that the GenAgent learns from, if any
+  public boolean hasReward(){
+    return iRewardSelection==0 || iRewardSelection==1;
+  }
+
+  public double getReward(){
+    if(iRewardSelection==0)// profit
+        return dailyProfit;
+    else                   // net earnings
+        return dailyNetEarnings;
   }
 
 
@@ -689,15 +727,8 @@ public class GenAgent implements Drawable, JReLMAgent{
   }
   
   public double [] LastDayCheckAction( ){
-    REPolicy policy = (REPolicy)learner.getPolicy();
-    double [] dProbability=policy.getProbabilities();
-
-    int iAction=newActionDomain.size();
-    double [] action=new double[iAction];
-      
-    for(int i=0; i<newActionDomain.size(); i++){
-        action[i]=dProbability[i];
-    }
+    double [] action=new double[iActinDomain];
+    learner.getProbabilities(action);
 
      return action;
  }
@@ -744,7 +775,7 @@ public int getCheckDayLength(){
   }
 
   public int getGenID(){ // This method name cannot be changed to "int getID"
-    return id;           // because it'll conflict with JReLM interface method "String getID"
+    return id;           // because it'll conflict with the method "String getID"
   }
   public int getAtNode(){
     return atBus;
@@ -832,11 +863,10 @@ public int getCheckDayLength(){
   }
 
 
-  // Implemented methods for JReLMAgent interface
   public String getID(){
     return "GenCo" + id;
   }
-  public ReinforcementLearner getLearner() {
+  public RothErevLearner getLearner() {
       return learner;
   }
 
@@ -0,0 +1,172 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// GridOperators.java
+// Grid-only blocks of the DC-OPF matrices, computed once per grid topology
+
+import cern.colt.matrix.DoubleMatrix2D;
+
+/**
+ * Immutable cache of the blocks of (G,Ceq,Ciq) in DCOPFJ that depend only on
+ * the transmission grid (see TransGrid.getGridOperators()):
+ *
+ *   Wrr       reduced VAD weight matrix, (K-1)x(K-1)       ~ Eq(45), in G
+ *   -Br'      minus the reduced bus admittance, (K-1)xK    ~ Eq(51), in Ceq
+ *   Z*rAdj    branch flow coefficients, Nx(K-1)            ~ Eq(55),(53), in Ciq
+ *
+ * Only the non-zero entries are kept, so DCOPFJ copies them into its
+ * matrices instead of re-wrapping and re-multiplying the TransGrid arrays
+ * for every hourly OPF problem.
+ *
+ * The cache is stamped with the topology version of the TransGrid it was
+ * built from; TransGrid builds a new one whenever its version changes.
+ */
+public final class GridOperators {
+
+  private final long topologyVersion;
+  private final int numNodes;     // K
+  private final int numBranches;  // N
+
+  // Wrr, dense (K is small compared to the number of OPF variables)
+  private final double[][] reducedVADWeight;
+
+  // -Br' by rows kk = 0..K-2: busStart[kk]..busStart[kk+1]-1 hold the
+  //  non-zero entries (node busNode[e], value busValue[e])
+  private final int[] busStart;
+  private final int[] busNode;
+  private final double[] busValue;
+
+  // Z*rAdj by branches n = 0..N-1: flowStart[n]..flowStart[n+1]-1 hold the
+  //  non-zero entries (reduced node flowNode[e], value flowValue[e])
+  private final int[] flowStart;
+  private final int[] flowNode;
+  private final double[] flowValue;
+
+  GridOperators(TransGrid grid, long version){
+    topologyVersion = version;
+    numNodes = grid.getNumNodes();
+    numBranches = grid.getNumBranches();
+    int K = numNodes;
+    int N = numBranches;
+
+    double[][] wrr = grid.getReducedVADWeight();
+    reducedVADWeight = new double[K-1][];
+    for(int i=0; i<K-1; i++){
+      reducedVADWeight[i] = wrr[i].clone();
+    }
+
+    double[][] rBusAdm = grid.getReducedBusAdmittance();
+    busStart = new int[K];
+    int nnz = 0;
+    for(int kk=0; kk<K-1; kk++){
+      for(int k=0; k<K; k++){
+        if(rBusAdm[kk][k]!=0) nnz++;
+      }
+    }
+    busNode = new int[nnz];
+    busValue = new double[nnz];
+    nnz = 0;
+    for(int kk=0; kk<K-1; kk++){
+      busStart[kk] = nnz;
+      for(int k=0; k<K; k++){
+        double value = rBusAdm[kk][k];
+        if(value!=0){
+          busNode[nnz] = k;
+          busValue[nnz] = -value;
+          nnz++;
+        }
+      }
+    }
+    busStart[K-1] = nnz;
+
+    // Z is diagonal, so Z*rAdj is a row scaling of rAdj
+    double[][] Z = grid.getDiagonalAdmittance();
+    double[][] rAdj = grid.getReducedAdjacency();
+    flowStart = new int[N+1];
+    nnz = 0;
+    for(int n=0; n<N; n++){
+      for(int k=0; k<K-1; k++){
+        if(rAdj[n][k]!=0) nnz++;
+      }
+    }
+    flowNode = new int[nnz];
+    flowValue = new double[nnz];
+    nnz = 0;
+    for(int n=0; n<N; n++){
+      flowStart[n] = nnz;
+      double z = Z[n][n];
+      for(int k=0; k<K-1; k++){
+        double r = rAdj[n][k];
+        if(r!=0){
+          flowNode[nnz] = k;
+          flowValue[nnz] = z*r;
+          nnz++;
+        }
+      }
+    }
+    flowStart[N] = nnz;
+  }
+
+  /**
+   * Returns the topology version of the TransGrid this cache was built from
+   * @return long
+   */
+  public long getTopologyVersion(){
+    return topologyVersion;
+  }
+
+  public int getNumNodes(){ return numNodes; }
+  public int getNumBranches(){ return numBranches; }
+
+  // G(offset+i, offset+j) <- Wrr(i,j)
+  void assignReducedVADWeight(DoubleMatrix2D G, int offset){
+    for(int i=0; i<numNodes-1; i++){
+      for(int j=0; j<numNodes-1; j++){
+        G.setQuick(offset+i, offset+j, reducedVADWeight[i][j]);
+      }
+    }
+  }
+
+  // Ceq(offset+kk, k) <- -Br'(kk,k) for the non-zero entries of Br'
+  void assignNegReducedBusAdmittance(DoubleMatrix2D Ceq, int offset){
+    for(int kk=0; kk<numNodes-1; kk++){
+      for(int e=busStart[kk]; e<busStart[kk+1]; e++){
+        Ceq.setQuick(offset+kk, busNode[e], busValue[e]);
+      }
+    }
+  }
+
+  // Ciq(offset+k, n) <- (Z*rAdj)(n,k) and Ciq(offset+k, N+n) <- -(Z*rAdj)(n,k)
+  //  for the non-zero entries of Z*rAdj, i.e., both branch flow limits
+  void assignBranchFlows(DoubleMatrix2D Ciq, int offset){
+    for(int n=0; n<numBranches; n++){
+      for(int e=flowStart[n]; e<flowStart[n+1]; e++){
+        Ciq.setQuick(offset+flowNode[e], n,             flowValue[e]);
+        Ciq.setQuick(offset+flowNode[e], numBranches+n, -flowValue[e]);
+      }
+    }
+  }
+
+  // Number of non-zero entries of Z*rAdj
+  int getNumBranchFlowNonZeros(){
+    return flowStart[numBranches];
+  }
+}
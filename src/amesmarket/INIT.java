@@ -73,8 +73,8 @@ public class INIT {
   private double[][][] lseDataPriceSensitiveDemand; 
   private int   [][] lseDataHybridDemand; 
   private boolean isPU;
-  private static double baseS;
-  private static double baseV;
+  private double baseS;
+  private double baseV;
 
   private ArrayList slist = new ArrayList();
     //slist: the master string list to store tokenized strings in data file
@@ -88,17 +88,17 @@ public class INIT {
   public String[][] getParamNames(){
     return paramNames;
   }
-  public static double getBaseS(){
+  public double getBaseS(){
     return baseS;
   }
-  public static double getBaseV(){
+  public double getBaseV(){
      return baseV;
    }
 
-  public static void setBaseS(double s){
+  public void setBaseS(double s){
     baseS=s;
   }
-  public static void setBaseV(double v){
+  public void setBaseV(double v){
      baseV=v;
    }
 
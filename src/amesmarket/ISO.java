@@ -48,6 +48,7 @@ public class ISO {
   private ArrayList lmpListByDay;        // hourly LMPs list for each bus by day (d)
 
   private AMESMarket ames;
+  private MarketContext context;
   private DAMarket dam;
   private SRMarket srm;
   private RTMarket rtm;
@@ -63,6 +64,7 @@ public class ISO {
     lmpListByDay        = new ArrayList();
 
     ames  = model;
+    context = ames.getMarketContext();
     dam  = new DAMarket(ames);
     srm  = new SRMarket(ames);
     rtm  = new RTMarket(ames);
@@ -71,6 +73,11 @@ public class ISO {
 
   }
 
+  // Base values, case data and parameters of the market run
+  public MarketContext getMarketContext(){
+    return context;
+  }
+
   public void computeCompetitiveEquilibriumResults(){
     //System.out.println("Compute competitive equilibrium results before the market is run\n");
     dam.submitTrueSupplyOffersAndDemandBids();
@@ -206,4 +213,11 @@ public class ISO {
     return buc;
   }
 
+  // Stops the solver and agent threads of the markets, e.g. at the end of
+  //  the run (they are only created again if the markets are run further)
+  public void shutdown(){
+    buc.shutdown();
+    dam.shutdown();
+  }
+
 }
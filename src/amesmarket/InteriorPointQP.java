@@ -0,0 +1,537 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// InteriorPointQP.java
+// Primal-dual interior point method for strictly convex QP problems
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.DoubleMatrix2D;
+
+/**
+ * Solves the strictly convex QP problem of QPSolver
+ *
+ *           min  a' * x + 0.5 * x' * G * x
+ *     s.t.  Ceq' * x  = beq
+ *           Ciq' * x >= biq
+ *
+ * with Mehrotra's predictor-corrector primal-dual interior point method, as
+ * an alternative to the dual active set method of QuadProgJ for large grids:
+ * the number of iterations hardly grows with the problem size, and each
+ * iteration solves the sparse reduced KKT system
+ *
+ *     [ G + Cb*Wb*Cb'   Ceq   Cg      ] [ dx  ]   [ r1 ]
+ *     [ Ceq'            0     0       ] [ -dy ] = [ r2 ],   W = diag(z./s)
+ *     [ Cg'             0    -Wg^{-1} ] [ -dzg]   [ r3 ]
+ *
+ * (Cb: the bounds among the columns of Ciq, Cg: the other columns) with a
+ * sparse L*D*L' factorization (see InteriorPointWorkspace and SparseLDL),
+ * where QuadProgJ works with dense nxn factors.
+ *
+ * The solution is only accurate up to the stopping tolerance (relative
+ * residuals and complementarity below TOL), so the results agree with the
+ * ones of QuadProgJ to about that accuracy, not bit for bit.  An inequality
+ * constraint is reported as binding (in getActiveSet() and with a non-zero
+ * multiplier) if its multiplier exceeds its slack at the solution.
+ */
+public class InteriorPointQP implements QPSolver {
+
+  private static final double TOL = 1.0E-10;       // relative stopping tolerance
+  private static final int MAX_ITERATIONS = 200;
+  private static final double STEP_FRACTION = 0.995; // fraction of the step to the boundary
+  private static final double DELTA = 1.0E-12;     // regularization of the equality block
+  private static final double MIN_GAMMA = 1.0E-12; // primal regularization after a zero pivot ...
+  private static final double MAX_GAMMA = 1.0E-4;  // ... raised 100-fold up to this
+  private static final int REFINEMENT_STEPS = 2;   // iterative refinement of the KKT solves
+  private static final int NEWTON_REFINEMENT_STEPS = 8; // at most, of the Newton steps
+
+  private int n, meq, miq;
+  private CompressedColumnMatrix Ceq, Ciq;
+  private double[] aValues, beqValues, biqValues;
+  private InteriorPointWorkspace ws;
+  private double rdScale, reScale, riScale; // scales of the residuals (see residuals())
+
+  private double[] x;
+  private double f;
+  private double[] eqMultipliers;
+  private double[] ineqMultipliers;
+  private int[] activeSet;
+  private int numIterations;
+  private boolean isFeasibleAndOptimal;
+
+  public InteriorPointQP(DoubleMatrix2D G, DoubleMatrix1D a, DoubleMatrix2D CeqMat,
+      DoubleMatrix1D beqVec, DoubleMatrix2D CiqMat, DoubleMatrix1D biqVec){
+    this(G, a, CeqMat, new CompressedColumnMatrix(CeqMat), beqVec, CiqMat,
+         new CompressedColumnMatrix(CiqMat), biqVec, new InteriorPointWorkspace());
+  }
+
+  // Solves with the compressed-column copies ceqCols and ciqCols of CeqMat
+  //  and CiqMat, reusing the KKT analysis in workspace if the problem has the
+  //  structure it was done for
+  InteriorPointQP(DoubleMatrix2D G, DoubleMatrix1D a, DoubleMatrix2D CeqMat,
+      CompressedColumnMatrix ceqCols, DoubleMatrix1D beqVec, DoubleMatrix2D CiqMat,
+      CompressedColumnMatrix ciqCols, DoubleMatrix1D biqVec, InteriorPointWorkspace workspace){
+    n   = G.rows();
+    meq = ceqCols.columns();
+    miq = ciqCols.columns();
+    Ceq = ceqCols;
+    Ciq = ciqCols;
+    aValues   = a.toArray();
+    beqValues = beqVec.toArray();
+    biqValues = biqVec.toArray();
+    ws = workspace;
+    ws.prepare(G, Ceq, Ciq);
+
+    isFeasibleAndOptimal = solve();
+
+    x = copyOf(ws.x, n);
+    multiplyG(ws.x, ws.tn);
+    f = 0.5*dot(x, ws.tn, n) + dot(aValues, x, n);
+    eqMultipliers = copyOf(ws.y, meq);
+    ineqMultipliers = new double[miq];
+    int numBC = 0;
+    for(int j=0; j<miq; j++){
+      if(ws.z[j] > ws.s[j]){
+        ineqMultipliers[j] = ws.z[j];
+        numBC++;
+      }
+    }
+    activeSet = new int[meq+numBC];
+    for(int i=0; i<meq; i++){
+      activeSet[i] = i;
+    }
+    numBC = meq;
+    for(int j=0; j<miq; j++){
+      if(ineqMultipliers[j] != 0){
+        activeSet[numBC++] = meq+j;
+      }
+    }
+  }
+
+  private boolean solve(){
+    double[] x = ws.x, s = ws.s, y = ws.y, z = ws.z;
+    double[] w = ws.w, rsz = ws.rsz;
+
+    // Starting point: minimizer of 0.5x'Gx + a'x + 0.5|Ciq'x - biq|^2
+    //  s.t. Ceq'x = beq, shifted into the interior (Mehrotra; Gertz & Wright)
+    java.util.Arrays.fill(w, 1);
+    if(!factorKKT()){
+      return false;
+    }
+    for(int j=0; j<miq; j++){
+      ws.t[j] = (ws.ineqNode[j] < 0) ? biqValues[j] : 0;
+    }
+    Ciq.zMult(ws.t, ws.tn);
+    for(int i=0; i<n; i++){
+      ws.rhs[i] = ws.tn[i] - aValues[i];
+    }
+    for(int j=0; j<meq; j++){
+      ws.rhs[n+j] = beqValues[j];
+    }
+    for(int j=0; j<miq; j++){
+      if(ws.ineqNode[j] >= 0){
+        ws.rhs[ws.ineqNode[j]] = biqValues[j];
+      }
+    }
+    solveKKT(ws.rhs, ws.sol);
+    for(int i=0; i<n; i++){
+      x[i] = ws.sol[i];
+    }
+    for(int j=0; j<meq; j++){
+      y[j] = -ws.sol[n+j];
+    }
+    Ciq.zMultTranspose(x, s);
+    double sMin = Double.MAX_VALUE;
+    for(int j=0; j<miq; j++){
+      s[j] -= biqValues[j];
+      z[j] = -s[j];
+      sMin = Math.min(sMin, s[j]);
+    }
+    if(miq > 0){
+      double sShift = Math.max(-1.5*sMin, 0);
+      double zShift = Math.max(1.5*maxOf(s, miq), 0); // min z = -max s
+      double sz = 0, sSum = 0, zSum = 0;
+      for(int j=0; j<miq; j++){
+        s[j] += sShift;
+        z[j] += zShift;
+        sz += s[j]*z[j];
+        sSum += s[j];
+        zSum += z[j];
+      }
+      if(sz > 0){
+        sShift = 0.5*sz/zSum;
+        zShift = 0.5*sz/sSum;
+      }
+      else{
+        sShift = zShift = 1;
+      }
+      for(int j=0; j<miq; j++){
+        s[j] += sShift;
+        z[j] += zShift;
+      }
+    }
+
+    for(numIterations=0; ; numIterations++){
+      residuals();
+      double mu = 0;
+      double szMax = 0;
+      for(int j=0; j<miq; j++){
+        mu += s[j]*z[j];
+        szMax = Math.max(szMax, s[j]*z[j]);
+      }
+      if(miq > 0) mu /= miq;
+
+      // NOTE: complementarity is measured against the multipliers, not the
+      //       objective, which can be dominated by large linear terms (e.g.
+      //       the emission variables of DCOPFJ)
+      if(normInf(ws.rd, n) <= TOL*rdScale && normInf(ws.re, meq) <= TOL*reScale
+         && normInf(ws.ri, miq) <= TOL*riScale && szMax <= TOL*(1+normInf(z, miq))){
+        return true;
+      }
+      if(numIterations == MAX_ITERATIONS || Double.isNaN(mu)){
+        return false;
+      }
+
+      for(int j=0; j<miq; j++){
+        w[j] = z[j]/s[j];
+      }
+      if(!factorKKT()){
+        return false;
+      }
+
+      // Predictor (affine scaling) step
+      for(int j=0; j<miq; j++){
+        rsz[j] = s[j]*z[j];
+      }
+      newtonStep();
+      double alpha = Math.min(1, maxStep());
+      double muAff = 0;
+      for(int j=0; j<miq; j++){
+        muAff += (s[j]+alpha*ws.ds[j])*(z[j]+alpha*ws.dz[j]);
+      }
+      if(miq > 0) muAff /= miq;
+      double sigma = mu > 0 ? Math.pow(muAff/mu, 3) : 0;
+
+      // Corrector (centering and second order) step
+      for(int j=0; j<miq; j++){
+        rsz[j] = s[j]*z[j] + ws.ds[j]*ws.dz[j] - sigma*mu;
+      }
+      newtonStep();
+      alpha = Math.min(1, STEP_FRACTION*maxStep());
+
+      for(int i=0; i<n; i++){
+        x[i] += alpha*ws.dx[i];
+      }
+      for(int j=0; j<meq; j++){
+        y[j] += alpha*ws.dy[j];
+      }
+      for(int j=0; j<miq; j++){
+        s[j] += alpha*ws.ds[j];
+        z[j] += alpha*ws.dz[j];
+      }
+    }
+  }
+
+  // rd = G*x + a - Ceq*y - Ciq*z, re = Ceq'*x - beq, ri = Ciq'*x - s - biq,
+  //  and their scales, 1 + the largest term a residual entry is summed from
+  //  (rounding alone leaves residuals of about 1.0E-16 times the scale, e.g.
+  //  on problems with minimizers far from the origin)
+  private void residuals(){
+    multiplyG(ws.x, ws.rd);
+    rdScale = Math.max(normInf(ws.rd, n), normInf(aValues, n));
+    for(int i=0; i<n; i++){
+      ws.rd[i] += aValues[i];
+    }
+    for(int j=0; j<meq; j++){
+      double yj = ws.y[j];
+      for(int e=Ceq.columnStart(j); e<Ceq.columnStart(j+1); e++){
+        double term = Ceq.value(e)*yj;
+        ws.rd[Ceq.rowIndex(e)] -= term;
+        rdScale = Math.max(rdScale, Math.abs(term));
+      }
+    }
+    for(int j=0; j<miq; j++){
+      double zj = ws.z[j];
+      for(int e=Ciq.columnStart(j); e<Ciq.columnStart(j+1); e++){
+        double term = Ciq.value(e)*zj;
+        ws.rd[Ciq.rowIndex(e)] -= term;
+        rdScale = Math.max(rdScale, Math.abs(term));
+      }
+    }
+    rdScale += 1;
+    Ceq.zMultTranspose(ws.x, ws.re);
+    reScale = 1 + Math.max(normInf(ws.re, meq), normInf(beqValues, meq));
+    for(int j=0; j<meq; j++){
+      ws.re[j] -= beqValues[j];
+    }
+    Ciq.zMultTranspose(ws.x, ws.ri);
+    riScale = 1 + Math.max(normInf(ws.ri, miq), Math.max(normInf(ws.s, miq), normInf(biqValues, miq)));
+    for(int j=0; j<miq; j++){
+      ws.ri[j] -= ws.s[j] + biqValues[j];
+    }
+  }
+
+  // Solves the Newton equations
+  //   G*dx - Ceq*dy - Ciq*dz = -rd,  Ceq'*dx = -re,  Ciq'*dx - ds = -ri,
+  //   z.*ds + s.*dz = -rsz
+  //  and refines the step against them as long as that halves their
+  //  residuals: near the solution the weights of the binding constraints grow
+  //  huge, and eliminating ds and dz loses accuracy that the refinement in
+  //  solveKKT() does not see
+  private void newtonStep(){
+    double[] s = ws.s, z = ws.z;
+    newtonStep(ws.rd, ws.re, ws.ri, ws.rsz, ws.dx, ws.dy, ws.ds, ws.dz);
+    double rszScale = 1 + normInf(ws.rsz, miq);
+    double residual = Double.MAX_VALUE;
+    for(int step=0; step<NEWTON_REFINEMENT_STEPS; step++){
+      // Residuals of the Newton equations at the step
+      multiplyG(ws.dx, ws.qd);
+      for(int i=0; i<n; i++){
+        ws.qd[i] += ws.rd[i];
+      }
+      for(int j=0; j<meq; j++){
+        double sum = ws.re[j];
+        for(int e=Ceq.columnStart(j); e<Ceq.columnStart(j+1); e++){
+          ws.qd[Ceq.rowIndex(e)] -= Ceq.value(e)*ws.dy[j];
+          sum += Ceq.value(e)*ws.dx[Ceq.rowIndex(e)];
+        }
+        ws.qe[j] = sum;
+      }
+      for(int j=0; j<miq; j++){
+        double sum = ws.ri[j] - ws.ds[j];
+        for(int e=Ciq.columnStart(j); e<Ciq.columnStart(j+1); e++){
+          ws.qd[Ciq.rowIndex(e)] -= Ciq.value(e)*ws.dz[j];
+          sum += Ciq.value(e)*ws.dx[Ciq.rowIndex(e)];
+        }
+        ws.qi[j] = sum;
+        ws.qsz[j] = z[j]*ws.ds[j] + s[j]*ws.dz[j] + ws.rsz[j];
+      }
+      double last = residual;
+      residual = Math.max(Math.max(normInf(ws.qd, n)/rdScale, normInf(ws.qe, meq)/reScale),
+                          Math.max(normInf(ws.qi, miq)/riScale, normInf(ws.qsz, miq)/rszScale));
+      if(residual > 0.5*last){
+        break;
+      }
+
+      newtonStep(ws.qd, ws.qe, ws.qi, ws.qsz, ws.cx, ws.cy, ws.cs, ws.cz);
+      for(int i=0; i<n; i++){
+        ws.dx[i] += ws.cx[i];
+      }
+      for(int j=0; j<meq; j++){
+        ws.dy[j] += ws.cy[j];
+      }
+      for(int j=0; j<miq; j++){
+        ws.ds[j] += ws.cs[j];
+        ws.dz[j] += ws.cz[j];
+      }
+    }
+  }
+
+  // Solves the Newton equations for the right-hand sides rd, re, ri and rsz
+  //  by eliminating ds, and dz of the bounds, with the factors of the
+  //  reduced KKT matrix
+  private void newtonStep(double[] rd, double[] re, double[] ri, double[] rsz,
+                          double[] dx, double[] dy, double[] ds, double[] dz){
+    double[] s = ws.s, z = ws.z, w = ws.w, t = ws.t;
+    int[] node = ws.ineqNode;
+    for(int j=0; j<miq; j++){
+      if(node[j] < 0){
+        t[j] = w[j]*ri[j] + rsz[j]/s[j];
+      }
+      else{
+        t[j] = 0;
+        ws.rhs[node[j]] = -ri[j] - rsz[j]/z[j];
+      }
+    }
+    Ciq.zMult(t, ws.tn);
+    for(int i=0; i<n; i++){
+      ws.rhs[i] = -rd[i] - ws.tn[i];
+    }
+    for(int j=0; j<meq; j++){
+      ws.rhs[n+j] = -re[j];
+    }
+    solveKKT(ws.rhs, ws.sol);
+    for(int i=0; i<n; i++){
+      dx[i] = ws.sol[i];
+    }
+    for(int j=0; j<meq; j++){
+      dy[j] = -ws.sol[n+j];
+    }
+    Ciq.zMultTranspose(dx, t);
+    for(int j=0; j<miq; j++){
+      dz[j] = (node[j] < 0) ? -w[j]*(ri[j] + t[j]) - rsz[j]/s[j] : -ws.sol[node[j]];
+      ds[j] = -(rsz[j] + s[j]*dz[j])/z[j];
+    }
+  }
+
+  // Factors the KKT matrix for the current weights.  On a zero pivot (e.g.
+  //  when large weights of the bounds cancel a primal pivot to rounding
+  //  level near the solution) the primal block is regularized as well,
+  //  increasingly until
+  //  the factorization succeeds; solveKKT() refines the solutions against
+  //  the unregularized matrix.  Returns false if no regularization helps.
+  private boolean factorKKT(){
+    if(ws.factor(0, DELTA)){
+      return true;
+    }
+    for(double gamma=MIN_GAMMA; gamma<=MAX_GAMMA; gamma*=100){
+      if(ws.factor(gamma, Math.max(gamma, DELTA))){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // v <- KKT^{-1} * b, refined against the unregularized KKT matrix
+  private void solveKKT(double[] b, double[] v){
+    int nk = ws.nk;
+    System.arraycopy(b, 0, v, 0, nk);
+    ws.solve(v);
+    double[] res = ws.res;
+    for(int step=0; step<REFINEMENT_STEPS; step++){
+      multiplyKKT(v, res);
+      for(int i=0; i<nk; i++){
+        res[i] = b[i] - res[i];
+      }
+      ws.solve(res);
+      for(int i=0; i<nk; i++){
+        v[i] += res[i];
+      }
+    }
+  }
+
+  // u <- [G+Cb*Wb*Cb', Ceq, Cg; Ceq', 0, 0; Cg', 0, -Wg^{-1}] * v
+  private void multiplyKKT(double[] v, double[] u){
+    multiplyG(v, u);
+    for(int j=0; j<meq; j++){
+      double vj = v[n+j];
+      double sum = 0;
+      for(int e=Ceq.columnStart(j); e<Ceq.columnStart(j+1); e++){
+        u[Ceq.rowIndex(e)] += Ceq.value(e)*vj;
+        sum += Ceq.value(e)*v[Ceq.rowIndex(e)];
+      }
+      u[n+j] = sum;
+    }
+    for(int j=0; j<miq; j++){
+      double sum = 0;
+      for(int e=Ciq.columnStart(j); e<Ciq.columnStart(j+1); e++){
+        sum += Ciq.value(e)*v[Ciq.rowIndex(e)];
+      }
+      int node = ws.ineqNode[j];
+      if(node >= 0){
+        for(int e=Ciq.columnStart(j); e<Ciq.columnStart(j+1); e++){
+          u[Ciq.rowIndex(e)] += Ciq.value(e)*v[node];
+        }
+        u[node] = sum - v[node]/ws.w[j];
+        continue;
+      }
+      sum *= ws.w[j];
+      for(int e=Ciq.columnStart(j); e<Ciq.columnStart(j+1); e++){
+        u[Ciq.rowIndex(e)] += Ciq.value(e)*sum;
+      }
+    }
+  }
+
+  // u <- G * v (first n entries)
+  private void multiplyG(double[] v, double[] u){
+    for(int i=0; i<n; i++){
+      u[i] = ws.gDiag[i]*v[i];
+    }
+    for(int e=0; e<ws.numGOff; e++){
+      int i = ws.gOffRow[e];
+      int j = ws.gOffCol[e];
+      double g = ws.gOffVal[e];
+      u[i] += g*v[j];
+      u[j] += g*v[i];
+    }
+  }
+
+  // Largest step in (0,1/STEP_FRACTION] keeping s and z non-negative
+  private double maxStep(){
+    double alpha = 1/STEP_FRACTION;
+    for(int j=0; j<miq; j++){
+      if(ws.ds[j] < 0) alpha = Math.min(alpha, -ws.s[j]/ws.ds[j]);
+      if(ws.dz[j] < 0) alpha = Math.min(alpha, -ws.z[j]/ws.dz[j]);
+    }
+    return alpha;
+  }
+
+  private static double dot(double[] u, double[] v, int len){
+    double sum = 0;
+    for(int i=0; i<len; i++){
+      sum += u[i]*v[i];
+    }
+    return sum;
+  }
+
+  private static double normInf(double[] v, int len){
+    double norm = 0;
+    for(int i=0; i<len; i++){
+      norm = Math.max(norm, Math.abs(v[i]));
+    }
+    return norm;
+  }
+
+  private static double maxOf(double[] v, int len){
+    double max = -Double.MAX_VALUE;
+    for(int i=0; i<len; i++){
+      max = Math.max(max, v[i]);
+    }
+    return max;
+  }
+
+  private static double[] copyOf(double[] vector, int len){
+    double[] copy = new double[len];
+    System.arraycopy(vector, 0, copy, 0, len);
+    return copy;
+  }
+
+  public boolean getIsFeasibleAndOptimal(){
+    return isFeasibleAndOptimal;
+  }
+
+  public double[] getMinX(){
+    return x;
+  }
+
+  public double getMinF(){
+    return f;
+  }
+
+  public double[] getEqMultipliers(){
+    return eqMultipliers;
+  }
+
+  public double[] getIneqMultipiers(){
+    return ineqMultipliers;
+  }
+
+  public int getNumIterations(){
+    return numIterations;
+  }
+
+  public int getNumBC(){
+    return activeSet.length-meq;
+  }
+
+  public int[] getActiveSet(){
+    return (int[]) activeSet.clone();
+  }
+}
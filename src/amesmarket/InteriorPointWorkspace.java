@@ -0,0 +1,461 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// InteriorPointWorkspace.java
+// Reusable working storage and KKT analysis for InteriorPointQP
+
+import cern.colt.matrix.DoubleMatrix2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Working storage of the primal-dual interior point method (iterates, steps,
+ * residuals) and the analysis of its reduced KKT matrix
+ *
+ *     [ G + Cb*Wb*Cb'   Ceq   Cg      ]
+ *     [ Ceq'           -dI    0       ]
+ *     [ Cg'             0    -Wg^{-1} ]  (W diagonal, changes every iteration)
+ *
+ * where Cb are the columns of Ciq with a single non-zero (bounds on one
+ * variable), which are eliminated, and Cg the other columns (e.g. branch
+ * flow limits), which keep a node of their own: eliminating a binding
+ * constraint on several variables would add a huge rank-one term to G, and
+ * the small curvature left across it would cancel in the factorization.
+ *
+ * The analysis is a fill-reducing ordering, the pattern of the matrix and of
+ * its L*D*L' factor, and the positions the entries of G, Ceq and Ciq are
+ * added to.  The analysis only depends on the non-zero pattern of G, Ceq
+ * and Ciq, so it is done once and kept as long as the problems handed to the
+ * workspace have the same structure, e.g. all hourly DC-OPF problems of a
+ * DCOPFJModel.
+ *
+ * NOTE: a workspace must not be shared by two solves running at the same
+ *       time (DCOPFJModel keeps one for the solves using the model).
+ */
+public class InteriorPointWorkspace {
+
+  int n;    // number of decision variables
+  int meq;  // number of equality constraints
+  int miq;  // number of inequality constraints
+  int nk;   // order of the KKT matrix, n+meq+(# of columns of Cg)
+
+  // Structure the analysis was done for
+  private CompressedColumnMatrix ceq;
+  private CompressedColumnMatrix ciq;
+  int numGOff;       // # of non-zeros of G above the diagonal
+  int[] gOffRow;     // their rows ...
+  int[] gOffCol;     // ... and columns, by rows of G
+  double[] gOffVal;  // their values in the current problem
+  double[] gDiag;    // diagonal of G in the current problem
+
+  // KKT matrix: ordering and upper triangle of the ordered matrix (by columns)
+  private int[] pinv;      // pinv[i]: position of row/column i after ordering
+  private int[] kktStart;
+  private int[] kktRow;
+  double[] kktValue;
+  private int[] diagPos;   // position of each diagonal entry in kktValue
+  private int[] gOffPos;   // position of each G entry above the diagonal
+  private int[] eqPos;     // position of each non-zero of Ceq
+  int[] ineqNode;          // node of each column of Ciq in Cg, -1 if in Cb
+  private int[] ineqPos;   // position of each non-zero of Ciq in Cg
+  private int[] pairStart; // pairStart[j]..pairStart[j+1]-1: the column pairs of Ciq column j in Cb
+  private int[] pairPos;   // position of the pair
+  private double[] pairValue; // product of the two entries of the pair
+  private SparseLDL ldl;
+  private double[] perm;   // work, nk
+
+  double[] x;    // primal variables, nx1
+  double[] s;    // slacks, s = Ciq'*x - biq >= 0 at the solution, miqx1
+  double[] y;    // equality multipliers, meqx1
+  double[] z;    // inequality multipliers, miqx1
+  double[] dx, ds, dy, dz; // steps
+  double[] rd;   // rd = G*x + a - Ceq*y - Ciq*z
+  double[] re;   // re = Ceq'*x - beq
+  double[] ri;   // ri = Ciq'*x - s - biq
+  double[] rsz;  // right-hand side of the complementarity equations
+  double[] qd, qe, qi, qsz; // residuals of the Newton equations at a step
+  double[] cx, cy, cs, cz;  // corrections of the step
+  double[] w;    // w = z/s
+  double[] t;    // work, miqx1
+  double[] tn;   // work, nx1
+  double[] rhs;  // work, nk
+  double[] sol;  // work, nk
+  double[] res;  // work, nk
+
+  private int numAnalyses = 0;
+
+  public InteriorPointWorkspace(){
+    n = -1;
+  }
+
+  // Makes the workspace fit the problem (G, ceq, ciq): the analysis is redone
+  //  only if the non-zero pattern has changed; gOffVal and gDiag are always
+  //  set to the values of G.
+  void prepare(DoubleMatrix2D G, CompressedColumnMatrix ceq, CompressedColumnMatrix ciq){
+    int nG = G.rows();
+    boolean bSame = (nG == n && ceq == this.ceq && ciq == this.ciq);
+
+    // Non-zeros of G above the diagonal, compared with the analysed pattern
+    int count = 0;
+    for(int i=0; i<nG; i++){
+      for(int j=i+1; j<nG; j++){
+        double value = G.getQuick(i,j);
+        if(value == 0) continue;
+        if(bSame){
+          if(count < numGOff && gOffRow[count] == i && gOffCol[count] == j){
+            gOffVal[count] = value;
+          }
+          else{
+            bSame = false;
+          }
+        }
+        count++;
+      }
+    }
+    if(!bSame || count != numGOff){
+      analyze(G, count, ceq, ciq);
+    }
+    for(int i=0; i<n; i++){
+      gDiag[i] = G.getQuick(i,i);
+    }
+  }
+
+  private void analyze(DoubleMatrix2D G, int count, CompressedColumnMatrix ceq,
+                       CompressedColumnMatrix ciq){
+    this.ceq = ceq;
+    this.ciq = ciq;
+    n   = G.rows();
+    meq = ceq.columns();
+    miq = ciq.columns();
+    ineqNode = new int[miq];
+    nk  = n+meq;
+    for(int j=0; j<miq; j++){
+      ineqNode[j] = (ciq.columnStart(j+1)-ciq.columnStart(j) > 1) ? nk++ : -1;
+    }
+
+    numGOff = count;
+    gOffRow = new int[count];
+    gOffCol = new int[count];
+    gOffVal = new double[count];
+    count = 0;
+    for(int i=0; i<n; i++){
+      for(int j=i+1; j<n; j++){
+        double value = G.getQuick(i,j);
+        if(value != 0){
+          gOffRow[count] = i;
+          gOffCol[count] = j;
+          gOffVal[count] = value;
+          count++;
+        }
+      }
+    }
+    gDiag = new double[n];
+
+    order();
+
+    // Pattern of the upper triangle of the ordered KKT matrix, as sorted
+    //  keys column*nk+row
+    int numPairs = 0;
+    for(int j=0; j<miq; j++){
+      if(ineqNode[j] < 0){
+        int len = ciq.columnStart(j+1)-ciq.columnStart(j);
+        numPairs += len*(len+1)/2;
+      }
+    }
+    int numEq = ceq.cardinality();
+    int numIneq = ciq.cardinality();
+    long[] keys = new long[nk+numGOff+numEq+numIneq+numPairs];
+    int k = 0;
+    for(int i=0; i<nk; i++){
+      keys[k++] = key(i, i);
+    }
+    for(int e=0; e<numGOff; e++){
+      keys[k++] = key(gOffRow[e], gOffCol[e]);
+    }
+    for(int j=0; j<meq; j++){
+      for(int e=ceq.columnStart(j); e<ceq.columnStart(j+1); e++){
+        keys[k++] = key(ceq.rowIndex(e), n+j);
+      }
+    }
+    for(int j=0; j<miq; j++){
+      for(int e=ciq.columnStart(j); e<ciq.columnStart(j+1); e++){
+        if(ineqNode[j] >= 0){
+          keys[k++] = key(ciq.rowIndex(e), ineqNode[j]);
+          continue;
+        }
+        for(int f=e; f<ciq.columnStart(j+1); f++){
+          keys[k++] = key(ciq.rowIndex(e), ciq.rowIndex(f));
+        }
+      }
+    }
+    long[] sorted = keys.clone();
+    Arrays.sort(sorted);
+    int nnz = 0;
+    for(int e=0; e<sorted.length; e++){
+      if(e == 0 || sorted[e] != sorted[e-1]){
+        sorted[nnz++] = sorted[e];
+      }
+    }
+    sorted = Arrays.copyOf(sorted, nnz);
+
+    kktStart = new int[nk+1];
+    kktRow = new int[nnz];
+    kktValue = new double[nnz];
+    for(int e=0; e<nnz; e++){
+      kktStart[(int)(sorted[e]/nk)+1]++;
+      kktRow[e] = (int)(sorted[e]%nk);
+    }
+    for(int c=0; c<nk; c++){
+      kktStart[c+1] += kktStart[c];
+    }
+
+    k = 0;
+    diagPos = new int[nk];
+    for(int i=0; i<nk; i++){
+      diagPos[i] = Arrays.binarySearch(sorted, keys[k++]);
+    }
+    gOffPos = new int[numGOff];
+    for(int e=0; e<numGOff; e++){
+      gOffPos[e] = Arrays.binarySearch(sorted, keys[k++]);
+    }
+    eqPos = new int[numEq];
+    for(int e=0; e<numEq; e++){
+      eqPos[e] = Arrays.binarySearch(sorted, keys[k++]);
+    }
+    ineqPos = new int[numIneq];
+    pairStart = new int[miq+1];
+    pairPos = new int[numPairs];
+    pairValue = new double[numPairs];
+    int p = 0;
+    for(int j=0; j<miq; j++){
+      pairStart[j] = p;
+      for(int e=ciq.columnStart(j); e<ciq.columnStart(j+1); e++){
+        if(ineqNode[j] >= 0){
+          ineqPos[e] = Arrays.binarySearch(sorted, keys[k++]);
+          continue;
+        }
+        for(int f=e; f<ciq.columnStart(j+1); f++){
+          pairPos[p] = Arrays.binarySearch(sorted, keys[k++]);
+          pairValue[p] = ciq.value(e)*ciq.value(f);
+          p++;
+        }
+      }
+    }
+    pairStart[miq] = p;
+
+    ldl = new SparseLDL(nk, kktStart, kktRow);
+    perm = new double[nk];
+
+    x   = new double[n];
+    s   = new double[miq];
+    y   = new double[meq];
+    z   = new double[miq];
+    dx  = new double[n];
+    ds  = new double[miq];
+    dy  = new double[meq];
+    dz  = new double[miq];
+    rd  = new double[n];
+    re  = new double[meq];
+    ri  = new double[miq];
+    rsz = new double[miq];
+    qd  = new double[n];
+    qe  = new double[meq];
+    qi  = new double[miq];
+    qsz = new double[miq];
+    cx  = new double[n];
+    cy  = new double[meq];
+    cs  = new double[miq];
+    cz  = new double[miq];
+    w   = new double[miq];
+    t   = new double[miq];
+    tn  = new double[n];
+    rhs = new double[nk];
+    sol = new double[nk];
+    res = new double[nk];
+    numAnalyses++;
+  }
+
+  // Key of the entry (i,j) of the KKT matrix in the upper triangle of the
+  //  ordered matrix
+  private long key(int i, int j){
+    int a = pinv[i];
+    int b = pinv[j];
+    if(a > b){
+      int tmp = a; a = b; b = tmp;
+    }
+    return (long)b*nk + a;
+  }
+
+  // Minimum degree ordering of the KKT graph, eliminating all variable nodes
+  //  (positive pivots) before the equality constraint nodes (negative
+  //  pivots).  A node of Cg is eliminated along with the variable nodes, but
+  //  only after one of its variables: its pivot is then about -c'*c/g (g:
+  //  the pivot of the variable), instead of the -1/w that is tiny when the
+  //  constraint binds.
+  private void order(){
+    ArrayList<HashSet<Integer>> adj = new ArrayList<HashSet<Integer>>(nk);
+    for(int i=0; i<nk; i++){
+      adj.add(new HashSet<Integer>());
+    }
+    for(int e=0; e<numGOff; e++){
+      addEdge(adj, gOffRow[e], gOffCol[e]);
+    }
+    for(int j=0; j<meq; j++){
+      for(int e=ceq.columnStart(j); e<ceq.columnStart(j+1); e++){
+        addEdge(adj, ceq.rowIndex(e), n+j);
+      }
+    }
+    for(int j=0; j<miq; j++){
+      for(int e=ciq.columnStart(j); e<ciq.columnStart(j+1); e++){
+        if(ineqNode[j] >= 0){
+          addEdge(adj, ciq.rowIndex(e), ineqNode[j]);
+          continue;
+        }
+        for(int f=e+1; f<ciq.columnStart(j+1); f++){
+          addEdge(adj, ciq.rowIndex(e), ciq.rowIndex(f));
+        }
+      }
+    }
+
+    // Candidates by (degree, node), variable nodes (and the ready nodes of
+    //  Cg) first
+    TreeSet<Long> variables = new TreeSet<Long>();
+    TreeSet<Long> constraints = new TreeSet<Long>();
+    int[] degree = new int[nk];
+    boolean[] ready = new boolean[nk];
+    for(int i=0; i<nk; i++){
+      degree[i] = adj.get(i).size();
+      if(i < n){
+        ready[i] = true;
+        variables.add(Long.valueOf((long)degree[i]*nk + i));
+      }
+      else if(i < n+meq){
+        constraints.add(Long.valueOf((long)degree[i]*nk + i));
+      }
+    }
+
+    pinv = new int[nk];
+    boolean[] eliminated = new boolean[nk];
+    int[] nb = new int[nk];
+    for(int k=0; k<nk; k++){
+      TreeSet<Long> set = variables.isEmpty() ? constraints : variables;
+      long first = set.pollFirst().longValue();
+      int v = (int)(first % nk);
+      pinv[v] = k;
+      eliminated[v] = true;
+
+      int len = 0;
+      for(Iterator<Integer> it = adj.get(v).iterator(); it.hasNext(); ){
+        nb[len++] = it.next().intValue();
+      }
+      adj.set(v, null);
+      for(int a=0; a<len; a++){
+        adj.get(nb[a]).remove(Integer.valueOf(v));
+      }
+      for(int a=0; a<len; a++){
+        for(int b=a+1; b<len; b++){
+          addEdge(adj, nb[a], nb[b]);
+        }
+      }
+      for(int a=0; a<len; a++){
+        int u = nb[a];
+        boolean bEq = (u >= n && u < n+meq);
+        if(ready[u] || bEq){
+          (bEq ? constraints : variables).remove(Long.valueOf((long)degree[u]*nk + u));
+        }
+        degree[u] = adj.get(u).size();
+        if(v < n && u >= n+meq){
+          ready[u] = true;
+        }
+        if(ready[u] || bEq){
+          (bEq ? constraints : variables).add(Long.valueOf((long)degree[u]*nk + u));
+        }
+      }
+    }
+  }
+
+  private static void addEdge(ArrayList<HashSet<Integer>> adj, int i, int j){
+    adj.get(i).add(Integer.valueOf(j));
+    adj.get(j).add(Integer.valueOf(i));
+  }
+
+  // Assembles the KKT matrix for the weights w (miqx1, positive), the primal
+  //  regularization gamma (relative: each diagonal entry d of the primal
+  //  block becomes d + gamma*(1+|d|)) and the equality regularization delta,
+  //  and factors it.  Returns false on a zero pivot.
+  boolean factor(double gamma, double delta){
+    Arrays.fill(kktValue, 0);
+    for(int i=0; i<n; i++){
+      kktValue[diagPos[i]] = gDiag[i];
+    }
+    for(int i=n; i<n+meq; i++){
+      kktValue[diagPos[i]] = -delta;
+    }
+    for(int e=0; e<numGOff; e++){
+      kktValue[gOffPos[e]] += gOffVal[e];
+    }
+    for(int e=0; e<eqPos.length; e++){
+      kktValue[eqPos[e]] += ceq.value(e);
+    }
+    for(int j=0; j<miq; j++){
+      double wj = w[j];
+      if(ineqNode[j] >= 0){
+        kktValue[diagPos[ineqNode[j]]] = -1/wj;
+        for(int e=ciq.columnStart(j); e<ciq.columnStart(j+1); e++){
+          kktValue[ineqPos[e]] += ciq.value(e);
+        }
+        continue;
+      }
+      for(int p=pairStart[j]; p<pairStart[j+1]; p++){
+        kktValue[pairPos[p]] += wj*pairValue[p];
+      }
+    }
+    if(gamma > 0){
+      for(int i=0; i<n; i++){
+        double d = kktValue[diagPos[i]];
+        kktValue[diagPos[i]] = d + gamma*(1+Math.abs(d));
+      }
+    }
+    return ldl.factor(kktValue);
+  }
+
+  // b <- KKT^{-1} * b with the factors from factor() (b: nkx1)
+  void solve(double[] b){
+    for(int i=0; i<nk; i++){
+      perm[pinv[i]] = b[i];
+    }
+    ldl.solve(perm);
+    for(int i=0; i<nk; i++){
+      b[i] = perm[pinv[i]];
+    }
+  }
+
+  /**
+   * Returns how many times the KKT structure has been analysed
+   * @return int
+   */
+  public int getNumAnalyses(){
+    return numAnalyses;
+  }
+}
@@ -0,0 +1,287 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// MappedDailyHistory.java
+// DailyHistory kept in a memory-mapped file
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A DailyHistory whose days are kept in a file, through NIO memory-mapped
+ * buffers, instead of on the heap: the heap use of a history stays the same
+ * whatever the number of days, and the days written so far stay in the file
+ * if the run stops abnormally (open() reads them back).
+ *
+ * The file is a sequence of chunks of DAYS_PER_CHUNK days, each mapped on
+ * its own when it is started.  A chunk is (little-endian):
+ *   int  number of days stored in the chunk
+ *   int  rows, int cols, int 0
+ *   int  row lengths [DAYS_PER_CHUNK*rows] (padded to 8 bytes)
+ *   double values [DAYS_PER_CHUNK*rows*cols], as in DailyHistory
+ * Each chunk has its own width, so a wider row only re-lays out the current
+ * chunk (a copy is appended and the old one is marked empty).
+ */
+public class MappedDailyHistory extends DailyHistory {
+
+  private static final int HEADER_BYTES = 16;
+
+  private File file;
+  private RandomAccessFile raf;
+  private FileChannel channel;
+  private long fileLength;       // end of the last chunk
+
+  private int rows;
+  private int numDays;
+  private ArrayList<MappedByteBuffer> buffers = new ArrayList<MappedByteBuffer>();  // each chunk
+  private int[] chunkCols = new int[4];  // width of each chunk (the first buffers.size())
+
+  /**
+   * Creates an empty history in file (overwritten if it exists)
+   */
+  public MappedDailyHistory(File file) throws IOException {
+    this.file = file;
+    raf = new RandomAccessFile(file, "rw");
+    raf.setLength(0);
+    channel = raf.getChannel();
+  }
+
+  private MappedDailyHistory(File file, RandomAccessFile raf){
+    this.file = file;
+    this.raf = raf;
+    channel = raf.getChannel();
+  }
+
+  /**
+   * Opens a history written earlier, e.g. by a run that did not end; the
+   * days found can be read and new days appended
+   */
+  public static MappedDailyHistory open(File file) throws IOException {
+    MappedDailyHistory history = new MappedDailyHistory(file, new RandomAccessFile(file, "rw"));
+    long length = history.channel.size();
+    while(history.fileLength+HEADER_BYTES <= length){
+      MappedByteBuffer header = history.channel.map(FileChannel.MapMode.READ_ONLY, history.fileLength, HEADER_BYTES);
+      header.order(ByteOrder.LITTLE_ENDIAN);
+      int iDays = header.getInt(0);
+      int iRows = header.getInt(4);
+      int iCols = header.getInt(8);
+      if(iRows <= 0 || iCols < 0 || iDays < 0 || iDays > DAYS_PER_CHUNK)
+        break;
+      long chunkBytes = chunkBytes(iRows, iCols);
+      if(history.fileLength+chunkBytes > length)
+        break;
+      if(iDays > 0){
+        if(history.numDays%DAYS_PER_CHUNK != 0 || (history.rows != 0 && history.rows != iRows))
+          break;  // only the last chunk may be partly filled
+        MappedByteBuffer buffer = history.channel.map(FileChannel.MapMode.READ_WRITE, history.fileLength, chunkBytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        history.addChunk(buffer, iCols);
+        history.rows = iRows;
+        history.numDays += iDays;
+      }
+      history.fileLength += chunkBytes;
+    }
+    return history;
+  }
+
+  public File getFile(){return file;}
+
+  private static long chunkBytes(int rows, int cols){
+    return HEADER_BYTES + lengthsBytes(rows) + 8L*DAYS_PER_CHUNK*rows*cols;
+  }
+
+  private static int lengthsBytes(int rows){
+    return ((4*DAYS_PER_CHUNK*rows+7)/8)*8;
+  }
+
+  // Maps a new chunk of the given width at the end of the file
+  private MappedByteBuffer newChunk(int cols){
+    long chunkBytes = chunkBytes(rows, cols);
+    try {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, fileLength, chunkBytes);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      buffer.putInt(0, 0);
+      buffer.putInt(4, rows);
+      buffer.putInt(8, cols);
+      buffer.putInt(12, 0);
+      fileLength += chunkBytes;
+      return buffer;
+    }
+    catch(IOException e){
+      throw new RuntimeException("Cannot extend the results file "+file, e);
+    }
+  }
+
+  // Appends a mapped chunk of the given width
+  private void addChunk(MappedByteBuffer buffer, int cols){
+    int iChunk = buffers.size();
+    if(iChunk == chunkCols.length)
+      chunkCols = Arrays.copyOf(chunkCols, 2*iChunk);
+    chunkCols[iChunk] = cols;
+    buffers.add(buffer);
+  }
+
+  private int valuesOffset(){
+    return HEADER_BYTES + lengthsBytes(rows);
+  }
+
+  public void addDay(double[][] table){
+    if(numDays == 0 && buffers.isEmpty()){
+      rows = table.length;
+    }
+    else if(table.length != rows){
+      throw new IllegalArgumentException("DailyHistory: "+table.length+" rows, expected "+rows);
+    }
+
+    int iWidest = 0;
+    for(int r=0; r<rows; r++){
+      iWidest = Math.max(iWidest, table[r].length);
+    }
+
+    int iChunk = numDays/DAYS_PER_CHUNK;
+    int iDay = numDays%DAYS_PER_CHUNK;
+    if(iChunk == buffers.size()){
+      addChunk(newChunk(iWidest), iWidest);
+    }
+    else if(iWidest > chunkCols[iChunk]){
+      widenChunk(iChunk, iWidest);
+    }
+
+    MappedByteBuffer buffer = buffers.get(iChunk);
+    int iCols = chunkCols[iChunk];
+    int iValues = valuesOffset();
+    for(int r=0; r<rows; r++){
+      int k = iDay*rows+r;
+      buffer.putInt(HEADER_BYTES+4*k, table[r].length);
+      for(int c=0; c<table[r].length; c++){
+        buffer.putDouble(iValues+8*(k*iCols+c), table[r][c]);
+      }
+    }
+    buffer.putInt(0, iDay+1);  // the day is complete
+    numDays++;
+  }
+
+  // Copies the (current) chunk to a new wider chunk and drops the old one
+  private void widenChunk(int iChunk, int newCols){
+    MappedByteBuffer oldBuffer = buffers.get(iChunk);
+    int oldCols = chunkCols[iChunk];
+    MappedByteBuffer newBuffer = newChunk(newCols);
+    int iDays = oldBuffer.getInt(0);
+    int iValues = valuesOffset();
+    for(int k=0; k<iDays*rows; k++){
+      int iLength = oldBuffer.getInt(HEADER_BYTES+4*k);
+      newBuffer.putInt(HEADER_BYTES+4*k, iLength);
+      for(int c=0; c<iLength; c++){
+        newBuffer.putDouble(iValues+8*(k*newCols+c), oldBuffer.getDouble(iValues+8*(k*oldCols+c)));
+      }
+    }
+    newBuffer.putInt(0, iDays);
+    oldBuffer.putInt(0, 0);
+    buffers.set(iChunk, newBuffer);
+    chunkCols[iChunk] = newCols;
+  }
+
+  public int getNumDays(){return numDays;}
+  public int getNumRows(){return rows;}
+
+  // Widest row so far
+  public int getNumCols(){
+    int iCols = 0;
+    for(int i=0; i<buffers.size(); i++){
+      iCols = Math.max(iCols, chunkCols[i]);
+    }
+    return iCols;
+  }
+
+  public double get(int day, int row, int col){
+    int iChunk = day/DAYS_PER_CHUNK;
+    int iCols = chunkCols[iChunk];
+    int k = (day%DAYS_PER_CHUNK)*rows+row;
+    return buffers.get(iChunk).getDouble(valuesOffset()+8*(k*iCols+col));
+  }
+
+  public int getRowLength(int day, int row){
+    int k = (day%DAYS_PER_CHUNK)*rows+row;
+    return buffers.get(day/DAYS_PER_CHUNK).getInt(HEADER_BYTES+4*k);
+  }
+
+  public void copyRow(int day, int row, double[] dest){
+    int iChunk = day/DAYS_PER_CHUNK;
+    MappedByteBuffer buffer = buffers.get(iChunk);
+    int iCols = chunkCols[iChunk];
+    int k = (day%DAYS_PER_CHUNK)*rows+row;
+    int iLength = buffer.getInt(HEADER_BYTES+4*k);
+    int iStart = valuesOffset()+8*k*iCols;
+    for(int c=0; c<iLength; c++){
+      dest[c] = buffer.getDouble(iStart+8*c);
+    }
+  }
+
+  public int size(){
+    return numDays;
+  }
+
+  // Forgets all days and empties the file
+  public void clear(){
+    for(int i=0; i<buffers.size(); i++){
+      buffers.get(i).putInt(0, 0);
+    }
+    buffers.clear();
+    numDays = 0;
+    rows = 0;
+    fileLength = 0;
+    try {
+      channel.truncate(0);
+    }
+    catch(IOException e){
+      // Some systems cannot shrink a file while it is mapped; the chunks
+      //  are marked empty above and are overwritten by the next days
+    }
+  }
+
+  // Writes the days to the storage device
+  public void force(){
+    for(int i=0; i<buffers.size(); i++){
+      buffers.get(i).force();
+    }
+  }
+
+  public void close() throws IOException {
+    force();
+    buffers.clear();
+    raf.close();
+  }
+
+  // Closes the history without writing it out, and deletes its file (on
+  //  systems that cannot delete a mapped file, when the JVM exits)
+  public void discard() throws IOException {
+    buffers.clear();
+    raf.close();
+    if(!file.delete())
+      file.deleteOnExit();
+  }
+}
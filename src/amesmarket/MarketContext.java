@@ -0,0 +1,145 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// MarketContext.java
+// Immutable data of one market run: base values, case data and parameters
+
+/**
+ * The data a market run is built from, fixed when AMESMarket.buildModel()
+ * starts: the per-unit base values, the case data (in SI units) and the
+ * simulation parameters that the ISO and the DC-OPF need.
+ *
+ * Each AMESMarket has its own context, which is handed to the ISO, the BUC,
+ * the TransGrid and, through the grid, to DCOPFJ, instead of the per-unit
+ * base values being kept statically by INIT; so several markets can be run
+ * at the same time in one JVM.
+ *
+ * A context is never changed after it is built: it keeps its own copies of
+ * the case arrays and its array getters return copies.  Only the metrics
+ * registry it refers to is updated during the run.
+ */
+public final class MarketContext {
+
+  private final double baseS;
+  private final double baseV;
+
+  private final double[][] nodeData;
+  private final double[][] branchData;
+  private final double[][] genData;
+  private final double[][] lseData;
+  private final double[][][] lsePriceSensitiveData;
+  private final int[][] lseHybridData;
+  private final double[][] genLearningParameters;
+
+  private final long randomSeed;
+  private final int maxDay;
+  private final double genPriceCap;
+  private final double lsePriceCap;
+  private final int qpSolver;
+  private final int numOPFThreads;
+  private final int numAgentThreads;
+  private final boolean bWarmStartOPF;
+  private final RandomStreams randomStreams;
+  private final MetricsRegistry metrics;
+
+  // Context of the case and parameters set in ames
+  MarketContext(AMESMarket ames){
+    baseS = ames.getBaseS();
+    baseV = ames.getBaseV();
+
+    nodeData = copy(ames.getNodeData());
+    branchData = copy(ames.getBranchData());
+    genData = copy(ames.getGenData());
+    lseData = copy(ames.getLSEData());
+    lsePriceSensitiveData = copy(ames.getLSEPriceSensitiveData());
+    lseHybridData = copy(ames.getLSEHybridData());
+    genLearningParameters = copy(ames.genLearningParameters);
+
+    randomSeed = ames.getRandomSeed();
+    randomStreams = new RandomStreams(randomSeed);
+    maxDay = ames.getMaxDay();
+    genPriceCap = ames.getGenPriceCap();
+    lsePriceCap = ames.getLSEPriceCap();
+    qpSolver = ames.getQPSolver();
+    numOPFThreads = ames.getNumOPFThreads();
+    numAgentThreads = ames.getNumAgentThreads();
+    bWarmStartOPF = ames.getWarmStartOPF();
+    metrics = ames.getMetrics();
+  }
+
+  private static double[][] copy(double[][] a){
+    if(a == null)
+      return null;
+    double[][] b = new double[a.length][];
+    for(int i=0; i<a.length; i++){
+      b[i] = (double[]) a[i].clone();
+    }
+    return b;
+  }
+
+  private static double[][][] copy(double[][][] a){
+    if(a == null)
+      return null;
+    double[][][] b = new double[a.length][][];
+    for(int i=0; i<a.length; i++){
+      b[i] = copy(a[i]);
+    }
+    return b;
+  }
+
+  private static int[][] copy(int[][] a){
+    if(a == null)
+      return null;
+    int[][] b = new int[a.length][];
+    for(int i=0; i<a.length; i++){
+      b[i] = (int[]) a[i].clone();
+    }
+    return b;
+  }
+
+  // Per-unit base values
+  public double getBaseS(){return baseS;}
+  public double getBaseV(){return baseV;}
+
+  // Case data (copies), in SI units
+  public double[][] getNodeData(){return copy(nodeData);}
+  public double[][] getBranchData(){return copy(branchData);}
+  public double[][] getGenData(){return copy(genData);}
+  public double[][] getLSEData(){return copy(lseData);}
+  public double[][][] getLSEPriceSensitiveData(){return copy(lsePriceSensitiveData);}
+  public int[][] getLSEHybridData(){return copy(lseHybridData);}
+  public double[][] getGenLearningParameters(){return copy(genLearningParameters);}
+
+  // Simulation parameters
+  public long getRandomSeed(){return randomSeed;}
+  // Random number streams of the run, all derived from the random seed
+  public RandomStreams getRandomStreams(){return randomStreams;}
+  public int getMaxDay(){return maxDay;}
+  public double getGenPriceCap(){return genPriceCap;}
+  public double getLSEPriceCap(){return lsePriceCap;}
+  public int getQPSolver(){return qpSolver;}
+  public int getNumOPFThreads(){return numOPFThreads;}
+  public int getNumAgentThreads(){return numAgentThreads;}
+  public boolean getWarmStartOPF(){return bWarmStartOPF;}
+
+  // Registry the run records its metrics in (the only mutable part)
+  public MetricsRegistry getMetrics(){return metrics;}
+}
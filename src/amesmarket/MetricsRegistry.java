@@ -0,0 +1,429 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// MetricsRegistry.java
+// Counters and histograms of the hot path, exported as CSV, JSON and JMX
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the metrics of market runs: counters, and histograms of the
+ * latencies (in ns) and sizes of the hot-path operations.  Each AMESMarket
+ * has one (see AMESMarket.setMetrics()), handed to the BUC and DCOPFJ with
+ * the MarketContext; several markets may share one, e.g. all scenarios of a
+ * BatchRunner, as the metrics are thread-safe.
+ *
+ * The market records the metrics named by the constants below.  A snapshot
+ * of all metrics can be written as CSV or JSON, now (writeSnapshot()) or
+ * every few seconds during a run (startReporting()), and the registry can
+ * be registered as a JMX MBean (registerMBean()), with one attribute for
+ * each counter and for the count, mean, percentiles and maximum of each
+ * histogram.
+ */
+public class MetricsRegistry implements DynamicMBean {
+
+  // Metrics recorded by the market
+  public static final String OPF_BUILD_TIME = "opf.buildTime";           // per hourly DC-OPF, ns
+  public static final String OPF_SOLVE_TIME = "opf.solveTime";           // per hourly DC-OPF, ns
+  public static final String OPF_ITERATIONS = "opf.iterations";          // per solve
+  public static final String OPF_CONSTRAINTS_ADDED = "opf.constraintsAdded";
+  public static final String OPF_CONSTRAINTS_DROPPED = "opf.constraintsDropped";
+  public static final String OPF_DAY_TIME = "opf.dayTime";               // per BUC.solveOPF(), ns
+  public static final String OPF_HOURS = "opf.hours";
+  public static final String OPF_INFEASIBLE_HOURS = "opf.infeasibleHours";
+  public static final String LEARNING_DAY_TIME = "learning.dayTime";     // per DAMarket.post(), ns
+  public static final String OUTPUT_WRITE_TIME = "output.writeTime";     // per output data file, ns
+  public static final String MARKET_DAYS = "market.days";
+
+  public static final String OBJECT_NAME_PREFIX = "amesmarket:type=Metrics,name=";
+
+  // Percentiles in the snapshots and MBean attributes
+  private static final double[] PERCENTILES = {50.0, 90.0, 99.0};
+  private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99"};
+
+  /**
+   * A counter
+   */
+  public static class Counter {
+    private final AtomicLong value = new AtomicLong();
+
+    public void increment(){value.incrementAndGet();}
+    public void add(long n){value.addAndGet(n);}
+    public long get(){return value.get();}
+  }
+
+  /**
+   * A histogram of non-negative long values, with SUB_BUCKETS buckets for
+   * each power of two, so that its percentiles are within 1/SUB_BUCKETS
+   * (relative) of the values recorded
+   */
+  public static class Histogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1<<SUB_BITS;
+
+    private final long[] buckets = new long[64*SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    private static int bucket(long value){
+      if(value < SUB_BUCKETS)
+        return (int)Math.max(0, value);
+      int iExponent = 63 - Long.numberOfLeadingZeros(value);
+      int iSub = (int)(value >>> (iExponent-SUB_BITS)) & (SUB_BUCKETS-1);
+      return (iExponent-SUB_BITS+1)*SUB_BUCKETS + iSub;
+    }
+
+    // Largest value of the bucket
+    private static long bucketMax(int b){
+      if(b < SUB_BUCKETS)
+        return b;
+      int iExponent = b/SUB_BUCKETS + SUB_BITS - 1;
+      long lower = ((long)(SUB_BUCKETS + b%SUB_BUCKETS)) << (iExponent-SUB_BITS);
+      return lower + (1L << (iExponent-SUB_BITS)) - 1;
+    }
+
+    public synchronized void record(long value){
+      buckets[bucket(value)]++;
+      count++;
+      sum += value;
+      if(value < min) min = value;
+      if(value > max) max = value;
+    }
+
+    public synchronized long getCount(){return count;}
+    public synchronized long getSum(){return sum;}
+    public synchronized long getMin(){return (count > 0) ? min : 0;}
+    public synchronized long getMax(){return (count > 0) ? max : 0;}
+    public synchronized double getMean(){return (count > 0) ? (double)sum/count : 0.0;}
+
+    // The value below which p percent of the values fall (0 if empty)
+    public synchronized long getPercentile(double p){
+      if(count == 0)
+        return 0;
+      long rank = (long)Math.ceil(p/100.0*count);
+      long seen = 0;
+      for(int b=0; b<buckets.length; b++){
+        seen += buckets[b];
+        if(seen >= rank && seen > 0)
+          return Math.min(bucketMax(b), max);
+      }
+      return max;
+    }
+  }
+
+  private final LinkedHashMap<String, Object> metrics = new LinkedHashMap<String, Object>();  // name -> Counter or Histogram
+  private ScheduledExecutorService reporter;
+  private File reportFile;
+  private ObjectName objectName;
+
+  // The counter of that name, created on first use
+  public synchronized Counter counter(String name){
+    Object metric = metrics.get(name);
+    if(metric == null){
+      metric = new Counter();
+      metrics.put(name, metric);
+    }
+    if(!(metric instanceof Counter))
+      throw new IllegalArgumentException(name+" is not a counter");
+    return (Counter) metric;
+  }
+
+  // The histogram of that name, created on first use
+  public synchronized Histogram histogram(String name){
+    Object metric = metrics.get(name);
+    if(metric == null){
+      metric = new Histogram();
+      metrics.put(name, metric);
+    }
+    if(!(metric instanceof Histogram))
+      throw new IllegalArgumentException(name+" is not a histogram");
+    return (Histogram) metric;
+  }
+
+  public synchronized String[] getNames(){
+    return metrics.keySet().toArray(new String[metrics.size()]);
+  }
+
+  public synchronized Object getMetric(String name){
+    return metrics.get(name);
+  }
+
+  // The values of a snapshot: name, then type, count, sum, min, mean,
+  //  percentiles and max (the counter value as count and sum)
+  private Object[][] snapshot(){
+    String[] names = getNames();
+    Object[][] rows = new Object[names.length][];
+    for(int i=0; i<names.length; i++){
+      Object metric = getMetric(names[i]);
+      if(metric instanceof Counter){
+        long value = ((Counter)metric).get();
+        rows[i] = new Object[] {names[i], "counter", Long.valueOf(value), Long.valueOf(value)};
+      }
+      else{
+        Histogram h = (Histogram) metric;
+        synchronized(h){
+          Object[] row = new Object[7+PERCENTILES.length];
+          row[0] = names[i];
+          row[1] = "histogram";
+          row[2] = Long.valueOf(h.getCount());
+          row[3] = Long.valueOf(h.getSum());
+          row[4] = Long.valueOf(h.getMin());
+          row[5] = Double.valueOf(h.getMean());
+          for(int p=0; p<PERCENTILES.length; p++)
+            row[6+p] = Long.valueOf(h.getPercentile(PERCENTILES[p]));
+          row[6+PERCENTILES.length] = Long.valueOf(h.getMax());
+          rows[i] = row;
+        }
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Writes a snapshot of all metrics as CSV, one metric per line
+   */
+  public void writeCSV(Writer out) throws IOException {
+    out.write("name,type,count,sum,min,mean");
+    for(int p=0; p<PERCENTILES.length; p++)
+      out.write(","+PERCENTILE_NAMES[p]);
+    out.write(",max\n");
+    Object[][] rows = snapshot();
+    for(int i=0; i<rows.length; i++){
+      for(int j=0; j<7+PERCENTILES.length; j++){
+        if(j > 0)
+          out.write(",");
+        if(j < rows[i].length)
+          out.write(String.valueOf(rows[i][j]));
+      }
+      out.write("\n");
+    }
+  }
+
+  /**
+   * Writes a snapshot of all metrics as a JSON object, with the time of the
+   * snapshot and one member per metric
+   */
+  public void writeJSON(Writer out) throws IOException {
+    out.write("{\n  \"timestamp\": "+System.currentTimeMillis());
+    Object[][] rows = snapshot();
+    for(int i=0; i<rows.length; i++){
+      out.write(",\n  \""+rows[i][0]+"\": {\"type\": \""+rows[i][1]+"\"");
+      if(rows[i].length == 4){
+        out.write(", \"value\": "+rows[i][2]+"}");
+        continue;
+      }
+      out.write(", \"count\": "+rows[i][2]+", \"sum\": "+rows[i][3]+", \"min\": "+rows[i][4]
+                +", \"mean\": "+rows[i][5]);
+      for(int p=0; p<PERCENTILES.length; p++)
+        out.write(", \""+PERCENTILE_NAMES[p]+"\": "+rows[i][6+p]);
+      out.write(", \"max\": "+rows[i][6+PERCENTILES.length]+"}");
+    }
+    out.write("\n}\n");
+  }
+
+  /**
+   * Writes a snapshot to the file, as JSON if its name ends with .json and
+   * as CSV otherwise; the file is replaced at once, so that readers never
+   * see a partial snapshot
+   */
+  public void writeSnapshot(File file) throws IOException {
+    File dir = file.getAbsoluteFile().getParentFile();
+    File tempFile = File.createTempFile(file.getName(), ".tmp", dir);
+    Writer out = new BufferedWriter(new FileWriter(tempFile));
+    try {
+      if(file.getName().toLowerCase().endsWith(".json"))
+        writeJSON(out);
+      else
+        writeCSV(out);
+    }
+    finally {
+      out.close();
+    }
+    file.delete();
+    if(!tempFile.renameTo(file)){
+      tempFile.delete();
+      throw new IOException("Cannot write "+file);
+    }
+  }
+
+  /**
+   * Writes a snapshot to the file every periodMillis ms, from a daemon
+   * thread, until stopReporting()
+   */
+  public synchronized void startReporting(File file, long periodMillis){
+    stopReporting();
+    reportFile = file;
+    reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory(){
+      public Thread newThread(Runnable r){
+        Thread t = new Thread(r, "MetricsReporter");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    reporter.scheduleAtFixedRate(new Runnable(){
+      public void run(){
+        try {
+          writeSnapshot(reportFile);
+        }
+        catch(IOException e){
+          System.err.println("Metrics snapshot failed: "+e.getMessage());
+        }
+      }
+    }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the periodic snapshots, if any, and writes a last one
+   */
+  public synchronized void stopReporting(){
+    if(reporter == null)
+      return;
+    reporter.shutdown();
+    try {
+      reporter.awaitTermination(10, TimeUnit.SECONDS);
+      writeSnapshot(reportFile);
+    }
+    catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+    }
+    catch(IOException e){
+      System.err.println("Metrics snapshot failed: "+e.getMessage());
+    }
+    reporter = null;
+  }
+
+  /**
+   * Registers this registry with the platform MBean server, as
+   * amesmarket:type=Metrics,name=<name>
+   */
+  public synchronized void registerMBean(String name) throws JMException {
+    unregisterMBean();
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    objectName = new ObjectName(OBJECT_NAME_PREFIX+ObjectName.quote(name));
+    server.registerMBean(this, objectName);
+  }
+
+  public synchronized void unregisterMBean() throws JMException {
+    if(objectName == null)
+      return;
+    ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    objectName = null;
+  }
+
+  // DynamicMBean: read-only attributes <counter> and <histogram>.<statistic>
+
+  public Object getAttribute(String attribute) throws AttributeNotFoundException {
+    Object metric = getMetric(attribute);
+    if(metric instanceof Counter)
+      return Long.valueOf(((Counter)metric).get());
+    int iDot = attribute.lastIndexOf('.');
+    if(iDot > 0){
+      metric = getMetric(attribute.substring(0, iDot));
+      if(metric instanceof Histogram){
+        Histogram h = (Histogram) metric;
+        String statistic = attribute.substring(iDot+1);
+        if(statistic.equals("count")) return Long.valueOf(h.getCount());
+        if(statistic.equals("mean")) return Double.valueOf(h.getMean());
+        if(statistic.equals("max")) return Long.valueOf(h.getMax());
+        for(int p=0; p<PERCENTILES.length; p++){
+          if(statistic.equals(PERCENTILE_NAMES[p]))
+            return Long.valueOf(h.getPercentile(PERCENTILES[p]));
+        }
+      }
+    }
+    throw new AttributeNotFoundException(attribute);
+  }
+
+  public AttributeList getAttributes(String[] attributes){
+    AttributeList list = new AttributeList();
+    for(int i=0; i<attributes.length; i++){
+      try {
+        list.add(new Attribute(attributes[i], getAttribute(attributes[i])));
+      }
+      catch(AttributeNotFoundException e){
+        // left out, as the JMX specification asks
+      }
+    }
+    return list;
+  }
+
+  public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+    throw new AttributeNotFoundException("Metrics are read-only: "+attribute.getName());
+  }
+
+  public AttributeList setAttributes(AttributeList attributes){
+    return new AttributeList();
+  }
+
+  public Object invoke(String actionName, Object[] params, String[] signature){
+    throw new UnsupportedOperationException(actionName);
+  }
+
+  public MBeanInfo getMBeanInfo(){
+    ArrayList<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+    String[] names = getNames();
+    for(int i=0; i<names.length; i++){
+      Object metric = getMetric(names[i]);
+      if(metric instanceof Counter){
+        attributes.add(new MBeanAttributeInfo(names[i], "java.lang.Long", "Counter "+names[i],
+                                              true, false, false));
+        continue;
+      }
+      attributes.add(new MBeanAttributeInfo(names[i]+".count", "java.lang.Long", "Values recorded",
+                                            true, false, false));
+      attributes.add(new MBeanAttributeInfo(names[i]+".mean", "java.lang.Double", "Mean value",
+                                            true, false, false));
+      for(int p=0; p<PERCENTILES.length; p++){
+        attributes.add(new MBeanAttributeInfo(names[i]+"."+PERCENTILE_NAMES[p], "java.lang.Long",
+                                              PERCENTILES[p]+"th percentile", true, false, false));
+      }
+      attributes.add(new MBeanAttributeInfo(names[i]+".max", "java.lang.Long", "Maximum value",
+                                            true, false, false));
+    }
+    return new MBeanInfo(getClass().getName(), "AMES market metrics",
+                         attributes.toArray(new MBeanAttributeInfo[attributes.size()]),
+                         null, new MBeanOperationInfo[0], null);
+  }
+}
@@ -0,0 +1,636 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// OutputDataWriter.java
+// Writes the output data file (.out) of a finished simulation run
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Writes the results of a finished AMESMarket run in the text output data
+ * file format of AMES (the "*.out" files, read back by "Load Batch Mode
+ * Output" in the GUI).  The GUI itself now saves its runs with
+ * BinaryOutputWriter, which is much faster to write and to read back; the
+ * text format remains the default of BatchRunner for other tools.
+ *
+ * The writer only needs the AMESMarket and the branch, GenCo and LSE names
+ * of the case, so it does not depend on the GUI.
+ */
+public class OutputDataWriter {
+
+  public static void write(File outputFile, String caseFileName, AMESMarket ames,
+      String [] branchNames, String [] genNames, String [] lseNames) throws IOException {
+    long lStart = System.nanoTime();
+    FileWriter       outputFileWriter = new FileWriter(outputFile);
+    BufferedWriter   outputBufferWriter = new BufferedWriter(outputFileWriter);
+
+    String [] nodeName=new String[ames.getNumNodes()];
+    for(int i=0; i<nodeName.length; i++)
+        nodeName[i]="Bus "+(i+1);
+    int iNodeNumber=nodeName.length;
+    
+    DailyHistory LMPWithTrueCost=ames.getLMPWithTrueCost();
+    int iLMPWithTrueCost=LMPWithTrueCost.size();
+     
+    DailyHistory genAgentProfitWithTrueCost=ames.getGenAgentProfitAndNetGainWithTrueCost();
+    int igenAgentProfitWithTrueCost=genAgentProfitWithTrueCost.size();
+    
+    DailyHistory genAgentCommitmentWithTrueCost=ames.getGenAgentCommitmentWithTrueCost();
+    int igenAgentCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.size();
+
+    DailyHistory lseAgentPriceSensitiveDemandWithTrueCost=ames.getLSEAgentPriceSensitiveDemandWithTrueCost();
+    int ilseAgentPriceSensitiveDemandWithTrueCost=lseAgentPriceSensitiveDemandWithTrueCost.size();
+
+    DailyHistory LSEAgentSurplusWithTrueCost=ames.getLSEAgentSurplusWithTrueCost();
+    int iLSEAgentSurplusWithTrueCost=LSEAgentSurplusWithTrueCost.size();
+
+    ArrayList hasSolutionByDay=ames.getHasSolutionByDay();
+    int ihasSolutionByDay=hasSolutionByDay.size();
+    
+    DailyHistory genAgentSupplyOfferByDay=ames.getGenAgentSupplyOfferByDay();
+    int igenAgentSupplyOfferByDay=genAgentSupplyOfferByDay.size();
+
+    DailyHistory genAgentCommitmentByDay=ames.getGenAgentCommitmentByDay();
+    int igenAgentCommitmentByDay=genAgentCommitmentByDay.size();
+    
+    DailyHistory genAgentProfitAndNetGainByDay=ames.getGenAgentProfitAndNetGainByDay();
+    int igenAgentProfitAndNetGainByDay=genAgentProfitAndNetGainByDay.size();
+
+    DailyHistory getGenAgentActionPropensityAndProbilityByDay=ames.getGenAgentActionPropensityAndProbilityByDay();
+    int igetGenAgentActionPropensityAndProbilityByDay=getGenAgentActionPropensityAndProbilityByDay.size();
+
+    DailyHistory lseAgentSurplusByDay=ames.getLSEAgentSurplusByDay();
+    int ilseAgentSurplusByDay=lseAgentSurplusByDay.size();
+
+    DailyHistory priceSensitiveByDay=ames.getLSEAgenPriceSensitiveDemandByDay();
+    int ipriceSensitiveByDay=priceSensitiveByDay.size();
+
+    DailyHistory branchFlowByDay=ames.getBranchFlowByDay();
+    int ibranchFlowByDay=branchFlowByDay.size();
+    
+    DailyHistory LMPByDay=ames.getLMPByDay();
+    int iLMPByDay=LMPByDay.size();
+
+    ArrayList genAction=ames.getGenActions();
+    
+    int iBranchNumber=branchNames.length;
+ 
+    int iGenNumber=genNames.length;
+    double [][] genLearningData=ames.genLearningParameters;
+    
+    int [][] lseHybridData=ames.getLSEHybridData();
+    int iLSENumber=lseNames.length;
+    
+    String strTemp;
+
+    outputBufferWriter.write("// Output Data File:\n");
+    outputBufferWriter.write("//\n");
+    strTemp = "// FILENAME "+outputFile.getName()+"\n";
+    outputBufferWriter.write(strTemp);
+    outputBufferWriter.write("//\n");
+
+    strTemp = "// CASE FILENAME :\n";
+    outputBufferWriter.write(strTemp);
+    strTemp = caseFileName+"\n";
+    outputBufferWriter.write(strTemp);
+    outputBufferWriter.write("\n");
+    
+    strTemp=String.format("//%1$13s\t%2$15s\t%3$15s\t%4$15s\n", "iNodeNumber", "iBranchNumber", "iGenNumber", "iLSENumber");
+    outputBufferWriter.write(strTemp);
+    strTemp=String.format("%1$15d\t%2$15d\t%3$15d\t%4$15d\n", iNodeNumber, iBranchNumber, iGenNumber, iLSENumber);
+    outputBufferWriter.write(strTemp);
+
+    strTemp=String.format("//%1$18s\t%2$25s\t%3$27s\t%4$20s\t%5$20s\t%6$25s\t%7$20s\t%8$20s\t%9$20s\t%10$20s\n", "iLMPWithTrueCost", "iGenCommitWithTrueCost", "iLSEPSDispatchWithTrueCost", "igenAgentSupplyOffer", "igenAgentCommitment", 
+            "igenAgentProfitAndNetGain", "ilseAgentSurplus", "ipriceSensitive", "ibranchFlow", "iLMP");
+    outputBufferWriter.write(strTemp);
+    strTemp=String.format("%1$20d\t%2$25d\t%3$27d\t%4$20d\t%5$20d\t%6$25d\t%7$20d\t%8$20d\t%9$20d\t%10$20d\n", iLMPWithTrueCost, igenAgentCommitmentWithTrueCost, ilseAgentPriceSensitiveDemandWithTrueCost, igenAgentSupplyOfferByDay, igenAgentCommitmentByDay, 
+            igenAgentProfitAndNetGainByDay, ilseAgentSurplusByDay, ipriceSensitiveByDay, ibranchFlowByDay, iLMPByDay);
+    outputBufferWriter.write(strTemp);
+  
+    strTemp=String.format("//%1$15s\t%2$20s\t%3$20s\t%4$8s\t%5$8s\t%6$8s\t%7$8s\t%8$20s\t%9$20s\t%10$20s\t%11$20s\t%12$20s\n", "Cooling", "Experimentation", "InitPropensity", "Recency", "M1", "M2", 
+            "M3", "RI_MAX_Lower", "RI_MAX_Upper", "RI_MIN_C", "SlopeStart", "RewardSelection");
+    outputBufferWriter.write(strTemp);
+    
+    for(int i=0; i<iGenNumber; i++){
+        strTemp=String.format("%1$17f\t%2$20f\t%3$20f\t%4$8f\t%5$8d\t%6$8d\t%7$8d\t%8$20f\t%9$20f\t%10$20f\t%11$20f\t%12$20d\n", 
+                genLearningData[i][0],
+                genLearningData[i][1],
+                genLearningData[i][2],
+                genLearningData[i][3],
+                (int)genLearningData[i][4],
+                (int)genLearningData[i][5],
+                (int)genLearningData[i][6],
+                genLearningData[i][7],
+                genLearningData[i][8],
+                genLearningData[i][9],
+                genLearningData[i][10],
+                (int)genLearningData[i][11]);
+        
+        outputBufferWriter.write(strTemp);
+    }
+  
+    strTemp=String.format("//%1$18s\t%2$8s\t%3$25s\t%4$15s\t%5$15s\t%6$12s\t%7$12s\n", "RandomSeed", "iMaxDay", "dThresholdProbability", "dGenPriceCap", "dLSEPriceCap", 
+            "bMaximumDay", "bThreshold");
+    outputBufferWriter.write(strTemp);
+   
+    int MaximumDay;
+    if(ames.bMaximumDay)
+        MaximumDay=1;
+    else 
+        MaximumDay=0;
+    
+    int Threshold;
+    if(ames.bThreshold)
+        Threshold=1;
+    else 
+        Threshold=0;
+    
+    strTemp=String.format("%1$20d\t%2$8d\t%3$25f\t%4$15f\t%5$15f\t%6$12d\t%7$12d\n", ames.getRandomSeed(), ames.getMaxDay(), ames.getThresholdProbability(), ames.getGenPriceCap(), ames.getLSEPriceCap(), 
+            MaximumDay, Threshold);
+    outputBufferWriter.write(strTemp);
+  
+    strTemp=String.format("//%1$13s\t%2$15s\t%3$15s\t%4$15s\t%5$15s\t%6$15s\t%7$15s\t%8$15s\t%9$15s\t%10$15s\t%11$15s\t%12$15s\n", 
+            "bActionProb", 
+            "iStartDay", 
+            "iDayLength", 
+            "dActionProb", 
+            "bLearnProb", 
+            "iLearnStartDay", 
+            "iLearnDayLength", 
+            "dLearnProb", 
+            "bNetEarning", 
+            "iNEStartDay", 
+            "iNEDayLength", 
+            "dNEThreshold");
+    outputBufferWriter.write(strTemp);
+   
+    int bActionProb;
+    if(ames.getActionProbabilityCheck())
+        bActionProb=1;
+    else 
+        bActionProb=0;
+    
+    int bLearnProb;
+    if(ames.getLearningCheck())
+        bLearnProb=1;
+    else 
+        bLearnProb=0;
+    
+    int bNetEarning;
+    if(ames.getDailyNetEarningCheck())
+        bNetEarning=1;
+    else 
+        bNetEarning=0;
+    
+    strTemp=String.format("%1$15d\t%2$15d\t%3$15d\t%4$15f\t%5$15d\t%6$15d\t%7$15d\t%8$15f\t%9$15d\t%10$15d\t%11$15d\t%12$15f\n", 
+            bActionProb, 
+            ames.getActionProbabilityStartDay(), 
+            ames.getActionProbabilityDayLength(), 
+            ames.getActionProbabilityDifference(), 
+            bLearnProb, 
+            ames.getLearningCheckStartDay(), 
+            ames.getLearningCheckDayLength(),
+            ames.getLearningCheckDifference(),
+            bNetEarning,
+            ames.getDailyNetEarningStartDay(),
+            ames.getDailyNetEarningDayLength(),
+            ames.getDailyNetEarningThreshold());
+    
+    outputBufferWriter.write(strTemp);
+  
+    
+    outputBufferWriter.write("#LMPWithTrueCostDataStart\n");
+    strTemp=String.format("//%1$5s", "Hour");
+    for(int i=0; i<iNodeNumber; i++){
+        String NodeID=nodeName[i];
+        strTemp+=String.format("\t%1$15s", NodeID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<iLMPWithTrueCost; i++){
+        double [][] lmp=LMPWithTrueCost.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d", h);
+
+            for(int j=0; j<iNodeNumber; j++){
+                strTemp+=String.format("\t%1$15f", lmp[h][j]);
+            }
+            
+            strTemp+="\n";
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#LMPWithTrueCostDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#GeneratorCommitmentWithTrueCostDataStart\n");
+    strTemp=String.format("//%1$5s", "Hour");
+    for(int i=0; i<iGenNumber; i++){
+        String GenID=genNames[i];
+        strTemp+=String.format("\t%1$15s", GenID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<igenAgentCommitmentWithTrueCost; i++){
+        double [][] genCommitmentWithTrueCost=genAgentCommitmentWithTrueCost.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d", h);
+
+            for(int j=0; j<iGenNumber; j++){
+                strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[h][j]);
+            }
+            
+            strTemp+="\n";
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#GeneratorCommitmentWithTrueCostDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#GeneratorProfitWithTrueCostDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$8s\t%3$15s\t%4$15s\t%5$15s", "Hour", "GenID", "Profit", "Net Earnings", "Revenue");
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+    
+    double [][] genCommitmentWithTrueCost=genAgentProfitWithTrueCost.getDay(0);
+    
+    for(int h=0; h<25; h++){
+        for(int i=0; i<iGenNumber; i++){
+            if(h==0){// total
+                strTemp=String.format("%1$7s", "Total");
+            }
+            else
+                strTemp=String.format("%1$7d", h);
+            
+            String GenID=genNames[i];
+            strTemp+=String.format("\t%1$8s", GenID);
+                
+            strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[i][h*3]);
+            strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[i][h*3+1]);
+            strTemp+=String.format("\t%1$15f", genCommitmentWithTrueCost[i][h*3+2]);
+             
+            strTemp+="\n";
+            outputBufferWriter.write(strTemp);
+        }
+        
+    }
+    outputBufferWriter.write("#GeneratorProfitWithTrueCostDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#LSEPriceSensitiveDemandWithTrueCostDataStart\n");
+    strTemp=String.format("//%1$5s", "Hour");
+    for(int i=0; i<iLSENumber; i++){
+        String LSEID=lseNames[i];
+        strTemp+=String.format("\t%1$15s", LSEID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<ilseAgentPriceSensitiveDemandWithTrueCost; i++){
+        double [][] priceSensitive=lseAgentPriceSensitiveDemandWithTrueCost.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d", h);
+            int psLoadIndex=0;
+            
+            for(int j=0; j<iLSENumber; j++){
+                int hourlyLoadHybridFlagByLSE=lseHybridData[j][h+2];
+                          
+                if((hourlyLoadHybridFlagByLSE&2)==2)
+                    strTemp+=String.format("\t%1$15f", priceSensitive[h][psLoadIndex++]);
+                else
+                    strTemp+=String.format("\t%1$15f", 0.0);
+            }
+            
+            strTemp+="\n";    
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#LSEPriceSensitiveDemandWithTrueCostDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#LSESurplusWithTrueCostDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$8s\t%3$15s", "Hour", "LSEID", "Surplus");
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+    
+    double [][] lseAgentSurplusWithTrueCost=LSEAgentSurplusWithTrueCost.getDay(0);
+    
+    for(int h=0; h<25; h++){
+        for(int i=0; i<iLSENumber; i++){
+            if(h==0){// total
+                strTemp=String.format("%1$7s", "Total");
+            }
+            else
+                strTemp=String.format("%1$7d", h);
+            
+            String LSEID=lseNames[i];
+            strTemp+=String.format("\t%1$8s", LSEID);
+                
+            strTemp+=String.format("\t%1$15f", lseAgentSurplusWithTrueCost[i][h]);
+             
+            strTemp+="\n";
+            outputBufferWriter.write(strTemp);
+        }
+        
+    }
+    outputBufferWriter.write("#LSESurplusWithTrueCostDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#HasSolutionDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$4s\t%3$4s\t%4$4s\t%5$4s\t%6$4s\t%7$4s\t%8$4s\t%9$4s\t%10$4s\t%11$4s\t%12$4s\t%13$4s\t%14$4s\t%15$4s\t%16$4s\t%17$4s\t%18$4s\t%19$4s\t%20$4s\t%21$4s\t%22$4s\t%23$4s\t%24$4s\t%25$4s\n", 
+            "Day", "H-00", "H-01", "H-02", "H-03", "H-04", "H-05", "H-06", "H-07",
+                   "H-08", "H-09", "H-10", "H-11", "H-12", "H-13", "H-14", "H-15",
+                   "H-16", "H-17", "H-18", "H-19", "H-20", "H-21", "H-22", "H-23");
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<ihasSolutionByDay; i++){
+        int [] hasSolution=(int [])hasSolutionByDay.get(i);
+
+        strTemp=String.format("%1$7d\t",i+1);
+        for(int j=0; j<24; j++)
+            strTemp+=String.format("%1$4d\t",hasSolution[j]);
+
+        strTemp+="\n";
+
+        outputBufferWriter.write(strTemp);
+        
+    }
+    
+    outputBufferWriter.write("#HasSolutionDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#GeneratorSupplyOfferDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\t%4$15s\t%5$15s\t%6$15s\n", "Day", "GenCo Name", "aR ($/MWh)", "bR ($/MW2h)", "CapRL (MW)", "CapRU (MW)");
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<igenAgentSupplyOfferByDay; i++){
+        double [][] genOffer=genAgentSupplyOfferByDay.getDay(i);
+
+        for(int j=0; j<iGenNumber; j++){
+            strTemp=String.format("%1$5d\t%2$10s\t", i+1, genNames[j]);
+            strTemp+=String.format("%1$15f\t%2$15f\t%3$15f\t%4$15f\n", genOffer[j][0], genOffer[j][1], genOffer[j][2], genOffer[j][3]);
+
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#GeneratorSupplyOfferDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#GeneratorCommitmentDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
+    for(int i=0; i<iGenNumber; i++){
+        String GenID=genNames[i];
+        strTemp+=String.format("\t%1$15s", GenID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<igenAgentCommitmentByDay; i++){
+        double [][] genCommitment=genAgentCommitmentByDay.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d\t%2$5d", i+1, h);
+            
+            for(int j=0; j<iGenNumber; j++){
+                strTemp+=String.format("\t%1$15f", genCommitment[h][j]);
+            }
+            
+            strTemp+="\n";    
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#GeneratorCommitmentDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#GeneratorProfitDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\t%4$15s\t%5$14s\n", "Day", "GenCo Name", "Profit($/H)", "Net Earnings($/H)", "Revenues($/H)");
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<igenAgentProfitAndNetGainByDay; i++){
+        double [][] genProfit=genAgentProfitAndNetGainByDay.getDay(i);
+
+        for(int j=0; j<iGenNumber; j++){
+            strTemp=String.format("%1$5d\t%2$10s\t", i+1, genNames[j]);
+            strTemp+=String.format("%1$15f\t%2$15f\t%3$15f\n", genProfit[j][0], genProfit[j][1], genProfit[j][2]);
+
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#GeneratorProfitDataEnd\n");
+    outputBufferWriter.write("\n");
+
+    outputBufferWriter.write("#GeneratorPropensityDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\t%4$15s\t%5$14s\n", "Day", "GenCo Name", "ActionID", "Propensity", "Probability");
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<igetGenAgentActionPropensityAndProbilityByDay; i++){
+        double [][] genProp=getGenAgentActionPropensityAndProbilityByDay.getDay(i);
+
+        for(int j=0; j<iGenNumber; j++){
+            strTemp=String.format("%1$5d\t%2$10s\t", i+1, genNames[j]);
+            strTemp+=String.format("%1$15f\t%2$15f\t%3$15f\n", genProp[j][0], genProp[j][1], genProp[j][2]);
+
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#GeneratorPropensityDataEnd\n");
+    outputBufferWriter.write("\n");
+
+    outputBufferWriter.write("#LSESurplusDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$10s\t%3$15s\n", "Day", "LSE Name", "Surplus($/H)");
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<ilseAgentSurplusByDay; i++){
+        double [][] lseSurplus=lseAgentSurplusByDay.getDay(i);
+
+        for(int j=0; j<iLSENumber; j++){
+            strTemp=String.format("%1$5d\t%2$10s\t", i+1, lseNames[j]);
+            strTemp+=String.format("%1$15f\n", lseSurplus[j][0]);
+
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#LSESurplusDataEnd\n");
+    outputBufferWriter.write("\n");
+
+    outputBufferWriter.write("#LSEPriceSensitiveDemandDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
+    for(int i=0; i<iLSENumber; i++){
+        String LSEID=lseNames[i];
+        strTemp+=String.format("\t%1$15s", LSEID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<ipriceSensitiveByDay; i++){
+        double [][] priceSensitive=priceSensitiveByDay.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d\t%2$5d", i+1, h);
+            int psLoadIndex=0;
+            
+            for(int j=0; j<iLSENumber; j++){
+                int hourlyLoadHybridFlagByLSE=lseHybridData[j][h+2];
+                          
+                if((hourlyLoadHybridFlagByLSE&2)==2)
+                    strTemp+=String.format("\t%1$15f", priceSensitive[h][psLoadIndex++]);
+                else
+                    strTemp+=String.format("\t%1$15f", 0.0);
+            }
+            
+            strTemp+="\n";    
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#LSEPriceSensitiveDemandDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#BranchPowerFlowDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
+    for(int i=0; i<iBranchNumber; i++){
+        String BranchID=branchNames[i];
+        strTemp+=String.format("\t%1$15s", BranchID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<ibranchFlowByDay; i++){
+        double [][] branchFlow=branchFlowByDay.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d\t%2$5d", i+1, h);
+            
+            for(int j=0; j<iBranchNumber; j++){
+                strTemp+=String.format("\t%1$15f", branchFlow[h][j]);
+            }
+            
+            strTemp+="\n";    
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#BranchPowerFlowDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#NodeLMPDataStart\n");
+    strTemp=String.format("//%1$5s\t%2$5s", "Day", "Hour");
+    for(int i=0; i<iNodeNumber; i++){
+        String NodeID=nodeName[i];
+        strTemp+=String.format("\t%1$15s", NodeID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int i=0; i<iLMPByDay; i++){
+        double [][] lmp=LMPByDay.getDay(i);
+
+        for(int h=0; h<24; h++){
+            strTemp=String.format("%1$5d\t%2$5d", i+1, h);
+            
+            for(int j=0; j<iNodeNumber; j++){
+                strTemp+=String.format("\t%1$15f", lmp[h][j]);
+            }
+            
+            strTemp+="\n";    
+            outputBufferWriter.write(strTemp);
+        }
+    }
+    
+    outputBufferWriter.write("#NodeLMPDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("#GeneratorLastDayActionDataStart\n");
+    strTemp=String.format("//%1$10s", "ActNumber");
+    for(int i=0; i<iGenNumber; i++){
+        String GenID=genNames[i];
+        strTemp+=String.format("\t%1$15s", GenID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    double [][] Action=(double [][])genAction.get(0);
+
+    strTemp="            ";
+    int iMaxActionNumber=0;
+    for(int i=0; i<iGenNumber; i++){
+        int ActNumber=Action[i].length;
+        if(iMaxActionNumber<ActNumber)
+            iMaxActionNumber=ActNumber;
+        
+        strTemp+=String.format("\t%1$15d", ActNumber);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+    
+    strTemp=String.format("//%1$8s", "ActID");
+    for(int i=0; i<iGenNumber; i++){
+        String GenID=genNames[i];
+        strTemp+=String.format("\t%1$15s", GenID);
+    }
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+
+    for(int actID=0; actID<iMaxActionNumber; actID++){
+        strTemp=String.format("%1$10d", actID);
+
+        for(int j=0; j<iGenNumber; j++){
+            if(actID<Action[j].length)
+                strTemp+=String.format("\t%1$15f", Action[j][actID]);
+            else
+                strTemp+=String.format("\t%1$15f", 0.0);
+        }
+
+        strTemp+="\n";
+        outputBufferWriter.write(strTemp);
+    }
+    
+    outputBufferWriter.write("#GeneratorLastDayActionDataEnd\n");
+    outputBufferWriter.write("\n");
+    
+    outputBufferWriter.write("\n\n\n");
+    strTemp="StopCode=";
+    strTemp+=String.format("\t%1$15d", ames.getStopCode());
+    strTemp+="\n";
+    outputBufferWriter.write(strTemp);
+    outputBufferWriter.write("\n");
+
+    outputBufferWriter.close();
+    ames.getMetrics().histogram(MetricsRegistry.OUTPUT_WRITE_TIME).record(System.nanoTime()-lStart);
+  }
+}
@@ -0,0 +1,43 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// OutputSink.java
+// Receiver of the daily results of a run, as they are produced
+
+import java.io.IOException;
+
+/**
+ * Receiver of the daily results of a run: AMESMarket passes it the table of
+ * each daily result history as soon as ISO.evaluateBidsOffers() and
+ * DAMarket.post() produce it (see AMESMarket.setOutputSink).
+ *
+ * The names are those of AMESMarket.DAILY_HISTORY_NAMES, plus
+ * BinaryOutputWriter.HAS_SOLUTION (the solution flags of the hours, as one
+ * row) and BinaryOutputWriter.GEN_ACTIONS.  The table may be changed by the
+ * caller after addDay() returns.
+ */
+public interface OutputSink {
+
+  public void addDay(String name, double[][] table);
+
+  // Called once the run is over
+  public void close() throws IOException;
+}
@@ -0,0 +1,97 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// QPSolver.java
+// Results of a solved strictly convex QP problem, as used by DCOPFJ
+
+/**
+ * A solver of the strictly convex QP problem
+ *
+ *           min  a' * x + 0.5 * x' * G * x
+ *     s.t.  Ceq' * x  = beq
+ *           Ciq' * x >= biq
+ *
+ * The problem is solved when the solver is constructed; the results are
+ * read with the methods below.  The multipliers u = (ueq, uiq) satisfy
+ *
+ *     G * x + a = Ceq * ueq + Ciq * uiq,   uiq >= 0
+ *
+ * at the solution, so for DCOPFJ the equality multipliers are the LMPs.
+ *
+ * Implementations: QuadProgJ (GI dual active set method) and
+ * InteriorPointQP (primal-dual interior point method); DCOPFJ uses the
+ * one chosen with AMESMarket.setQPSolver().
+ */
+public interface QPSolver {
+
+  public static final int QUADPROGJ      = 0; // QuadProgJ (default)
+  public static final int INTERIOR_POINT = 1; // InteriorPointQP
+
+  /**
+   * Returns true if a feasible and optimal solution was found
+   * @return boolean
+   */
+  public boolean getIsFeasibleAndOptimal();
+
+  /**
+   * Returns the minimizer x*
+   * @return double[]
+   */
+  public double[] getMinX();
+
+  /**
+   * Returns the minimum f* = a'x* + 0.5 x*'Gx*
+   * @return double
+   */
+  public double getMinF();
+
+  /**
+   * Returns the multipliers of the equality constraints
+   * @return double[]
+   */
+  public double[] getEqMultipliers();
+
+  /**
+   * Returns the multipliers of the inequality constraints (zero for the
+   * constraints that are not binding)
+   * @return double[]
+   */
+  public double[] getIneqMultipiers();
+
+  /**
+   * Returns the number of iterations of the solve
+   * @return int
+   */
+  public int getNumIterations();
+
+  /**
+   * Returns the number of binding inequality constraints
+   * @return int
+   */
+  public int getNumBC();
+
+  /**
+   * Returns the indices of the binding constraints as columns of
+   * C = [Ceq,Ciq], the meq equality constraints first
+   * @return int[]
+   */
+  public int[] getActiveSet();
+}
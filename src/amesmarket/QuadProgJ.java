@@ -22,6 +22,7 @@ package amesmarket;
 // QuadProgJ.java
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 import cern.colt.matrix.*; 
 import cern.colt.matrix.impl.*; 
 import cern.colt.matrix.linalg.*; 
@@ -61,11 +62,12 @@ import cern.colt.Timer;
  */
 
 
-public class QuadProgJ {
+public class QuadProgJ implements QPSolver {
 
   private static final double PINF =  1.0E50; // PINF: positive infinite
   private static final double NINF = -1.0E50; // NINF: negative infinite
   private static final double TOL = 1.0E-9; // TOL: tolerance (in correctRoundingError())
+  private static final double RANK_TOL = 1.0E-10; // relative tolerance for linearly dependent constraints (in warmStartActiveSet())
 
   private Timer time = new Timer(); // recording time for getting the solution.
   // NOTE: you may remove Timer if passing tests to improve algorithm speed.
@@ -82,11 +84,13 @@ public class QuadProgJ {
                    //      5 = choose randomly picked violated constraint
   private DoubleMatrix2D G; // G: nxn
   private DoubleMatrix1D a; // a: nx1
-  private DoubleMatrix2D C; // C: nxm,  C = [Ceq Ciq]
+  private double[] aValues; // elements of a
   private DoubleMatrix1D b; // b: mx1,  b = [beq' biq']'
   private DoubleMatrix2D Ceq; // Ceq: nxmeq
+  private CompressedColumnMatrix ceqColumns; // Ceq in compressed-column form
   private DoubleMatrix1D beq; // beq: meqx1
   private DoubleMatrix2D Ciq; // Ciq: nxmiq
+  private CompressedColumnMatrix ciqColumns; // Ciq in compressed-column form
   private DoubleMatrix1D biq; // biq: miqx1
   private double a0; // a scalar possibly appearing in objective function f(x)
 
@@ -108,6 +112,8 @@ public class QuadProgJ {
   private double t1; // Partial step length
   private double t2; // Full step length
   private boolean isFullStep;
+  private int[]  warmActiveSet;  // active set of an earlier solve to start from (may be null)
+  private boolean isWarmStarted = false;
   private boolean isInfeasible = false;
   private boolean isFeasibleAndOptimal = false;
   // NOTE(1): the main loop goes back to Step 1 if isFullStep is true;
@@ -117,20 +123,33 @@ public class QuadProgJ {
   //          true) or solution does not exist (isInfeasible = true).
 
   private double f; // f: min objective function evaluated at current iteration
-  private DoubleMatrix1D x;     // x: minimizer, nx1
-  private DoubleMatrix2D N;     // N: active constraint matrix, nxq => nxm
-  private DoubleMatrix2D H;     // H: 'reduced' inverse Hessian operator, nxn
-  private DoubleMatrix1D nplus; // nplus: current chosen violated constraint, nx1
-  private DoubleMatrix2D Nstar; // Nstar: pseudo-inverse of N, qxn
-  private DoubleMatrix1D z; // z: step direction in primal space, nx1
-  private DoubleMatrix1D r; // r: negative step direction in dual space,(q-1)x1
-  private DoubleMatrix1D u;     // u: Lagrangian multiplier, qx1
-  private DoubleMatrix1D uplus; // uplus: transitional Lagrangian multiplier,(q+1)x1
-  private DoubleMatrix1D siq;   // siq = Ciq' * x - biq (to get V)
+  private double[] x;     // x: minimizer, nx1
+  private double[][] J;   // J = L^{-T}*Q, nxn, stored by column (J[j] is the j-th column)
+  private double[][] R;   // R: upper triangular, qxq => mxm, stored by column
+  private double[] d;     // d = J'*nplus, nx1
+  private double[] nplus; // nplus: current chosen violated constraint, nx1
+  private double[] z; // z: step direction in primal space, nx1
+  private double[] r; // r: negative step direction in dual space, qx1
+  private double[] u;     // u: Lagrangian multiplier, qx1
+  private double[] uplus; // uplus: transitional Lagrangian multiplier,(q+1)x1
+  private double[] siq;   // siq = Ciq' * x - biq (to get V)
+  private int uSize;      // # of elements in use in u (u is a max-sized array)
+  private int uplusSize;  // # of elements in use in uplus
+  private int nvc;        // # of elements in use in V
+  // NOTE(1): the vectors and matrices above are the storage of a (reusable)
+  //          QuadProgJWorkspace; see QuadProgJWorkspace.java.
+  // NOTE(2): with N the nxq active constraint matrix and L^{-1}*N = Q*[R;0]
+  //          its QR decomposition, J and R represent the 'reduced' inverse
+  //          Hessian operator H = J2*J2' and the pseudo-inverse of N,
+  //          Nstar = R^{-1}*J1', where J = [J1 J2] and J1 is nxq (GI, p.8-9).
+  //          J and R are updated with Givens rotations when a constraint is
+  //          added or dropped, so neither H, Nstar nor N is ever formed.
 
   private int numIter = 0;  // # of total iterations
   private int numAdd  = 0;  // # of ineq. constraints added to active set
   private int numDrop = 0;  // # of ineq. constraints dropped from active set
+  private QuadProgJListener listener; // optional, from the workspace (null: none)
+  private SplittableRandom random; // draws of scp = 5, from the workspace
   private double fBPMPD = NINF; // for comparing optimal f from BPMPD and QuadProgJ
 
   private String[] step = {
@@ -154,7 +173,37 @@ public class QuadProgJ {
   public QuadProgJ(DoubleMatrix2D GMat,   DoubleMatrix1D aVec,
                    DoubleMatrix2D CeqMat, DoubleMatrix1D beqVec,
                    DoubleMatrix2D CiqMat, DoubleMatrix1D biqVec){
+    this(GMat, aVec, CeqMat, beqVec, CiqMat, biqVec, new QuadProgJWorkspace());
+  }
+
+  // Constructor reusing the storage of a workspace from an earlier solve
+  //  (e.g., the previous hourly DC-OPF problem)
+  public QuadProgJ(DoubleMatrix2D GMat,   DoubleMatrix1D aVec,
+                   DoubleMatrix2D CeqMat, DoubleMatrix1D beqVec,
+                   DoubleMatrix2D CiqMat, DoubleMatrix1D biqVec,
+                   QuadProgJWorkspace workspace){
+    this(GMat, aVec, CeqMat, beqVec, CiqMat, biqVec, workspace, null);
+  }
+
+  // Constructor warm-started from the active set of an earlier solve of a
+  //  problem with the same constraints (e.g., getActiveSet() of the previous
+  //  hour); see warmStartActiveSet().  A null activeSet means a cold start.
+  public QuadProgJ(DoubleMatrix2D GMat,   DoubleMatrix1D aVec,
+                   DoubleMatrix2D CeqMat, DoubleMatrix1D beqVec,
+                   DoubleMatrix2D CiqMat, DoubleMatrix1D biqVec,
+                   QuadProgJWorkspace workspace, int[] activeSet){
+    this(GMat, aVec, CeqMat, new CompressedColumnMatrix(CeqMat), beqVec,
+         CiqMat, new CompressedColumnMatrix(CiqMat), biqVec, workspace, activeSet);
+  }
+
+  // Constructor as above, with the compressed-column forms of Ceq and Ciq
+  //  supplied by the caller (e.g., formed once in DCOPFJModel)
+  QuadProgJ(DoubleMatrix2D GMat,   DoubleMatrix1D aVec,
+            DoubleMatrix2D CeqMat, CompressedColumnMatrix ceqCols, DoubleMatrix1D beqVec,
+            DoubleMatrix2D CiqMat, CompressedColumnMatrix ciqCols, DoubleMatrix1D biqVec,
+            QuadProgJWorkspace workspace, int[] activeSet){
     time.start();
+    warmActiveSet = activeSet;
 
     n   = aVec.size();
     meq = beqVec.size();
@@ -163,12 +212,17 @@ public class QuadProgJ {
 
     G   = new DenseDoubleMatrix2D(n,n).assign(GMat);     // G: nxn
     a   = new DenseDoubleMatrix1D(n).assign(aVec);       // a: nx1
-    Ceq = new DenseDoubleMatrix2D(n,meq).assign(CeqMat); // Ceq: nxmeq
+    aValues = a.toArray();
+    Ceq = CeqMat;                                        // Ceq: nxmeq
     beq = new DenseDoubleMatrix1D(meq).assign(beqVec);   // beq: meqx1
-    Ciq = new DenseDoubleMatrix2D(n,miq).assign(CiqMat); // Ciq: nxmiq
+    Ciq = CiqMat;                                        // Ciq: nxmiq
     biq = new DenseDoubleMatrix1D(miq).assign(biqVec);   // biq: miqx1
 
-    C = fac2.appendColumns(Ceq,Ciq); // C = [Ceq,Ciq]_(nxm)
+    // NOTE: Ceq and Ciq (usually SparseDoubleMatrix2Ds from DCOPFJ) are kept
+    //       in compressed-column form instead of being copied into dense
+    //       matrices, and C = [Ceq,Ciq] is never formed; see constraintColumn().
+    ceqColumns = ceqCols;
+    ciqColumns = ciqCols;
     b = fac1.append(beq,biq);        // b = [beq',biq']'_(mx1)
 
     scp = 1; // choose the most violated constraint at each iteration
@@ -178,18 +232,46 @@ public class QuadProgJ {
 
     L = new CholeskyDecomposition(G).getL();
     // L is the lower triangular matrix of Cholesky decomposition s.t. G = L*L'
-
-    N = new DenseDoubleMatrix2D(n, Math.min(m, n));// N: n x min(m,n)
-    // NOTE: N is initialized as a max-sized zero matrix, so later on it is
-    //       easier for a constraint to be added or dropped.  The same for A.
-    //       So the N or A we are talking about are actually N[1:q] and A[1:q].
+    // NOTE: this is the only factorization of the solve; see NOTE(2) above.
+
+    workspace.ensureSize(n, meq, miq);
+    x     = workspace.x;
+    z     = workspace.z;
+    nplus = workspace.nplus;
+    r     = workspace.r;
+    u     = workspace.u;
+    uplus = workspace.uplus;
+    siq   = workspace.siq;
+    A     = workspace.A;
+    V     = workspace.V;
+    J     = workspace.J;
+    R     = workspace.R;
+    d     = workspace.d;
+    listener = workspace.getListener();
+    random = workspace.getRandom();
+    // NOTE: A (and R) are max-sized, so later on it is easier for a constraint
+    //       to be added or dropped.  So the A we are talking about is actually
+    //       A[1:q].
 
     dualActiveSetSolver(); // the 'main' method
 
     // Correct potential rounding error for final result: x, f and u
-    x.assign(correctRoundingError(x));
+    correctRoundingError(x, n);
+    if(isFeasibleAndOptimal){
+      // f at the final x: its updates in the iterations lose digits by
+      //  cancellation when the costs are large (e.g., emission prices)
+      zMult(G, n, x, z);
+      f = 0.5*dotProduct(x, z, n) + dotProduct(aValues, x, n);
+    }
     f = correctRoundingError(f) + a0;
-    if(q>0) u.assign(correctRoundingError(u));
+    if(q>0) correctRoundingError(u, uSize);
+
+    // Keep own copies of the results so the workspace can be reused
+    x = copyOf(x, n);
+    u = copyOf(u, uSize);
+    int[] Afinal = new int[q];
+    System.arraycopy(A, 0, Afinal, 0, q);
+    A = Afinal;
 
     time.stop();
   }
@@ -199,7 +281,6 @@ public class QuadProgJ {
   public void printInputData(){
     System.out.println("G: " + G + "\n");
     System.out.println("a: " + a + "\n");
-    System.out.println("C: " + C + "\n");
     System.out.println("b: " + b + "\n");
     if(meq > 0){
       System.out.println("Ceq: " + Ceq + "\n");
@@ -225,9 +306,10 @@ public class QuadProgJ {
       System.out.println("This QP problem is infeasible!\n");
     }
 
-    System.out.println("x: " + x + "\n");
+    DoubleMatrix1D xdm1d = new DenseDoubleMatrix1D(x);
+    System.out.println("x: " + xdm1d + "\n");
     System.out.println("f: " + f + "\n");
-    if(q>0) System.out.println("u: " + u + "\n");
+    if(q>0) System.out.println("u: " + new DenseDoubleMatrix1D(u) + "\n");
 
     System.out.println("**************************************************");
     System.out.println("\t      Diagnostic Checks");
@@ -235,7 +317,7 @@ public class QuadProgJ {
 
     // ece = equality constraint error = Ceq'*x - beq
     DoubleMatrix1D ece = new DenseDoubleMatrix1D(meq);
-    ece = Ceq.copy().viewDice().zMult(x,null).assign(beq,F.minus);
+    ece = Ceq.copy().viewDice().zMult(xdm1d,null).assign(beq,F.minus);
     System.out.println("Equality Constraint Error (ECE): " + ece + "\n");
     // AbsMean(ece)
     System.out.println("AbsMean: "
@@ -245,7 +327,7 @@ public class QuadProgJ {
 
     // ice = inequality constraint error = Ciq'*x - biq
     DoubleMatrix1D ice = new DenseDoubleMatrix1D(miq);
-    ice = Ciq.copy().viewDice().zMult(x,null).assign(biq,F.minus);
+    ice = Ciq.copy().viewDice().zMult(xdm1d,null).assign(biq,F.minus);
     System.out.println("Inequality Constraint Error (ICE): " + ice + "\n");
     // numVICE(ice): number of Violated Inequality Constraints
     int numVICE = 0;
@@ -308,10 +390,13 @@ public class QuadProgJ {
     findUnconstrainedMin();                        // Step 0(a)
     //System.out.println("Finding the Constrained Solution ... ...\n");
     if(meq > 0){
-      findEqualityConstrainedMin_Lagrangian();     // Step 0(b)
+      addEqualityConstraints();                    // Step 0(b)
+    }
+    if(miq > 0 && warmActiveSet != null && isInfeasible==false){
+      warmStartActiveSet();                        // Step 0(c)
     }
     // If miq > 0, add inequality constraints if they get binding (violated)
-    if(miq > 0){
+    if(miq > 0 && isInfeasible==false){
       chooseViolatedConstraint();       // Step 1
       // The 'main' loop
       while (isFeasibleAndOptimal==false && isInfeasible==false) {
@@ -327,81 +412,189 @@ public class QuadProgJ {
     }
   }
 
+  // Step 0(a): x <- -G^{-1}*a = -J*J'*a with J = L^{-T} (Q = I for q = 0)
   private void findUnconstrainedMin(){
     //System.out.println("\nThe Unconstrained Solution: \n");
-    x = alg.inverse(G).zMult(a, null).assign(F.neg); // x <- -G^{-1}*a
+    // J <- L^{-T}: solve L'*J = I column by column (J is upper triangular)
+    double[][] Lrows = L.toArray();
+    for(int j=0; j<n; j++){
+      double[] Jj = J[j];
+      java.util.Arrays.fill(Jj, 0);
+      Jj[j] = 1/Lrows[j][j];
+      for(int i=j-1; i>=0; i--){
+        double sum = 0;
+        for(int k=i+1; k<=j; k++){
+          sum += Lrows[k][i]*Jj[k];
+        }
+        Jj[i] = -sum/Lrows[i][i];
+      }
+    }
+
+    for(int j=0; j<n; j++){
+      d[j] = dotProduct(J[j], aValues, n); // d <- J'*a
+    }
+    java.util.Arrays.fill(x, 0);
+    for(int j=0; j<n; j++){
+      plusMult(x, J[j], -d[j], n); // x <- -J*d
+    }
     //System.out.println("x: " + x + "\n");
-    f = 0.5 * a.zDotProduct(x); // f <- 0.5*a'*x
+    f = 0.5 * dotProduct(aValues, x, n); // f <- 0.5*a'*x
     //System.out.println("f: " + f + "\n");
-    H = alg.inverse(G).copy(); // H <- G^{-1}
-    A = new int[Math.min(m, n)]; // A <- empty set (all zeros)
+    java.util.Arrays.fill(A, 0); // A <- empty set (all zeros)
     q = 0; // q <- 0
+    uSize = 0;
   }
 
-  /** This method uses the direct Lagrangian formulation to derive the equality
-   *  constrained minimization solution (Fletcher (1987) p.236-238)
-   *
-   * Problem:  min  a' * x + 0.5 * x' * G * x
-   *     s.t.  Ceq' * x - beq  = 0
+  /** Step 0(b): add the meq equality constraints to the active set one by one,
+   *  each with a full step (Step 2 of GI without the partial step, since the
+   *  multipliers of equality constraints may have either sign).
    *
-   * Linear system of equation:
-   *        [G -Ceq ; -Ceq' 0] * [x u]' = [-a -beq]'
+   * This gives the equality constrained minimum of
    *
-   *   or            GCeq * ecSol = abeq
+   *           min  a' * x + 0.5 * x' * G * x
+   *     s.t.  Ceq' * x - beq  = 0
    *
-   * Solution:
-   *      [x u]' = [G -Ceq ; -Ceq' 0]^{-1} * [-a -beq]'
+   * without inverting the (n+meq)x(n+meq) Lagrangian matrix [G -Ceq ; -Ceq' 0]
+   * of the direct Lagrangian formulation (Fletcher (1987) p.236-238).
+   * If an equality constraint is linearly dependent on the earlier ones, the
+   * problem is reported as infeasible.
+   */
+  private void addEqualityConstraints(){
+    for(p=0; p<meq; p++){
+      constraintColumn(p, nplus);
+      determineStepDirection();
+      if(dotProduct(z, z, n) == 0){
+        isInfeasible = true;
+        return;
+      }
+      double zn = dotProduct(z, nplus, n);
+      t = -(dotProduct(nplus, x, n) - b.getQuick(p)) / zn; // t <- t2
+      plusMult(x, z, t, n); // x <- x + t*z
+      f = f + t*zn*(0.5*t);
+      for(int i=0; i<q; i++){
+        u[i] = u[i] - t*r[i]; // u <- (u - t*r, t)
+      }
+      u[q] = t;
+      uSize = q+1;
+      addToActiveSet();
+    }
+
+    // Correct potential rounding error for x and f
+    correctRoundingError(x, n);
+    f = correctRoundingError(f);
+  }
+
+
+  /** Step 0(c): start from the binding inequality constraints of an earlier
+   *  solve instead of only the equality constraints.
    *
-   *   or          ecSol = GCeq^{-1} * abeq
+   * The inequality constraints in warmActiveSet are added to A and treated as
+   *  equalities; the minimum on that manifold is
    *
-   * where GCeq  = [G -Ceq ; -Ceq' 0]
-   *       abeq  = [-a -beq]'
-   *       ecSol = [x u]'
+   *        x = -H*a + Nstar'*bA,   u = Nstar*(G*x + a)
    *
-   * Dimension:
-   *   GCeq:  (n+meq)x(n+meq)
-   *   abeq:  (n+meq)x1
-   *   ecSol: (n+meq)x1
+   * where bA holds the elements of b in A.  Constraints that are (nearly)
+   *  linearly dependent on those already in A are skipped.  If some inequality
+   *  multiplier is negative, the constraint with the most negative one is
+   *  dropped and x, u are recomputed, so that (x,A) ends up as an S-pair
+   *  (u >= 0 for the inequality constraints) from which the main loop can
+   *  start.  If no inequality constraint is left, this is the cold start of
+   *  Steps 0(a) and 0(b).
    */
-  private void findEqualityConstrainedMin_Lagrangian(){
-
-    DoubleMatrix2D GCeq;   // Lagrangian matrix consisting of G and Ceq
-    DoubleMatrix1D abeq;   // Lagrangian RHS vector consisting of a and beq
-    DoubleMatrix1D ecsol;  // equality constrained solution vector
+  private void warmStartActiveSet(){
+    int qmax = Math.min(m, n);
+    boolean[] isInA = new boolean[m];
+    for(int i=0; i<q; i++){
+      isInA[A[i]] = true;
+    }
+    int qcold = q;
+    for(int i=0; i<warmActiveSet.length && q<qmax; i++){
+      int c = warmActiveSet[i];
+      if(c>=meq && c<m && !isInA[c]){
+        p = c;
+        computeD();
+        double d2 = 0;   // |J'*nplus|^2
+        double dq2 = 0;  // |J2'*nplus|^2, zero if nplus is in the span of N
+        for(int j=0; j<n; j++){
+          d2 += d[j]*d[j];
+          if(j>=q) dq2 += d[j]*d[j];
+        }
+        if(dq2 > RANK_TOL*RANK_TOL*d2){
+          isInA[c] = true;
+          addToActiveSet();
+        }
+      }
+    }
+    if(q == qcold){
+      return;
+    }
 
-    DoubleMatrix2D[][] parts ={{G, Ceq.copy().assign(F.neg)},
-                              {Ceq.copy().viewDice().assign(F.neg), null}};
-    GCeq = fac2.compose(parts);
-    abeq = fac1.append(a.copy().assign(F.neg), beq.copy().assign(F.neg));
-    ecsol = alg.inverse(GCeq).zMult(abeq, null);
+    while(true){
+      findActiveSetMin();
 
-    x = ecsol.viewPart(0,n);
-    u = new DenseDoubleMatrix1D(meq).assign(ecsol.viewPart(n,meq));
-    f = 0.5*x.zDotProduct(G.zMult(x,null)) + a.zDotProduct(x);
-        // f <- 0.5*x'*G*x + a'*x
+      // Drop the constraint with the most negative multiplier, if any
+      int l = -1;
+      for(int i=meq; i<q; i++){
+        if(u[i]<0 && (l<0 || u[i]<u[l])){
+          l = i;
+        }
+      }
+      if(l<0){
+        isWarmStarted = true;
+        return;
+      }
+      removeFromActiveSet(l);
+      if(q == qcold){
+        findActiveSetMin();
+        return;
+      }
+    }
+  }
 
-    // Correct potential rounding error for x, f and u
-    x.assign(correctRoundingError(x));
-    f = correctRoundingError(f);
-    if(q>0) u.assign(correctRoundingError(u));
+  // x <- -H*a + Nstar'*bA = -J2*J2'*a + J1*R^{-T}*bA and
+  // u <- Nstar*(G*x + a) = R^{-1}*J1'*(G*x + a) for the current active set
+  private void findActiveSetMin(){
+    for(int j=q; j<n; j++){
+      d[j] = dotProduct(J[j], aValues, n); // d2 <- J2'*a
+    }
+    for(int i=0; i<q; i++){ // d1 <- R^{-T}*bA (forward substitution)
+      double sum = b.getQuick(A[i]);
+      for(int k=0; k<i; k++){
+        sum -= R[i][k]*d[k];
+      }
+      d[i] = sum/R[i][i];
+    }
+    java.util.Arrays.fill(x, 0);
+    for(int j=0; j<n; j++){
+      plusMult(x, J[j], (j<q) ? d[j] : -d[j], n);
+    }
+    correctRoundingError(x, n);
 
-    for(int i=0; i<meq; i++){
-      A[i] = i;  //Add the index of Ceq's column to active set A
+    zMult(G, n, x, z); // z is used as scratch for G*x here
+    f = correctRoundingError(0.5*dotProduct(x, z, n) + dotProduct(aValues, x, n));
+    for(int i=0; i<n; i++){
+      z[i] += aValues[i];
+    }
+    for(int j=0; j<q; j++){
+      u[j] = dotProduct(J[j], z, n);
     }
-    q = meq; // # of binding constraints is the # of eq. constraints for now.
-    N.viewPart(0,0,n,meq).assign(Ceq.copy()); // N_active: n x meq
-    updateHandNstar();
+    backSubstitute(u, q);
+    uSize = q;
+    correctRoundingError(u, uSize);
   }
 
-
   private void chooseViolatedConstraint() {
 
     // siq = Ciq' * x - biq
-    siq = Ciq.viewDice().zMult(x, null).copy().assign(biq, F.minus);
-    siq.assign(correctRoundingError(siq));
-    int nvc = 0; // number of violated constraints
-    for (int j=0; j<siq.size(); j++) {
-      if (siq.getQuick(j)<0) {
+    ciqColumns.zMultTranspose(x, siq);
+    for (int j=0; j<miq; j++) {
+      siq[j] = siq[j] - biq.getQuick(j);
+    }
+    correctRoundingError(siq, miq);
+    nvc = 0; // number of violated constraints
+    for (int j=0; j<miq; j++) {
+      if (siq[j]<0) {
+        V[nvc] = j; // Violation set: V={j \belong K\A | sj(x) < 0}
         nvc++;
       }
     }
@@ -409,29 +602,20 @@ public class QuadProgJ {
       isFeasibleAndOptimal = true;
     }
     else{
-      V = new int[nvc]; // Violation set: V={j \belong K\A | sj(x) < 0}
-
-      int i = 0;     // Index for setting elements of V
-      for(int j=0; j<siq.size(); j++){
-        if (siq.getQuick(j)<0){
-          V[i] = j;
-          i++;
-        }
-      }
-      double temp = siq.getQuick(V[0]);  // for storing temperary smallest s
+      double temp = siq[V[0]];  // for storing temperary smallest s
       switch(scp){
         case 1: // choose p as the most violated constraint (smallest s)
-          for(int j=0; j<V.length; j++){
-            if(siq.getQuick(V[j]) <= temp){
-              temp = siq.getQuick(V[j]);
+          for(int j=0; j<nvc; j++){
+            if(siq[V[j]] <= temp){
+              temp = siq[V[j]];
               p = meq + V[j];
             }
           }
           break;
         case 2: // choose p as the least violated constraint (largest s)
-          for(int j=0; j<V.length; j++){
-            if(siq.getQuick(V[j]) >= temp){
-              temp = siq.getQuick(V[j]);
+          for(int j=0; j<nvc; j++){
+            if(siq[V[j]] >= temp){
+              temp = siq[V[j]];
               p = meq + V[j];
             }
           }
@@ -440,44 +624,53 @@ public class QuadProgJ {
           p = meq + V[0];
           break;
         case 4: // choose p as the last violated constraint in V
-          p = meq + V[V.length-1];
+          p = meq + V[nvc-1];
           break;
         case 5: // choose p as the randomly-picked violated constraint in V
-          p = meq + V[(int)((Math.random())*(V.length))];
+          p = meq + V[random.nextInt(nvc)];
           break;
         default:// if scp is not matched, the default p is the 1st violated constraint
           p = meq + V[0];
       }
       // NOTE: p includes equality constraints as its first meq elements
-      nplus = C.viewColumn(p).copy(); // nplus <- np (nx1)
+      constraintColumn(p, nplus); // nplus <- np (nx1)
       if (q==0){
-        uplus = new DenseDoubleMatrix1D(1); // uplus <- 0 if q==0
-        u = new DenseDoubleMatrix1D(1); // u <- 0 if q==0
+        uplus[0] = 0; // uplus <- 0 if q==0
+        uplusSize = 1;
+        u[0] = 0; // u <- 0 if q==0
+        uSize = 1;
       }
       else {
-        uplus = fac1.append(u, new DenseDoubleMatrix1D(1)); // uplus <- (u,0)
+        System.arraycopy(u, 0, uplus, 0, uSize); // uplus <- (u,0)
+        uplus[uSize] = 0;
+        uplusSize = uSize+1;
       }
     }
   }
 
   private void determineStepDirection(){
 
+    computeD(); // d <- J'*nplus
+
     // Compute step direction in the primal space
-    z = H.zMult(nplus, null); // z = H*nplus
-    z.assign(correctRoundingError(z));
+    // z = H*nplus = J2*d2, d2 = d(q+1:n)
+    java.util.Arrays.fill(z, 0);
+    for(int j=q; j<n; j++){
+      if(d[j] != 0) plusMult(z, J[j], d[j], n);
+    }
+    correctRoundingError(z, n);
 
     // Compute the negative of the step direction in the dual space
     if (q > 0) {
-      // r = Nstar*nplus
-      r = new DenseDoubleMatrix1D(Nstar.rows()).assign(Nstar.zMult(nplus, null));
-      r.assign(correctRoundingError(r));
-    }
-    else{
-      // If q==0, r does not exist, and is purposely set to be a zero-size matrix
-      //  to accomodate a uniform expression for uplus <- uplus + t*(r 1)' in
-      //  Step 2(c) so that it includes the case when q==0, uplus <- uplus + t*1
-      r = new DenseDoubleMatrix1D(0);
+      // r = Nstar*nplus = R^{-1}*d1, d1 = d(1:q)
+      System.arraycopy(d, 0, r, 0, q);
+      backSubstitute(r, q);
+      // NOTE: r is not rounded off: with variables whose weight in G is tiny
+      //  (e.g., 1.0E-4 for the emission permits), true elements of r can be
+      //  smaller than TOL, and dropping them breaks G*z + N*r = nplus.
     }
+    // NOTE: if q==0, r does not exist and none of its elements is used, so
+    //  uplus <- uplus + t*(-r 1)' in Step 2(c) reduces to uplus <- uplus + t*1
   }
 
   private void computeStepLength(){
@@ -496,30 +689,27 @@ public class QuadProgJ {
     // (ii) Step in dual space (dual step):
     else if(t2 == PINF){
       isFullStep = false;
-      DoubleMatrix1D rplus = fac1.append(
-          r.copy().assign(F.neg),new DenseDoubleMatrix1D(1).assign(1));
-      uplus.assign(rplus, F.plusMult(t)); // uplus <- uplus + t * rplus
+      takeDualStep(); // uplus <- uplus + t * rplus
       dropZeroMultiplierCorrespondingToConstraintK();
       dropConstraintK();
     }
 
     // (iii) Step in primal and dual space:
     else{
-      x.assign(z, F.plusMult(t)); // x <- x + t*z
+      plusMult(x, z, t, n); // x <- x + t*z
 
-      f = f + t*z.zDotProduct(nplus)*(0.5*t + uplus.getQuick(uplus.size()-1));
+      f = f + t*dotProduct(z, nplus, n)*(0.5*t + uplus[uplusSize-1]);
       // f <- f + t*z'*nplus*(0.5t + u(q+1)plus)
       // NOTE: uplus.getQuick(q) is always zero if a full step is taken;
       //       if a partial or dual step is taken, uplus is not zero!
 
-      DoubleMatrix1D rplus = fac1.append(
-       r.copy().assign(F.neg),new DenseDoubleMatrix1D(1).assign(1)); //rplus<-(-r 1)'
-      uplus.assign(rplus, F.plusMult(t)); // uplus <- uplus + t * rplus
+      takeDualStep(); // uplus <- uplus + t * rplus, rplus = (-r 1)'
 
       // Full step
       if(t2 <= t1){// ie, t==t2 but including the case when t1==t2 (t=min(t1,t2))
         isFullStep = true;
-        u = new DenseDoubleMatrix1D(uplus.size()).assign(uplus); // u <- uplus
+        System.arraycopy(uplus, 0, u, 0, uplusSize); // u <- uplus
+        uSize = uplusSize;
         addConstraintP();
       }
       // Partial step
@@ -532,17 +722,14 @@ public class QuadProgJ {
   }
 
 
-  // Add the constraint p to active set A and update N, H and Nstar.
+  // Add the constraint p to active set A and update J and R.
   private void addConstraintP(){
     //System.out.print(" Add p=" + (p+1) + "\n");
     numAdd++;
-    //System.out.println("q: " + q);
-    System.out.print(q+"\n");
-    A[q] = p;
-    N.viewColumn(q).assign(C.viewColumn(p).copy());
-    q++; // Update the number of binding constraints
-    
-    updateHandNstar();
+    addToActiveSet();
+    if(listener != null){
+      listener.constraintAdded(p, q);
+    }
 
     /** Example: showing how to add constraint p,
      *  Let meq = 3, p = 5 (the 5th constraint in Ciq and 8th constraint in C),
@@ -565,30 +752,24 @@ public class QuadProgJ {
   }
 
 
-  // Drop the constraint k from active set A and update N, H and Nstar.
+  // Drop the constraint k from active set A and update J and R.
   //
   // This method works by first finding the index (i) of A whose value is k, i.e.,
   //  finding i such that A[i] == k.  Then starting from i, replace the current
-  //  A and N by the next A and N, i.e., A[j] = A[j+1] for j = i,...,uplus.size()-1.
-  //  Lastly, get rid of the last element of uplus by defining a double array,
-  //  utemp, which stores the first uplus.size()-1 elements of uplus, and
-  //  declare a new instance of DenseDoubleMatrix1D with utemp as its intialization.
+  //  A by the next A, i.e., A[j] = A[j+1] for j = i,...,q-1; see
+  //  removeFromActiveSet().
   private void dropConstraintK(){
     //System.out.print(" Drop k=" + (k+1) + "\n");
     numDrop++;
-    q--; // Update the number of binding constraints
-    for(int i=meq; i<A.length; i++){
+    for(int i=meq; i<q; i++){
       if(A[i] == k){
-        for(int j=i; j<q; j++){  // NOTE: j<q, not j<q-1, b/c q--
-          A[j] = A[j+1];
-          N.viewColumn(j).assign(N.viewColumn(j+1).copy());
-        }
-        A[q] = 0; // maybe unnecessary?
-        N.viewColumn(q).assign(0);  // maybe unnecessary?
+        removeFromActiveSet(i);
         break;
       }
     }
-    updateHandNstar();  // Update H and Nstar
+    if(listener != null){
+      listener.constraintDropped(k, q);
+    }
 
     /** Example: showing how to drop constraint k,
      *  Let meq = 3, k = 8 (the 8th constraint in C and 5th constraint in Ciq),
@@ -616,6 +797,77 @@ public class QuadProgJ {
      */
   }
 
+  // Add constraint p as the (q+1)-th column of N: with d = J'*nplus from Step
+  //  2(a), Givens rotations zero d(q+2:n) (applied to the same columns of J),
+  //  and d(1:q+1) becomes the new last column of R.
+  private void addToActiveSet(){
+    for(int j=n-1; j>q; j--){
+      if(d[j] == 0) continue;
+      double h = Math.sqrt(d[j-1]*d[j-1] + d[j]*d[j]);
+      double c = d[j-1]/h;
+      double s = d[j]/h;
+      d[j-1] = h;
+      d[j] = 0;
+      rotate(J[j-1], J[j], c, s, n);
+    }
+    for(int i=0; i<=q; i++){
+      R[q][i] = d[i];
+    }
+    A[q] = p;
+    q++; // Update the number of binding constraints
+  }
+
+  // Remove the l-th constraint of A, i.e., A[j] = A[j+1] for j = l,...,q-2:
+  //  deleting the l-th column of R leaves it upper Hessenberg from column l on,
+  //  which Givens rotations on rows (j,j+1), j = l,...,q-2, make upper
+  //  triangular again (applied to the same columns of J).
+  private void removeFromActiveSet(int l){
+    double[] Rl = R[l];
+    for(int j=l; j<q-1; j++){
+      A[j] = A[j+1];
+      R[j] = R[j+1];
+    }
+    R[q-1] = Rl; // keep the storage for later use
+    q--; // Update the number of binding constraints
+    A[q] = 0; // maybe unnecessary?
+
+    for(int j=l; j<q; j++){
+      if(R[j][j+1] == 0) continue;
+      double h = Math.sqrt(R[j][j]*R[j][j] + R[j][j+1]*R[j][j+1]);
+      double c = R[j][j]/h;
+      double s = R[j][j+1]/h;
+      R[j][j] = h;
+      R[j][j+1] = 0;
+      for(int col=j+1; col<q; col++){
+        double rj = R[col][j];
+        double rj1 = R[col][j+1];
+        R[col][j] = c*rj + s*rj1;
+        R[col][j+1] = c*rj1 - s*rj;
+      }
+      rotate(J[j], J[j+1], c, s, n);
+    }
+  }
+
+  // (a,b) <- (c*a + s*b, c*b - s*a)
+  private static void rotate(double[] a, double[] b, double c, double s, int len){
+    for(int i=0; i<len; i++){
+      double ai = a[i];
+      double bi = b[i];
+      a[i] = c*ai + s*bi;
+      b[i] = c*bi - s*ai;
+    }
+  }
+
+  // v(1:len) <- R(1:len,1:len)^{-1} * v(1:len) (back substitution)
+  private void backSubstitute(double[] v, int len){
+    for(int j=len-1; j>=0; j--){
+      v[j] = v[j]/R[j][j];
+      for(int i=0; i<j; i++){
+        v[i] -= R[j][i]*v[j];
+      }
+    }
+  }
+
   ////////////////////////////////////////////////////////////////////////
   // Comments for dropZeroMultiplierCorrespondingToConstraintK():
   //
@@ -654,11 +906,10 @@ public class QuadProgJ {
   private void dropZeroMultiplierCorrespondingToConstraintK(){
     for(int i=meq; i<A.length; i++){
       if(A[i] == k){
-        for(int j=i; j<(uplus.size()-1); j++){
-          uplus.set(j,uplus.get(j+1));
+        for(int j=i; j<(uplusSize-1); j++){
+          uplus[j] = uplus[j+1];
         }
-        double[] utemp = uplus.viewPart(0,uplus.size()-1).toArray();
-        uplus = new DenseDoubleMatrix1D(utemp);
+        uplusSize--;
         break;
       }
     }
@@ -675,7 +926,7 @@ public class QuadProgJ {
       //   inequality constraints)
       int npe = 0; // npe: number of postive elements
       for(int i=0; i<q-meq; i++){
-        if(r.get(meq+i)>0){
+        if(r[meq+i]>0){
           npe++;
         }
       }
@@ -690,8 +941,8 @@ public class QuadProgJ {
         int ctbd = 0;  // constraint to be dropped, will be set to k at the end.
         t1 = PINF;
         for(int j=0; j<q-meq; j++){
-          if(r.get(meq+j)>0){
-            tempMin = uplus.get(meq+j)/r.get(meq+j);
+          if(r[meq+j]>0){
+            tempMin = uplus[meq+j]/r[meq+j];
             if(tempMin < t1){
               t1 = tempMin;
               ctbd = meq+j;
@@ -705,41 +956,94 @@ public class QuadProgJ {
 
   // Step 2(b)-(ii) Compute full step length, t2:
   private void computeFullStepLength(){
-    if (z.zDotProduct(z) == 0) {
+    if (dotProduct(z, z, n) == 0) {
       t2 = PINF;   // If |z| == 0, set t2 <- INF;
     }
     else {
-      double sp = nplus.zDotProduct(x) - b.getQuick(p); // sp = nplus'*x - b[p]
-      t2 = -sp / z.zDotProduct(nplus); // Otherwise, set t2 <-sp(x)/(z'*nplus)
+      double sp = dotProduct(nplus, x, n) - b.getQuick(p); // sp = nplus'*x - b[p]
+      t2 = -sp / dotProduct(z, nplus, n); // Otherwise, set t2 <-sp(x)/(z'*nplus)
     }
   }
 
 
-  // Use QR decomposition to update H and Nstar in a numerically stable way.
-  private void updateHandNstar(){
+  // uplus <- uplus + t*rplus, where rplus = (-r 1)' ((q+1)x1), computed as in
+  //  DenseDoubleMatrix1D.assign(rplus,F.plusMult(t)) (see plusMult() below)
+  private void takeDualStep(){
+    if(t == 0) return;
+    int last = uplusSize-1; // == q
+    for(int i=0; i<last; i++){
+      if(t == 1)       uplus[i] = uplus[i] + (-r[i]);
+      else if(t == -1) uplus[i] = uplus[i] - (-r[i]);
+      else             uplus[i] = uplus[i] + t*(-r[i]);
+    }
+    uplus[last] = uplus[last] + t; // t*1
+  }
 
-    // B = L^{-1} * N
-    DoubleMatrix2D B = alg.inverse(L).zMult(N.viewPart(0,0,n,q),null);
-    // Get economy-sized Q1 and R from Colt's QR decomposition
-    QRDecomposition qr = new QRDecomposition(B);
-    DoubleMatrix2D Q1 = qr.getQ(); // Q1: nxq
-    DoubleMatrix2D R = qr.getR();  //  R: qxq
-    DoubleMatrix2D J1 = alg.solve(L.viewDice(),Q1); //J1=L^{-T}*Q1 (nxq)
+  // column <- p-th column of C = [Ceq,Ciq] (nx1)
+  private void constraintColumn(int p, double[] column){
+    if(p<meq){
+      ceqColumns.getColumn(p, column);
+    }
+    else{
+      ciqColumns.getColumn(p-meq, column);
+    }
+  }
 
-    // Update H <- J2 * J2' == L^{-T}* Q2*Q2' * L^{-1} (H: nxn),
-    //   or equivalently (as in Fletcher(1987) p.238),
-    // H = L^{-T} * (I - Q1*Q1') * L^{-1}, or
-    // H = L^{-T} * Q2Q2T * L^{-1}, where Q2Q2T = I-Q1*Q1', (Q2*Q2'==I-Q1*Q1')
-    // NOTE: by computing H this way, we are avoiding computing Q2 directly.
-    //       Getting Q2 requires getting the full-sized Q from QR decomposition
-    //       instead of the economy-sized Q1, which is avaible through Colt.
+  // d <- J'*nplus, using the non-zeros of the p-th column of C only
+  private void computeD(){
+    for(int j=0; j<n; j++){
+      d[j] = (p<meq) ? ceqColumns.columnDotProduct(p, J[j])
+                     : ciqColumns.columnDotProduct(p-meq, J[j]);
+    }
+  }
 
-    DoubleMatrix2D Q2Q2T
-        = fac2.identity(n).assign(Q1.zMult(Q1.viewDice(),null),F.minus);
-    H = alg.inverse(L.viewDice()).zMult(Q2Q2T,null).zMult(alg.inverse(L),null);
+  // The three helpers below work on the first len (or rows) elements and add
+  //  the products in the same order as the corresponding Colt methods, without
+  //  allocating a new vector.
+
+  // y <- M(0:rows-1,:)*v, as in DenseDoubleMatrix2D.zMult(v,null)
+  private static void zMult(DoubleMatrix2D M, int rows, double[] v, double[] y){
+    int cols = M.columns();
+    int rem = cols % 4;
+    for(int i=0; i<rows; i++){
+      double sum = 0;
+      int j = 0;
+      for(; j<rem; j++){
+        sum += M.getQuick(i,j)*v[j];
+      }
+      for(; j<cols; j+=4){
+        sum += M.getQuick(i,j)*v[j] + M.getQuick(i,j+1)*v[j+1]
+               + M.getQuick(i,j+2)*v[j+2] + M.getQuick(i,j+3)*v[j+3];
+      }
+      y[i] = sum;
+    }
+  }
 
-    // Update Nstar <- R^{-1}*J1' or R*Nstar = J1' (Nstar: qxn)
-    Nstar = new DenseDoubleMatrix2D(q,n).assign(alg.solve(R,J1.viewDice()));
+  // Returns x'*y, as in DenseDoubleMatrix1D.zDotProduct(y)
+  private static double dotProduct(double[] x, double[] y, int len){
+    double sum = 0;
+    int j = 0;
+    for(int g=len/4; --g>=0; j+=4){
+      sum += x[j]*y[j] + x[j+1]*y[j+1] + x[j+2]*y[j+2] + x[j+3]*y[j+3];
+    }
+    for(; j<len; j++){
+      sum += x[j]*y[j];
+    }
+    return sum;
+  }
+
+  // x <- x + t*y, as in DenseDoubleMatrix1D.assign(y,F.plusMult(t))
+  private static void plusMult(double[] x, double[] y, double t, int len){
+    if(t == 0) return;
+    if(t == 1){
+      for(int i=0; i<len; i++) x[i] += y[i];
+    }
+    else if(t == -1){
+      for(int i=0; i<len; i++) x[i] -= y[i];
+    }
+    else{
+      for(int i=0; i<len; i++) x[i] += t*y[i];
+    }
   }
 
   // correctRoundingError() corrects potential rounding error such as
@@ -747,21 +1051,26 @@ public class QuadProgJ {
   //  Note that this method uses a tolerance value TOL to judge if the target
   //  value needs to be round off. Here TOL is set to be 1.0E-9.
   //
-  // This method is essential when condition if(|z| == 0), if(r<=0), and
-  //  if(siq <= 0) are evaluated, because rounding error can lead to totally
+  // This method is essential when condition if(|z| == 0) and if(siq <= 0)
+  //  are evaluated, because rounding error can lead to totally
   //  different result such as if |z| == 0, then t2 is supposed to be INF, but
   //  round error may lead t2 to different value which in turn lead to a full
   //  step instead of dual or partial step, etc.
   //
-  // In this program, only 6 variables get this treatment: z, r and siq for
+  // In this program, only 5 variables get this treatment: z and siq for
   //  reason given above, and x, f and u for polishing the final solutions.
-  private DoubleMatrix1D correctRoundingError(DoubleMatrix1D vector){
-    for(int i=0; i<vector.size(); i++){
-      if( Math.abs(vector.getQuick(i) - Math.rint(vector.getQuick(i))) < TOL){
-        vector.setQuick(i,Math.rint(vector.getQuick(i)));
+  private void correctRoundingError(double[] vector, int len){
+    for(int i=0; i<len; i++){
+      if( Math.abs(vector[i] - Math.rint(vector[i])) < TOL){
+        vector[i] = Math.rint(vector[i]);
       }
     }
-    return vector;
+  }
+
+  private static double[] copyOf(double[] vector, int len){
+    double[] copy = new double[len];
+    System.arraycopy(vector, 0, copy, 0, len);
+    return copy;
   }
 
   private double correctRoundingError(double scalar){
@@ -800,11 +1109,11 @@ public class QuadProgJ {
    * @return doulbe[]
    */
   public double[] getMinX() {
-    return x.toArray();
+    return (double[]) x.clone();
   }
 
   public DoubleMatrix1D getMinXdm1d(){
-    return x;
+    return new DenseDoubleMatrix1D(x);
   }
 
   /**
@@ -822,7 +1131,7 @@ public class QuadProgJ {
    * @return doulbe[]
    */
   public double[] getAllMultipliers() {
-    return u.toArray();
+    return (double[]) u.clone();
   }
 
   /**
@@ -831,14 +1140,16 @@ public class QuadProgJ {
    * @return doulbe[]
    */
   public double[] getEqMultipliers() {
-    return u.viewPart(0,meq).toArray();
+    return copyOf(u, meq);
   }
   /**
    * Computes and returns (q-meq)x1 Lagrangian multiplier vector for binding
    * inequality constraints only
    */
   public double[] getBindingIneqMultipliers() {
-    return u.viewPart(meq,q-meq).toArray();
+    double[] uIneq = new double[q-meq];
+    System.arraycopy(u, meq, uIneq, 0, q-meq);
+    return uIneq;
   }
 
   /**
@@ -852,7 +1163,7 @@ public class QuadProgJ {
     for(int i=meq; i<q; i++){
      //System.out.println("A[" + i + "]: " + A[i]);
      //System.out.println("u[i]: " + u.get(i));
-     lambdaIneq[A[i]-meq] = u.get(i);
+     lambdaIneq[A[i]-meq] = u[i];
     }
     return lambdaIneq;
   }
@@ -920,6 +1231,15 @@ public class QuadProgJ {
     return isFeasibleAndOptimal;
   }
 
+  /**
+   * Returns true if the solve started from (part of) the active set passed
+   * to the constructor, false if it was a cold start.
+   * @return boolean
+   */
+  public boolean getIsWarmStarted() {
+    return isWarmStarted;
+  }
+
 
 
 }
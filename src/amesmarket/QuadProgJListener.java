@@ -0,0 +1,47 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// QuadProgJListener.java
+// Receives the active set changes of QuadProgJ solves
+
+/**
+ * Listener for the steps of the GI dual active set method in QuadProgJ, e.g.
+ * for tracing a solve.  A listener is attached to a QuadProgJWorkspace
+ * (see QuadProgJWorkspace.setListener()) and is called by every solve using
+ * that workspace; without a listener QuadProgJ does no tracing at all.
+ *
+ * NOTE: with the hourly DC-OPF problems solved in parallel (BUC), the same
+ *       listener may be called from several solver threads at once.
+ */
+public interface QuadProgJListener {
+
+  /**
+   * Called after constraint p (the p-th column of C = [Ceq,Ciq]) has been
+   * added to the active set, which now has q constraints
+   */
+  public void constraintAdded(int p, int q);
+
+  /**
+   * Called after constraint k has been dropped from the active set, which
+   * now has q constraints
+   */
+  public void constraintDropped(int k, int q);
+}
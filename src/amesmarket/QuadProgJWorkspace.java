@@ -0,0 +1,137 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// QuadProgJWorkspace.java
+// Reusable working storage for QuadProgJ
+
+import java.util.SplittableRandom;
+
+/**
+ * Working storage of the GI dual active set method (x, z, r, u, uplus and the
+ * factors J and R that stand for N, H and Nstar, ...), sized for one problem
+ * dimension (n, meq, miq).
+ *
+ * A workspace can be handed to any number of consecutive QuadProgJ solves,
+ * e.g. the 24 hourly DC-OPF problems of a day in BUC; it is only reallocated
+ * when the problem dimension changes, so the main loop of QuadProgJ does not
+ * allocate any vectors or matrices.
+ *
+ * The workspace also holds the random numbers of the solves (constraint
+ * strategy scp = 5 of QuadProgJ), so that they do not depend on other
+ * threads; BUC reseeds it for each hour with setRandomSeed.
+ *
+ * NOTE: a workspace must not be shared by two solves running at the same
+ *       time (BUC keeps one workspace per solver thread).
+ */
+public class QuadProgJWorkspace {
+
+  int n;    // number of decision variables
+  int meq;  // number of equality constraints
+  int miq;  // number of inequality constraints
+  int mMax; // maximum size of the active set, min(meq+miq, n)
+
+  double[] x;     // x: minimizer, nx1
+  double[] z;     // z: step direction in primal space, nx1
+  double[] nplus; // nplus: current chosen violated constraint, nx1
+  double[] d;     // d = J'*nplus, nx1
+  double[] r;     // r: negative step direction in dual space, first q used
+  double[] u;     // u: Lagrangian multiplier, first q used
+  double[] uplus; // uplus: transitional Lagrangian multiplier, first q+1 used
+  double[] siq;   // siq = Ciq' * x - biq, miqx1
+  int[] A;        // active set, first q used
+  int[] V;        // violation set, first nvc used
+  double[][] J;   // J = L^{-T}*Q, nxn, by column
+  double[][] R;   // R: upper triangular, mMax x mMax, by column
+
+  private int numAllocations = 0;
+  private QuadProgJListener listener; // null: no listener
+  private SplittableRandom random;    // null: not drawn from yet (seed 0)
+
+  public QuadProgJWorkspace(){
+    n = -1;
+  }
+
+  public QuadProgJWorkspace(int n, int meq, int miq){
+    this();
+    ensureSize(n, meq, miq);
+  }
+
+  // Makes the workspace fit a problem with n variables, meq equality and miq
+  //  inequality constraints, reallocating only if the dimension has changed.
+  void ensureSize(int n, int meq, int miq){
+    if(this.n == n && this.meq == meq && this.miq == miq){
+      return;
+    }
+    this.n   = n;
+    this.meq = meq;
+    this.miq = miq;
+    mMax = Math.min(meq+miq, n);
+
+    x     = new double[n];
+    z     = new double[n];
+    nplus = new double[n];
+    d     = new double[n];
+    r     = new double[mMax];
+    u     = new double[mMax+1];
+    uplus = new double[mMax+1];
+    siq   = new double[miq];
+    A     = new int[mMax];
+    V     = new int[miq];
+    J     = new double[n][n];
+    R     = new double[mMax][mMax];
+    numAllocations++;
+  }
+
+  /**
+   * Sets the listener called by the solves using this workspace (null to
+   * remove it)
+   */
+  public void setListener(QuadProgJListener l){
+    listener = l;
+  }
+
+  public QuadProgJListener getListener(){
+    return listener;
+  }
+
+  /**
+   * Restarts the random numbers of the next solves from the seed, e.g. a
+   * RandomStreams seed of the problem
+   */
+  public void setRandomSeed(long seed){
+    random = new SplittableRandom(seed);
+  }
+
+  SplittableRandom getRandom(){
+    if(random == null){
+      random = new SplittableRandom(0);
+    }
+    return random;
+  }
+
+  /**
+   * Returns how many times the storage has been (re)allocated
+   * @return int
+   */
+  public int getNumAllocations(){
+    return numAllocations;
+  }
+}
@@ -0,0 +1,84 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// RandomStreams.java
+// Tree of reproducible random number streams derived from a run seed
+
+import java.util.SplittableRandom;
+
+/**
+ * Random number streams of a run, derived from its random seed as a tree:
+ * the seed of a child stream is a hash (the SplitMix64 finalizer) of the
+ * seed of its parent and of the child key.  AMESMarket uses
+ *
+ *   run seed -> GEN_AGENTS -> GenAgent i   (its learner, one draw per day)
+ *   run seed -> OPF -> day d -> hour h     (the QuadProgJ solve of hour h)
+ *
+ * A stream only depends on the run seed and on its path of keys, not on
+ * when or on which thread the streams are created and used, so the
+ * hourly DC-OPF problems and the agent updates draw the same numbers
+ * whether they run serially or in parallel.  Within a stream the numbers
+ * come from a java.util.SplittableRandom, whose k-th number is itself a
+ * function of the stream seed and k only.
+ *
+ * In a batch (BatchRunner) each scenario has its own run seed, so a
+ * scenario gives the same results alone or among others.
+ */
+public final class RandomStreams {
+
+  // Keys of the streams below the run seed
+  public static final long GEN_AGENTS = 1;
+  public static final long OPF        = 2;
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private final long seed;
+
+  // Root of the streams of a run
+  public RandomStreams(long runSeed){
+    seed = mix64(runSeed);
+  }
+
+  private RandomStreams(long parentSeed, long key){
+    seed = mix64(parentSeed + GOLDEN_GAMMA*(key+1));
+  }
+
+  // The child stream with the given key
+  public RandomStreams child(long key){
+    return new RandomStreams(seed, key);
+  }
+
+  public long getSeed(){return seed;}
+
+  // 32-bit seed of the stream, e.g. for the VREParameters of a learner
+  public int getIntSeed(){return (int)(seed >>> 32);}
+
+  // A new generator of the numbers of the stream (from the first one)
+  public SplittableRandom newRandom(){
+    return new SplittableRandom(seed);
+  }
+
+  private static long mix64(long z){
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
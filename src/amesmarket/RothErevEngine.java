@@ -0,0 +1,294 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// RothErevEngine.java
+// Variant Roth-Erev learning of all the GenAgents in one propensity matrix
+
+import java.util.SplittableRandom;
+import edu.iastate.jrelm.rl.rotherev.variant.VREParameters;
+
+/**
+ * Variant Roth-Erev (VRE) learning engine for a set of learners (one per
+ * GenAgent), each with its own VREParameters and action domain size.
+ *
+ * The propensities and choice weights of all the learners are stored row by
+ * row in contiguous arrays: learner a owns the entries
+ * offset(a),...,offset(a)+numActions(a)-1.  update(double[]) updates all
+ * the learners from their daily rewards in one sweep over these arrays; the
+ * inner loops run over contiguous rows without branches, so that the JIT can
+ * vectorise them.  For each learner, with recency r, experimentation e,
+ * cooling T, reward R, last chosen action k and M actions:
+ *
+ *   q_j <- (1-r)*q_j + R*(1-e)       if j = k
+ *   q_j <- (1-r)*q_j + q_j*e/(M-1)   otherwise
+ *   p_j  = exp(q_j/T) / sum_i exp(q_i/T)
+ *
+ * which are the updates of the JReLM VRELearner, in the same floating-point
+ * order.
+ *
+ * The weights w_j = exp(q_j/T) of each row are also kept in a Fenwick tree
+ * (binary indexed tree), so that an action is drawn in O(log M) time, and
+ * setPropensity changes one propensity in O(log M) time, for action domains
+ * of thousands of actions.  p_j is w_j divided by the sum of the row.  Each
+ * learner draws its actions from its own SplittableRandom seeded with the
+ * VREParameters random seed (see RandomStreams), so the k-th draw of a
+ * learner only depends on its seed and k, whatever the other learners do
+ * and on whichever thread.  For the same uniform number u, the tree gives the
+ * action of the JReLM linear scan (the first j with p_0+...+p_j >= u) except
+ * when u is within rounding of such a partial sum.
+ */
+public class RothErevEngine {
+
+  private int numLearners;
+  private int numEntries;
+
+  // Parameters by learner
+  private double[] cooling;
+  private double[] experimentation;
+  private double[] recency;
+  private double[] initialPropensity;
+  private int[] randomSeed;
+  private int[] offset;
+  private int[] numActions;
+  private int[] treeStep;  // highest power of two <= numActions
+
+  // State by learner
+  private SplittableRandom[] randomEngine;
+  private int[] lastAction;
+  private int[] period;
+
+  // Propensities, choice weights and Fenwick trees of the weights of all
+  //  the learners, by row, and the sum of the weights of each row
+  private double[] propensities;
+  private double[] weights;
+  private double[] weightTree;
+  private double[] weightSum;
+
+  public RothErevEngine(){
+    this(8, 8*100);
+  }
+
+  // Capacities are only hints; the arrays grow as learners are added
+  public RothErevEngine(int learnerCapacity, int entryCapacity){
+    learnerCapacity = Math.max(learnerCapacity, 1);
+    entryCapacity = Math.max(entryCapacity, 1);
+    cooling = new double[learnerCapacity];
+    experimentation = new double[learnerCapacity];
+    recency = new double[learnerCapacity];
+    initialPropensity = new double[learnerCapacity];
+    randomSeed = new int[learnerCapacity];
+    offset = new int[learnerCapacity];
+    numActions = new int[learnerCapacity];
+    treeStep = new int[learnerCapacity];
+    weightSum = new double[learnerCapacity];
+    randomEngine = new SplittableRandom[learnerCapacity];
+    lastAction = new int[learnerCapacity];
+    period = new int[learnerCapacity];
+    propensities = new double[entryCapacity];
+    weights = new double[entryCapacity];
+    weightTree = new double[entryCapacity];
+  }
+
+  // Adds a learner over numActions actions, and returns its index
+  public int addLearner(VREParameters params, int iActions){
+    if(numLearners == offset.length){
+      int n = 2*numLearners;
+      cooling = java.util.Arrays.copyOf(cooling, n);
+      experimentation = java.util.Arrays.copyOf(experimentation, n);
+      recency = java.util.Arrays.copyOf(recency, n);
+      initialPropensity = java.util.Arrays.copyOf(initialPropensity, n);
+      randomSeed = java.util.Arrays.copyOf(randomSeed, n);
+      offset = java.util.Arrays.copyOf(offset, n);
+      numActions = java.util.Arrays.copyOf(numActions, n);
+      treeStep = java.util.Arrays.copyOf(treeStep, n);
+      weightSum = java.util.Arrays.copyOf(weightSum, n);
+      randomEngine = java.util.Arrays.copyOf(randomEngine, n);
+      lastAction = java.util.Arrays.copyOf(lastAction, n);
+      period = java.util.Arrays.copyOf(period, n);
+    }
+    if(numEntries+iActions > propensities.length){
+      int n = Math.max(2*propensities.length, numEntries+iActions);
+      propensities = java.util.Arrays.copyOf(propensities, n);
+      weights = java.util.Arrays.copyOf(weights, n);
+      weightTree = java.util.Arrays.copyOf(weightTree, n);
+    }
+
+    int a = numLearners++;
+    cooling[a] = params.getBoltzmannTemp();
+    experimentation[a] = params.getExperimentation();
+    recency[a] = params.getRecency();
+    initialPropensity[a] = params.getInitialPropensity();
+    randomSeed[a] = params.getRandomSeed();
+    offset[a] = numEntries;
+    numActions[a] = iActions;
+    treeStep[a] = Integer.highestOneBit(Math.max(iActions, 1));
+    numEntries += iActions;
+    reset(a);
+    return a;
+  }
+
+  // Back to the initial propensities and the uniform distribution, and
+  //  restart the random draws of learner a from its random seed.  The
+  //  weights are exp(q_0/T), as after an update, so that setPropensity
+  //  can be called before the first update.
+  public void reset(int a){
+    int start = offset[a];
+    int end = start + numActions[a];
+    for(int j=start; j<end; j++){
+      propensities[j] = initialPropensity[a];
+    }
+    updateProbabilities(a);
+    randomEngine[a] = new SplittableRandom(randomSeed[a]);
+    period[a] = 0;
+    // JReLM draws the initial action when the learner is created
+    lastAction[a] = nextAction(a);
+  }
+
+  // Draws the next action of learner a from its choice probabilities
+  public int chooseAction(int a){
+    lastAction[a] = nextAction(a);
+    return lastAction[a];
+  }
+
+  // Finds the first action j with w_0+...+w_j >= u*sum by going down the
+  //  Fenwick tree: pos is the number of actions with smaller partial sums.
+  private int nextAction(int a){
+    double[] tree = weightTree;
+    int start = offset[a] - 1;  // the tree is 1-based
+    int n = numActions[a];
+    double u = randomEngine[a].nextDouble()*weightSum[a];
+    int pos = 0;
+    for(int step=treeStep[a]; step>0; step>>=1){
+      int next = pos + step;
+      if(next<=n && tree[start+next]<u){
+        pos = next;
+        u -= tree[start+next];
+      }
+    }
+    return pos<n ? pos : n-1;  // u over the sum by rounding
+  }
+
+  // Fenwick tree of the weights of row a: node i (1-based) holds the sum of
+  //  the weights of actions i-lowbit(i),...,i-1
+  private void buildTree(int a){
+    double[] tree = weightTree;
+    int start = offset[a];
+    int n = numActions[a];
+    System.arraycopy(weights, start, tree, start, n);
+    start--;
+    for(int i=1; i<=n; i++){
+      int parent = i + (i & -i);
+      if(parent <= n)
+        tree[start+parent] += tree[start+i];
+    }
+  }
+
+  // Sets the propensity of action j of learner a, and its choice weight, in
+  //  O(log numActions) time; the other weights are unchanged.
+  public void setPropensity(int a, int j, double q){
+    int k = offset[a] + j;
+    propensities[k] = q;
+    double w = Math.exp(q/cooling[a]);
+    double delta = w - weights[k];
+    weights[k] = w;
+    weightSum[a] += delta;
+
+    double[] tree = weightTree;
+    int start = offset[a] - 1;
+    int n = numActions[a];
+    for(int i=j+1; i<=n; i+=i & -i)
+      tree[start+i] += delta;
+  }
+
+  // Updates learner a with the reward of its last chosen action
+  public void update(int a, double reward){
+    updatePropensities(a, reward);
+    updateProbabilities(a);
+    period[a]++;
+  }
+
+  // Updates all the learners, learner a with rewards[a], in one sweep.
+  //  Learners with bUpdate[a] false are left as they are (bUpdate may be
+  //  null to update all of them).
+  public void update(double[] rewards, boolean[] bUpdate){
+    for(int a=0; a<numLearners; a++){
+      if(bUpdate==null || bUpdate[a]){
+        update(a, rewards[a]);
+      }
+    }
+  }
+
+  private void updatePropensities(int a, double reward){
+    double[] q = propensities;
+    int start = offset[a];
+    int end = start + numActions[a];
+    double decay = 1 - recency[a];
+    double spread = experimentation[a]/(numActions[a]-1);
+    int k = start + lastAction[a];
+    double last = q[k];
+
+    for(int j=start; j<end; j++){
+      q[j] = decay*q[j] + q[j]*spread;
+    }
+    q[k] = decay*last + reward*(1 - experimentation[a]);
+  }
+
+  private void updateProbabilities(int a){
+    double[] q = propensities;
+    double[] w = weights;
+    int start = offset[a];
+    int end = start + numActions[a];
+    double temp = cooling[a];
+
+    double sum = 0;
+    for(int j=start; j<end; j++){
+      w[j] = Math.exp(q[j]/temp);
+      sum += w[j];
+    }
+    weightSum[a] = sum;
+    buildTree(a);
+  }
+
+  public int getNumLearners(){return numLearners;}
+  public int getNumEntries(){return numEntries;}
+  public int getOffset(int a){return offset[a];}
+  public int getNumActions(int a){return numActions[a];}
+  public int getLastAction(int a){return lastAction[a];}
+  public int getPeriod(int a){return period[a];}
+  public int getRandomSeed(int a){return randomSeed[a];}
+
+  public double getPropensity(int a, int j){return propensities[offset[a]+j];}
+  public double getProbability(int a, int j){return weights[offset[a]+j]/weightSum[a];}
+
+  // Copies the choice probabilities of learner a into probs[0..numActions-1]
+  public void getProbabilities(int a, double[] probs){
+    int start = offset[a];
+    double sum = weightSum[a];
+    for(int j=0; j<numActions[a]; j++){
+      probs[j] = weights[start+j]/sum;
+    }
+  }
+
+  // Copies the propensities of learner a into props[0..numActions-1]
+  public void getPropensities(int a, double[] props){
+    System.arraycopy(propensities, offset[a], props, 0, numActions[a]);
+  }
+}
@@ -0,0 +1,90 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// RothErevLearner.java
+// Variant Roth-Erev learning of a GenAgent on primitive arrays
+
+import edu.iastate.jrelm.rl.rotherev.variant.VREParameters;
+
+/**
+ * Variant Roth-Erev (VRE) learner of a GenAgent over an action domain of
+ * numActions actions, identified by their index 0,...,numActions-1.
+ *
+ * The learner is one row of a RothErevEngine, which keeps the propensities
+ * and choice probabilities of all its learners in contiguous arrays updated
+ * in place, so that choosing an action and learning from the daily reward
+ * neither box nor allocate.  The learner makes the updates of the JReLM
+ * SimpleStatelessLearner with VREParameters, and draws its actions from a
+ * SplittableRandom seeded with the random seed; see RothErevEngine.
+ * Before the first update all the actions are equally likely.
+ */
+public class RothErevLearner {
+
+  private RothErevEngine engine;
+  private int index;
+
+  // A learner of its own engine
+  public RothErevLearner(VREParameters params, int numActions){
+    this(new RothErevEngine(1, numActions), params, numActions);
+  }
+
+  // A learner in the given engine, e.g. shared by all the GenAgents
+  public RothErevLearner(RothErevEngine engine, VREParameters params, int numActions){
+    this.engine = engine;
+    index = engine.addLearner(params, numActions);
+  }
+
+  // Back to the initial propensities and the uniform distribution, and
+  //  restart the random draws from the random seed.
+  public void reset(){
+    engine.reset(index);
+  }
+
+  // Draws the next action from the current choice probabilities
+  public int chooseAction(){
+    return engine.chooseAction(index);
+  }
+
+  // Updates the propensities with the reward of the last chosen action, and
+  //  then the choice probabilities.
+  public void update(double reward){
+    engine.update(index, reward);
+  }
+
+  // Sets the propensity of action j (and its choice weight) alone
+  public void setPropensity(int j, double q){
+    engine.setPropensity(index, j, q);
+  }
+
+  public RothErevEngine getEngine(){return engine;}
+  public int getIndex(){return index;}
+
+  public int getLastAction(){return engine.getLastAction(index);}
+  public int getNumActions(){return engine.getNumActions(index);}
+  public int getPeriod(){return engine.getPeriod(index);}
+  public int getRandomSeed(){return engine.getRandomSeed(index);}
+
+  public double getPropensity(int j){return engine.getPropensity(index, j);}
+  public double getProbability(int j){return engine.getProbability(index, j);}
+
+  public void getPropensities(double[] props){engine.getPropensities(index, props);}
+  public void getProbabilities(double[] probs){engine.getProbabilities(index, probs);}
+}
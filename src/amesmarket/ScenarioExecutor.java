@@ -0,0 +1,173 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// ScenarioExecutor.java
+// Runs independent scenarios (case and random seed) in parallel
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs a set of scenarios, each one case with one random seed, on a pool of
+ * threads.  Every scenario gets its own AMESMarket built by the BatchRunner
+ * (so with its own agents, ISO, grid and solvers) and is run with
+ * AMESMarket.runWithoutController(); nothing of a run is shared with the
+ * others, so a seed gives the same results as when run alone.
+ *
+ * The results are returned in the order the scenarios were added.
+ */
+public class ScenarioExecutor {
+
+  private BatchRunner runner;
+  private int numThreads;
+  private boolean bKeepMarkets = false;
+  private ArrayList scenarios = new ArrayList();
+
+  /**
+   * @param runner builds and runs each scenario, and saves its output file
+   * @param numThreads number of scenarios run at the same time
+   */
+  public ScenarioExecutor(BatchRunner runner, int numThreads){
+    this.runner = runner;
+    this.numThreads = Math.max(1, numThreads);
+  }
+
+  // true: each Result keeps its AMESMarket after the run (memory grows
+  //  with the number of scenarios); false (default): only the output file
+  public void setKeepMarkets(boolean keep){bKeepMarkets = keep;}
+  public int getNumThreads(){return numThreads;}
+
+  /**
+   * Adds a scenario; its output data file is named outputFileName
+   * @return the index of the scenario in the results
+   */
+  public int addScenario(CaseData caseData, File caseFile, long randomSeed, String outputFileName){
+    scenarios.add(new Scenario(scenarios.size(), caseData, caseFile, randomSeed, outputFileName));
+    return scenarios.size()-1;
+  }
+
+  public int getNumScenarios(){return scenarios.size();}
+
+  /**
+   * Runs all scenarios added so far.  A scenario that fails does not stop
+   * the others; its Result holds the exception.
+   * @return the results, indexed as the scenarios
+   */
+  public Result[] runAll(){
+    Result[] results = new Result[scenarios.size()];
+
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory(){
+      private int iThread = 0;
+      public synchronized Thread newThread(Runnable r){
+        Thread t = new Thread(r, "Scenario-"+(iThread++));
+        t.setDaemon(true);
+        return t;
+      }
+    });
+
+    try {
+      ArrayList futures = new ArrayList();
+      for(int i=0; i<scenarios.size(); i++){
+        futures.add(executor.submit((Scenario) scenarios.get(i)));
+      }
+      for(int i=0; i<scenarios.size(); i++){
+        Scenario scenario = (Scenario) scenarios.get(i);
+        try {
+          results[i] = (Result) ((Future) futures.get(i)).get();
+        }
+        catch(InterruptedException e){
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Scenario "+i+" was interrupted", e);
+        }
+        catch(ExecutionException e){
+          results[i] = new Result(scenario, null, null, e.getCause(), 0);
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  // One case with one random seed
+  private class Scenario implements Callable {
+    private int index;
+    private CaseData caseData;
+    private File caseFile;
+    private long randomSeed;
+    private String outputFileName;
+
+    Scenario(int i, CaseData data, File file, long seed, String name){
+      index = i;
+      caseData = data;
+      caseFile = file;
+      randomSeed = seed;
+      outputFileName = name;
+    }
+
+    public Object call() throws Exception {
+      long start = System.currentTimeMillis();
+      AMESMarket ames = runner.run(caseData, caseFile, randomSeed, outputFileName);
+      return new Result(this, bKeepMarkets ? ames : null, runner.getOutputFile(caseFile, outputFileName),
+                        null, System.currentTimeMillis()-start);
+    }
+  }
+
+  /**
+   * The outcome of one scenario
+   */
+  public static class Result {
+    private int index;
+    private File caseFile;
+    private long randomSeed;
+    private AMESMarket ames;
+    private File outputFile;
+    private Throwable exception;
+    private long elapsedMillis;
+
+    private Result(Scenario scenario, AMESMarket ames, File outputFile, Throwable exception, long elapsedMillis){
+      index = scenario.index;
+      caseFile = scenario.caseFile;
+      randomSeed = scenario.randomSeed;
+      this.ames = ames;
+      this.outputFile = outputFile;
+      this.exception = exception;
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getIndex(){return index;}
+    public File getCaseFile(){return caseFile;}
+    public long getRandomSeed(){return randomSeed;}
+    // The market after the run, if the executor keeps them
+    public AMESMarket getAMESMarket(){return ames;}
+    public File getOutputFile(){return outputFile;}
+    public boolean isSuccessful(){return exception == null;}
+    public Throwable getException(){return exception;}
+    public long getElapsedMillis(){return elapsedMillis;}
+  }
+}
@@ -0,0 +1,161 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// SparseLDL.java
+// Sparse LDL' factorization with a fixed non-zero pattern
+
+/**
+ * Sparse L*D*L' factorization of a symmetric nxn matrix M (no pivoting), for
+ * the KKT systems of InteriorPointQP.
+ *
+ * The pattern of M is given once, as the upper triangle (diagonal included)
+ * in compressed-column form: for column k, the entries p = Mp[k],...,
+ * Mp[k+1]-1 are at rows Mi[p] <= k.  The elimination tree and the pattern
+ * of L are computed in the constructor; factor() then only does the numeric
+ * work for new values Mx of the same pattern, so the same SparseLDL serves
+ * all iterations (and solves) of problems with the same structure.
+ *
+ * The algorithm is the up-looking (row by row) LDL' of T. Davis, "Algorithm
+ * 849: A concise sparse Cholesky factorization package", ACM TOMS 31 (2005).
+ * The rows and columns of M should already be ordered to limit the fill-in.
+ */
+class SparseLDL {
+
+  private int n;
+  private int[] Mp;      // column pointers of the upper triangle of M
+  private int[] Mi;      // row indices of the upper triangle of M
+
+  private int[] parent;  // elimination tree
+  private int[] Lp;      // column pointers of L
+  private int[] Li;      // row indices of L
+  private double[] Lx;   // values of L (unit diagonal not stored)
+  private double[] D;    // diagonal of D
+
+  private int[] Lnz;     // work: # of entries found so far in each column of L
+  private int[] flag;    // work
+  private int[] pattern; // work
+  private double[] y;    // work
+
+  SparseLDL(int n, int[] Mp, int[] Mi){
+    this.n = n;
+    this.Mp = Mp;
+    this.Mi = Mi;
+    parent  = new int[n];
+    Lnz     = new int[n];
+    flag    = new int[n];
+    pattern = new int[n];
+    y       = new double[n];
+    D       = new double[n];
+
+    // Symbolic factorization: elimination tree and column counts of L
+    for(int k=0; k<n; k++){
+      parent[k] = -1;
+      flag[k] = k;
+      Lnz[k] = 0;
+      for(int p=Mp[k]; p<Mp[k+1]; p++){
+        int i = Mi[p];
+        while(i<k && flag[i]!=k){
+          if(parent[i] == -1) parent[i] = k;
+          Lnz[i]++;
+          flag[i] = k;
+          i = parent[i];
+        }
+      }
+    }
+    Lp = new int[n+1];
+    for(int k=0; k<n; k++){
+      Lp[k+1] = Lp[k] + Lnz[k];
+    }
+    Li = new int[Lp[n]];
+    Lx = new double[Lp[n]];
+  }
+
+  // Number of non-zeros of L (below the diagonal)
+  int getNumNonZerosL(){
+    return Lp[n];
+  }
+
+  // Numeric factorization of M with values Mx (same pattern as Mi).
+  //  Returns false if a zero pivot is met.
+  boolean factor(double[] Mx){
+    for(int k=0; k<n; k++){
+      // Pattern of row k of L, in topological order, from the elimination tree
+      y[k] = 0;
+      int top = n;
+      flag[k] = k;
+      Lnz[k] = 0;
+      for(int p=Mp[k]; p<Mp[k+1]; p++){
+        int i = Mi[p];
+        y[i] += Mx[p];
+        int len = 0;
+        for(; flag[i]!=k; i=parent[i]){
+          pattern[len++] = i;
+          flag[i] = k;
+        }
+        while(len > 0){
+          pattern[--top] = pattern[--len];
+        }
+      }
+      // Row k of L and D(k)
+      D[k] = y[k];
+      y[k] = 0;
+      for(; top<n; top++){
+        int i = pattern[top];
+        double yi = y[i];
+        y[i] = 0;
+        int p2 = Lp[i] + Lnz[i];
+        int p;
+        for(p=Lp[i]; p<p2; p++){
+          y[Li[p]] -= Lx[p]*yi;
+        }
+        double lki = yi/D[i];
+        D[k] -= lki*yi;
+        Li[p] = k;
+        Lx[p] = lki;
+        Lnz[i]++;
+      }
+      if(D[k] == 0){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // b <- M^{-1} * b, with M = L*D*L' from factor()
+  void solve(double[] b){
+    for(int j=0; j<n; j++){
+      double bj = b[j];
+      for(int p=Lp[j]; p<Lp[j+1]; p++){
+        b[Li[p]] -= Lx[p]*bj;
+      }
+    }
+    for(int j=0; j<n; j++){
+      b[j] /= D[j];
+    }
+    for(int j=n-1; j>=0; j--){
+      double bj = b[j];
+      for(int p=Lp[j]; p<Lp[j+1]; p++){
+        bj -= Lx[p]*b[Li[p]];
+      }
+      b[j] = bj;
+    }
+  }
+}
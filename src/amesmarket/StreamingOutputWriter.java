@@ -0,0 +1,200 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// StreamingOutputWriter.java
+// Writes the results of a run while the run goes on
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * OutputSink that writes the daily results of a run as they are produced,
+ * instead of all at once after the run.  addDay() only copies the table and
+ * puts it in a bounded queue; a background thread appends the queued days to
+ * MappedDailyHistory files in the directory "<output file>.parts", so the
+ * file writing overlaps the DC-OPF of the next hours, and the days written
+ * so far can be read (MappedDailyHistory.open) while the run goes on.  When
+ * the queue is full, addDay() waits for the writer, so the memory used is
+ * bounded whatever the number of days.
+ *
+ * close() waits for the queued days, writes the output file in the binary
+ * format of BinaryOutputWriter from the .parts files and deletes them.
+ *
+ * With AMESMarket.setKeepResults(false), the results of the run are then
+ * never all on the heap.
+ */
+public class StreamingOutputWriter implements OutputSink {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+  private static final Day END = new Day(null, null);
+
+  private File outputFile;
+  private String caseFileName;
+  private AMESMarket ames;
+  private File partsDirectory;
+
+  private ArrayBlockingQueue queue;
+  private Thread writerThread;
+  private volatile Throwable writeError;
+  private boolean bClosed;
+
+  // Written by the writer thread only, until close()
+  private HashMap histories = new HashMap();  // name -> MappedDailyHistory
+
+  public StreamingOutputWriter(File outputFile, String caseFileName, AMESMarket ames) throws IOException {
+    this(outputFile, caseFileName, ames, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  /**
+   * @param queueCapacity number of day tables that may wait for the writer
+   */
+  public StreamingOutputWriter(File outputFile, String caseFileName, AMESMarket ames,
+      int queueCapacity) throws IOException {
+    this.outputFile = outputFile;
+    this.caseFileName = caseFileName;
+    this.ames = ames;
+    partsDirectory = new File(outputFile.getPath()+".parts");
+    if(!partsDirectory.isDirectory() && !partsDirectory.mkdirs())
+      throw new IOException("Cannot create "+partsDirectory);
+
+    queue = new ArrayBlockingQueue(queueCapacity);
+    writerThread = new Thread(new Runnable(){
+      public void run(){
+        writeDays();
+      }
+    }, "OutputWriter-"+outputFile.getName());
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  public File getOutputFile(){return outputFile;}
+  public File getPartsDirectory(){return partsDirectory;}
+
+  public void addDay(String name, double[][] table){
+    if(bClosed)
+      throw new IllegalStateException("StreamingOutputWriter is closed");
+    if(writeError != null)
+      throw new RuntimeException("Cannot write "+outputFile.getName(), writeError);
+
+    double [][] copy = new double[table.length][];
+    for(int i=0; i<table.length; i++)
+      copy[i] = (double []) table[i].clone();
+    put(new Day(name, copy));
+  }
+
+  public void close() throws IOException {
+    if(bClosed)
+      return;
+    bClosed = true;
+    put(END);
+    try {
+      writerThread.join();
+    }
+    catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while writing "+outputFile.getName());
+    }
+
+    try {
+      if(writeError != null){
+        IOException e = new IOException("Cannot write "+outputFile.getName());
+        e.initCause(writeError);
+        throw e;
+      }
+
+      ArrayList names = new ArrayList();
+      ArrayList dayHistories = new ArrayList();
+      for(int i=0; i<AMESMarket.DAILY_HISTORY_NAMES.length; i++)
+        addDataset(AMESMarket.DAILY_HISTORY_NAMES[i], names, dayHistories);
+      addDataset(BinaryOutputWriter.HAS_SOLUTION, names, dayHistories);
+      addDataset(BinaryOutputWriter.GEN_ACTIONS, names, dayHistories);
+      BinaryOutputWriter.write(outputFile, caseFileName, ames, names, dayHistories);
+    }
+    finally {
+      Object [] parts = histories.values().toArray();
+      for(int i=0; i<parts.length; i++)
+        ((MappedDailyHistory) parts[i]).discard();
+      histories.clear();
+      partsDirectory.delete();
+    }
+  }
+
+  private void addDataset(String name, ArrayList names, ArrayList dayHistories){
+    DailyHistory history = (DailyHistory) histories.get(name);
+    names.add(name);
+    dayHistories.add(history != null ? history : new DailyHistory());
+  }
+
+  private void put(Day day){
+    try {
+      queue.put(day);
+    }
+    catch(InterruptedException e){
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while writing "+outputFile.getName(), e);
+    }
+  }
+
+  // Loop of the writer thread; after an error it only drains the queue, so
+  //  that addDay() and close() never wait for ever
+  private void writeDays(){
+    while(true){
+      Day day;
+      try {
+        day = (Day) queue.take();
+      }
+      catch(InterruptedException e){
+        writeError = e;
+        return;
+      }
+      if(day == END)
+        return;
+      if(writeError != null)
+        continue;
+
+      try {
+        MappedDailyHistory history = (MappedDailyHistory) histories.get(day.name);
+        if(history == null){
+          history = new MappedDailyHistory(new File(partsDirectory, day.name+".hist"));
+          histories.put(day.name, history);
+        }
+        history.addDay(day.table);
+      }
+      catch(Throwable e){
+        writeError = e;
+      }
+    }
+  }
+
+  private static class Day {
+    String name;
+    double [][] table;
+
+    Day(String name, double [][] table){
+      this.name = name;
+      this.table = table;
+    }
+  }
+}
@@ -75,6 +75,9 @@ public class TransGrid {
   private double[][] reducedAdjacency;         // Ar  Nx(K-1) ~ Eq(53)
   private double[] reactance; //Nx1
 
+  private long topologyVersion;         // incremented whenever the matrices above are (re)formed
+  private GridOperators gridOperators;  // grid-only OPF blocks for topologyVersion
+
   private DoubleMatrix2D ndata;  // to hold nodeData
   private DoubleMatrix2D bdata;  // to hold branchData
   private DoubleFactory2D fac2d = DoubleFactory2D.dense;
@@ -82,6 +85,8 @@ public class TransGrid {
   private cern.jet.math.Functions F = cern.jet.math.Functions.functions;
     // F: Naming shortcut to save some keystrokes for calling Colt's functions
 
+  private MarketContext context;  // base values and case data of the run
+
   private Object2DGrid powerSpace;
   private Object2DGrid genSpace;
   private Object2DGrid lseSpace;
@@ -92,15 +97,19 @@ public class TransGrid {
 
   }
 
-  // Constructor
-  public TransGrid(double[][] nodeData, double[][] branchData,
-                   int xSize, int ySize){
+  // Constructor, with the node and branch data of the market context
+  public TransGrid(MarketContext ctx, int xSize, int ySize){
+    context = ctx;
+    double[][] nodeData = ctx.getNodeData();
+    double[][] branchData = ctx.getBranchData();  // a copy, converted here
+    double baseS = ctx.getBaseS();
+    double baseV = ctx.getBaseV();
     for(int n=0; n<branchData.length; n++){
       // Convert MaxCap from SI to PU
-      branchData[n][2] = branchData[n][2]/INIT.getBaseS();
+      branchData[n][2] = branchData[n][2]/baseS;
       // Convert reactance from SI to PU, x(pu) = x/Zo = x/(Vo^2/So) = (x*So)/Vo^2
       branchData[n][3]
-          = (branchData[n][3]*INIT.getBaseS())/(INIT.getBaseV()*INIT.getBaseV());
+          = (branchData[n][3]*baseS)/(baseV*baseV);
     }
     branchData = Support.correctRoundingError(branchData);
 
@@ -138,6 +147,7 @@ public class TransGrid {
   }
 
   private void formMatrices(){
+    topologyVersion++;
     setBranchIndex();
     setVADWeight();
     setReducedVADWeight();
@@ -246,6 +256,7 @@ public class TransGrid {
     reactance = bdata.viewColumn(REACTANCE).toArray();
   }
 
+  public MarketContext getMarketContext(){ return context; }
   public int getNumNodes(){ return numNodes; }
   public double getPenaltyCoeff(){ return penaltyCoeff; }
   public double[][] getVADWeight(){return vadWeight;}
@@ -260,6 +271,21 @@ public class TransGrid {
   public double[][] getAdjacency(){ return adjacency; }
   public double[][] getReducedAdjacency(){ return reducedAdjacency; }
   public double[] getReactance(){ return reactance;}
+  public long getTopologyVersion(){ return topologyVersion; }
+
+  /**
+   * Returns the grid-only blocks of the DC-OPF matrices (Wrr, -Br', Z*rAdj)
+   * for the current topology; they are computed on the first call after the
+   * topology has been formed and shared by all later OPF problems.
+   * @return GridOperators
+   */
+  public synchronized GridOperators getGridOperators(){
+    if(gridOperators == null
+       || gridOperators.getTopologyVersion() != topologyVersion){
+      gridOperators = new GridOperators(this, topologyVersion);
+    }
+    return gridOperators;
+  }
 
 
   public Object2DGrid getCurrentPowerSpace(){
@@ -0,0 +1,66 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// BUCTest.java
+// Hourly DC-OPF problems solved one after the other and in parallel
+
+import java.io.File;
+import org.junit.Test;
+
+/**
+ * Runs the first days of each bundled case with the hourly DC-OPF problems
+ * solved in the calling thread and in the OPF thread pool, with and without
+ * warm start, and checks that the results are the same, bit for bit.
+ */
+public class BUCTest {
+
+  private static final int DAYS = 5;
+  private static final int THREADS = 4;
+
+  @Test
+  public void parallelSameAsSerial() throws Exception {
+    checkParallelSameAsSerial(false);
+  }
+
+  @Test
+  public void warmStartParallelSameAsSerial() throws Exception {
+    checkParallelSameAsSerial(true);
+  }
+
+  private static void checkParallelSameAsSerial(boolean bWarmStart) throws Exception {
+    File[] cases = MarketCases.caseFiles();
+    for(int c=0; c<cases.length; c++){
+      AMESMarket serial = MarketCases.create(cases[c]);
+      serial.setWarmStartOPF(bWarmStart);
+      MarketCases.run(serial, DAYS);
+      AMESMarket parallel = MarketCases.create(cases[c]);
+      parallel.setWarmStartOPF(bWarmStart);
+      parallel.setNumOPFThreads(THREADS);
+      MarketCases.run(parallel, DAYS);
+
+      DailyHistory[] expected = serial.getDailyHistories();
+      DailyHistory[] actual = parallel.getDailyHistories();
+      for(int i=0; i<expected.length; i++)
+        MarketCases.assertSameHistory(cases[c].getName()+" "+AMESMarket.DAILY_HISTORY_NAMES[i],
+                                      expected[i], actual[i]);
+    }
+  }
+}
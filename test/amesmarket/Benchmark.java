@@ -0,0 +1,468 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// Benchmark.java
+// Times the market-clearing hot path on bundled and synthetic cases
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+/**
+ * Micro-benchmarks of the market-clearing hot path, for tracking regressions
+ * of the solver and market code from the command line:
+ *
+ *   quadprogj        QuadProgJ on one hourly DC-OPF problem (cold start)
+ *   dcopfj           DCOPFJ forming (new DCOPFJModel) and solving one hour
+ *   buc.solveOPF     BUC.solveOPF() of one day, on fresh GenCo offers
+ *   dam.post         DAMarket.post() of one day, i.e. GenAgent learning
+ *   market.day       the 24 market hours of one day (AMESMarket.runMarketHour())
+ *   learning         one action choice and update of all the GenAgent learners
+ *   output.text      OutputDataWriter.write() of a run of -outputdays days
+ *   output.binary    BinaryOutputWriter.write() of the same run
+ *   output.load      BinaryOutputReader reading all datasets of that file
+ *
+ * Each benchmark runs on every case given (case data files, *.dat) and on a
+ * synthetic case of CaseGenerator (default settings) for each -buses size.
+ * The hourly problems are those of the first market day, with the default
+ * learning and the random seed of BatchRunner.
+ *
+ * As in JMH, each benchmark runs warm-up iterations and then measurement
+ * iterations of about -time ms each, and reports the mean time per operation
+ * with its standard deviation and minimum over the measurement iterations.
+ * Any set-up of an operation (e.g. the new offers of buc.solveOPF) is not
+ * timed.  The market's console messages are dropped unless -verbose is set.
+ *
+ * The benchmarks are in the test sources, not in the distribution jar: build
+ * them with "ant compile-test" and run them on the test classpath, e.g.
+ * -cp "build/classes:build/test/classes:lib/*".
+ *
+ * Usage: java amesmarket.Benchmark [options] [case.dat ...]
+ *   -buses N,...    sizes of the synthetic cases (default 30,118)
+ *   -warmup N       warm-up iterations (default 3)
+ *   -iterations N   measurement iterations (default 5)
+ *   -time ms        length of an iteration (default 1000)
+ *   -outputdays N   days of the run saved by the output benchmarks (default 100)
+ *   -filter text    only the benchmarks whose "name case" contains text
+ *   -csv file       also write the results to file, as comma-separated values
+ *   -verbose        keep the console messages of the market
+ * Without any case, DATA/5Busemission.dat is used if it exists.
+ */
+public class Benchmark {
+
+  public static final int DEFAULT_WARMUP_ITERATIONS = 3;
+  public static final int DEFAULT_ITERATIONS = 5;
+  public static final long DEFAULT_ITERATION_TIME = 1000;  // ms
+  public static final int DEFAULT_OUTPUT_DAYS = 100;
+  public static final int[] DEFAULT_SYNTHETIC_BUSES = {30, 118};
+  public static final String DEFAULT_CASE = "DATA/5Busemission.dat";
+
+  private int iWarmupIterations = DEFAULT_WARMUP_ITERATIONS;
+  private int iIterations = DEFAULT_ITERATIONS;
+  private long lIterationTime = DEFAULT_ITERATION_TIME;
+  private int iOutputDays = DEFAULT_OUTPUT_DAYS;
+  private String filter;       // null: all benchmarks
+  private PrintStream out = System.out;
+  private PrintStream csv;     // null: no CSV file
+
+  // Sum of a value of each result, so that no operation can be optimized away
+  private static volatile double sink;
+
+  public void setWarmupIterations(int n){iWarmupIterations = n;}
+  public void setIterations(int n){iIterations = n;}
+  public void setIterationTime(long ms){lIterationTime = ms;}
+  public void setOutputDays(int n){iOutputDays = n;}
+  public void setFilter(String text){filter = text;}
+  public void setOutput(PrintStream ps){out = ps;}
+  public void setCSVOutput(PrintStream ps){csv = ps;}
+
+  /**
+   * One benchmarked operation.  prepare() is called before each run() and is
+   * not timed; run() returns any value of its result.
+   */
+  public static abstract class Operation {
+    public void prepare() throws Exception {}
+    public abstract double run() throws Exception;
+  }
+
+  // Statistics of one benchmark, in nanoseconds per operation
+  public static class Result {
+    private String name;
+    private String caseName;
+    private long numOperations;
+    private double mean;
+    private double stdDev;
+    private double min;
+
+    Result(String name, String caseName, long ops, double[] nsPerOp){
+      this.name = name;
+      this.caseName = caseName;
+      numOperations = ops;
+      min = Double.POSITIVE_INFINITY;
+      for(int i=0; i<nsPerOp.length; i++){
+        mean += nsPerOp[i];
+        min = Math.min(min, nsPerOp[i]);
+      }
+      mean /= nsPerOp.length;
+      if(nsPerOp.length > 1){
+        for(int i=0; i<nsPerOp.length; i++)
+          stdDev += (nsPerOp[i]-mean)*(nsPerOp[i]-mean);
+        stdDev = Math.sqrt(stdDev/(nsPerOp.length-1));
+      }
+    }
+
+    public String getName(){return name;}
+    public String getCaseName(){return caseName;}
+    public long getNumOperations(){return numOperations;}
+    public double getMean(){return mean;}
+    public double getStdDev(){return stdDev;}
+    public double getMin(){return min;}
+  }
+
+  // Whether the benchmark is selected by the filter
+  public boolean isSelected(String name, String caseName){
+    return (filter == null) || (name+" "+caseName).indexOf(filter) >= 0;
+  }
+
+  /**
+   * Times op as described in the class comment and reports the result
+   * @return the result, or null if the benchmark is not selected
+   */
+  public Result measure(String name, String caseName, Operation op) throws Exception {
+    if(!isSelected(name, caseName))
+      return null;
+
+    double[] nsPerOp = new double[iIterations];
+    long iOps = 0;
+    for(int it=0; it<iWarmupIterations+iIterations; it++){
+      long lTime = 0;
+      long iIterationOps = 0;
+      double dSum = 0;
+      long lEnd = System.nanoTime() + lIterationTime*1000000L;
+      do {
+        op.prepare();
+        long lStart = System.nanoTime();
+        dSum += op.run();
+        lTime += System.nanoTime() - lStart;
+        iIterationOps++;
+      } while(System.nanoTime() < lEnd);
+      sink += dSum;
+      if(it >= iWarmupIterations){
+        nsPerOp[it-iWarmupIterations] = (double)lTime/iIterationOps;
+        iOps += iIterationOps;
+      }
+    }
+
+    Result result = new Result(name, caseName, iOps, nsPerOp);
+    report(result);
+    return result;
+  }
+
+  private void report(Result r){
+    out.println(String.format("%1$-16s %2$-24s %3$10d %4$14.3f %5$12.3f %6$14.3f",
+                              r.getName(), r.getCaseName(), r.getNumOperations(),
+                              r.getMean()/1000.0, r.getStdDev()/1000.0, r.getMin()/1000.0));
+    if(csv != null){
+      csv.println(r.getName()+","+r.getCaseName()+","+r.getNumOperations()+","+r.getMean()+","
+                  +r.getStdDev()+","+r.getMin());
+      csv.flush();
+    }
+  }
+
+  private void printHeader(){
+    out.println(String.format("%1$-16s %2$-24s %3$10s %4$14s %5$12s %6$14s",
+                              "Benchmark", "Case", "Ops", "Mean (us/op)", "StdDev", "Min (us/op)"));
+    if(csv != null)
+      csv.println("benchmark,case,ops,mean_ns,stddev_ns,min_ns");
+  }
+
+  /**
+   * A market of the case, set up for runMarketHour() calls, with the GUI
+   * default learning and no stopping rule within maxDay days
+   */
+  public static AMESMarket createAMESMarket(CaseData caseData, int maxDay){
+    AMESMarket ames = new AMESMarket();
+    caseData.initAMESMarket(ames);
+    ames.InitSimulationParameters(maxDay, true, 0.999, false, 10.0, false, 1, 5,
+                                  1, 5, 0.001, false, 1, 5, 0.001, false,
+                                  1000.0, 0.0, BatchRunner.DEFAULT_RANDOM_SEED);
+    ames.setupWithoutController();
+    return ames;
+  }
+
+  // Runs the market hours of the given number of days
+  public static void runDays(AMESMarket ames, int days){
+    for(int i=0; i<24*days; i++)
+      ames.runMarketHour();
+  }
+
+  /**
+   * Runs all the selected benchmarks on the case
+   */
+  public void run(CaseData caseData) throws Exception {
+    String caseName = caseData.getCaseFileName();
+
+    // Hourly problems of the first market day, without keeping any results
+    final AMESMarket ames = createAMESMarket(caseData, Integer.MAX_VALUE);
+    ames.setKeepResults(false);
+    runDays(ames, 1);
+    final ISO iso = ames.getISO();
+    final BUC buc = iso.getBUC();
+    final DAMarket dam = iso.getDAMarket();
+
+    DCOPFJ[] hourlyOPF = buc.getHourlyOPF();
+    ArrayList opfList = new ArrayList();
+    for(int h=0; h<hourlyOPF.length; h++){
+      if(hourlyOPF[h] != null)
+        opfList.add(hourlyOPF[h]);
+    }
+    final DCOPFJ[] opf = (DCOPFJ[]) opfList.toArray(new DCOPFJ[opfList.size()]);
+
+    if(opf.length > 0){
+      // The hourly problems share the model storage of the BUC thread, so
+      //  each problem is formed again (untimed) before it is solved
+      final QuadProgJWorkspace workspace = new QuadProgJWorkspace();
+      checkQuadProgJ(opf, workspace);
+      measure("quadprogj", caseName, new Operation(){
+        int h = 0;
+        public void prepare(){
+          opf[h].formQP();
+        }
+        public double run(){
+          QuadProgJ qp = opf[h].solveQuadProgJ(workspace);
+          h = (h+1)%opf.length;
+          return qp.getMinF();
+        }
+      });
+
+      measure("dcopfj", caseName, new Operation(){
+        int h = 0;
+        public double run(){
+          DCOPFJ dcopf = opf[h].formAgain(QPSolver.QUADPROGJ);
+          h = (h+1)%opf.length;
+          return dcopf.getMinTVC();
+        }
+      });
+    }
+
+    measure("buc.solveOPF", caseName, new Operation(){
+      public void prepare(){
+        dam.dayAheadOperation(0, ames.getDay());
+      }
+      public double run(){
+        buc.solveOPF();
+        return buc.getDailyLMP()[0][0];
+      }
+    });
+
+    measure("dam.post", caseName, new Operation(){
+      public double run(){
+        dam.post(buc.getDailyCommitment(), buc.getDailyLMP(), buc.getDailyPriceSensitiveDemand(),
+                 2, buc.getDailyEmTrade());
+        return ((GenAgent) ames.getGenAgentList().get(0)).getChoiceProbability();
+      }
+    });
+
+    measure("market.day", caseName, new Operation(){
+      public double run(){
+        runDays(ames, 1);
+        return ames.getDay();
+      }
+    });
+
+    // One day of learning of all the GenAgents: every learner chooses an
+    //  action and learns from the last daily reward of its GenAgent
+    final RothErevEngine learningEngine = ames.getLearningEngine();
+    final double[] genReward = new double[learningEngine.getNumLearners()];
+    for(int i=0; i<ames.getGenAgentList().size(); i++){
+      GenAgent gen = (GenAgent) ames.getGenAgentList().get(i);
+      genReward[gen.getLearner().getIndex()] = gen.getReward();
+    }
+    measure("learning", caseName, new Operation(){
+      public double run(){
+        for(int a=0; a<genReward.length; a++)
+          learningEngine.chooseAction(a);
+        learningEngine.update(genReward, null);
+        return learningEngine.getProbability(0, 0);
+      }
+    });
+
+    if(isSelected("output.text", caseName) || isSelected("output.binary", caseName)
+       || isSelected("output.load", caseName)){
+      runOutputBenchmarks(caseData);
+    }
+  }
+
+  // Checks that QuadProgJ solved again on each problem finds the minimum
+  //  found by the DC-OPF itself, i.e. that the benchmark solves the
+  //  problems of the market
+  private static void checkQuadProgJ(DCOPFJ[] opf, QuadProgJWorkspace workspace){
+    for(int h=0; h<opf.length; h++){
+      opf[h].formQP();
+      double dMinF = opf[h].solveQuadProgJ(workspace).getMinF();
+      double dExpected = opf[h].getMinF();
+      if(Math.abs(dMinF-dExpected) > 1.0E-6*Math.max(1.0, Math.abs(dExpected)))
+        throw new IllegalStateException("QuadProgJ solved again gives f = "+dMinF
+                                        +" instead of "+dExpected+" for problem "+h);
+    }
+  }
+
+  private void runOutputBenchmarks(final CaseData caseData) throws Exception {
+    final String caseName = caseData.getCaseFileName();
+    final AMESMarket ames = createAMESMarket(caseData, iOutputDays);
+    runDays(ames, iOutputDays);
+
+    final File textFile = File.createTempFile("benchmark", ".out");
+    final File binaryFile = File.createTempFile("benchmark", "."+BinaryOutputWriter.EXTENSION);
+    try {
+      measure("output.text", caseName, new Operation(){
+        public double run() throws IOException {
+          OutputDataWriter.write(textFile, caseName, ames, caseData.getBranchNames(),
+                                 caseData.getGenNames(), caseData.getLSENames());
+          return textFile.length();
+        }
+      });
+
+      measure("output.binary", caseName, new Operation(){
+        public double run() throws IOException {
+          BinaryOutputWriter.write(binaryFile, caseName, ames);
+          return binaryFile.length();
+        }
+      });
+
+      if(binaryFile.length() == 0)
+        BinaryOutputWriter.write(binaryFile, caseName, ames);
+      measure("output.load", caseName, new Operation(){
+        public double run() throws IOException {
+          BinaryOutputReader reader = new BinaryOutputReader(binaryFile);
+          double dSize = 0;
+          try {
+            for(int i=0; i<AMESMarket.DAILY_HISTORY_NAMES.length; i++)
+              dSize += reader.readHistory(AMESMarket.DAILY_HISTORY_NAMES[i]).size();
+            dSize += reader.readIntDays(BinaryOutputWriter.HAS_SOLUTION).size();
+          }
+          finally {
+            reader.close();
+          }
+          return dSize;
+        }
+      });
+    }
+    finally {
+      textFile.delete();
+      binaryFile.delete();
+    }
+  }
+
+  private static void usage(){
+    System.err.println("Usage: java amesmarket.Benchmark [options] [case.dat ...]");
+    System.err.println("  -buses N,...       sizes of the synthetic cases (default 30,118)");
+    System.err.println("  -warmup N          warm-up iterations (default "+DEFAULT_WARMUP_ITERATIONS+")");
+    System.err.println("  -iterations N      measurement iterations (default "+DEFAULT_ITERATIONS+")");
+    System.err.println("  -time ms           length of an iteration (default "+DEFAULT_ITERATION_TIME+")");
+    System.err.println("  -outputdays N      days saved by the output benchmarks (default "+DEFAULT_OUTPUT_DAYS+")");
+    System.err.println("  -filter text       only the benchmarks whose \"name case\" contains text");
+    System.err.println("  -csv file          also write the results as comma-separated values");
+    System.err.println("  -verbose           keep the console messages of the market");
+    System.exit(1);
+  }
+
+  public static void main(String [] args){
+    System.setProperty("java.awt.headless", "true");
+
+    Benchmark benchmark = new Benchmark();
+    ArrayList cases = new ArrayList();
+    int[] buses = DEFAULT_SYNTHETIC_BUSES;
+    boolean bVerbose = false;
+    PrintStream csv = null;
+
+    try {
+      for(int i=0; i<args.length; i++){
+        String arg = args[i];
+        if(arg.equals("-buses") && i+1<args.length){
+          String[] sizes = args[++i].split(",");
+          buses = new int[sizes.length];
+          for(int j=0; j<sizes.length; j++)
+            buses[j] = Integer.parseInt(sizes[j].trim());
+        }
+        else if(arg.equals("-warmup") && i+1<args.length){
+          benchmark.setWarmupIterations(Integer.parseInt(args[++i]));
+        }
+        else if(arg.equals("-iterations") && i+1<args.length){
+          benchmark.setIterations(Integer.parseInt(args[++i]));
+        }
+        else if(arg.equals("-time") && i+1<args.length){
+          benchmark.setIterationTime(Long.parseLong(args[++i]));
+        }
+        else if(arg.equals("-outputdays") && i+1<args.length){
+          benchmark.setOutputDays(Integer.parseInt(args[++i]));
+        }
+        else if(arg.equals("-filter") && i+1<args.length){
+          benchmark.setFilter(args[++i]);
+        }
+        else if(arg.equals("-csv") && i+1<args.length){
+          csv = new PrintStream(new FileOutputStream(args[++i]));
+          benchmark.setCSVOutput(csv);
+        }
+        else if(arg.equals("-verbose")){
+          bVerbose = true;
+        }
+        else if(arg.startsWith("-")){
+          usage();
+        }
+        else{
+          cases.add(new File(arg));
+        }
+      }
+      if(cases.isEmpty() && new File(DEFAULT_CASE).isFile())
+        cases.add(new File(DEFAULT_CASE));
+
+      if(!bVerbose){
+        System.setOut(new PrintStream(new OutputStream(){
+          public void write(int b){}
+          public void write(byte[] b, int off, int len){}
+        }));
+      }
+
+      benchmark.printHeader();
+      for(int i=0; i<cases.size(); i++){
+        benchmark.run(CaseData.load((File)cases.get(i)));
+      }
+      for(int i=0; i<buses.length; i++){
+        benchmark.run(new CaseGenerator(buses[i]).createCaseData("synthetic"+buses[i]));
+      }
+    }
+    catch(NumberFormatException e){
+      usage();
+    }
+    catch(Exception e){
+      e.printStackTrace();
+      System.exit(1);
+    }
+    finally {
+      if(csv != null)
+        csv.close();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// BinaryOutputTest.java
+// BinaryOutputWriter and BinaryOutputReader round trip
+
+import java.io.File;
+import java.util.ArrayList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Runs the first days of each bundled case, writes the results with
+ * BinaryOutputWriter and checks that BinaryOutputReader reads back the
+ * header, every daily history (bit for bit, also through its views) and the
+ * solution flags.
+ */
+public class BinaryOutputTest {
+
+  private static final int DAYS = 3;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void writeAndReadBack() throws Exception {
+    File[] cases = MarketCases.caseFiles();
+    for(int c=0; c<cases.length; c++){
+      String name = cases[c].getName();
+      AMESMarket ames = MarketCases.run(cases[c], DAYS, null);
+      File file = folder.newFile(name+"."+BinaryOutputWriter.EXTENSION);
+      BinaryOutputWriter.write(file, name, ames);
+
+      BinaryOutputReader reader = new BinaryOutputReader(file);
+      try {
+        assertEquals(name, name, reader.getCaseFileName());
+        assertEquals(name, ames.getNumNodes(), reader.getNumNodes());
+        assertEquals(name, ames.getRandomSeed(), reader.getRandomSeed());
+        assertEquals(name, ames.getStopCode(), reader.getStopCode());
+
+        DailyHistory[] histories = ames.getDailyHistories();
+        for(int i=0; i<histories.length; i++){
+          String history = name+" "+AMESMarket.DAILY_HISTORY_NAMES[i];
+          assertTrue(history, reader.hasSection(AMESMarket.DAILY_HISTORY_NAMES[i]));
+          DailyHistory read = reader.readHistory(AMESMarket.DAILY_HISTORY_NAMES[i]);
+          MarketCases.assertSameHistory(history, histories[i], read);
+          MarketCases.assertSameHistory(history+" view", histories[i],
+                                        reader.getHistory(AMESMarket.DAILY_HISTORY_NAMES[i]));
+          for(int d=0; d<histories[i].getNumDays(); d++){
+            double[][] day = reader.readDay(AMESMarket.DAILY_HISTORY_NAMES[i], d);
+            for(int r=0; r<day.length; r++)
+              assertArrayEquals(history+" day "+d+" row "+r, histories[i].getDay(d)[r], day[r], 0);
+          }
+        }
+
+        ArrayList expected = ames.getHasSolutionByDay();
+        ArrayList read = reader.readIntDays(BinaryOutputWriter.HAS_SOLUTION);
+        assertEquals(name+" days with solution flags", DAYS, expected.size());
+        assertEquals(name+" days with solution flags", expected.size(), read.size());
+        for(int d=0; d<expected.size(); d++)
+          assertArrayEquals(name+" solution flags of day "+d, (int[]) expected.get(d), (int[]) read.get(d));
+      }
+      finally {
+        reader.close();
+      }
+    }
+  }
+
+  @Test
+  public void viewIsReadOnlyUntilCleared() throws Exception {
+    File caseFile = MarketCases.caseFiles()[0];
+    AMESMarket ames = MarketCases.run(caseFile, DAYS, null);
+    File file = folder.newFile(caseFile.getName()+"."+BinaryOutputWriter.EXTENSION);
+    BinaryOutputWriter.write(file, caseFile.getName(), ames);
+
+    BinaryOutputReader reader = new BinaryOutputReader(file);
+    try {
+      DailyHistory view = reader.getHistory("LMPByDay");
+      double[][] day = view.getDay(0);
+      try {
+        view.addDay(day);
+        fail("a view takes no new days");
+      }
+      catch(UnsupportedOperationException e){
+        // expected
+      }
+      view.clear();
+      assertEquals(0, view.getNumDays());
+      view.addDay(day);
+      assertEquals(1, view.getNumDays());
+      for(int r=0; r<day.length; r++)
+        assertArrayEquals("cleared view row "+r, day[r], view.getDay(0)[r], 0);
+    }
+    finally {
+      reader.close();
+    }
+  }
+}
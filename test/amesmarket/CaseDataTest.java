@@ -0,0 +1,93 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// CaseDataTest.java
+// CaseData against the line-by-line reader and the case cache
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Reads every bundled case with the one-pass parser of CaseData, with the
+ * line-by-line reader it replaced (LineCaseData), and from a CaseCache, and
+ * checks that all give the same data, bit for bit.
+ */
+public class CaseDataTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void sameDataAsLineReader() throws Exception {
+    File[] cases = MarketCases.caseFiles();
+    for(int c=0; c<cases.length; c++)
+      assertSameData(cases[c].getName(), LineCaseData.load(cases[c]), CaseData.load(cases[c]));
+  }
+
+  @Test
+  public void cacheGivesSameData() throws Exception {
+    CaseCache cache = new CaseCache(folder.getRoot());
+    File[] cases = MarketCases.caseFiles();
+    for(int c=0; c<cases.length; c++){
+      String name = cases[c].getName();
+      LineCaseData expected = LineCaseData.load(cases[c]);
+      assertSameData(name+" stored", expected, cache.load(cases[c]));  // parses and stores the entry
+      assertSameData(name+" cached", expected, cache.load(cases[c]));  // reads the entry
+    }
+    File[] entries = folder.getRoot().listFiles();
+    assertTrue("cache entries", entries != null && entries.length > 0);
+  }
+
+  private static void assertSameData(String name, LineCaseData expected, CaseData data){
+    assertEquals(name, expected.getCaseFileName(), data.getCaseFileName());
+    assertEquals(name+" BASE_S", expected.getBaseS(), data.getBaseS(), 0);
+    assertEquals(name+" BASE_V", expected.getBaseV(), data.getBaseV(), 0);
+    assertSameTable(name+" nodes", expected.getNodeData(), data.getNodeData());
+    assertArrayEquals(name+" branch names", expected.getBranchNames(), data.getBranchNames());
+    assertSameTable(name+" branches", expected.getBranchData(), data.getBranchData());
+    assertArrayEquals(name+" GenCo names", expected.getGenNames(), data.getGenNames());
+    assertSameTable(name+" GenCos", expected.getGenData(), data.getGenData());
+    assertArrayEquals(name+" LSE names", expected.getLSENames(), data.getLSENames());
+    assertSameTable(name+" LSEs", expected.getLSEData(), data.getLSEData());
+    double[][][] priceSensitive = expected.getLSEPriceSensitiveDemand();
+    assertEquals(name+" price-sensitive LSEs", priceSensitive.length, data.getLSEPriceSensitiveDemand().length);
+    for(int i=0; i<priceSensitive.length; i++)
+      assertSameTable(name+" price-sensitive LSE "+i, priceSensitive[i], data.getLSEPriceSensitiveDemand()[i]);
+    int[][] hybrid = expected.getLSEHybridDemand();
+    assertEquals(name+" hybrid LSEs", hybrid.length, data.getLSEHybridDemand().length);
+    for(int i=0; i<hybrid.length; i++)
+      assertArrayEquals(name+" hybrid LSE "+i, hybrid[i], data.getLSEHybridDemand()[i]);
+    assertSameTable(name+" learning", expected.getGenLearningData(), data.getGenLearningData());
+  }
+
+  private static void assertSameTable(String message, double[][] expected, double[][] actual){
+    if(expected == null){
+      assertNull(message, actual);
+      return;
+    }
+    assertEquals(message+" rows", expected.length, actual.length);
+    for(int r=0; r<expected.length; r++)
+      assertArrayEquals(message+" row "+r, expected[r], actual[r], 0);
+  }
+}
@@ -0,0 +1,117 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// InteriorPointQPTest.java
+// InteriorPointQP against QuadProgJ on the bundled and generated cases
+
+import java.io.File;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.DoubleMatrix2D;
+
+/**
+ * Solves the hourly DC-OPF problems of the first days of each bundled case,
+ * and of generated grids of several sizes and demand types, with
+ * InteriorPointQP, reusing the KKT analysis of the DCOPFJModel as
+ * DCOPFJ does, and with QuadProgJ, and compares the minimum, the minimizer
+ * and the Lagrange multipliers.
+ *
+ * The interior point method stops at residuals of 1.0E-10 relative to the
+ * largest term of each KKT condition, so the results agree to about that
+ * accuracy; the minimizers are compared in the norm of G as in
+ * QuadProgJTest.
+ */
+public class InteriorPointQPTest {
+
+  private static final int DAYS = 3;
+  private static final int GENERATED_DAYS = 2;
+  private static final int[] GENERATED_BUSES = {5, 20, 50};
+  private static final double F_TOL = 1.0E-8;
+  private static final double MULTIPLIER_TOL = 1.0E-5;
+  private static final double KKT_TOL = 1.0E-6;
+
+  @Test
+  public void sameSolutionAsQuadProgJ() throws Exception {
+    File[] cases = MarketCases.caseFiles();
+    for(int c=0; c<cases.length; c++){
+      assertSameSolutions(cases[c].getName(), MarketCases.hourlyOPF(cases[c], DAYS), true);
+    }
+  }
+
+  // Generated grids with price-sensitive demand, whose minimizers lie far
+  //  from the origin (price-sensitive demand of the order of -1.0E9), and
+  //  whose congested branches bind on the second day.  Many of these
+  //  problems are degenerate (e.g. all generation at its lower limit), with
+  //  an interval of multipliers of which QuadProgJ finds an end and the
+  //  interior point method the middle, so only the KKT conditions are
+  //  checked for the multipliers
+  @Test
+  public void sameSolutionAsQuadProgJOnGeneratedGrids() throws Exception {
+    int[] demandTypes = {CaseGenerator.DEMAND_HYBRID, CaseGenerator.DEMAND_PRICE_SENSITIVE,
+                         CaseGenerator.DEMAND_MIXED};
+    for(int i=0; i<GENERATED_BUSES.length; i++){
+      for(int t=0; t<demandTypes.length; t++){
+        CaseGenerator generator = new CaseGenerator(GENERATED_BUSES[i]);
+        generator.setDemandType(demandTypes[t]);
+        String name = "generated"+GENERATED_BUSES[i]+"_"+demandTypes[t];
+        assertSameSolutions(name, MarketCases.hourlyOPF(generator.createCaseData(name),
+                                                     GENERATED_DAYS), false);
+      }
+    }
+  }
+
+  private static void assertSameSolutions(String caseName, DCOPFJ[] opf,
+                                          boolean sameMultipliers){
+    assertTrue(caseName, opf.length > 0);
+    QuadProgJWorkspace workspace = new QuadProgJWorkspace();
+    for(int k=0; k<opf.length; k++){
+      String problem = caseName+" problem "+k;
+      opf[k].formQP();
+      DCOPFJModel model = opf[k].getModel();
+      DoubleMatrix2D G = model.G.copy();
+      DoubleMatrix1D a = model.a.copy();
+      DoubleMatrix1D beq = model.beq.copy();
+      DoubleMatrix1D biq = model.biq.copy();
+
+      QuadProgJ qp = new QuadProgJ(G, a, model.Ceq, beq, model.Ciq, biq, workspace);
+      InteriorPointQP ipm = new InteriorPointQP(G, a, model.Ceq, model.ceqColumns, beq,
+                                                model.Ciq, model.ciqColumns, biq,
+                                                model.getInteriorPointWorkspace());
+
+      assertEquals(problem, qp.getIsFeasibleAndOptimal(), ipm.getIsFeasibleAndOptimal());
+      if(!qp.getIsFeasibleAndOptimal())
+        continue;
+      double dMinF = qp.getMinF();
+      assertEquals(problem+" f", dMinF, ipm.getMinF(), F_TOL*(1+Math.abs(dMinF)));
+      assertEquals(problem+" x", 0, MarketCases.distance(G, qp.getMinX(), ipm.getMinX()),
+                   F_TOL*(1+Math.abs(dMinF)));
+      if(sameMultipliers){
+        MarketCases.assertClose(problem+" equality multipliers",
+                                qp.getEqMultipliers(), ipm.getEqMultipliers(), MULTIPLIER_TOL);
+        MarketCases.assertClose(problem+" inequality multipliers",
+                                qp.getIneqMultipiers(), ipm.getIneqMultipiers(), MULTIPLIER_TOL);
+      }
+      MarketCases.assertKKT(problem, model, ipm.getMinX(), ipm.getEqMultipliers(),
+                            ipm.getIneqMultipiers(), KKT_TOL);
+    }
+  }
+}
@@ -0,0 +1,261 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// LineCaseData.java
+// The line-by-line case data file reader that CaseData replaced
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+/**
+ * Reads a case data file line by line with String.split, as CaseData did
+ * before its one-pass parser; CaseDataTest checks that both give the same
+ * data for the bundled cases.
+ */
+class LineCaseData {
+
+  private String caseFileName;
+  private double baseS = INIT.BASE_S;
+  private double baseV = INIT.BASE_V;
+  private double[][] nodeData;               // 1x2: NN, PenaltyWeight
+  private String[] branchNames;
+  private double[][] branchData;             // From, To, MaxCap, Reactance
+  private String[] genNames;
+  private double[][] genData;                // ID, atBus, a, b, capL, capU, FCost, emcoe, EA, pb, ps, InitMoney
+  private String[] lseNames;
+  private double[][] lseData;                // ID, atBus, H-00, ..., H-23
+  private double[][][] lsePriceSensitiveDemand; // by LSE and hour: ID, atBus, hourIndex, c, d, SLMax
+  private int[][] lseHybridDemand;           // ID, atBus, H-00, ..., H-23
+  private double[][] genLearningData;        // see CaseData.DEFAULT_LEARNING_PARAMETERS
+
+  private LineCaseData(){
+  }
+
+  static LineCaseData load(File caseFile) throws IOException {
+    LineCaseData data = new LineCaseData();
+    data.caseFileName = caseFile.getName();
+
+    ArrayList branchList = new ArrayList();
+    ArrayList genList = new ArrayList();
+    ArrayList lseList = new ArrayList();
+    ArrayList lsePriceList = new ArrayList();
+    ArrayList lseHybridList = new ArrayList();
+    ArrayList learningList = null;
+    ArrayList section = null;
+
+    BufferedReader reader = new BufferedReader(new FileReader(caseFile));
+    try {
+      String strTemp;
+      while((strTemp = reader.readLine()) != null){
+        strTemp = strTemp.trim();
+        if(strTemp.length()==0 || strTemp.startsWith("//"))
+          continue;
+
+        if(strTemp.startsWith("BASE_S")){
+          data.baseS = Double.parseDouble(lastField(strTemp));
+          continue;
+        }
+        if(strTemp.startsWith("BASE_V")){
+          data.baseV = Double.parseDouble(lastField(strTemp));
+          continue;
+        }
+
+        if(strTemp.startsWith("#NodeDataStart")){
+          section = new ArrayList();
+          continue;
+        }
+        if(strTemp.startsWith("#NodeDataEnd")){
+          if(section.size()>0){
+            String[] field = split((String)section.get(section.size()-1), 2);
+            data.nodeData = new double[1][2];
+            data.nodeData[0][0] = Double.parseDouble(field[1]);
+            data.nodeData[0][1] = Double.parseDouble(field[2]);
+          }
+          section = null;
+          continue;
+        }
+        if(strTemp.startsWith("#BranchDataStart")){ section = branchList; continue; }
+        if(strTemp.startsWith("#GenDataStart")){ section = genList; continue; }
+        if(strTemp.startsWith("#LSEDataFixedDemandStart")){ section = lseList; continue; }
+        if(strTemp.startsWith("#LSEDataPriceSensitiveDemandStart")){ section = lsePriceList; continue; }
+        if(strTemp.startsWith("#LSEDataHybridDemandStart")){ section = lseHybridList; continue; }
+        if(strTemp.startsWith("#GenLearningDataStart")){
+          learningList = new ArrayList();
+          section = learningList;
+          continue;
+        }
+        if(strTemp.startsWith("#") && strTemp.endsWith("End")){
+          section = null;
+          continue;
+        }
+
+        if(section != null)
+          section.add(strTemp);
+      }
+    }
+    finally {
+      reader.close();
+    }
+
+    if(data.nodeData == null)
+      throw new IOException(data.caseFileName+": no #NodeData section");
+
+    // Branches: Name, From, To, MaxCap, Reactance
+    int iBranch = branchList.size();
+    data.branchNames = new String[iBranch];
+    data.branchData = new double[iBranch][INIT.NUM_BRANCH_PARAMS];
+    for(int i=0; i<iBranch; i++){
+      String[] field = split((String)branchList.get(i), INIT.NUM_BRANCH_PARAMS);
+      data.branchNames[i] = field[0];
+      for(int j=1; j<=INIT.NUM_BRANCH_PARAMS; j++){
+        double value = Double.parseDouble(field[j]);
+        data.branchData[i][j-1] = (j>2) ? roundToTableValue(value) : (int)value;
+      }
+    }
+
+    // GenCos: Name, ID, atBus, a, ..., InitMoney
+    int iGen = genList.size();
+    data.genNames = new String[iGen];
+    data.genData = new double[iGen][INIT.NUM_GEN_PARAMS];
+    for(int i=0; i<iGen; i++){
+      String[] field = split((String)genList.get(i), INIT.NUM_GEN_PARAMS);
+      data.genNames[i] = field[0];
+      for(int j=1; j<=INIT.NUM_GEN_PARAMS; j++){
+        double value = Double.parseDouble(field[j]);
+        data.genData[i][j-1] = (j>2) ? roundToTableValue(value) : (int)value;
+      }
+    }
+
+    // Fixed demand: three blocks of 8 hours, each with all LSEs
+    int iLSE = lseList.size()/3;
+    data.lseNames = new String[iLSE];
+    data.lseData = new double[iLSE][INIT.NUM_LSE_PARAMS];
+    for(int i=0; i<3*iLSE; i++){
+      String[] field = split((String)lseList.get(i), INIT.NUM_LSE_3SEC_PARAMS);
+      int j = i%iLSE;
+      int block = i/iLSE;
+      if(block==0){
+        data.lseNames[j] = field[0];
+        data.lseData[j][0] = Integer.parseInt(field[1]);
+        data.lseData[j][1] = Integer.parseInt(field[2]);
+      }
+      for(int h=0; h<8; h++){
+        data.lseData[j][2+8*block+h] = roundToTableValue(Double.parseDouble(field[3+h]));
+      }
+    }
+
+    // Price-sensitive demand: 24 hours of each LSE
+    int iPriceLSE = lsePriceList.size()/24;
+    data.lsePriceSensitiveDemand = new double[iPriceLSE][24][INIT.NUM_LSE_PARAMS_SLOAD];
+    for(int i=0; i<iPriceLSE; i++){
+      for(int h=0; h<24; h++){
+        String[] field = split((String)lsePriceList.get(i*24+h), INIT.NUM_LSE_PARAMS_SLOAD);
+        for(int j=1; j<=INIT.NUM_LSE_PARAMS_SLOAD; j++){
+          data.lsePriceSensitiveDemand[i][h][j-1] = (j>3) ? Double.parseDouble(field[j])
+                                                          : Integer.parseInt(field[j]);
+        }
+      }
+    }
+
+    // Hybrid demand flags: three blocks of 8 hours, as the fixed demand
+    int iHybridLSE = lseHybridList.size()/3;
+    data.lseHybridDemand = new int[iHybridLSE][INIT.NUM_LSE_PARAMS_HYBRID_LOAD];
+    for(int i=0; i<3*iHybridLSE; i++){
+      String[] field = split((String)lseHybridList.get(i), INIT.NUM_LSE_3SEC_PARAMS);
+      int j = i%iHybridLSE;
+      int block = i/iHybridLSE;
+      if(block==0){
+        data.lseHybridDemand[j][0] = Integer.parseInt(field[1]);
+        data.lseHybridDemand[j][1] = Integer.parseInt(field[2]);
+      }
+      for(int h=0; h<8; h++){
+        data.lseHybridDemand[j][2+8*block+h] = Integer.parseInt(field[3+h]);
+      }
+    }
+
+    // Learning parameters: Name followed by 12 values
+    int iLearningParams = CaseData.DEFAULT_LEARNING_PARAMETERS.length;
+    if(learningList != null){
+      int iLearning = learningList.size();
+      data.genLearningData = new double[iLearning][iLearningParams];
+      for(int i=0; i<iLearning; i++){
+        String[] field = split((String)learningList.get(i), iLearningParams);
+        for(int j=0; j<iLearningParams; j++){
+          data.genLearningData[i][j] = Double.parseDouble(field[j+1]);
+        }
+      }
+    }
+    else{
+      data.genLearningData = new double[iGen][];
+      for(int i=0; i<iGen; i++){
+        data.genLearningData[i] = (double[]) CaseData.DEFAULT_LEARNING_PARAMETERS.clone();
+      }
+    }
+
+    return data;
+  }
+
+  // Splits a data line into its last n fields (field[1..n]) and the leading
+  //  name (field[0], "" if there is none)
+  private static String[] split(String line, int n) throws IOException {
+    String[] token = line.trim().split("\\s+");
+    if(token.length < n)
+      throw new IOException("expected "+n+" values in line: "+line);
+    String[] field = new String[n+1];
+    int iNameTokens = token.length-n;
+    StringBuffer name = new StringBuffer();
+    for(int i=0; i<iNameTokens; i++){
+      if(i>0) name.append(' ');
+      name.append(token[i]);
+    }
+    field[0] = name.toString();
+    System.arraycopy(token, iNameTokens, field, 1, n);
+    return field;
+  }
+
+  private static String lastField(String line){
+    String[] token = line.trim().split("\\s+");
+    return token[token.length-1];
+  }
+
+  // The value shown in the GUI tables (formatted with "%15.4f")
+  private static double roundToTableValue(double value){
+    return new BigDecimal(value).setScale(4, BigDecimal.ROUND_HALF_UP).doubleValue();
+  }
+
+  String getCaseFileName(){ return caseFileName; }
+  double getBaseS(){ return baseS; }
+  double getBaseV(){ return baseV; }
+  double[][] getNodeData(){ return nodeData; }
+  String[] getBranchNames(){ return branchNames; }
+  double[][] getBranchData(){ return branchData; }
+  String[] getGenNames(){ return genNames; }
+  double[][] getGenData(){ return genData; }
+  String[] getLSENames(){ return lseNames; }
+  double[][] getLSEData(){ return lseData; }
+  double[][][] getLSEPriceSensitiveDemand(){ return lsePriceSensitiveDemand; }
+  int[][] getLSEHybridDemand(){ return lseHybridDemand; }
+  double[][] getGenLearningData(){ return genLearningData; }
+}
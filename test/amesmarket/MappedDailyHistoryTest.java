@@ -0,0 +1,116 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// MappedDailyHistoryTest.java
+// MappedDailyHistory against DailyHistory, before and after reopening
+
+import java.io.File;
+import java.util.SplittableRandom;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Adds the same days to a DailyHistory and to a MappedDailyHistory and
+ * compares them, then reopens the file and compares again, both for
+ * synthetic ragged days spanning several chunks and for the result
+ * histories of a market run.
+ */
+public class MappedDailyHistoryTest {
+
+  private static final long SEED = 20081014L;
+  private static final int ROWS = 5;
+  private static final int DAYS = 3*DailyHistory.DAYS_PER_CHUNK + 7;
+  private static final int MARKET_DAYS = 3;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void raggedDaysRoundTrip() throws Exception {
+    SplittableRandom random = new SplittableRandom(SEED);
+    File file = new File(folder.getRoot(), "ragged.hist");
+    DailyHistory expected = new DailyHistory();
+    MappedDailyHistory mapped = new MappedDailyHistory(file);
+    for(int d=0; d<DAYS; d++){
+      double[][] table = randomDay(random, d);
+      expected.addDay(table);
+      mapped.addDay(table);
+    }
+    MarketCases.assertSameHistory("mapped", expected, mapped);
+    mapped.close();
+
+    // Reopen, check, and go on appending to the partly filled last chunk
+    mapped = MappedDailyHistory.open(file);
+    MarketCases.assertSameHistory("reopened", expected, mapped);
+    for(int d=DAYS; d<DAYS+DailyHistory.DAYS_PER_CHUNK; d++){
+      double[][] table = randomDay(random, d);
+      expected.addDay(table);
+      mapped.addDay(table);
+    }
+    MarketCases.assertSameHistory("appended", expected, mapped);
+    mapped.close();
+    mapped = MappedDailyHistory.open(file);
+    MarketCases.assertSameHistory("reopened after appending", expected, mapped);
+
+    mapped.clear();
+    assertEquals(0, mapped.getNumDays());
+    mapped.close();
+    mapped = MappedDailyHistory.open(file);
+    assertEquals("reopened after clearing", 0, mapped.getNumDays());
+    mapped.close();
+  }
+
+  @Test
+  public void marketResultsRoundTrip() throws Exception {
+    File caseFile = MarketCases.caseFiles()[0];
+    AMESMarket heap = MarketCases.run(caseFile, MARKET_DAYS, null);
+    File dir = folder.newFolder("results");
+    AMESMarket mapped = MarketCases.run(caseFile, MARKET_DAYS, dir);
+    DailyHistory[] expected = heap.getDailyHistories();
+    DailyHistory[] actual = mapped.getDailyHistories();
+    assertTrue(expected[AMESMarket.DAILY_HISTORY_NAMES.length-1].getNumDays() > 0);
+    for(int i=0; i<expected.length; i++){
+      assertTrue(AMESMarket.DAILY_HISTORY_NAMES[i], actual[i] instanceof MappedDailyHistory);
+      MarketCases.assertSameHistory(AMESMarket.DAILY_HISTORY_NAMES[i], expected[i], actual[i]);
+    }
+    mapped.closeResults();
+
+    for(int i=0; i<expected.length; i++){
+      String name = AMESMarket.DAILY_HISTORY_NAMES[i];
+      MappedDailyHistory reopened = MappedDailyHistory.open(new File(dir, name+".hist"));
+      MarketCases.assertSameHistory(name+" reopened", expected[i], reopened);
+      reopened.close();
+    }
+  }
+
+  // A day with rows of random lengths, some wider than all earlier ones
+  private static double[][] randomDay(SplittableRandom random, int day){
+    double[][] table = new double[ROWS][];
+    for(int r=0; r<ROWS; r++){
+      table[r] = new double[random.nextInt(1, 4 + day/20)];
+      for(int c=0; c<table[r].length; c++)
+        table[r][c] = random.nextDouble(-1.0E6, 1.0E6);
+    }
+    return table;
+  }
+}
@@ -0,0 +1,220 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// MarketCases.java
+// Bundled case files and their hourly DC-OPF problems, for the tests
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The case data files bundled in DATA, and markets of these cases run
+ * headless for a few days (with BatchRunner's parameters and seed), whose
+ * hourly DC-OPF problems the solver tests compare.  The console messages of
+ * the markets are dropped.
+ */
+class MarketCases {
+
+  static final File DATA_DIRECTORY = new File("DATA");
+
+  // The *.dat files of DATA, by name
+  static File[] caseFiles(){
+    File[] files = DATA_DIRECTORY.listFiles();
+    ArrayList cases = new ArrayList();
+    for(int i=0; files!=null && i<files.length; i++){
+      if(files[i].getName().endsWith(".dat"))
+        cases.add(files[i]);
+    }
+    File[] caseFiles = (File[]) cases.toArray(new File[cases.size()]);
+    Arrays.sort(caseFiles);
+    if(caseFiles.length == 0)
+      throw new IllegalStateException("No case files in "+DATA_DIRECTORY.getAbsolutePath());
+    return caseFiles;
+  }
+
+  // The DC-OPF problems of the hours of the first days of the case, in
+  //  order (hours without a DC-OPF are left out)
+  static DCOPFJ[] hourlyOPF(File caseFile, int days) throws Exception {
+    return hourlyOPF(CaseData.load(caseFile), days);
+  }
+
+  // The same for a loaded (or generated) case
+  static DCOPFJ[] hourlyOPF(CaseData caseData, int days) throws Exception {
+    PrintStream out = System.out;
+    System.setOut(silentStream());
+    ArrayList opfList = new ArrayList();
+    try {
+      AMESMarket ames = new BatchRunner().createAMESMarket(caseData, BatchRunner.DEFAULT_RANDOM_SEED);
+      ames.setupWithoutController();
+      for(int d=0; d<days; d++){
+        for(int h=0; h<24; h++)
+          ames.runMarketHour();
+        DCOPFJ[] opf = ames.getISO().getBUC().getHourlyOPF();
+        for(int h=0; h<opf.length; h++){
+          if(opf[h] != null)
+            opfList.add(opf[h]);
+        }
+      }
+      ames.shutdown();
+    }
+    finally {
+      System.setOut(out);
+    }
+    return (DCOPFJ[]) opfList.toArray(new DCOPFJ[opfList.size()]);
+  }
+
+  // Runs the first days of the case, keeping the results in memory-mapped
+  //  files in resultsDirectory (on the heap if it is null)
+  static AMESMarket run(File caseFile, int days, File resultsDirectory) throws Exception {
+    AMESMarket ames = create(caseFile);
+    if(resultsDirectory != null)
+      ames.setResultsDirectory(resultsDirectory);
+    run(ames, days);
+    return ames;
+  }
+
+  // The market of the case, with the settings and random seed of BatchRunner
+  static AMESMarket create(File caseFile) throws Exception {
+    return new BatchRunner().createAMESMarket(CaseData.load(caseFile), BatchRunner.DEFAULT_RANDOM_SEED);
+  }
+
+  // Runs the first days of the market
+  static void run(AMESMarket ames, int days){
+    PrintStream out = System.out;
+    System.setOut(silentStream());
+    try {
+      ames.setupWithoutController();
+      for(int h=0; h<24*days; h++)
+        ames.runMarketHour();
+      ames.shutdown();
+    }
+    finally {
+      System.setOut(out);
+    }
+  }
+
+  // Swallows the progress messages of the runs
+  private static PrintStream silentStream(){
+    return new PrintStream(new OutputStream(){
+      public void write(int b){}
+      public void write(byte[] b, int off, int len){}
+    });
+  }
+
+  // f(x) = 0.5*x'*G*x + a'*x
+  static double objective(cern.colt.matrix.DoubleMatrix2D G, cern.colt.matrix.DoubleMatrix1D a,
+                          double[] x){
+    double f = 0;
+    for(int i=0; i<x.length; i++){
+      double gx = 0;
+      for(int j=0; j<x.length; j++)
+        gx += G.getQuick(i, j)*x[j];
+      f += (0.5*gx + a.getQuick(i))*x[i];
+    }
+    return f;
+  }
+
+  // 0.5*(x-y)'*G*(x-y): for a minimizer y and a feasible x, f(x)-f(y) is at
+  //  least this much, so it bounds how far x is from y where f is not flat
+  static double distance(cern.colt.matrix.DoubleMatrix2D G, double[] x, double[] y){
+    double[] d = new double[x.length];
+    for(int i=0; i<x.length; i++)
+      d[i] = x[i] - y[i];
+    double dist = 0;
+    for(int i=0; i<d.length; i++){
+      double gd = 0;
+      for(int j=0; j<d.length; j++)
+        gd += G.getQuick(i, j)*d[j];
+      dist += 0.5*gd*d[i];
+    }
+    return dist;
+  }
+
+  // Asserts that (x, ue, ui) satisfies the KKT conditions of
+  //  min f(x) s.t. Ceq'*x = beq, Ciq'*x >= biq within tol: feasibility,
+  //  ui >= 0, stationarity G*x + a = Ceq*ue + Ciq*ui (relative to the
+  //  largest |a_i|), and complementarity (the slack of a constraint is
+  //  within tol if its multiplier is not)
+  static void assertKKT(String message, DCOPFJModel model, double[] x, double[] ue, double[] ui,
+                        double tol){
+    int n = x.length;
+    double[] r = new double[n];
+    double aMax = 0;
+    for(int i=0; i<n; i++){
+      r[i] = model.a.getQuick(i);
+      aMax = Math.max(aMax, Math.abs(r[i]));
+      for(int j=0; j<n; j++)
+        r[i] += model.G.getQuick(i, j)*x[j];
+    }
+    for(int c=0; c<model.beq.size(); c++){
+      double s = -model.beq.getQuick(c);
+      for(int i=0; i<n; i++){
+        s += model.Ceq.getQuick(i, c)*x[i];
+        r[i] -= model.Ceq.getQuick(i, c)*ue[c];
+      }
+      org.junit.Assert.assertEquals(message+" equality "+c, 0, s, tol);
+    }
+    for(int c=0; c<model.biq.size(); c++){
+      double s = -model.biq.getQuick(c);
+      // The slack is measured relative to the size of the constraint
+      double scale = 1 + Math.abs(model.biq.getQuick(c));
+      for(int i=0; i<n; i++){
+        s += model.Ciq.getQuick(i, c)*x[i];
+        r[i] -= model.Ciq.getQuick(i, c)*ui[c];
+        scale += Math.abs(model.Ciq.getQuick(i, c)*x[i]);
+      }
+      s /= scale;
+      org.junit.Assert.assertTrue(message+" inequality "+c+" slack "+s, s >= -tol);
+      org.junit.Assert.assertTrue(message+" inequality "+c+" multiplier "+ui[c], ui[c] >= -tol);
+      org.junit.Assert.assertTrue(message+" inequality "+c+" complementarity "+s+"*"+ui[c],
+                                  Math.abs(s*ui[c]) <= tol*(1+Math.abs(ui[c])));
+    }
+    for(int i=0; i<n; i++){
+      org.junit.Assert.assertEquals(message+" stationarity "+i, 0, r[i], tol*(1+aMax));
+    }
+  }
+
+  // Asserts that the histories hold the same days (row by row, bit for bit)
+  static void assertSameHistory(String message, DailyHistory expected, DailyHistory actual){
+    org.junit.Assert.assertEquals(message+" days", expected.getNumDays(), actual.getNumDays());
+    if(expected.getNumDays() == 0)
+      return;
+    org.junit.Assert.assertEquals(message+" rows", expected.getNumRows(), actual.getNumRows());
+    for(int d=0; d<expected.getNumDays(); d++){
+      double[][] expectedDay = expected.getDay(d);
+      double[][] actualDay = actual.getDay(d);
+      for(int r=0; r<expectedDay.length; r++)
+        org.junit.Assert.assertArrayEquals(message+" day "+d+" row "+r, expectedDay[r], actualDay[r], 0);
+    }
+  }
+
+  // Asserts |expected-actual| <= tol*(1+|expected|) for each element
+  static void assertClose(String message, double[] expected, double[] actual, double tol){
+    org.junit.Assert.assertEquals(message+" length", expected.length, actual.length);
+    for(int i=0; i<expected.length; i++){
+      org.junit.Assert.assertEquals(message+" "+i, expected[i], actual[i],
+                                    tol*(1+Math.abs(expected[i])));
+    }
+  }
+}
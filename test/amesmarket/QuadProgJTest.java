@@ -0,0 +1,88 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// QuadProgJTest.java
+// QuadProgJ against the original QuadProgJ solver on the bundled cases
+
+import java.io.File;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.DoubleMatrix2D;
+
+/**
+ * Solves the hourly DC-OPF problems of the first days of each bundled case
+ * with QuadProgJ (factorization updates, sparse constraints, workspace) and
+ * with the original solver of lib/QuadProgJ.jar, and compares the minimum,
+ * the minimizer and the Lagrange multipliers.
+ *
+ * With the emission prices of the cases (up to 150000) the original solver
+ * stops with stationarity residuals up to about 1.0E-3, and in the cases
+ * with price-sensitive demand the objective is nearly flat along some
+ * loads, so the minimizers are compared in the norm of G (which bounds the
+ * difference of the objectives), the multipliers within 1.0E-4, and the
+ * KKT conditions of the QuadProgJ solution are checked on their own.
+ */
+public class QuadProgJTest {
+
+  private static final int DAYS = 3;
+  private static final double F_TOL = 1.0E-6;
+  private static final double MULTIPLIER_TOL = 1.0E-4;
+  private static final double KKT_TOL = 1.0E-6;
+
+  @Test
+  public void sameSolutionAsOriginalSolver() throws Exception {
+    File[] cases = MarketCases.caseFiles();
+    QuadProgJWorkspace workspace = new QuadProgJWorkspace();
+    for(int c=0; c<cases.length; c++){
+      DCOPFJ[] opf = MarketCases.hourlyOPF(cases[c], DAYS);
+      assertTrue(cases[c].getName(), opf.length > 0);
+      for(int k=0; k<opf.length; k++){
+        String problem = cases[c].getName()+" problem "+k;
+        opf[k].formQP();
+        DCOPFJModel model = opf[k].getModel();
+        DoubleMatrix2D G = model.G.copy();
+        DoubleMatrix1D a = model.a.copy();
+        DoubleMatrix1D beq = model.beq.copy();
+        DoubleMatrix1D biq = model.biq.copy();
+
+        QuadProgJ qp = new QuadProgJ(G, a, model.Ceq, beq, model.Ciq, biq, workspace);
+        quadprogj.QuadProgJ original = new quadprogj.QuadProgJ(G.copy(), a.copy(), model.Ceq.copy(),
+                                                               beq.copy(), model.Ciq.copy(), biq.copy());
+
+        assertEquals(problem, original.getIsFeasibleAndOptimal(), qp.getIsFeasibleAndOptimal());
+        // The original solver only updates f in its iterations, which loses
+        //  digits with the large emission prices, so its minimum is taken as
+        //  the objective at its minimizer
+        double dMinF = MarketCases.objective(G, a, original.getMinX());
+        assertEquals(problem+" f", dMinF, qp.getMinF(), F_TOL*(1+Math.abs(dMinF)));
+        assertEquals(problem+" x", 0, MarketCases.distance(G, original.getMinX(), qp.getMinX()),
+                     F_TOL*(1+Math.abs(dMinF)));
+        MarketCases.assertClose(problem+" equality multipliers",
+                                original.getEqMultipliers(), qp.getEqMultipliers(), MULTIPLIER_TOL);
+        MarketCases.assertClose(problem+" inequality multipliers",
+                                original.getIneqMultipiers(), qp.getIneqMultipiers(), MULTIPLIER_TOL);
+        MarketCases.assertKKT(problem, model, qp.getMinX(), qp.getEqMultipliers(),
+                              qp.getIneqMultipiers(), KKT_TOL);
+      }
+    }
+  }
+}
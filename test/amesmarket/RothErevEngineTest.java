@@ -0,0 +1,169 @@
+/* ============================================================================
+ * AMES Wholesale Power Market Test Bed (Java): A Free Open-Source Test-Bed
+ *         for the Agent-based Modeling of Electricity Systems
+ * ============================================================================
+ *
+ * (C) Copyright 2008, by Hongyan Li, Junjie Sun, and Leigh Tesfatsion
+ *
+ *    Homepage: http://www.econ.iastate.edu/tesfatsi/AMESMarketHome.htm
+ *
+ * LICENSING TERMS
+ * The AMES Market Package is licensed by the copyright holders (Junjie Sun,
+ * Hongyan Li, and Leigh Tesfatsion) as free open-source software under the
+ * terms of the GNU General Public License (GPL). Anyone who is interested is
+ * allowed to view, modify, and/or improve upon the code used to produce this
+ * package, but any software generated using all or part of this code must be
+ * released as free open-source software in turn. The GNU GPL can be viewed in
+ * its entirety as in the following site: http://www.gnu.org/licenses/gpl.html
+ */
+
+package amesmarket;
+
+// RothErevEngineTest.java
+// RothErevEngine against a linear-scan reference learner
+
+import java.util.SplittableRandom;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import edu.iastate.jrelm.rl.rotherev.variant.VREParameters;
+
+/**
+ * Checks the propensities, choice probabilities and Fenwick tree draws of
+ * RothErevEngine against a plain VRE learner on the same random numbers,
+ * which keeps exp(q_j/T) in an array and draws by a linear scan, with
+ * setPropensity and update called in mixed order.
+ */
+public class RothErevEngineTest {
+
+  private static final double TEMP = 1000.0;
+  private static final double EXPERIMENTATION = 0.96;
+  private static final double INIT_PROPENSITY = 6000.0;
+  private static final double RECENCY = 0.04;
+  private static final int SEED = 695672061;
+  private static final int NUM_ACTIONS = 37;  // not a power of two
+  private static final double TOL = 1.0E-12;
+
+  // Plain VRE learner: propensities q and weights exp(q/T), linear-scan draws
+  private static class Reference {
+    double[] q = new double[NUM_ACTIONS];
+    SplittableRandom random = new SplittableRandom(SEED);
+    int lastAction;
+
+    Reference(){
+      java.util.Arrays.fill(q, INIT_PROPENSITY);
+      lastAction = choose();
+    }
+
+    double[] probabilities(){
+      double[] p = new double[NUM_ACTIONS];
+      double sum = 0;
+      for(int j=0; j<NUM_ACTIONS; j++){
+        p[j] = Math.exp(q[j]/TEMP);
+        sum += p[j];
+      }
+      for(int j=0; j<NUM_ACTIONS; j++)
+        p[j] /= sum;
+      return p;
+    }
+
+    int choose(){
+      double[] p = probabilities();
+      double u = random.nextDouble();
+      double cum = 0;
+      for(int j=0; j<NUM_ACTIONS; j++){
+        cum += p[j];
+        if(cum >= u)
+          return lastAction = j;
+      }
+      return lastAction = NUM_ACTIONS-1;
+    }
+
+    void update(double reward){
+      double spread = EXPERIMENTATION/(NUM_ACTIONS-1);
+      double last = q[lastAction];
+      for(int j=0; j<NUM_ACTIONS; j++)
+        q[j] = (1-RECENCY)*q[j] + q[j]*spread;
+      q[lastAction] = (1-RECENCY)*last + reward*(1-EXPERIMENTATION);
+    }
+  }
+
+  private static RothErevLearner newLearner(){
+    VREParameters params = new VREParameters(TEMP, EXPERIMENTATION, INIT_PROPENSITY, RECENCY, SEED);
+    return new RothErevLearner(params, NUM_ACTIONS);
+  }
+
+  private static void assertSameLearner(Reference ref, RothErevLearner learner){
+    double[] p = new double[NUM_ACTIONS];
+    double[] q = new double[NUM_ACTIONS];
+    learner.getProbabilities(p);
+    learner.getPropensities(q);
+    double[] pRef = ref.probabilities();
+    for(int j=0; j<NUM_ACTIONS; j++){
+      assertEquals("propensity "+j, ref.q[j], q[j], TOL*Math.abs(ref.q[j]));
+      assertEquals("probability "+j, pRef[j], p[j], TOL);
+      assertEquals("probability "+j, pRef[j], learner.getProbability(j), TOL);
+    }
+  }
+
+  @Test
+  public void startsUniform(){
+    RothErevLearner learner = newLearner();
+    Reference ref = new Reference();
+    assertEquals(ref.lastAction, learner.getLastAction());
+    for(int j=0; j<NUM_ACTIONS; j++)
+      assertEquals(1.0/NUM_ACTIONS, learner.getProbability(j), TOL);
+  }
+
+  @Test
+  public void setPropensityBeforeFirstUpdate(){
+    RothErevLearner learner = newLearner();
+    Reference ref = new Reference();
+    learner.setPropensity(5, 9000.0);
+    ref.q[5] = 9000.0;
+    assertSameLearner(ref, learner);
+    for(int i=0; i<200; i++)
+      assertEquals("draw "+i, ref.choose(), learner.chooseAction());
+  }
+
+  @Test
+  public void setPropensityAndUpdateInMixedOrder(){
+    RothErevLearner learner = newLearner();
+    Reference ref = new Reference();
+    SplittableRandom events = new SplittableRandom(1);
+    for(int i=0; i<2000; i++){
+      int k = events.nextInt(3);
+      if(k == 0){
+        int j = events.nextInt(NUM_ACTIONS);
+        double q = INIT_PROPENSITY*events.nextDouble()*2;
+        learner.setPropensity(j, q);
+        ref.q[j] = q;
+      }
+      else if(k == 1){
+        double reward = 10000.0*events.nextDouble();
+        learner.update(reward);
+        ref.update(reward);
+      }
+      else{
+        assertEquals("draw "+i, ref.choose(), learner.chooseAction());
+      }
+      assertSameLearner(ref, learner);
+    }
+  }
+
+  @Test
+  public void resetRestartsDraws(){
+    RothErevLearner learner = newLearner();
+    int[] actions = new int[50];
+    for(int i=0; i<actions.length; i++){
+      actions[i] = learner.chooseAction();
+      learner.update(1000.0*i);
+    }
+    learner.reset();
+    Reference ref = new Reference();
+    assertSameLearner(ref, learner);
+    for(int i=0; i<actions.length; i++){
+      assertEquals(actions[i], learner.chooseAction());
+      learner.update(1000.0*i);
+    }
+  }
+}